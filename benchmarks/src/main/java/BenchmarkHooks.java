@@ -0,0 +1,97 @@
+import java.awt.Point;
+import java.util.List;
+import benchmarks.GameHooks;
+
+/**
+ * Implements GameHooks by calling the game's classes directly. It has to be in the default package to see them.
+ * 
+ * @author agent 2026
+ */
+public class BenchmarkHooks implements GameHooks {
+	@Override
+	public Object newHero() {
+		return new Hero( "Benchmark", "" );
+	}
+	
+	@Override
+	public Object generateEnemy( int level ) {
+		return EnemyGenerator.getInstance().generateEnemy( level );
+	}
+	
+	@Override
+	public Object decoratedEnemy( boolean warlock, int depth ) {
+		Enemy e = new Orc( 1 );
+		for ( int i = 0; i < depth; i++ ) {
+			e = warlock ? new Warlock( e ) : new Warrior( e );
+		}
+		return e;
+	}
+	
+	@Override
+	public Object compiledEnemy( boolean warlock, int depth ) {
+		return new ProfiledEnemy( new Orc( 1 ), AttackProfile.of( ( Enemy )decoratedEnemy( warlock, depth ) ) );
+	}
+	
+	@Override
+	public int attack( Object attacker, Object target ) {
+		return ( ( Entity )attacker ).attack( ( Entity )target );
+	}
+	
+	@Override
+	public Object generateItem() {
+		return ItemGenerator.getInstance().generateItem();
+	}
+	
+	@Override
+	public Object getPotion() {
+		return ItemGenerator.getInstance().getPotion();
+	}
+	
+	@Override
+	public boolean pickUpItem( Object hero, Object item ) {
+		return ( ( Hero )hero ).pickUpItem( ( Item )item );
+	}
+	
+	@Override
+	public Object removeItem( Object hero, int index ) {
+		return ( ( Hero )hero ).removeItem( index );
+	}
+	
+	@Override
+	public Object removeItem( Object hero, String name ) {
+		return ( ( Hero )hero ).removeItem( name );
+	}
+	
+	@Override
+	public Object loadMap( String file ) {
+		Map m = Map.getInstance();
+		m.loadMap( file );
+		return m;
+	}
+	
+	@Override
+	public char getTile( Object map, int row, int col ) {
+		return ( ( Map )map ).getCharAtLoc( new Point( row, col ) );
+	}
+	
+	@Override
+	public void convertMap( String input, String output ) throws Exception {
+		MapConverter.convert( input, output );
+	}
+	
+	@Override
+	public Object newPathFinder( Object map ) {
+		return new PathFinder( ( Map )map );
+	}
+	
+	@Override
+	public int findPath( Object finder, int fromRow, int fromCol, int toRow, int toCol ) {
+		List<Point> route = ( ( PathFinder )finder ).findPath( new Point( fromRow, fromCol ), new Point( toRow, toCol ), PathFinder.Passability.ANY );
+		return route == null ? -1 : route.size();
+	}
+	
+	@Override
+	public int distanceTo( Object finder, char target, int row, int col ) {
+		return ( ( PathFinder )finder ).distanceTo( target, new Point( row, col ), PathFinder.Passability.ANY );
+	}
+}
@@ -0,0 +1,24 @@
+package benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks like JMH's own main method, but always with the gc profiler so allocation rates are reported.
+ * 
+ * @author agent 2026
+ */
+public class BenchmarkRunner {
+	/**
+	 * Runs the benchmarks selected by the command line, which takes the usual JMH options.
+	 * 
+	 * @param args				The JMH command line options.
+	 * @throws Exception		If the benchmarks could not be run.
+	 */
+	public static void main( String[] args ) throws Exception {
+		CommandLineOptions cmd = new CommandLineOptions( args );
+		new Runner( new OptionsBuilder().parent( cmd ).addProfiler( GCProfiler.class ).build() ).run();
+	}
+}
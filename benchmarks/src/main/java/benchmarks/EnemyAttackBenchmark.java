@@ -0,0 +1,77 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures Enemy.attack through chains of Warrior and Warlock decorators of different depths,
+ * and through the same decorators compiled into an AttackProfile.
+ * 
+ * @author agent 2026
+ */
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+@State( Scope.Thread )
+public class EnemyAttackBenchmark {
+	/** The number of decorators around the base Enemy. */
+	@Param( { "1", "10", "50", "200" } )
+	public int depth;
+	
+	/** The Hero being attacked. Its HP stops at 0, so it can be attacked forever. */
+	private Object hero;
+	/** An Enemy wrapped in Warrior decorators. */
+	private Object warrior;
+	/** An Enemy wrapped in Warlock decorators. */
+	private Object warlock;
+	/** The Warrior-decorated Enemy compiled into a profile. */
+	private Object compiledWarrior;
+	/** The Warlock-decorated Enemy compiled into a profile. */
+	private Object compiledWarlock;
+	
+	/**
+	 * Creates the Hero and the decorated Enemies.
+	 */
+	@Setup
+	public void setup() {
+		hero = GameHooks.GAME.newHero();
+		warrior = GameHooks.GAME.decoratedEnemy( false, depth );
+		warlock = GameHooks.GAME.decoratedEnemy( true, depth );
+		compiledWarrior = GameHooks.GAME.compiledEnemy( false, depth );
+		compiledWarlock = GameHooks.GAME.compiledEnemy( true, depth );
+	}
+	
+	/**
+	 * One attack of the Warrior-decorated Enemy.
+	 */
+	@Benchmark
+	public int warriorAttack() {
+		return GameHooks.GAME.attack( warrior, hero );
+	}
+	
+	/**
+	 * One attack of the Warlock-decorated Enemy.
+	 */
+	@Benchmark
+	public int warlockAttack() {
+		return GameHooks.GAME.attack( warlock, hero );
+	}
+	
+	/**
+	 * One attack of the compiled Warrior profile.
+	 */
+	@Benchmark
+	public int compiledWarriorAttack() {
+		return GameHooks.GAME.attack( compiledWarrior, hero );
+	}
+	
+	/**
+	 * One attack of the compiled Warlock profile.
+	 */
+	@Benchmark
+	public int compiledWarlockAttack() {
+		return GameHooks.GAME.attack( compiledWarlock, hero );
+	}
+}
@@ -0,0 +1,29 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures EnemyGenerator.generateEnemy across Enemy levels.
+ * 
+ * @author agent 2026
+ */
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+@State( Scope.Benchmark )
+public class EnemyGeneratorBenchmark {
+	/** The level of the generated Enemies. */
+	@Param( { "1", "5", "10", "25", "50" } )
+	public int level;
+	
+	/**
+	 * Generates one Enemy of the current level.
+	 */
+	@Benchmark
+	public Object generateEnemy() {
+		return GameHooks.GAME.generateEnemy( level );
+	}
+}
@@ -0,0 +1,169 @@
+package benchmarks;
+
+/**
+ * Calls into the game for the benchmarks.
+ * The game's classes are in the default package, which can't be named from a package, so game objects are passed as Object.
+ * The one implementation, BenchmarkHooks, is loaded by name; calls through it are monomorphic and inline like direct calls.
+ * 
+ * @author agent 2026
+ */
+public interface GameHooks {
+	/**
+	 * The game, as seen by the benchmarks.
+	 */
+	public static final GameHooks GAME = load();
+	
+	/**
+	 * Creates a new Hero that is not placed on a Map.
+	 * 
+	 * @return					The Hero.
+	 */
+	public Object newHero();
+	
+	/**
+	 * Calls EnemyGenerator.generateEnemy.
+	 * 
+	 * @param level				The level of the Enemy.
+	 * @return					The generated Enemy.
+	 */
+	public Object generateEnemy( int level );
+	
+	/**
+	 * Wraps a level 1 Orc in the given number of Warrior or Warlock decorators.
+	 * 
+	 * @param warlock			True to use Warlock decorators, false for Warrior.
+	 * @param depth				The number of decorators.
+	 * @return					The decorated Enemy.
+	 */
+	public Object decoratedEnemy( boolean warlock, int depth );
+	
+	/**
+	 * Compiles a level 1 Orc wrapped in the given number of Warrior or Warlock decorators into a ProfiledEnemy.
+	 * 
+	 * @param warlock			True to use Warlock decorators, false for Warrior.
+	 * @param depth				The number of decorators.
+	 * @return					The compiled Enemy.
+	 */
+	public Object compiledEnemy( boolean warlock, int depth );
+	
+	/**
+	 * Calls Entity.attack.
+	 * 
+	 * @param attacker			The attacking Entity.
+	 * @param target			The target Entity.
+	 * @return					The damage dealt.
+	 */
+	public int attack( Object attacker, Object target );
+	
+	/**
+	 * Calls ItemGenerator.generateItem.
+	 * 
+	 * @return					The generated Item.
+	 */
+	public Object generateItem();
+	
+	/**
+	 * Calls ItemGenerator.getPotion.
+	 * 
+	 * @return					The Health Potion.
+	 */
+	public Object getPotion();
+	
+	/**
+	 * Calls Hero.pickUpItem.
+	 * 
+	 * @param hero				The Hero.
+	 * @param item				The Item to pick up.
+	 * @return					True if the Item was picked up.
+	 */
+	public boolean pickUpItem( Object hero, Object item );
+	
+	/**
+	 * Calls Hero.removeItem with an index.
+	 * 
+	 * @param hero				The Hero.
+	 * @param index				The inventory index to remove.
+	 * @return					The removed Item.
+	 */
+	public Object removeItem( Object hero, int index );
+	
+	/**
+	 * Calls Hero.removeItem with a name.
+	 * 
+	 * @param hero				The Hero.
+	 * @param name				The name of the Item to remove.
+	 * @return					The removed Item.
+	 */
+	public Object removeItem( Object hero, String name );
+	
+	/**
+	 * Calls Map.loadMap on the shared Map.
+	 * 
+	 * @param file				The filepath of the map to load.
+	 * @return					The Map.
+	 */
+	public Object loadMap( String file );
+	
+	/**
+	 * Calls Map.getCharAtLoc on a Map loaded by loadMap, which reads the tile's chunk if needed.
+	 * 
+	 * @param map				The Map.
+	 * @param row				The row of the tile.
+	 * @param col				The column of the tile.
+	 * @return					The tile character.
+	 */
+	public char getTile( Object map, int row, int col );
+	
+	/**
+	 * Converts a map file to the binary floor format.
+	 * 
+	 * @param input				The map to convert.
+	 * @param output			The binary floor to write.
+	 * @throws Exception		If the map could not be converted.
+	 */
+	public void convertMap( String input, String output ) throws Exception;
+	
+	/**
+	 * Creates a PathFinder for a Map loaded by loadMap.
+	 * 
+	 * @param map				The Map.
+	 * @return					The PathFinder.
+	 */
+	public Object newPathFinder( Object map );
+	
+	/**
+	 * Calls PathFinder.findPath with Passability.ANY.
+	 * 
+	 * @param finder			The PathFinder.
+	 * @param fromRow			The row of the starting room.
+	 * @param fromCol			The column of the starting room.
+	 * @param toRow				The row of the destination.
+	 * @param toCol				The column of the destination.
+	 * @return					The number of steps of the route, or -1 if there is none.
+	 */
+	public int findPath( Object finder, int fromRow, int fromCol, int toRow, int toCol );
+	
+	/**
+	 * Calls PathFinder.distanceTo with Passability.ANY.
+	 * 
+	 * @param finder			The PathFinder.
+	 * @param target			The tile character of the rooms to measure to.
+	 * @param row				The row of the starting room.
+	 * @param col				The column of the starting room.
+	 * @return					The number of steps, or -1 if no such room can be reached.
+	 */
+	public int distanceTo( Object finder, char target, int row, int col );
+	
+	/**
+	 * Loads the default-package implementation.
+	 * 
+	 * @return					The implementation of GameHooks.
+	 */
+	private static GameHooks load() {
+		try {
+			return ( GameHooks )Class.forName( "BenchmarkHooks" ).getDeclaredConstructor().newInstance();
+		} catch ( ReflectiveOperationException e ) {
+			throw new IllegalStateException( "BenchmarkHooks is missing from the classpath", e );
+		}
+	}
+}
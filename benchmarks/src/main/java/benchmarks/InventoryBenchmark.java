@@ -0,0 +1,53 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures picking Items up and removing them from the Hero's inventory.
+ * Each invocation picks an Item up and removes it again, so the inventory stays the same size.
+ * 
+ * @author agent 2026
+ */
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+@State( Scope.Thread )
+public class InventoryBenchmark {
+	/** The Hero whose inventory is used. */
+	private Object hero;
+	/** The Item that is picked up and removed. */
+	private Object potion;
+	
+	/**
+	 * Creates the Hero and fills all but one of their inventory slots.
+	 */
+	@Setup
+	public void setup() {
+		hero = GameHooks.GAME.newHero();
+		potion = GameHooks.GAME.getPotion();
+		for ( int i = 0; i < 3; i++ ) {			// Leave room for one more Item, so the pick up always succeeds
+			GameHooks.GAME.pickUpItem( hero, potion );
+		}
+	}
+	
+	/**
+	 * Picks up a potion and removes it by its inventory index.
+	 */
+	@Benchmark
+	public Object pickUpAndRemoveByIndex() {
+		GameHooks.GAME.pickUpItem( hero, potion );
+		return GameHooks.GAME.removeItem( hero, 3 );
+	}
+	
+	/**
+	 * Picks up a potion and removes it by name.
+	 */
+	@Benchmark
+	public Object pickUpAndRemoveByName() {
+		GameHooks.GAME.pickUpItem( hero, potion );
+		return GameHooks.GAME.removeItem( hero, "Health Potion" );
+	}
+}
@@ -0,0 +1,33 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures drawing Items from ItemGenerator.
+ * 
+ * @author agent 2026
+ */
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+@State( Scope.Benchmark )
+public class ItemGeneratorBenchmark {
+	/**
+	 * Draws one random Item.
+	 */
+	@Benchmark
+	public Object generateItem() {
+		return GameHooks.GAME.generateItem();
+	}
+	
+	/**
+	 * Draws one Health Potion.
+	 */
+	@Benchmark
+	public Object getPotion() {
+		return GameHooks.GAME.getPotion();
+	}
+}
@@ -0,0 +1,51 @@
+package benchmarks;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures Map.loadMap for the textfile and binary formats, followed by reading the start tile as a floor transition does.
+ * 
+ * @author agent 2026
+ */
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+@State( Scope.Benchmark )
+public class MapLoadBenchmark {
+	/** The textfile map to load. */
+	private String textMap;
+	/** The same map converted to a binary floor. */
+	private String binaryMap;
+	
+	/**
+	 * Converts the textfile map to a temporary binary floor.
+	 */
+	@Setup
+	public void setup() throws Exception {
+		textMap = "./textfiles/Map1.txt";
+		File binary = File.createTempFile( "Map1", ".dmap" );
+		binary.deleteOnExit();
+		binaryMap = binary.getPath();
+		GameHooks.GAME.convertMap( textMap, binaryMap );
+	}
+	
+	/**
+	 * Loads the textfile map and reads a tile.
+	 */
+	@Benchmark
+	public char loadTextMap() {
+		return GameHooks.GAME.getTile( GameHooks.GAME.loadMap( textMap ), 0, 0 );
+	}
+	
+	/**
+	 * Loads the binary floor and reads a tile.
+	 */
+	@Benchmark
+	public char loadBinaryMap() {
+		return GameHooks.GAME.getTile( GameHooks.GAME.loadMap( binaryMap ), 0, 0 );
+	}
+}
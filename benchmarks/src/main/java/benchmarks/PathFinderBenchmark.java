@@ -0,0 +1,69 @@
+package benchmarks;
+
+import java.io.File;
+import java.io.PrintWriter;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures PathFinder queries on a 1000x1000 floor: a cached distance to the nearest 'f', and A* routes of about 100 steps.
+ * 
+ * @author agent 2026
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+@State( Scope.Benchmark )
+public class PathFinderBenchmark {
+	/** The width and height of the floor. */
+	private static final int SIZE = 1000;
+	
+	/** The PathFinder of the floor. */
+	private Object finder;
+	/** Picks the rooms to start from. */
+	private SplittableRandom random;
+	
+	/**
+	 * Writes a random floor with a few 'f' rooms, loads it and builds the distance field to them.
+	 */
+	@Setup
+	public void setup() throws Exception {
+		SplittableRandom tiles = new SplittableRandom( 42 );
+		File floor = File.createTempFile( "PathFinder", ".txt" );
+		floor.deleteOnExit();
+		try ( PrintWriter out = new PrintWriter( floor ) ) {
+			for ( int row = 0; row < SIZE; row++ ) {
+				StringBuilder line = new StringBuilder( SIZE );
+				for ( int col = 0; col < SIZE; col++ ) {
+					double roll = tiles.nextDouble();
+					line.append( roll < 0.0002 ? 'f' : roll < 0.3 ? 'm' : roll < 0.35 ? 'i' : 'n' );
+				}
+				out.println( line );
+			}
+		}
+		finder = GameHooks.GAME.newPathFinder( GameHooks.GAME.loadMap( floor.getPath() ) );
+		GameHooks.GAME.distanceTo( finder, 'f', 0, 0 );
+		random = new SplittableRandom( 7 );
+	}
+	
+	/**
+	 * Gets the distance from a random room to the nearest 'f'.
+	 */
+	@Benchmark
+	public int distanceToStairs() {
+		return GameHooks.GAME.distanceTo( finder, 'f', random.nextInt( SIZE ), random.nextInt( SIZE ) );
+	}
+	
+	/**
+	 * Finds a route from a random room to the room 50 rows down and 50 columns across.
+	 */
+	@Benchmark
+	public int findPath() {
+		int row = random.nextInt( SIZE - 50 );
+		int col = random.nextInt( SIZE - 50 );
+		return GameHooks.GAME.findPath( finder, row, col, row + 50, col + 50 );
+	}
+}
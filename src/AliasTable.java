@@ -0,0 +1,96 @@
+import java.util.SplittableRandom;
+
+/**
+ * Draws indexes at random in proportion to a fixed set of weights, in constant time however many there are.
+ * Built once with Vose's alias method: every index gets a column holding its own share of the probability, topped up
+ * with the share of one other "alias" index. A draw picks a column uniformly and then flips a biased coin between the
+ * column's index and its alias.
+ * 
+ * @author agent 2026
+ */
+public class AliasTable {
+	/** The chance of keeping the column's own index rather than its alias, for every column. */
+	private final double[] keep;
+	/** The index each column gives when the coin doesn't keep the column's own index. */
+	private final int[] alias;
+	
+	/**
+	 * Builds the table for the given weights.
+	 * 
+	 * @param weights			The weight of every index. Must not be negative, and at least one must be positive.
+	 */
+	public AliasTable( double[] weights ) {
+		int n = weights.length;
+		double total = 0;
+		for ( double w : weights ) {
+			if ( !( w >= 0 ) || Double.isInfinite( w ) ) {
+				throw new IllegalArgumentException( "Weights must be finite and not negative: " + w );
+			}
+			total += w;
+		}
+		if ( !( total > 0 ) ) {
+			throw new IllegalArgumentException( "At least one weight must be positive" );
+		}
+		
+		keep = new double[ n ];
+		alias = new int[ n ];
+		double[] scaled = new double[ n ];		// Each weight scaled so the average column holds exactly 1
+		int[] small = new int[ n ];				// Stack of columns holding less than 1
+		int[] large = new int[ n ];				// Stack of columns holding 1 or more
+		int smallCount = 0;
+		int largeCount = 0;
+		for ( int i = 0; i < n; i++ ) {
+			scaled[ i ] = weights[ i ] * n / total;
+			if ( scaled[ i ] < 1 ) {
+				small[ smallCount++ ] = i;
+			} else {
+				large[ largeCount++ ] = i;
+			}
+		}
+		
+		// Top up every small column with part of a large one, which may leave the large one small in turn
+		while ( smallCount > 0 && largeCount > 0 ) {
+			int s = small[ --smallCount ];
+			int l = large[ --largeCount ];
+			keep[ s ] = scaled[ s ];
+			alias[ s ] = l;
+			scaled[ l ] = ( scaled[ l ] + scaled[ s ] ) - 1;
+			if ( scaled[ l ] < 1 ) {
+				small[ smallCount++ ] = l;
+			} else {
+				large[ largeCount++ ] = l;
+			}
+		}
+		// What is left over holds 1, give or take rounding error
+		while ( largeCount > 0 ) {
+			int l = large[ --largeCount ];
+			keep[ l ] = 1;
+			alias[ l ] = l;
+		}
+		while ( smallCount > 0 ) {
+			int s = small[ --smallCount ];
+			keep[ s ] = 1;
+			alias[ s ] = s;
+		}
+	}
+	
+	/**
+	 * Draws an index at random, in proportion to its weight.
+	 * 
+	 * @param rng				The stream to roll with.
+	 * @return					The drawn index.
+	 */
+	public int sample( SplittableRandom rng ) {
+		int column = rng.nextInt( keep.length );
+		return rng.nextDouble() < keep[ column ] ? column : alias[ column ];
+	}
+	
+	/**
+	 * Gets the number of indexes the table draws from.
+	 * 
+	 * @return					The number of weights the table was built from.
+	 */
+	public int size() {
+		return keep.length;
+	}
+}
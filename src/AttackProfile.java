@@ -0,0 +1,160 @@
+import java.util.SplittableRandom;
+
+/**
+ * A flat, immutable description of how a decorated Enemy attacks: its level and how many Warrior and Warlock
+ * decorators it has. Rolling an attack is a single loop over the decorator counts, with the same damage rules as
+ * calling attack through a chain of Warrior and Warlock decorators, but without one object and one virtual call
+ * per decorator.
+ * 
+ * @author agent 2026
+ */
+public final class AttackProfile {
+	/** The level of the Enemy, which every roll is multiplied by. */
+	private final int level;
+	/** The number of Warrior decorators. */
+	private final int warriors;
+	/** The number of Warlock decorators. */
+	private final int warlocks;
+	/** The max HP of the Enemy after every decorator has added to it. */
+	private final int maxHP;
+	/** The name of the Enemy with every decorator's title appended. */
+	private final String name;
+	/** The name of the undecorated Enemy. */
+	private final String baseName;
+	
+	/**
+	 * Creates the profile of a base Enemy wrapped in the given decorators, Warriors first and then Warlocks.
+	 * 
+	 * @param base				The undecorated Enemy.
+	 * @param warriors			The number of Warrior decorators.
+	 * @param warlocks			The number of Warlock decorators.
+	 */
+	public AttackProfile( Enemy base, int warriors, int warlocks ) {
+		if ( warriors < 0 || warlocks < 0 ) {
+			throw new IllegalArgumentException( "Decorator counts can't be negative" );
+		}
+		this.level = base.getLevel();
+		this.warriors = warriors;
+		this.warlocks = warlocks;
+		this.maxHP = base.getMaxHP() + 2 * warriors + warlocks;		// Each Warrior adds 2 max HP, each Warlock adds 1
+		this.name = base.getName() + " Warrior".repeat( warriors ) + " Warlock".repeat( warlocks );
+		this.baseName = base.getName();
+	}
+	
+	/**
+	 * Creates the profile of an existing Enemy by walking down its chain of decorators.
+	 * 
+	 * @param e					The Enemy, decorated or not.
+	 * @return					The profile of the Enemy.
+	 */
+	public static AttackProfile of( Enemy e ) {
+		int warriors = 0;
+		int warlocks = 0;
+		while ( e instanceof Decorator ) {
+			if ( e instanceof Warlock ) {
+				warlocks++;
+			} else {
+				warriors++;
+			}
+			e = ( ( Decorator )e ).getEnemy();
+		}
+		return new AttackProfile( e, warriors, warlocks );
+	}
+	
+	/**
+	 * Rolls the total damage of one attack: the base Enemy's attack, then one more per decorator.
+	 * 
+	 * A Warrior hits for [1,4] * level. A Warlock picks its attack from a roll of [1,100]:
+	 * 		2-40	regular attack, [1,4] * level
+	 * 		41-70	Magic Missile, [1,5] * level
+	 * 		71-90	Fireball, [1,6] * level
+	 * 		others	Thunderclap, [1,7] * level
+	 * 
+	 * @param rng				The random number generator to roll with.
+	 * @return					The total damage of the attack.
+	 */
+	public int rollDamage( SplittableRandom rng ) {
+		int rolls = rng.nextInt( 4 ) + 1;				// The base Enemy's attack
+		for ( int i = 0; i < warriors; i++ ) {
+			rolls += rng.nextInt( 4 ) + 1;
+		}
+		for ( int i = 0; i < warlocks; i++ ) {
+			int attackType = rng.nextInt( 100 ) + 1;
+			int sides;
+			if ( attackType > 1 && attackType <= 40 ) {
+				sides = 4;
+			} else if ( attackType > 40 && attackType <= 70 ) {
+				sides = 5;
+			} else if ( attackType > 70 && attackType <= 90 ) {
+				sides = 6;
+			} else {
+				sides = 7;
+			}
+			rolls += rng.nextInt( sides ) + 1;
+		}
+		return rolls * level;							// Every roll is multiplied by the same level, so multiply once
+	}
+	
+	/**
+	 * Gets the level of the Enemy.
+	 * 
+	 * @return					The level.
+	 */
+	public int getLevel() {
+		return level;
+	}
+	
+	/**
+	 * Gets the number of Warrior decorators.
+	 * 
+	 * @return					The number of Warriors.
+	 */
+	public int getWarriors() {
+		return warriors;
+	}
+	
+	/**
+	 * Gets the number of Warlock decorators.
+	 * 
+	 * @return					The number of Warlocks.
+	 */
+	public int getWarlocks() {
+		return warlocks;
+	}
+	
+	/**
+	 * Gets the total number of decorators.
+	 * 
+	 * @return					The number of Warriors and Warlocks.
+	 */
+	public int getDepth() {
+		return warriors + warlocks;
+	}
+	
+	/**
+	 * Gets the max HP of the Enemy with every decorator applied.
+	 * 
+	 * @return					The max HP.
+	 */
+	public int getMaxHP() {
+		return maxHP;
+	}
+	
+	/**
+	 * Gets the name of the Enemy with every decorator's title appended.
+	 * 
+	 * @return					The name.
+	 */
+	public String getName() {
+		return name;
+	}
+	
+	/**
+	 * Gets the name of the undecorated Enemy, which is its kind, such as Orc.
+	 * 
+	 * @return					The name of the base Enemy.
+	 */
+	public String getBaseName() {
+		return baseName;
+	}
+}
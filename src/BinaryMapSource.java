@@ -0,0 +1,222 @@
+import java.awt.Point;						//Allows for usage of Point objects.
+import java.io.*;							//Allows for usage of files.
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads map tiles from the compact binary floor format through a memory-mapped file.
+ * Nothing is parsed when a floor is loaded; reading a chunk only touches the pages that hold it.
+ * 
+ * The format is, with all numbers big-endian:
+ * 		int		MAGIC
+ * 		int		VERSION
+ * 		int		rows
+ * 		int		cols
+ * 		int		start row
+ * 		int		start column
+ * 		int		stairs row, or -1 if the floor has no known stairs
+ * 		int		stairs column, or -1
+ * 		byte	one tile character per tile, row by row
+ * 		byte	reveal bitmap, one bit per tile in the same order, lowest bit first
+ * 
+ * @author agent 2026
+ */
+public class BinaryMapSource implements MapSource {
+	/**
+	 * The file extension of binary floors.
+	 */
+	public static final String EXTENSION = ".dmap";
+	/**
+	 * The first four bytes of every binary floor ("DMAP").
+	 */
+	public static final int MAGIC = 0x444D4150;
+	/**
+	 * The version of the format written by MapConverter.
+	 */
+	public static final int VERSION = 2;
+	/**
+	 * The number of bytes before the first tile.
+	 */
+	public static final int HEADER_SIZE = 32;
+	
+	/**
+	 * The channel the file is mapped through.
+	 */
+	private final FileChannel channel;
+	/**
+	 * The tiles of each band of MapChunk.SIZE rows, mapped the first time the band is read.
+	 */
+	private final MappedByteBuffer[] bands;
+	/**
+	 * The mapped reveal bitmap.
+	 */
+	private final MappedByteBuffer revealBits;
+	/**
+	 * The number of rows of tiles.
+	 */
+	private final int rows;
+	/**
+	 * The number of columns of tiles.
+	 */
+	private final int cols;
+	/**
+	 * The starting location of the map.
+	 */
+	private final Point start;
+	/**
+	 * The location of the stairs to the next floor, or null if it isn't known.
+	 */
+	private final Point stairs;
+	
+	/**
+	 * Opens a binary floor and checks its header.
+	 * 
+	 * @param path				The filepath of the floor.
+	 * @throws IOException		If the file could not be read or is not a binary floor.
+	 */
+	public BinaryMapSource( String path ) throws IOException {
+		channel = FileChannel.open( Paths.get( path ), StandardOpenOption.READ );
+		try {
+			MappedByteBuffer header = channel.map( FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE );
+			if ( header.getInt( 0 ) != MAGIC ) {
+				throw new IOException( path + ": not a binary floor" );
+			}
+			if ( header.getInt( 4 ) != VERSION ) {
+				throw new IOException( path + ": unsupported version " + header.getInt( 4 ) );
+			}
+			rows = header.getInt( 8 );
+			cols = header.getInt( 12 );
+			start = new Point( header.getInt( 16 ), header.getInt( 20 ) );
+			stairs = header.getInt( 24 ) < 0 ? null : new Point( header.getInt( 24 ), header.getInt( 28 ) );
+			
+			long tileBytes = ( long )rows * cols;
+			if ( rows <= 0 || cols <= 0 || channel.size() != HEADER_SIZE + tileBytes + bitmapSize( rows, cols ) ) {
+				throw new IOException( path + ": size does not match a " + rows + "x" + cols + " floor" );
+			}
+			bands = new MappedByteBuffer[ ( rows + MapChunk.SIZE - 1 ) / MapChunk.SIZE ];
+			revealBits = channel.map( FileChannel.MapMode.READ_ONLY, HEADER_SIZE + tileBytes, bitmapSize( rows, cols ) );
+		} catch ( IOException e ) {
+			channel.close();
+			throw e;
+		}
+	}
+	
+	@Override
+	public int getRows() {
+		return rows;
+	}
+	
+	@Override
+	public int getCols() {
+		return cols;
+	}
+	
+	@Override
+	public Point getStart() {
+		return new Point( start );
+	}
+	
+	@Override
+	public Point getStairs() {
+		return stairs == null ? null : new Point( stairs );
+	}
+	
+	@Override
+	public void readChunk( int chunkRow, int chunkCol, byte[] tiles ) throws IOException {
+		MappedByteBuffer band = band( chunkRow );
+		int firstCol = chunkCol * MapChunk.SIZE;
+		int height = Math.min( MapChunk.SIZE, rows - chunkRow * MapChunk.SIZE );
+		int width = Math.min( MapChunk.SIZE, cols - firstCol );
+		
+		for ( int r = 0; r < height; r++ ) {			// Copy the part of each row that lies in the chunk
+			band.get( r * cols + firstCol, tiles, r * MapChunk.SIZE, width );
+		}
+	}
+	
+	@Override
+	public boolean hasRevealed() {
+		return true;
+	}
+	
+	@Override
+	public void readRevealed( int chunkRow, int chunkCol, long[] revealed ) {
+		int firstRow = chunkRow * MapChunk.SIZE;
+		int firstCol = chunkCol * MapChunk.SIZE;
+		int height = Math.min( MapChunk.SIZE, rows - firstRow );
+		int width = Math.min( MapChunk.SIZE, cols - firstCol );
+		
+		for ( int r = 0; r < height; r++ ) {
+			revealed[ r ] = readBits( ( long )( firstRow + r ) * cols + firstCol, width );
+		}
+	}
+	
+	@Override
+	public long countRevealed() {
+		long count = 0;
+		int size = revealBits.capacity();
+		int i = 0;
+		for ( ; i + 8 <= size; i += 8 ) {				// Count a word at a time; the order of the bytes doesn't matter to the count
+			count += Long.bitCount( revealBits.getLong( i ) );
+		}
+		for ( ; i < size; i++ ) {
+			count += Integer.bitCount( revealBits.get( i ) & 0xFF );
+		}
+		return count;
+	}
+	
+	/**
+	 * Reads up to 64 consecutive bits of the reveal bitmap, taking whole bytes at a time.
+	 * 
+	 * @param bit				The index of the first bit.
+	 * @param count				The number of bits, at most 64.
+	 * @return					The bits, with the first one in bit 0.
+	 */
+	private long readBits( long bit, int count ) {
+		long bits = 0;
+		int done = 0;
+		while ( done < count ) {
+			long at = bit + done;
+			int shift = ( int )( at & 7 );
+			int take = Math.min( 8 - shift, count - done );
+			long b = ( ( revealBits.get( ( int )( at >>> 3 ) ) & 0xFF ) >>> shift ) & ( ( 1 << take ) - 1 );
+			bits |= b << done;
+			done += take;
+		}
+		return bits;
+	}
+	
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+	
+	/**
+	 * Gets the mapped tiles of one band of rows, mapping them if this is the first time the band is read.
+	 * Mapping one band at a time keeps each mapping well under the 2GB limit of a MappedByteBuffer.
+	 * 
+	 * @param chunkRow			The row of chunks that the band holds.
+	 * @return					The mapped tiles of the band.
+	 * @throws IOException		If the band could not be mapped.
+	 */
+	private MappedByteBuffer band( int chunkRow ) throws IOException {
+		if ( bands[ chunkRow ] == null ) {
+			long firstRow = ( long )chunkRow * MapChunk.SIZE;
+			int height = ( int )Math.min( MapChunk.SIZE, rows - firstRow );
+			bands[ chunkRow ] = channel.map( FileChannel.MapMode.READ_ONLY, HEADER_SIZE + firstRow * cols, ( long )height * cols );
+		}
+		return bands[ chunkRow ];
+	}
+	
+	/**
+	 * Gets the number of bytes in the reveal bitmap of a floor.
+	 * 
+	 * @param rows				The number of rows of tiles.
+	 * @param cols				The number of columns of tiles.
+	 * @return					The size of the reveal bitmap in bytes.
+	 */
+	public static long bitmapSize( int rows, int cols ) {
+		return ( ( long )rows * cols + 7 ) / 8;
+	}
+}
@@ -0,0 +1,290 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * A fight between the Hero and an Enemy, without any display.
+ * Follows the same turn order as the monster room: the Enemy attacks as soon as the fight starts, then every
+ * action of the Hero is answered by an Enemy attack. A fight the Hero dies in is lost even if the Enemy died too.
+ * 
+ * @author agent 2026
+ */
+public class Combat {
+	/**
+	 * The HP restored by drinking a Health Potion in a fight.
+	 */
+	public static final int POTION_HEAL = 25;
+	
+	/**
+	 * The possible states of a fight.
+	 */
+	public enum Outcome {
+		/** Both sides are still standing. */
+		ONGOING,
+		/** The Enemy was defeated. */
+		WON,
+		/** The Hero died. */
+		LOST,
+		/** The Hero ran away. */
+		FLED
+	}
+	
+	/** The Hero in the fight. */
+	private final Hero hero;
+	/** The Enemy in the fight. */
+	private final Enemy enemy;
+	/** Whether the Hero has run away. */
+	private boolean fled;
+	/** The number of actions the Hero has taken. */
+	private int turns;
+	/** The damage the Hero dealt with their last action. */
+	private int lastHeroDamage;
+	/** The damage the Enemy dealt with its last attack. */
+	private int lastEnemyDamage;
+	/** The total damage the Hero has dealt. */
+	private int damageDealt;
+	/** The total damage the Enemy has dealt. */
+	private int damageTaken;
+	
+	/**
+	 * Starts a fight, in which the Enemy attacks first.
+	 * 
+	 * @param h					The Hero in the fight.
+	 * @param e					The Enemy in the fight.
+	 */
+	public Combat( Hero h, Enemy e ) {
+		this.hero = h;
+		this.enemy = e;
+		enemyTurn();
+	}
+	
+	/**
+	 * Copy constructor of the Combat class. The copy fights copies of the original's Hero and Enemy, so it can be
+	 * played on, such as to try out an action, without changing the original fight.
+	 * 
+	 * @param c					The fight to copy from.
+	 */
+	public Combat( Combat c ) {
+		this.hero = new Hero( c.hero );
+		if ( c.enemy instanceof ProfiledEnemy ) {
+			this.enemy = new ProfiledEnemy( ( ProfiledEnemy )c.enemy );
+		} else {
+			this.enemy = new ProfiledEnemy( c.enemy, AttackProfile.of( c.enemy ) );		// Attacks the same way as the decorator chain
+			enemy.takeDamage( enemy.getMaxHP() - c.enemy.getHP() );
+		}
+		this.fled = c.fled;
+		this.turns = c.turns;
+		this.lastHeroDamage = c.lastHeroDamage;
+		this.lastEnemyDamage = c.lastEnemyDamage;
+		this.damageDealt = c.damageDealt;
+		this.damageTaken = c.damageTaken;
+	}
+	
+	/**
+	 * Restores a fight written by write, without the Enemy's opening attack, which already happened.
+	 * 
+	 * @param h					The restored Hero in the fight.
+	 * @param in				The stream to read from.
+	 * @throws IOException		If the stream could not be read or holds an unknown Enemy.
+	 */
+	public Combat( Hero h, DataInput in ) throws IOException {
+		this.hero = h;
+		String kind = in.readUTF();
+		int level = in.readInt();
+		int warriors = in.readInt();
+		int warlocks = in.readInt();
+		int hp = in.readInt();
+		try {
+			this.enemy = EnemyGenerator.getInstance().createEnemy( kind, level, warriors, warlocks );
+		} catch ( IllegalArgumentException e ) {
+			throw new IOException( e.getMessage(), e );
+		}
+		if ( hp < 0 || hp > enemy.getMaxHP() ) {
+			throw new IOException( enemy.getName() + " has " + hp + " of " + enemy.getMaxHP() + " HP" );
+		}
+		enemy.takeDamage( enemy.getMaxHP() - hp );
+		this.fled = in.readBoolean();
+		this.turns = in.readInt();
+		this.lastHeroDamage = in.readInt();
+		this.lastEnemyDamage = in.readInt();
+		this.damageDealt = in.readInt();
+		this.damageTaken = in.readInt();
+	}
+	
+	/**
+	 * Writes the fight: the Enemy as its kind, level, decorators and HP, then the state of the fight. The Hero is saved on their own.
+	 * 
+	 * @param out				The stream to write to.
+	 * @throws IOException		If the stream could not be written.
+	 */
+	public void write( DataOutput out ) throws IOException {
+		AttackProfile profile = enemy instanceof ProfiledEnemy ? ( ( ProfiledEnemy )enemy ).getProfile() : AttackProfile.of( enemy );
+		out.writeUTF( profile.getBaseName() );
+		out.writeInt( profile.getLevel() );
+		out.writeInt( profile.getWarriors() );
+		out.writeInt( profile.getWarlocks() );
+		out.writeInt( enemy.getHP() );
+		out.writeBoolean( fled );
+		out.writeInt( turns );
+		out.writeInt( lastHeroDamage );
+		out.writeInt( lastEnemyDamage );
+		out.writeInt( damageDealt );
+		out.writeInt( damageTaken );
+	}
+	
+	/**
+	 * Performs one action of the Hero, followed by the Enemy's attack unless the Hero ran away.
+	 * 
+	 * @param action			The action the Hero takes.
+	 * @return					The outcome of the fight after the turn.
+	 */
+	public Outcome act( CombatAction action ) {
+		if ( getOutcome() != Outcome.ONGOING ) {
+			throw new IllegalStateException( "The fight is already over: " + getOutcome() );
+		}
+		if ( action == CombatAction.POTION && !hero.hasPotion() ) {
+			throw new IllegalStateException( "The hero has no potion to drink" );
+		}
+		return turn( action );
+	}
+	
+	/**
+	 * Does the work of act, once the action was checked.
+	 * 
+	 * @param action			The action the Hero takes.
+	 * @return					The outcome of the fight after the turn.
+	 */
+	private Outcome turn( CombatAction action ) {
+		turns++;
+		lastHeroDamage = 0;
+		switch ( action ) {
+			case PHYSICAL:
+				lastHeroDamage = hero.attack( enemy );
+				break;
+			case MAGIC_MISSILE:
+				lastHeroDamage = hero.magicMissile();
+				enemy.takeDamage( lastHeroDamage );
+				break;
+			case FIREBALL:
+				lastHeroDamage = hero.fireball();
+				enemy.takeDamage( lastHeroDamage );
+				break;
+			case THUNDERCLAP:
+				lastHeroDamage = hero.thunderclap();
+				enemy.takeDamage( lastHeroDamage );
+				break;
+			case POTION:
+				hero.heal( POTION_HEAL );
+				hero.removePotion();
+				break;
+			case RUN:
+				fled = true;
+				lastEnemyDamage = 0;
+				return getOutcome();			// The Enemy doesn't get to attack a Hero that ran away
+		}
+		damageDealt += lastHeroDamage;
+		enemyTurn();
+		return getOutcome();
+	}
+	
+	/**
+	 * Plays out the rest of the fight, letting the given policy choose every action.
+	 * 
+	 * @param policy			Chooses the Hero's actions.
+	 * @return					The outcome of the fight.
+	 */
+	public Outcome fight( CombatPolicy policy ) {
+		while ( getOutcome() == Outcome.ONGOING ) {
+			act( policy.choose( hero, enemy ) );
+		}
+		return getOutcome();
+	}
+	
+	/**
+	 * Gets the current state of the fight.
+	 * 
+	 * @return					LOST if the Hero has 0 HP, WON if the Enemy has 0 HP, FLED if the Hero ran away, otherwise ONGOING.
+	 */
+	public Outcome getOutcome() {
+		if ( hero.getHP() == 0 ) {
+			return Outcome.LOST;
+		} else if ( enemy.getHP() == 0 ) {
+			return Outcome.WON;
+		} else if ( fled ) {
+			return Outcome.FLED;
+		} else {
+			return Outcome.ONGOING;
+		}
+	}
+	
+	/**
+	 * Gets the Hero in the fight.
+	 * 
+	 * @return					The Hero.
+	 */
+	public Hero getHero() {
+		return hero;
+	}
+	
+	/**
+	 * Gets the Enemy in the fight.
+	 * 
+	 * @return					The Enemy.
+	 */
+	public Enemy getEnemy() {
+		return enemy;
+	}
+	
+	/**
+	 * Gets the number of actions the Hero has taken.
+	 * 
+	 * @return					The number of turns.
+	 */
+	public int getTurns() {
+		return turns;
+	}
+	
+	/**
+	 * Gets the damage the Hero dealt with their last action.
+	 * 
+	 * @return					The damage dealt, 0 if the last action was not an attack.
+	 */
+	public int getLastHeroDamage() {
+		return lastHeroDamage;
+	}
+	
+	/**
+	 * Gets the damage the Enemy dealt with its last attack.
+	 * 
+	 * @return					The damage dealt by the Enemy.
+	 */
+	public int getLastEnemyDamage() {
+		return lastEnemyDamage;
+	}
+	
+	/**
+	 * Gets the total damage the Hero has dealt in the fight.
+	 * 
+	 * @return					The total damage dealt.
+	 */
+	public int getDamageDealt() {
+		return damageDealt;
+	}
+	
+	/**
+	 * Gets the total damage the Enemy has dealt in the fight.
+	 * 
+	 * @return					The total damage taken by the Hero.
+	 */
+	public int getDamageTaken() {
+		return damageTaken;
+	}
+	
+	/**
+	 * Lets the Enemy attack the Hero.
+	 */
+	private void enemyTurn() {
+		lastEnemyDamage = enemy.attack( hero );
+		damageTaken += lastEnemyDamage;
+	}
+}
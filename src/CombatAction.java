@@ -0,0 +1,28 @@
+/**
+ * The actions the Hero can take on their turn in a fight.
+ * 
+ * @author agent 2026
+ */
+public enum CombatAction {
+	/** A physical attack with Hero.attack. */
+	PHYSICAL,
+	/** A Magic Missile spell. */
+	MAGIC_MISSILE,
+	/** A Fireball spell. */
+	FIREBALL,
+	/** A Thunderclap spell. */
+	THUNDERCLAP,
+	/** Drinking a Health Potion. */
+	POTION,
+	/** Running away, which ends the fight. */
+	RUN;
+	
+	/**
+	 * Checks whether this action is one of the Hero's Magical spells.
+	 * 
+	 * @return					True for Magic Missile, Fireball and Thunderclap.
+	 */
+	public boolean isSpell() {
+		return this == MAGIC_MISSILE || this == FIREBALL || this == THUNDERCLAP;
+	}
+}
@@ -0,0 +1,75 @@
+/**
+ * Interface for choosing the Hero's action on each turn of a simulated fight.
+ * 
+ * @author agent 2026
+ */
+public interface CombatPolicy {
+	/**
+	 * Always attacks physically.
+	 */
+	public static final CombatPolicy ALWAYS_PHYSICAL = ( h, e ) -> CombatAction.PHYSICAL;
+	
+	/**
+	 * Always casts Thunderclap, the strongest spell.
+	 */
+	public static final CombatPolicy ALWAYS_THUNDERCLAP = ( h, e ) -> CombatAction.THUNDERCLAP;
+	
+	/**
+	 * Casts one of the three spells, chosen at random.
+	 */
+	public static final CombatPolicy RANDOM_SPELL = ( h, e ) -> {
+		switch ( GameRandom.current().nextInt( 3 ) ) {
+			case 0:
+				return CombatAction.MAGIC_MISSILE;
+			case 1:
+				return CombatAction.FIREBALL;
+			default:
+				return CombatAction.THUNDERCLAP;
+		}
+	};
+	
+	/**
+	 * Chooses the action the Hero takes this turn.
+	 * 
+	 * @param hero				The Hero in the fight.
+	 * @param enemy				The Enemy in the fight.
+	 * @return					The action to take.
+	 */
+	public CombatAction choose( Hero hero, Enemy enemy );
+	
+	/**
+	 * Drinks a potion whenever the Hero has one and is below the given HP, and otherwise follows the given policy.
+	 * 
+	 * @param threshold			The HP below which a potion is drunk.
+	 * @param otherwise			The policy to follow when not drinking a potion.
+	 * @return					The combined policy.
+	 */
+	public static CombatPolicy potionBelow( int threshold, CombatPolicy otherwise ) {
+		return ( h, e ) -> ( h.getHP() < threshold && h.hasPotion() ) ? CombatAction.POTION : otherwise.choose( h, e );
+	}
+	
+	/**
+	 * Looks up a policy by name, for choosing one from the command line.
+	 * Names are "physical", "thunderclap", "random-spell", or any of these followed by ":N" to drink potions below N HP.
+	 * 
+	 * @param name				The name of the policy.
+	 * @return					The named policy.
+	 * @throws IllegalArgumentException		If the name is not a known policy.
+	 */
+	public static CombatPolicy byName( String name ) {
+		int colon = name.indexOf( ':' );
+		if ( colon >= 0 ) {
+			return potionBelow( Integer.parseInt( name.substring( colon + 1 ) ), byName( name.substring( 0, colon ) ) );
+		}
+		switch ( name ) {
+			case "physical":
+				return ALWAYS_PHYSICAL;
+			case "thunderclap":
+				return ALWAYS_THUNDERCLAP;
+			case "random-spell":
+				return RANDOM_SPELL;
+			default:
+				throw new IllegalArgumentException( "Unknown combat policy: " + name );
+		}
+	}
+}
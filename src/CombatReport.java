@@ -0,0 +1,144 @@
+/**
+ * The results of a batch of simulated fights.
+ * 
+ * @author agent 2026
+ */
+public class CombatReport {
+	/** The number of fights won. */
+	private long wins;
+	/** The number of fights lost. */
+	private long losses;
+	/** The number of fights the Hero ran away from. */
+	private long fled;
+	/** The number of turns taken to kill the Enemy, in won fights. */
+	private final Histogram turnsToKill = new Histogram( 1, 100 );
+	/** The total damage the Hero dealt in each fight. */
+	private final Histogram damageDealt = new Histogram( 5, 200 );
+	/** The total damage the Hero took in each fight. */
+	private final Histogram damageTaken = new Histogram( 5, 200 );
+	
+	/**
+	 * Records the result of a finished fight.
+	 * 
+	 * @param c					The finished fight.
+	 */
+	public void record( Combat c ) {
+		switch ( c.getOutcome() ) {
+			case WON:
+				wins++;
+				turnsToKill.record( c.getTurns() );
+				break;
+			case LOST:
+				losses++;
+				break;
+			case FLED:
+				fled++;
+				break;
+			default:
+				throw new IllegalArgumentException( "The fight is not over" );
+		}
+		damageDealt.record( c.getDamageDealt() );
+		damageTaken.record( c.getDamageTaken() );
+	}
+	
+	/**
+	 * Adds every fight recorded in another report to this one.
+	 * 
+	 * @param other				The report to add.
+	 * @return					This report.
+	 */
+	public CombatReport add( CombatReport other ) {
+		wins += other.wins;
+		losses += other.losses;
+		fled += other.fled;
+		turnsToKill.add( other.turnsToKill );
+		damageDealt.add( other.damageDealt );
+		damageTaken.add( other.damageTaken );
+		return this;
+	}
+	
+	/**
+	 * Gets the number of fights recorded.
+	 * 
+	 * @return					The number of fights.
+	 */
+	public long getFights() {
+		return wins + losses + fled;
+	}
+	
+	/**
+	 * Gets the number of fights won.
+	 * 
+	 * @return					The number of wins.
+	 */
+	public long getWins() {
+		return wins;
+	}
+	
+	/**
+	 * Gets the number of fights lost.
+	 * 
+	 * @return					The number of losses.
+	 */
+	public long getLosses() {
+		return losses;
+	}
+	
+	/**
+	 * Gets the number of fights the Hero ran away from.
+	 * 
+	 * @return					The number of fights fled.
+	 */
+	public long getFled() {
+		return fled;
+	}
+	
+	/**
+	 * Gets the fraction of fights that were won.
+	 * 
+	 * @return					The win rate, from 0 to 1.
+	 */
+	public double getWinRate() {
+		return getFights() == 0 ? 0 : ( double )wins / getFights();
+	}
+	
+	/**
+	 * Gets the number of turns taken to kill the Enemy in each won fight.
+	 * 
+	 * @return					The turns-to-kill Histogram.
+	 */
+	public Histogram getTurnsToKill() {
+		return turnsToKill;
+	}
+	
+	/**
+	 * Gets the total damage the Hero dealt in each fight.
+	 * 
+	 * @return					The damage dealt Histogram.
+	 */
+	public Histogram getDamageDealt() {
+		return damageDealt;
+	}
+	
+	/**
+	 * Gets the total damage the Hero took in each fight.
+	 * 
+	 * @return					The damage taken Histogram.
+	 */
+	public Histogram getDamageTaken() {
+		return damageTaken;
+	}
+	
+	/**
+	 * Returns the report as a String.
+	 * 
+	 * @return					The win rate and histograms of the report.
+	 */
+	@Override
+	public String toString() {
+		return String.format( "Fights: %d  Won: %d (%.2f%%)  Lost: %d  Fled: %d%n", getFights(), wins, 100 * getWinRate(), losses, fled )
+				+ "Turns to kill: " + turnsToKill
+				+ "Damage dealt: " + damageDealt
+				+ "Damage taken: " + damageTaken;
+	}
+}
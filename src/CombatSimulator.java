@@ -0,0 +1,173 @@
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Runs large numbers of independent fights in parallel, without any display, for tuning game balance.
+ * Each fight copies the given Hero and fights a freshly generated Enemy until one side wins or the Hero runs away.
+ * Fight number i always rolls with stream i of the given GameRandom, so a batch gives the same report for the same
+ * seed however the fights are spread across threads.
+ * 
+ * Usage: java CombatSimulator [fights] [level] [policy] [seed]
+ * See CombatPolicy.byName for the policy names.
+ * 
+ * @author agent 2026
+ */
+public class CombatSimulator {
+	/**
+	 * The number of fights one task runs before it stops splitting the work.
+	 */
+	private static final int FIGHTS_PER_TASK = 2048;
+	
+	/** The pool the fights run on. */
+	private final ForkJoinPool pool;
+	
+	/**
+	 * Creates a CombatSimulator that runs on the common fork-join pool.
+	 */
+	public CombatSimulator() {
+		this( ForkJoinPool.commonPool() );
+	}
+	
+	/**
+	 * Creates a CombatSimulator that runs on the given pool.
+	 * 
+	 * @param pool				The pool to run fights on.
+	 */
+	public CombatSimulator( ForkJoinPool pool ) {
+		this.pool = pool;
+	}
+	
+	/**
+	 * Runs the given number of fights with a random seed and combines their results.
+	 * 
+	 * @param hero				The Hero to copy into every fight. It is not changed.
+	 * @param enemyLevel		The level of the Enemies to generate.
+	 * @param policy			Chooses the Hero's actions.
+	 * @param fights			The number of fights to run.
+	 * @return					The combined results of the fights.
+	 */
+	public CombatReport simulate( Hero hero, int enemyLevel, CombatPolicy policy, long fights ) {
+		return simulate( hero, enemyLevel, policy, fights, new GameRandom( GameRandom.getInstance().split().nextLong() ) );
+	}
+	
+	/**
+	 * Runs the given number of fights and combines their results.
+	 * 
+	 * @param hero				The Hero to copy into every fight. It is not changed.
+	 * @param enemyLevel		The level of the Enemies to generate.
+	 * @param policy			Chooses the Hero's actions.
+	 * @param fights			The number of fights to run.
+	 * @param random			Provides the stream each fight rolls with.
+	 * @return					The combined results of the fights.
+	 */
+	public CombatReport simulate( Hero hero, int enemyLevel, CombatPolicy policy, long fights, GameRandom random ) {
+		ItemGenerator.getInstance();		// Load the item templates before the workers need them
+		EnemyGenerator.getInstance();
+		return pool.invoke( new FightTask( hero, enemyLevel, policy, random, 0, fights ) );
+	}
+	
+	/**
+	 * Runs one fight.
+	 * 
+	 * @param hero				The Hero to copy into the fight.
+	 * @param enemyLevel		The level of the Enemy to generate.
+	 * @param policy			Chooses the Hero's actions.
+	 * @return					The finished fight.
+	 */
+	public static Combat fight( Hero hero, int enemyLevel, CombatPolicy policy ) {
+		Combat c = new Combat( new Hero( hero ), EnemyGenerator.getInstance().generateEnemy( enemyLevel ) );
+		c.fight( policy );
+		return c;
+	}
+	
+	/**
+	 * Splits a range of fights in half until it is small enough to run, then runs it into a report of its own.
+	 */
+	private static class FightTask extends RecursiveTask<CombatReport> {
+		/** The version of the serialized form, which ForkJoinTask has; the task is never serialized. */
+		private static final long serialVersionUID = 1L;
+		
+		/** The Hero to copy into every fight. */
+		private final Hero hero;
+		/** The level of the Enemies to generate. */
+		private final int enemyLevel;
+		/** Chooses the Hero's actions. */
+		private final CombatPolicy policy;
+		/** Provides the stream each fight rolls with. */
+		private final GameRandom random;
+		/** The number of the first fight this task runs. */
+		private final long first;
+		/** The number after the last fight this task runs. */
+		private final long end;
+		
+		/**
+		 * Creates a task for the given range of fights.
+		 * 
+		 * @param hero			The Hero to copy into every fight.
+		 * @param enemyLevel	The level of the Enemies to generate.
+		 * @param policy		Chooses the Hero's actions.
+		 * @param random		Provides the stream each fight rolls with.
+		 * @param first			The number of the first fight to run.
+		 * @param end			The number after the last fight to run.
+		 */
+		private FightTask( Hero hero, int enemyLevel, CombatPolicy policy, GameRandom random, long first, long end ) {
+			this.hero = hero;
+			this.enemyLevel = enemyLevel;
+			this.policy = policy;
+			this.random = random;
+			this.first = first;
+			this.end = end;
+		}
+		
+		@Override
+		protected CombatReport compute() {
+			if ( end - first > FIGHTS_PER_TASK ) {
+				long middle = first + ( end - first ) / 2;
+				FightTask left = new FightTask( hero, enemyLevel, policy, random, first, middle );
+				FightTask right = new FightTask( hero, enemyLevel, policy, random, middle, end );
+				left.fork();
+				return right.compute().add( left.join() );
+			}
+			
+			CombatReport report = new CombatReport();
+			SplittableRandom previous = GameRandom.bind( null );
+			try {
+				for ( long i = first; i < end; i++ ) {
+					GameRandom.bind( random.stream( i ) );		// Each fight rolls with its own stream, wherever it runs
+					report.record( fight( hero, enemyLevel, policy ) );
+				}
+			} finally {
+				GameRandom.bind( previous );					// Give the worker thread back the stream it had
+			}
+			return report;
+		}
+	}
+	
+	/**
+	 * Runs a batch of fights between a Hero and Enemies of the same level and prints the results.
+	 * 
+	 * @param args				The number of fights, the level, the policy name and the seed, all optional.
+	 */
+	public static void main( String[] args ) {
+		long fights = args.length > 0 ? Long.parseLong( args[ 0 ] ) : 1000000;
+		int level = args.length > 1 ? Integer.parseInt( args[ 1 ] ) : 1;
+		CombatPolicy policy = CombatPolicy.byName( args.length > 2 ? args[ 2 ] : "physical" );
+		GameRandom random = new GameRandom( args.length > 3 ? Long.parseLong( args[ 3 ] ) : System.nanoTime() );
+		
+		Hero hero = new Hero( "Simulated Hero", "" );
+		for ( int i = 1; i < level; i++ ) {		// Level the Hero the same way reaching a new floor does
+			hero.increaseLevel();
+			hero.increaseMaxHP( 10 );
+			hero.heal( 10 );
+		}
+		
+		long start = System.nanoTime();
+		CombatReport report = new CombatSimulator().simulate( hero, level, policy, fights, random );
+		double seconds = ( System.nanoTime() - start ) / 1e9;
+		
+		System.out.println( "Seed: " + random.getSeed() );
+		System.out.print( report );
+		System.out.printf( "%d fights in %.2f s (%.0f fights/min)%n", fights, seconds, fights / seconds * 60 );
+	}
+}
@@ -0,0 +1,52 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A Java Flight Recorder event for every turn a session's Hero takes in a fight: the Hero's action and the Enemy's
+ * answer. Fights played out by CombatSimulator and WinEstimator don't emit it.
+ * 
+ * @author agent 2026
+ */
+@Name( "dungeon.CombatTurn" )
+@Label( "Combat Turn" )
+@Category( "Dungeon" )
+@Description( "The Hero took an action in a fight and the Enemy answered" )
+public class CombatTurnEvent extends jdk.jfr.Event {
+	/** The id of the session. */
+	@Label( "Session" )
+	long session;
+	
+	/** The action the Hero took, such as PHYSICAL or one of the spells. */
+	@Label( "Action" )
+	String action;
+	
+	/** The number of the turn in the fight, from 1. */
+	@Label( "Turn" )
+	int turn;
+	
+	/** The name of the Enemy. */
+	@Label( "Enemy" )
+	String enemy;
+	
+	/** The damage the Hero dealt. */
+	@Label( "Damage Dealt" )
+	int damageDealt;
+	
+	/** The damage the Enemy dealt in answer. */
+	@Label( "Damage Taken" )
+	int damageTaken;
+	
+	/** The HP the Hero has left. */
+	@Label( "Hero HP" )
+	int heroHp;
+	
+	/** The HP the Enemy has left. */
+	@Label( "Enemy HP" )
+	int enemyHp;
+	
+	/** The state of the fight after the turn. */
+	@Label( "Outcome" )
+	String outcome;
+}
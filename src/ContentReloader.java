@@ -0,0 +1,340 @@
+import java.io.*;							//Allows for usage of files.
+import java.nio.file.*;						//Allows for watching the textfiles directory.
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Watches the textfiles directory and reloads the item list and floors when they change, without restarting anything.
+ * Changed files are re-read on the reloader's own thread and checked before anything is published:
+ * 
+ * 		ItemList.txt is parsed into a new ItemCatalog, which replaces the old one in a single write. Items that were
+ * 		already handed out keep their templates, and every draw after that uses the new catalog.
+ * 
+ * 		MapX.txt and MapX.dmap are checked tile by tile and copied to a new, numbered binary floor in a temporary
+ * 		directory, which is published with Map.publishFloor. Floors that are already loaded keep reading the copy they
+ * 		opened, so editing a file never changes a floor under a player's feet; the next load of that floor gets the edit.
+ * 		A copy that a newer one replaced is deleted once no Map is reading it any more.
+ * 
+ * A file that fails its checks is left unpublished, and the last good version stays in use. Closing the reloader takes
+ * its copies back and deletes them.
+ * The reloads, failures and reload times are counted in Metrics, as dungeon_content_reloads,
+ * dungeon_content_reload_failures and dungeon_content_reload_seconds.
+ * 
+ * @author agent 2026
+ */
+public class ContentReloader implements Closeable {
+	/**
+	 * How long to wait after a change for the editor to finish writing, before reading the file.
+	 */
+	private static final long SETTLE_MILLIS = 100;
+	
+	/**
+	 * How often replaced floor copies are checked for deletion, and how long a copy is kept after it was replaced at
+	 * the least, so a session that looked the old copy up just before it was replaced can still open it.
+	 */
+	private static final long SWEEP_MILLIS = 5000;
+	
+	/**
+	 * The tiles a floor may contain.
+	 */
+	private static final String TILES = "nmisf";
+	
+	/**
+	 * Matches the name of a floor file and captures its number.
+	 */
+	private static final Pattern FLOOR_FILE = Pattern.compile( "Map(\\d+)(\\.txt|" + Pattern.quote( BinaryMapSource.EXTENSION ) + ")" );
+	
+	/** Counts the item list reloads of every reloader. */
+	private static final LongAdder ITEM_RELOADS = Metrics.getInstance().counter( "dungeon_content_reloads", "Game content files reloaded, by kind", "kind", "items" );
+	/** Counts the floor reloads of every reloader. */
+	private static final LongAdder FLOOR_RELOADS = Metrics.getInstance().counter( "dungeon_content_reloads", "Game content files reloaded, by kind", "kind", "floor" );
+	/** Counts the failed reloads of every reloader. */
+	private static final LongAdder FAILURES = Metrics.getInstance().counter( "dungeon_content_reload_failures", "Reloads that failed their checks or could not be read" );
+	/** Times every reload, failed or not. */
+	private static final LatencyHistogram RELOAD = Metrics.getInstance().timer( "dungeon_content_reload_seconds", "Time to check and publish a changed content file" );
+	
+	/** The directory being watched. */
+	private final Path directory;
+	/** The name of the item list within the directory. */
+	private final String itemFile;
+	/** Tells the reloader when files in the directory change. */
+	private final WatchService watcher;
+	/** The directory the checked copies of floors are written to. */
+	private final Path snapshots;
+	/** The thread that waits for changes and reloads files. */
+	private final Thread thread;
+	
+	/** The number of the next floor copy, so every copy gets its own file. */
+	private final AtomicLong nextSnapshot = new AtomicLong();
+	/** The message of the last failure, or null if nothing has failed. */
+	private volatile String lastError;
+	/** The floor copies that newer ones replaced, with the System.nanoTime they were replaced at. Guarded by this reloader. */
+	private final LinkedHashMap<String, Long> replaced = new LinkedHashMap<String, Long>();
+	/** The copy this reloader last published for each floor number. Guarded by this reloader. */
+	private final HashMap<Integer, String> published = new HashMap<Integer, String>();
+	
+	/**
+	 * Starts watching the game's textfiles directory.
+	 * 
+	 * @throws IOException		If the directory can't be watched.
+	 */
+	public ContentReloader() throws IOException {
+		this( "./textfiles", new File( ItemGenerator.ITEM_FILE ).getName() );
+	}
+	
+	/**
+	 * Starts watching a directory.
+	 * 
+	 * @param directory			The directory holding the item list and floors.
+	 * @param itemFile			The name of the item list within the directory.
+	 * @throws IOException		If the directory can't be watched.
+	 */
+	public ContentReloader( String directory, String itemFile ) throws IOException {
+		this.directory = Paths.get( directory );
+		this.itemFile = itemFile;
+		this.watcher = FileSystems.getDefault().newWatchService();
+		this.directory.register( watcher, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY );
+		
+		this.snapshots = Files.createTempDirectory( "dungeon-floors" );
+		
+		this.thread = new Thread( this::run, "content-reloader" );
+		thread.setDaemon( true );					// Watching files doesn't keep the JVM alive
+		thread.start();
+	}
+	
+	/**
+	 * Waits for changes to the directory and reloads every changed file, until the reloader is closed.
+	 */
+	private void run() {
+		try {
+			while ( true ) {
+				WatchKey key = watcher.poll( SWEEP_MILLIS, TimeUnit.MILLISECONDS );
+				deleteUnused();
+				if ( key == null ) {
+					continue;
+				}
+				Thread.sleep( SETTLE_MILLIS );		// Editors often write a file in several steps
+				
+				HashSet<String> changed = new HashSet<String>();	// Each file is reloaded once, however many events it caused
+				while ( key != null ) {
+					for ( WatchEvent<?> event : key.pollEvents() ) {
+						if ( event.context() instanceof Path ) {
+							changed.add( event.context().toString() );
+						}
+					}
+					key.reset();
+					key = watcher.poll();
+				}
+				for ( String name : changed ) {
+					reload( name );
+				}
+			}
+		} catch ( InterruptedException | ClosedWatchServiceException e ) {
+			// The reloader was closed
+		}
+	}
+	
+	/**
+	 * Reloads a file of the watched directory, if it is the item list or a floor.
+	 * 
+	 * @param name				The name of the file within the directory.
+	 * @return					True if the file was reloaded and published, false if it is not game content or failed its checks.
+	 */
+	public boolean reload( String name ) {
+		Matcher floor = FLOOR_FILE.matcher( name );
+		boolean isItems = name.equals( itemFile );
+		if ( !isItems && !floor.matches() ) {
+			return false;
+		}
+		
+		long start = System.nanoTime();
+		try {
+			if ( isItems ) {
+				reloadItems( directory.resolve( name ).toString() );
+				ITEM_RELOADS.increment();
+			} else {
+				reloadFloor( Integer.parseInt( floor.group( 1 ) ), directory.resolve( name ).toString() );
+				FLOOR_RELOADS.increment();
+			}
+			return true;
+		} catch ( IOException | RuntimeException e ) {
+			FAILURES.increment();
+			lastError = name + ": " + e.getMessage();
+			System.out.println( "Could not reload " + lastError + ". The last good version stays in use." );
+			return false;
+		} finally {
+			RELOAD.recordSince( start );
+		}
+	}
+	
+	/**
+	 * Parses and checks the item list, then makes it the current ItemCatalog.
+	 * 
+	 * @param path				The filepath of the item list.
+	 * @throws IOException		If the list could not be read or is not valid.
+	 */
+	private void reloadItems( String path ) throws IOException {
+		ItemCatalog catalog = ItemCatalog.load( path );
+		if ( catalog.getPotion() == null ) {
+			throw new IOException( "the shop needs a Health Potion" );
+		}
+		ItemGenerator.getInstance().setCatalog( catalog );
+	}
+	
+	/**
+	 * Checks a floor, copies it to a new binary floor and publishes the copy.
+	 * 
+	 * @param mapNum			The number of the floor.
+	 * @param path				The filepath of the floor.
+	 * @throws IOException		If the floor could not be read or is not valid.
+	 */
+	private void reloadFloor( int mapNum, String path ) throws IOException {
+		File copy = snapshots.resolve( "Map" + mapNum + "-" + nextSnapshot.getAndIncrement() + BinaryMapSource.EXTENSION ).toFile();
+		try ( MapSource source = Map.openSource( path ) ) {
+			validateFloor( source );
+			MapConverter.write( source, copy.getPath() );
+		} catch ( IOException e ) {
+			copy.delete();
+			throw e;
+		}
+		synchronized ( this ) {
+			String previous = Map.publishFloor( mapNum, copy.getPath() );
+			published.put( mapNum, copy.getPath() );
+			if ( previous != null && previous.startsWith( snapshots.toString() ) ) {	// Never the floor files the game shipped with
+				replaced.put( previous, System.nanoTime() );
+			}
+		}
+	}
+	
+	/**
+	 * Deletes the floor copies that were replaced at least SWEEP_MILLIS ago and that no Map is reading any more.
+	 * 
+	 * @return					The number of copies deleted.
+	 */
+	public synchronized int deleteUnused() {
+		int deleted = 0;
+		long now = System.nanoTime();
+		Iterator<java.util.Map.Entry<String, Long>> it = replaced.entrySet().iterator();
+		while ( it.hasNext() ) {
+			java.util.Map.Entry<String, Long> e = it.next();
+			if ( now - e.getValue() >= TimeUnit.MILLISECONDS.toNanos( SWEEP_MILLIS ) && !Map.isFileOpen( e.getKey() ) ) {
+				new File( e.getKey() ).delete();
+				it.remove();
+				deleted++;
+			}
+		}
+		return deleted;
+	}
+	
+	/**
+	 * Gets the number of replaced floor copies that are waiting to be deleted.
+	 * 
+	 * @return					The number of copies kept.
+	 */
+	public synchronized int getReplacedCopies() {
+		return replaced.size();
+	}
+	
+	/**
+	 * Checks that a floor only holds known tiles, and has both a start and a way to the next floor.
+	 * 
+	 * @param source			The floor to check.
+	 * @throws IOException		If the floor could not be read or is not valid.
+	 */
+	private static void validateFloor( MapSource source ) throws IOException {
+		int rows = source.getRows();
+		int cols = source.getCols();
+		boolean hasStart = false;
+		boolean hasExit = false;
+		byte[] chunk = new byte[ MapChunk.SIZE * MapChunk.SIZE ];
+		for ( int chunkRow = 0; chunkRow * MapChunk.SIZE < rows; chunkRow++ ) {
+			for ( int chunkCol = 0; chunkCol * MapChunk.SIZE < cols; chunkCol++ ) {
+				source.readChunk( chunkRow, chunkCol, chunk );
+				int height = Math.min( MapChunk.SIZE, rows - chunkRow * MapChunk.SIZE );
+				int width = Math.min( MapChunk.SIZE, cols - chunkCol * MapChunk.SIZE );
+				for ( int r = 0; r < height; r++ ) {
+					for ( int c = 0; c < width; c++ ) {
+						char tile = ( char )chunk[ r * MapChunk.SIZE + c ];
+						if ( TILES.indexOf( tile ) < 0 ) {
+							throw new IOException( "unknown tile '" + tile + "' at (" + ( chunkRow * MapChunk.SIZE + r ) + ", " + ( chunkCol * MapChunk.SIZE + c ) + ")" );
+						}
+						hasStart |= tile == 's';
+						hasExit |= tile == 'f';
+					}
+				}
+			}
+		}
+		if ( !hasStart || !hasExit ) {
+			throw new IOException( "a floor needs an 's' and an 'f' tile" );
+		}
+	}
+	
+	/**
+	 * Gets the reason the last failed reload failed.
+	 * 
+	 * @return					The file name and error, or null if nothing has failed.
+	 */
+	public String getLastError() {
+		return lastError;
+	}
+	
+	/**
+	 * Returns the reload statistics as a String. They are read from Metrics, so they count the reloads of every reloader.
+	 * 
+	 * @return					The reload counts, failures and times.
+	 */
+	@Override
+	public String toString() {
+		return "ContentReloader[items=" + ITEM_RELOADS.sum() + ", floors=" + FLOOR_RELOADS.sum() + ", failures=" + FAILURES.sum()
+				+ ", max=" + RELOAD.getMax() / 1000 + " us, total=" + RELOAD.getSum() / 1000 + " us]";
+	}
+	
+	/**
+	 * Stops watching the directory and deletes the temporary directory with every floor copy in it. Floors this reloader
+	 * published go back to the game's own files for later loads. Maps that are still reading a copy keep their open file,
+	 * and a copy the system won't delete while it is open is left to be deleted when the JVM exits.
+	 * 
+	 * @throws IOException		If the watch service could not be closed.
+	 */
+	@Override
+	public void close() throws IOException {
+		watcher.close();
+		thread.interrupt();
+		try {
+			thread.join();						// So no reload publishes a copy while they are deleted
+		} catch ( InterruptedException e ) {
+			Thread.currentThread().interrupt();
+		}
+		
+		synchronized ( this ) {
+			for ( java.util.Map.Entry<Integer, String> e : published.entrySet() ) {
+				Map.unpublishFloor( e.getKey(), e.getValue() );
+			}
+			published.clear();
+			replaced.clear();
+		}
+		ArrayList<File> kept = new ArrayList<File>();
+		File[] copies = snapshots.toFile().listFiles();
+		if ( copies != null ) {
+			for ( File copy : copies ) {
+				if ( !copy.delete() ) {
+					kept.add( copy );
+				}
+			}
+		}
+		if ( !snapshots.toFile().delete() ) {
+			snapshots.toFile().deleteOnExit();	// Registered first, so it is deleted after the copies in it
+			for ( File copy : kept ) {
+				copy.deleteOnExit();
+			}
+		}
+	}
+}
@@ -18,6 +18,15 @@ public abstract class Decorator extends Enemy {
 		e = passedEnemy;
 	}
 	
+	/**
+	 * Gets the Enemy that this Decorator wraps.
+	 * 
+	 * @return						The wrapped Enemy.
+	 */
+	public Enemy getEnemy() {
+		return e;
+	}
+	
 	/**
 	 * Calls and returns the attack method of the class variable e.
 	 * 
@@ -0,0 +1,108 @@
+import java.util.ArrayDeque;
+import java.util.SplittableRandom;
+
+/**
+ * The Enemies a floor's monster rooms hold, rolled from the floor's own random stream.
+ * Enemies can be rolled ahead of time, off the thread that plays the floor, and are handed out in the order they
+ * were rolled. Once the rolled Enemies run out, the next ones are rolled on demand from the same stream, so a floor
+ * meets the same Enemies whether none, some or all of them were rolled ahead of time.
+ * 
+ * A deck is not thread-safe: it is filled by one thread and only handed to the thread that plays the floor after that.
+ * 
+ * @author agent 2026
+ */
+public class EncounterDeck {
+	/**
+	 * The number of Enemies rolled ahead of time for a floor. Later monster rooms roll theirs when they are entered.
+	 */
+	public static final int DEFAULT_SIZE = 16;
+	
+	/** The level of every Enemy in the deck. */
+	private final int level;
+	/** The stream the Enemies are rolled with. */
+	private final SplittableRandom rng;
+	/** The Enemies rolled ahead of time that haven't been met yet, in the order they were rolled. */
+	private final ArrayDeque<Enemy> rolled;
+	/** The number of Enemies handed out so far. */
+	private int drawn;
+	
+	/**
+	 * Creates an empty deck.
+	 * 
+	 * @param level				The level of the Enemies, which is the level the Hero has on the floor.
+	 * @param rng				The stream of the floor to roll the Enemies with.
+	 */
+	public EncounterDeck( int level, SplittableRandom rng ) {
+		this.level = level;
+		this.rng = rng;
+		this.rolled = new ArrayDeque<Enemy>();
+	}
+	
+	/**
+	 * Rolls Enemies ahead of time until the given number are waiting.
+	 * 
+	 * @param count				The number of Enemies that should be waiting.
+	 */
+	public void fill( int count ) {
+		SplittableRandom previous = GameRandom.bind( rng );	// EnemyGenerator rolls with the current thread's stream
+		try {
+			while ( rolled.size() < count ) {
+				rolled.add( EnemyGenerator.getInstance().generateEnemy( level ) );
+			}
+		} finally {
+			GameRandom.bind( previous );
+		}
+	}
+	
+	/**
+	 * Takes the next Enemy, rolling it now if none are waiting.
+	 * 
+	 * @return					The Enemy of the next monster room.
+	 */
+	public Enemy next() {
+		if ( rolled.isEmpty() ) {
+			fill( 1 );
+		}
+		drawn++;
+		return rolled.poll();
+	}
+	
+	/**
+	 * Rolls and throws away Enemies that were already met, so a restored floor goes on with the Enemy it would have
+	 * met next.
+	 * 
+	 * @param count				The number of Enemies to skip, which is getDrawn of the deck that was saved.
+	 */
+	public void skip( int count ) {
+		for ( int i = 0; i < count; i++ ) {
+			next();
+		}
+	}
+	
+	/**
+	 * Gets the number of Enemies handed out by next, counting skipped ones.
+	 * 
+	 * @return					The number of Enemies drawn.
+	 */
+	public int getDrawn() {
+		return drawn;
+	}
+	
+	/**
+	 * Gets the number of Enemies that were rolled ahead of time and haven't been met yet.
+	 * 
+	 * @return					The number of waiting Enemies.
+	 */
+	public int size() {
+		return rolled.size();
+	}
+	
+	/**
+	 * Gets the level of the Enemies in the deck.
+	 * 
+	 * @return					The level.
+	 */
+	public int getLevel() {
+		return level;
+	}
+}
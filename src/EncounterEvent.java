@@ -0,0 +1,44 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A Java Flight Recorder event for every monster room a session's Hero walks into. Its duration covers taking the
+ * Enemy and its opening attack.
+ * 
+ * @author agent 2026
+ */
+@Name( "dungeon.Encounter" )
+@Label( "Encounter" )
+@Category( "Dungeon" )
+@Description( "The Hero walked into a monster room" )
+public class EncounterEvent extends jdk.jfr.Event {
+	/** The id of the session. */
+	@Label( "Session" )
+	long session;
+	
+	/** The number of the floor. */
+	@Label( "Floor" )
+	int floor;
+	
+	/** The name of the Enemy, with its decorators' titles. */
+	@Label( "Enemy" )
+	String enemy;
+	
+	/** The level of the Enemy. */
+	@Label( "Enemy Level" )
+	int enemyLevel;
+	
+	/** Whether the Enemy was generated on the spot rather than taken from the floor's EncounterDeck. */
+	@Label( "Generated On The Spot" )
+	boolean generated;
+	
+	/** The damage of the Enemy's opening attack. */
+	@Label( "Opening Damage" )
+	int openingDamage;
+	
+	/** The HP the Hero has left after the opening attack. */
+	@Label( "Hero HP" )
+	int heroHp;
+}
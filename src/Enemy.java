@@ -1,5 +1,4 @@
 import java.awt.Color;
-import java.util.Random;
 import javax.swing.JLabel;
 
 /**
@@ -34,12 +33,13 @@ public abstract class Enemy extends Entity {
 	}
 	
 	/**
-	 * Copy constructor for the Enemy
+	 * Copy constructor for the Enemy, with the same HP, image and held Item as the original.
 	 * 
 	 * @param e					The Enemy to copy from
 	 */
 	public Enemy( Enemy e ) {
-		super( e.getName(), e.getQuip(), e.getLevel(), e.getMaxHP() );
+		super( e );
+		imgPath = e.getImgPath();
 		item = e.getItem();
 	}
 	
@@ -69,14 +69,24 @@ public abstract class Enemy extends Entity {
 	 */
 	@Override
 	public int attack( Entity e ) {
-		Random random = new Random();									//Creates new Random object to allow for random number generation.
-		int damage = ( random.nextInt( 4 ) + 1 ) * this.getLevel();		//Generates a Random number in the range of [1,4] and multiplies it by Enemy's level to get attack damage.
+		int damage = ( GameRandom.current().nextInt( 4 ) + 1 ) * this.getLevel();		//Generates a Random number in the range of [1,4] and multiplies it by Enemy's level to get attack damage.
 
 		e.takeDamage( damage );			// Deal damage to the target
 
 		return damage;
 	}
 
+	/**
+	 * Describes an attack of the Enemy the way the monster room shows it.
+	 * 
+	 * @param e					The target of the attack.
+	 * @param damage			The damage that was dealt.
+	 * @return					The text describing the attack.
+	 */
+	public String describeAttack( Entity e, int damage ) {
+		return "The enemy hits you 1 time for " + damage + " damage.";
+	}
+	
 	/**
 	 * Generates a JLabel that displays the enemy's attack.
 	 * @param e					The target of the Enemy's attack
@@ -84,7 +94,7 @@ public abstract class Enemy extends Entity {
 	 */
 	public JLabel combatTurn( Entity e ) {
 		// Call attack method to deal damage and write it to the JLabel
-		JLabel returnedLabel = new JLabel( "<html><center>The enemy hits you 1 time for " + attack( e ) + " damage.</center></html>" );
+		JLabel returnedLabel = new JLabel( "<html><center>" + describeAttack( e, attack( e ) ) + "</center></html>" );
 		returnedLabel.setBounds( 20, 70, 220, 30 );
 		returnedLabel.setForeground( Color.WHITE );
 		
@@ -0,0 +1,32 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A Java Flight Recorder event for every random Enemy EnemyGenerator rolls, whether for a monster room or for the
+ * EncounterDeck of a floor being prepared in the background.
+ * 
+ * @author agent 2026
+ */
+@Name( "dungeon.EnemyGenerated" )
+@Label( "Enemy Generated" )
+@Category( "Dungeon" )
+@Description( "A random Enemy was generated" )
+public class EnemyGeneratedEvent extends jdk.jfr.Event {
+	/** The kind of the base Enemy, such as Orc. */
+	@Label( "Kind" )
+	String kind;
+	
+	/** The level of the Enemy. */
+	@Label( "Level" )
+	int level;
+	
+	/** The kind of every decorator: Warrior, Warlock, or null if there are none. */
+	@Label( "Decorator" )
+	String decorator;
+	
+	/** The number of decorators, one per level above 1. */
+	@Label( "Decorator Depth" )
+	int depth;
+}
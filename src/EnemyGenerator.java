@@ -1,4 +1,5 @@
-import java.util.Random;				//Allows for generation of random numbers.
+import java.util.SplittableRandom;		//Allows for generation of random numbers.
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Used for generating Enemies.
@@ -6,10 +7,14 @@ import java.util.Random;				//Allows for generation of random numbers.
  * @author Jonathan Sohrabi 2018
  */
 public class EnemyGenerator {
-	/**
-	 * Holds a single instance of an EnemyGenerator to fit a Singleton design pattern.
-	 */
-	private static EnemyGenerator instance = null;
+	/** Times generating an Enemy. */
+	private static final LatencyHistogram GENERATE = Metrics.getInstance().timer( "dungeon_enemy_generate_seconds", "Time to generate a random Enemy" );
+	/** Counts the Enemies generated, by kind. */
+	private static final LongAdder[] GENERATED = {
+			Metrics.getInstance().counter( "dungeon_enemies_generated", "Enemies generated, by kind", "kind", "Orc" ),
+			Metrics.getInstance().counter( "dungeon_enemies_generated", "Enemies generated, by kind", "kind", "Troll" ),
+			Metrics.getInstance().counter( "dungeon_enemies_generated", "Enemies generated, by kind", "kind", "Goblin" ),
+			Metrics.getInstance().counter( "dungeon_enemies_generated", "Enemies generated, by kind", "kind", "Froglok" ) };
 	
 	/**
 	 * Default constructor for the EnemyGenerator class.
@@ -21,17 +26,42 @@ public class EnemyGenerator {
 	}
 	
 	/**
-	 * Generates an Enemy from the ArrayList of Enemy templates and returns a new instance of that Enemy.
+	 * Generates a random Enemy of the given level, with one Warrior or Warlock decorator per level above 1.
 	 * 
 	 * @param level					The level of the Enemy to be generated.
 	 * @return						The generated Enemy.
 	 */
 	public Enemy generateEnemy( int level ) {
-		Random rng = new Random();
+		EnemyGeneratedEvent event = new EnemyGeneratedEvent();
+		event.begin();
+		long start = System.nanoTime();
+		ProfiledEnemy e = rollEnemy( level );
+		GENERATE.recordSince( start );
+		event.end();
+		if ( event.shouldCommit() ) {
+			AttackProfile profile = e.getProfile();
+			event.kind = profile.getBaseName();
+			event.level = level;
+			event.decorator = profile.getWarriors() > 0 ? "Warrior" : profile.getWarlocks() > 0 ? "Warlock" : null;
+			event.depth = profile.getDepth();
+			event.commit();
+		}
+		return e;
+	}
+	
+	/**
+	 * Does the work of generateEnemy.
+	 * 
+	 * @param level					The level of the Enemy to be generated.
+	 * @return						The generated Enemy.
+	 */
+	private ProfiledEnemy rollEnemy( int level ) {
+		SplittableRandom rng = GameRandom.current();
 		int randNum;
 		Enemy randEnemy;
 		
 		randNum = rng.nextInt(4);
+		GENERATED[ randNum ].increment();
 		if ( randNum == 0 )
 			randEnemy = new Orc( level );
 		else if ( randNum == 1 )
@@ -42,18 +72,44 @@ public class EnemyGenerator {
 			randEnemy = new Froglok( level );
 		
 		// Decorate the Enemy with either Warrior or Warlock
-		// Assign one decorator per level above 1
+		// Assign one decorator per level above 1, compiled into a flat profile instead of a chain of decorator objects
+		int decorators = Math.max( 0, level - 1 );
 		if ( rng.nextInt( 2 ) == 0 ) {
-			for ( int i = 1; i < level; i++ ) {
-				randEnemy = new Warrior( randEnemy );
-			}
+			return new ProfiledEnemy( randEnemy, new AttackProfile( randEnemy, decorators, 0 ) );
 		} else {
-			for ( int i = 1; i < level; i++ ) {
-				randEnemy = new Warlock( randEnemy );
-			}
+			return new ProfiledEnemy( randEnemy, new AttackProfile( randEnemy, 0, decorators ) );
 		}
-		
-		return randEnemy;
+	}
+	
+	/**
+	 * Creates an Enemy of a given kind with the given decorators, such as one that was saved in the middle of a fight.
+	 * The base Enemy's Item is rolled with the current stream, as when it is generated.
+	 * 
+	 * @param kind					The name of the base Enemy: Orc, Troll, Goblin or Froglok.
+	 * @param level					The level of the Enemy.
+	 * @param warriors				The number of Warrior decorators.
+	 * @param warlocks				The number of Warlock decorators.
+	 * @return						The Enemy, at full HP.
+	 */
+	public Enemy createEnemy( String kind, int level, int warriors, int warlocks ) {
+		Enemy base;
+		switch ( kind ) {
+			case "Orc":
+				base = new Orc( level );
+				break;
+			case "Troll":
+				base = new Troll( level );
+				break;
+			case "Goblin":
+				base = new Goblin( level );
+				break;
+			case "Froglok":
+				base = new Froglok( level );
+				break;
+			default:
+				throw new IllegalArgumentException( "Unknown kind of Enemy: " + kind );
+		}
+		return new ProfiledEnemy( base, new AttackProfile( base, warriors, warlocks ) );
 	}
 
 	/**
@@ -62,9 +118,14 @@ public class EnemyGenerator {
 	 * @return The instance of the EnemyGenerator object.
 	 */
 	public static EnemyGenerator getInstance() {
-		if ( instance == null ) {				// If there is no instance of an EnemyGenerator, make one
-			instance = new EnemyGenerator();
-		}
-		return instance;
+		return Holder.INSTANCE;
+	}
+	
+	/**
+	 * Holds the single instance of EnemyGenerator.
+	 */
+	private static class Holder {
+		/** The single instance of EnemyGenerator. */
+		private static final EnemyGenerator INSTANCE = new EnemyGenerator();
 	}
 }
@@ -1,3 +1,7 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
 /**
  * Represents an Entity in the game, either the hero or an Enemy.
  * 
@@ -42,6 +46,51 @@ public abstract class Entity {
 		this.hp = maxHp;		//Sets Entity HP to their max HP.
 	}
 	
+	/**
+	 * Copy constructor of the Entity class.
+	 * Creates a new Entity with the same name, quip, level, max HP and current HP as the parameterized Entity.
+	 * 
+	 * @param e					The Entity to copy from.
+	 */
+	protected Entity( Entity e ) {
+		this.name = e.getName();
+		this.quip = e.getQuip();
+		this.level = e.getLevel();
+		this.maxHp = e.getMaxHP();
+		this.hp = e.getHP();
+	}
+	
+	/**
+	 * Restores an Entity from the name, quip, level, max HP and current HP written by writeStats.
+	 * 
+	 * @param in				The stream to read from.
+	 * @throws IOException		If the stream could not be read.
+	 */
+	protected Entity( DataInput in ) throws IOException {
+		this.name = in.readUTF();
+		this.quip = in.readUTF();
+		this.level = in.readInt();
+		this.maxHp = in.readInt();
+		this.hp = in.readInt();
+		if ( this.maxHp <= 0 || this.hp < 0 || this.hp > this.maxHp ) {
+			throw new IOException( name + " has " + hp + " of " + maxHp + " HP" );
+		}
+	}
+	
+	/**
+	 * Writes the name, quip, level, max HP and current HP of the Entity, for a subclass that saves itself.
+	 * 
+	 * @param out				The stream to write to.
+	 * @throws IOException		If the stream could not be written.
+	 */
+	protected void writeStats( DataOutput out ) throws IOException {
+		out.writeUTF( name );
+		out.writeUTF( quip );
+		out.writeInt( level );
+		out.writeInt( maxHp );
+		out.writeInt( hp );
+	}
+	
 	/**
 	 * Called for the attack "turn" of the Entity in the combat phase.
 	 * 
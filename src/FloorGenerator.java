@@ -0,0 +1,221 @@
+import java.awt.Point;						//Allows for usage of Point objects.
+import java.io.*;							//Allows for usage of files.
+import java.util.SplittableRandom;
+
+/**
+ * Generates dungeon floors of any size from a seed, as a MapSource that a Map reads like a map file.
+ * Every chunk is rolled from its own stream of the floor's GameRandom, so a chunk comes out the same whenever and on
+ * whichever thread it is generated. Nothing is generated up front: a Map only generates the chunks the Hero comes near,
+ * and chunks it releases are simply generated again. Writing a floor out generates its bands of chunks in parallel.
+ * 
+ * Every room is a monster ('m'), an Item ('i'), a shop ('s') or empty ('n'), rolled with the given densities. The start
+ * is a shop, as on the hand-written floors, and the stairs ('f') are placed far from it. Every room can be entered from
+ * its neighbours, so the stairs can always be reached from the start.
+ * 
+ * Usage: java FloorGenerator seed level output.dmap [rows cols]
+ * 
+ * @author agent 2026
+ */
+public class FloorGenerator implements MapSource {
+	/**
+	 * The largest width and height of a floor made by forLevel.
+	 */
+	public static final int MAX_SIDE = 1024;
+	/**
+	 * The number of places tried for the stairs; the one furthest from the start is kept.
+	 */
+	private static final int STAIRS_TRIES = 16;
+	
+	/** The floor's GameRandom, which gives every chunk its own stream. */
+	private final GameRandom random;
+	/** The number of rows of tiles. */
+	private final int rows;
+	/** The number of columns of tiles. */
+	private final int cols;
+	/** The share of rooms that hold a monster. */
+	private final double monsters;
+	/** The share of rooms that hold an Item. */
+	private final double items;
+	/** The share of rooms that are shops, not counting the start. */
+	private final double shops;
+	/** The starting location of the floor. */
+	private final Point start;
+	/** The location of the stairs to the next floor. */
+	private final Point stairs;
+	
+	/**
+	 * Creates a generator for one floor.
+	 * 
+	 * @param seed				The seed of the floor. The same seed and settings always make the same floor.
+	 * @param rows				The number of rows of tiles.
+	 * @param cols				The number of columns of tiles.
+	 * @param monsters			The share of rooms that hold a monster, from 0 to 1.
+	 * @param items				The share of rooms that hold an Item, from 0 to 1.
+	 * @param shops				The share of rooms that are shops, from 0 to 1.
+	 */
+	public FloorGenerator( long seed, int rows, int cols, double monsters, double items, double shops ) {
+		if ( rows <= 0 || cols <= 0 || ( long )rows * cols < 2 ) {
+			throw new IllegalArgumentException( "A floor needs room for a start and stairs: " + rows + "x" + cols );
+		}
+		if ( !( monsters >= 0 && items >= 0 && shops >= 0 && monsters + items + shops <= 1 ) ) {
+			throw new IllegalArgumentException( "Densities must not be negative and must add up to at most 1" );
+		}
+		this.random = new GameRandom( seed );
+		this.rows = rows;
+		this.cols = cols;
+		this.monsters = monsters;
+		this.items = items;
+		this.shops = shops;
+		
+		SplittableRandom layout = random.stream( -1 );		// Chunks use the streams from 0 up
+		this.start = new Point( layout.nextInt( rows ), layout.nextInt( cols ) );
+		Point best = null;
+		for ( int i = 0; i < STAIRS_TRIES || best == null; i++ ) {
+			Point p = new Point( layout.nextInt( rows ), layout.nextInt( cols ) );
+			if ( !p.equals( start ) && ( best == null || steps( p ) > steps( best ) ) ) {
+				best = p;
+			}
+		}
+		this.stairs = best;
+	}
+	
+	/**
+	 * Creates a generator for the given dungeon level. Deeper floors are bigger and hold more monsters.
+	 * 
+	 * @param seed				The seed of the floor.
+	 * @param level				The level of the floor, from 1.
+	 * @return					The generator.
+	 */
+	public static FloorGenerator forLevel( long seed, int level ) {
+		int side = ( int )Math.min( MAX_SIDE, 5 + 2L * ( Math.max( 1, level ) - 1 ) );
+		double monsters = Math.min( 0.5, 0.35 + 0.005 * level );
+		return new FloorGenerator( seed, side, side, monsters, 0.08, 0.02 );
+	}
+	
+	@Override
+	public int getRows() {
+		return rows;
+	}
+	
+	@Override
+	public int getCols() {
+		return cols;
+	}
+	
+	@Override
+	public Point getStart() {
+		return new Point( start );
+	}
+	
+	@Override
+	public Point getStairs() {
+		return new Point( stairs );
+	}
+	
+	@Override
+	public void readChunk( int chunkRow, int chunkCol, byte[] tiles ) {
+		int firstRow = chunkRow * MapChunk.SIZE;
+		int firstCol = chunkCol * MapChunk.SIZE;
+		int height = Math.min( MapChunk.SIZE, rows - firstRow );
+		int width = Math.min( MapChunk.SIZE, cols - firstCol );
+		SplittableRandom rng = random.stream( ( long )chunkRow * ( ( cols + MapChunk.SIZE - 1 ) / MapChunk.SIZE ) + chunkCol );
+		
+		for ( int r = 0; r < height; r++ ) {
+			for ( int c = 0; c < width; c++ ) {
+				double roll = rng.nextDouble();
+				char tile;
+				if ( roll < monsters ) {
+					tile = 'm';
+				} else if ( roll < monsters + items ) {
+					tile = 'i';
+				} else if ( roll < monsters + items + shops ) {
+					tile = 's';
+				} else {
+					tile = 'n';
+				}
+				tiles[ r * MapChunk.SIZE + c ] = ( byte )tile;
+			}
+		}
+		place( start, 's', firstRow, firstCol, height, width, tiles );
+		place( stairs, 'f', firstRow, firstCol, height, width, tiles );
+	}
+	
+	/**
+	 * Sets one tile of a chunk, if its location lies in the chunk.
+	 * 
+	 * @param p					The location of the tile.
+	 * @param tile				The tile character.
+	 * @param firstRow			The first row of the chunk.
+	 * @param firstCol			The first column of the chunk.
+	 * @param height			The number of rows of the chunk that lie on the floor.
+	 * @param width				The number of columns of the chunk that lie on the floor.
+	 * @param tiles				The tiles of the chunk.
+	 */
+	private static void place( Point p, char tile, int firstRow, int firstCol, int height, int width, byte[] tiles ) {
+		int r = p.x - firstRow;
+		int c = p.y - firstCol;
+		if ( r >= 0 && r < height && c >= 0 && c < width ) {
+			tiles[ r * MapChunk.SIZE + c ] = ( byte )tile;
+		}
+	}
+	
+	@Override
+	public boolean hasRevealed() {
+		return false;				// Nothing has been seen of a new floor
+	}
+	
+	@Override
+	public void readRevealed( int chunkRow, int chunkCol, long[] revealed ) {
+		// Nothing is revealed on a new floor
+	}
+	
+	@Override
+	public long countRevealed() {
+		return 0;
+	}
+	
+	@Override
+	public boolean isConcurrent() {
+		return true;				// Every chunk is rolled from its own stream
+	}
+	
+	@Override
+	public void close() {
+		// Nothing to release
+	}
+	
+	/**
+	 * Gets the number of steps between a location and the start.
+	 * 
+	 * @param p					The location.
+	 * @return					The number of steps.
+	 */
+	private int steps( Point p ) {
+		return Math.abs( p.x - start.x ) + Math.abs( p.y - start.y );
+	}
+	
+	/**
+	 * Generates the floor given on the command line and writes it as a binary floor.
+	 * 
+	 * @param args				The seed, level and output file, and optionally the rows and columns.
+	 */
+	public static void main( String[] args ) {
+		if ( args.length != 3 && args.length != 5 ) {
+			System.out.println( "Usage: java FloorGenerator seed level output" + BinaryMapSource.EXTENSION + " [rows cols]" );
+			return;
+		}
+		long seed = Long.parseLong( args[ 0 ] );
+		int level = Integer.parseInt( args[ 1 ] );
+		FloorGenerator floor = forLevel( seed, level );
+		if ( args.length == 5 ) {
+			floor = new FloorGenerator( seed, Integer.parseInt( args[ 3 ] ), Integer.parseInt( args[ 4 ] ), floor.monsters, floor.items, floor.shops );
+		}
+		try {
+			long begin = System.nanoTime();
+			MapConverter.write( floor, args[ 2 ] );
+			System.out.printf( "Wrote %dx%d floor to %s in %.1f ms%n", floor.rows, floor.cols, args[ 2 ], ( System.nanoTime() - begin ) / 1e6 );
+		} catch ( IOException e ) {
+			System.out.println( "Could not write " + args[ 2 ] + ": " + e.getMessage() );
+		}
+	}
+}
@@ -0,0 +1,39 @@
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A Java Flight Recorder event for every floor a Map loads, so stalls in a recording can be matched to floor changes.
+ * Its duration covers opening the map file or starting the FloorGenerator, the same span as dungeon_floor_load_seconds.
+ * Like every JFR event it costs next to nothing unless a recording is running.
+ * 
+ * @author agent 2026
+ */
+@Name( "dungeon.FloorLoad" )
+@Label( "Floor Load" )
+@Category( "Dungeon" )
+@Description( "A floor of the dungeon was loaded into a Map" )
+public class FloorLoadEvent extends jdk.jfr.Event {
+	/** The number of the floor, or 0 if it was loaded without one, such as from a restored save. */
+	@Label( "Floor" )
+	int floor;
+	
+	/** The map file, or null for a generated floor. */
+	@Label( "File" )
+	String file;
+	
+	/** The size of the map file. */
+	@Label( "File Size" )
+	@DataAmount
+	long bytes;
+	
+	/** The number of rows of tiles. */
+	@Label( "Rows" )
+	int rows;
+	
+	/** The number of columns of tiles. */
+	@Label( "Columns" )
+	int cols;
+}
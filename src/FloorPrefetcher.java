@@ -0,0 +1,161 @@
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Gets the next floor ready while the current one is being played, on a small pool of background threads.
+ * Preparing a floor opens or generates it in a Map of its own, reads the chunks around its start and rolls the
+ * Enemies of its first monster rooms, so moving to it only swaps which Map and EncounterDeck the session uses.
+ * 
+ * A floor is prepared from the same seeds it would be loaded from on the spot, so prefetching never changes what a
+ * session meets. A floor whose file was published by a hot reload after it was prepared is no longer current, and is
+ * prepared again when it is reached.
+ * 
+ * @author agent 2026
+ */
+public class FloorPrefetcher {
+	/** Prepares floors in the background. */
+	private final ExecutorService threads;
+	
+	/**
+	 * Creates a FloorPrefetcher with one background thread per processor.
+	 */
+	private FloorPrefetcher() {
+		this.threads = Executors.newFixedThreadPool( Runtime.getRuntime().availableProcessors(), r -> {
+			Thread t = new Thread( r, "floor-prefetch" );
+			t.setDaemon( true );		// Floors being prepared don't keep the JVM alive
+			return t;
+		} );
+	}
+	
+	/**
+	 * Starts preparing a floor in the background.
+	 * 
+	 * @param mapNum			The number of the floor.
+	 * @param seed				The seed to generate the floor from if it has no file.
+	 * @param level				The level the Hero will have on the floor, which is the level of its Enemies.
+	 * @param encounters		The stream of the floor to roll its Enemies with.
+	 * @return					The prepared floor, once it is ready.
+	 */
+	public CompletableFuture<PreparedFloor> prefetch( int mapNum, long seed, int level, SplittableRandom encounters ) {
+		return CompletableFuture.supplyAsync( () -> prepare( mapNum, seed, level, encounters ), threads );
+	}
+	
+	/**
+	 * Prepares a floor on the calling thread, as prefetch does in the background.
+	 * 
+	 * @param mapNum			The number of the floor.
+	 * @param seed				The seed to generate the floor from if it has no file.
+	 * @param level				The level the Hero will have on the floor, which is the level of its Enemies.
+	 * @param encounters		The stream of the floor to roll its Enemies with.
+	 * @return					The prepared floor.
+	 */
+	public static PreparedFloor prepare( int mapNum, long seed, int level, SplittableRandom encounters ) {
+		Map map = new Map();
+		map.loadMap( mapNum, seed );
+		String file = map.getFile();
+		try {
+			map.preload( map.findStart() );
+		} catch ( RuntimeException e ) {
+			map.close();					// Such as an UncheckedIOException while reading the chunks
+			throw e;
+		}
+		
+		EncounterDeck deck = new EncounterDeck( level, encounters );
+		deck.fill( EncounterDeck.DEFAULT_SIZE );
+		return new PreparedFloor( mapNum, file, map, deck );
+	}
+	
+	/**
+	 * Returns the instance of FloorPrefetcher shared by every session.
+	 * 
+	 * @return The instance of the FloorPrefetcher object.
+	 */
+	public static FloorPrefetcher getInstance() {
+		return Holder.INSTANCE;
+	}
+	
+	/**
+	 * Holds the single instance of FloorPrefetcher.
+	 */
+	private static class Holder {
+		/** The single instance of FloorPrefetcher. */
+		private static final FloorPrefetcher INSTANCE = new FloorPrefetcher();
+	}
+	
+	/**
+	 * A floor that is ready to be played: its Map, with the chunks around the start read, and its EncounterDeck.
+	 * 
+	 * @author agent 2026
+	 */
+	public static class PreparedFloor {
+		/** The number of the floor. */
+		private final int mapNum;
+		/** The file the floor was read from, or null if it was generated. */
+		private final String file;
+		/** The Map holding the floor. */
+		private final Map map;
+		/** The Enemies of the floor. */
+		private final EncounterDeck encounters;
+		
+		/**
+		 * Creates a prepared floor.
+		 * 
+		 * @param mapNum		The number of the floor.
+		 * @param file			The file the floor was read from, or null if it was generated.
+		 * @param map			The Map holding the floor.
+		 * @param encounters	The Enemies of the floor.
+		 */
+		private PreparedFloor( int mapNum, String file, Map map, EncounterDeck encounters ) {
+			this.mapNum = mapNum;
+			this.file = file;
+			this.map = map;
+			this.encounters = encounters;
+		}
+		
+		/**
+		 * Gets the number of the floor.
+		 * 
+		 * @return				The map number.
+		 */
+		public int getMapNum() {
+			return mapNum;
+		}
+		
+		/**
+		 * Gets the Map holding the floor.
+		 * 
+		 * @return				The Map.
+		 */
+		public Map getMap() {
+			return map;
+		}
+		
+		/**
+		 * Gets the Enemies of the floor.
+		 * 
+		 * @return				The EncounterDeck.
+		 */
+		public EncounterDeck getEncounters() {
+			return encounters;
+		}
+		
+		/**
+		 * Checks whether the floor is still what loading it now would give, because no other file was published for it since.
+		 * 
+		 * @return				True if the floor can be played as prepared.
+		 */
+		public boolean isCurrent() {
+			return Objects.equals( file, Map.hasFloorFile( mapNum ) ? Map.floorFile( mapNum ) : null );
+		}
+		
+		/**
+		 * Closes the floor's Map, for a floor that will never be played.
+		 */
+		public void discard() {
+			map.close();
+		}
+	}
+}
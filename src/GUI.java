@@ -1,11 +1,11 @@
-import javax.imageio.ImageIO;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
 import java.awt.image.BufferedImage;
-import java.io.*;
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Random;
+import java.util.SplittableRandom;
 
 /*
  * Note about this class:
@@ -30,14 +30,38 @@ import java.util.Random;
  * @author Jonathan Sohrabi
  */
 public class GUI extends JFrame implements KeyListener {
-	/** The Map object for the game.*/
-	private Map curMap;
+	/** Where the commands of the latest game are recorded, for replaying it when something went wrong.*/
+	public static final String REPLAY_FILE = "./replays/last" + InputLog.EXTENSION;
+	
+	/** Times showing the room the Hero entered.*/
+	private static final LatencyHistogram ROOM_CHECK = Metrics.getInstance().timer( "dungeon_gui_room_check_seconds", "Time for the GUI to show the room the Hero entered" );
+	
+	/** Times updating the displayed map from a snapshot.*/
+	private static final LatencyHistogram MAP_UPDATE = Metrics.getInstance().timer( "dungeon_map_update_seconds", "Time for the GUI to update the displayed map" );
+	
+	/** Times painting a MapTile.*/
+	private static final LatencyHistogram PAINT_MAP_TILE = Metrics.getInstance().timer( "dungeon_paint_seconds", "Time to paint a GUI component", "component", "MapTile" );
+	
+	/** Times painting a HeroInfoPanel.*/
+	private static final LatencyHistogram PAINT_HERO_INFO = Metrics.getInstance().timer( "dungeon_paint_seconds", "Time to paint a GUI component", "component", "HeroInfoPanel" );
+	
+	/** Times painting a ItemPanel.*/
+	private static final LatencyHistogram PAINT_ITEM = Metrics.getInstance().timer( "dungeon_paint_seconds", "Time to paint a GUI component", "component", "ItemPanel" );
+	
+	/** Times painting a RoomInfoPanel.*/
+	private static final LatencyHistogram PAINT_ROOM_INFO = Metrics.getInstance().timer( "dungeon_paint_seconds", "Time to paint a GUI component", "component", "RoomInfoPanel" );
+	
+	/** Times painting a MonsterRoomPanel.*/
+	private static final LatencyHistogram PAINT_MONSTER_ROOM = Metrics.getInstance().timer( "dungeon_paint_seconds", "Time to paint a GUI component", "component", "MonsterRoomPanel" );
+	
+	/** Runs the game this window is a client of, on its own thread.*/
+	private GameEngine engine;
 
-	/** The number of the currently loaded map.*/
-	private int mapNum;
+	/** The latest snapshot of the game, as drawn. Only used on the event thread.*/
+	private GameSnapshot shown;
 
-	/** The Hero object for the game.*/
-	private Hero heroObj;
+	/** The room display that shows the results of its own commands, or null if the room has nothing more to show.*/
+	private SnapshotView roomView;
 
 	/** The JPanel that displays the map.*/
 	private MapPanel guiMap;
@@ -47,33 +71,12 @@ public class GUI extends JFrame implements KeyListener {
 
 	/** The main JFrame that holds all GUI oomponents.*/
 	private JFrame display;
-
-	/** Whether the player is in the shop.*/
-	private boolean shopState;
-
-	/** Whether the player is fighting something.*/
-	private boolean fightState;
-
-	/** Whether the player is selling something.*/
-	private boolean sellingState;
-
-	/** Whether the player just entered a new floor.*/
-	private boolean floorEntered;
 	
 	/**
-	 * Constructor for setting up the GUI
+	 * Constructor for setting up the GUI. Must be called on the event thread.
 	 */
 	public GUI() {
-		curMap = Map.getInstance();					// Get an instance of the Map class
-		mapNum = 1;									// Sets the current map to map 1
-		curMap.loadMap( mapNum );					// Load map 1
 		display = new JFrame( "Dungeon Master" );	// Make a new JFrame with the title "Dungeon Master"
-		
-		// Set all boolean states to false
-		shopState = false;
-		fightState = false;
-		sellingState = false;
-		floorEntered = true;
 		String heroName = "";
 		String heroQuip = "";
 		
@@ -85,9 +88,18 @@ public class GUI extends JFrame implements KeyListener {
 			heroQuip = JOptionPane.showInputDialog( this, "Every tough adventurer needs a strong battlecry. What's yours?", "What's Your Battlecry?", JOptionPane.QUESTION_MESSAGE );
 		}
 		
-		heroObj = new Hero( heroName, heroQuip, curMap );	// Construct a new Hero object with the name and quip
+		long seed = GameRandom.getInstance().split().nextLong();		// Kept in the replay, so the game can be played again
+		GameSession session = new GameSession( 0, heroName, heroQuip, new SplittableRandom( seed ) );	// Start a new game on map 1 with the name and quip
+		engine = new GameEngine( session );
+		try {
+			new File( REPLAY_FILE ).getParentFile().mkdirs();
+			engine.record( new InputLog.Recorder( REPLAY_FILE, seed, session ) );
+		} catch ( IOException e ) {
+			System.out.println( "Not recording this game: " + e.getMessage() );
+		}
+		shown = engine.getSnapshot();
 		
-		JOptionPane.showMessageDialog( this, "Welcome, " + heroObj.getName() + "! To navigate these dark dungeons, use the WASD keys. Good luck, and emerge victorious!", "Welcome, Adventurer", JOptionPane.PLAIN_MESSAGE );
+		JOptionPane.showMessageDialog( this, "Welcome, " + shown.getHeroName() + "! To navigate these dark dungeons, use the WASD keys. Good luck, and emerge victorious!", "Welcome, Adventurer", JOptionPane.PLAIN_MESSAGE );
 		
 		guiMap = new MapPanel();		// Make a new display object for the map
 		sideDisplay = new SidePanel();	// Make a new display object for the hero and room information
@@ -99,6 +111,9 @@ public class GUI extends JFrame implements KeyListener {
 		display.setFocusable( true );
 		display.setVisible( true );		// Set this object as visible
 		display.setDefaultCloseOperation( JFrame.EXIT_ON_CLOSE );	// Quit the program when the window is closed
+		
+		engine.addListener( s -> SwingUtilities.invokeLater( () -> render( s ) ) );	// Snapshots are drawn on the event thread
+		engine.start();
 	}
 
 	@Override
@@ -114,130 +129,112 @@ public class GUI extends JFrame implements KeyListener {
 	// Things to do when the user releases a key
 	@Override
 	public void keyReleased(KeyEvent e) {
-		// If the "w" key was released, move the hero north if they aren't in a fight or shop
+		// If one of the WASD keys was released, move the hero that way if they aren't in a fight or shop
 		// Check the new room they are in
 		if ( e.getKeyCode() == KeyEvent.VK_W ) {
-			if ( !shopState && !fightState ) {
-				sideDisplay.updateRoomInfo( "", new BlankPanel() );	//
-				heroObj.goNorth();
-				roomCheck();
-				floorEntered = false;
-			}
+			move( GameCommand.NORTH );
 		}
-
-		// If the "a" key was released, move the hero west if they aren't in a fight or shop
-		// Check the new room they are in
 		if ( e.getKeyCode() == KeyEvent.VK_A ) {
-			if ( !shopState && !fightState ) {
-				sideDisplay.updateRoomInfo( "", new BlankPanel() );
-				heroObj.goWest();
-				roomCheck();
-				floorEntered = false;
-			}
+			move( GameCommand.WEST );
 		}
-
-		// If the "s" key was released, move the hero south if they aren't in a fight or shop
-		// Check the new room they are in
 		if ( e.getKeyCode() == KeyEvent.VK_S ) {
-			if ( !shopState && !fightState ) {
-				sideDisplay.updateRoomInfo( "", new BlankPanel() );
-				heroObj.goSouth();
-				roomCheck();
-				floorEntered = false;
-			}
+			move( GameCommand.SOUTH );
 		}
-
-		// If the "d" key was released, move the hero east if they aren't in a fight or shop
-		// Check the new room they are in
 		if ( e.getKeyCode() == KeyEvent.VK_D ) {
-			if ( !shopState && !fightState ) {
-				sideDisplay.updateRoomInfo( "", new BlankPanel() );
-				heroObj.goEast();
-				floorEntered = false;
-				roomCheck();
-			}
+			move( GameCommand.EAST );
 		}
 		
-		if ( e.getKeyCode() == KeyEvent.VK_1 ) {
-			if ( shopState && sellingState ) {
-				if ( heroObj.getNumItems() >= 1 ) {
-					Item soldItem = heroObj.removeItem( 0 );
-					if ( soldItem != null && soldItem.getValue() < heroObj.getHP() ) {
-						heroObj.collectGold( soldItem.getValue() );
-					} else {
-						JOptionPane.showMessageDialog( this, "You can't sell this item, it would kill you to do so", "Failed Selling Item", JOptionPane.PLAIN_MESSAGE );
-					}
-					
-					sideDisplay.updateHeroInfo();
-				}
-			}
+		// If one of the 1-5 keys was released while selling, sell the item in that inventory slot
+		if ( e.getKeyCode() >= KeyEvent.VK_1 && e.getKeyCode() <= KeyEvent.VK_5 ) {
+			sell( e.getKeyCode() - KeyEvent.VK_1 );
 		}
-		
-		if ( e.getKeyCode() == KeyEvent.VK_2 ) {
-			if ( shopState && sellingState ) {
-				if ( heroObj.getNumItems() >= 2 ) {
-					Item soldItem = heroObj.removeItem( 1 );
-					if ( soldItem != null && soldItem.getValue() < heroObj.getHP() ) {
-						heroObj.collectGold( soldItem.getValue() );
-					} else {
-						JOptionPane.showMessageDialog( this, "You can't sell this item, it would kill you to do so", "Failed Selling Item", JOptionPane.PLAIN_MESSAGE );
-					}
-					
-					sideDisplay.updateHeroInfo();
-				}
-			}
+	}
+	
+	/**
+	 * Asks the game to move the Hero in the given direction. The room they end up in is shown once the game has moved them.
+	 * 
+	 * @param direction			The direction to move in.
+	 */
+	private void move( GameCommand direction ) {
+		engine.submit( direction );
+	}
+	
+	/**
+	 * Asks the game to sell the Item in the given inventory slot if the player is in the shop's selling menu.
+	 * 
+	 * @param index				The inventory slot of the Item.
+	 */
+	private void sell( int index ) {
+		if ( shown.isSelling() && index < shown.getNumItems() ) {
+			engine.submit( GameCommand.SELL, index );
 		}
-		
-		if ( e.getKeyCode() == KeyEvent.VK_3 ) {
-			if ( shopState && sellingState ) {
-				if ( heroObj.getNumItems() >= 3 ) {
-					Item soldItem = heroObj.removeItem( 2 );
-					if ( soldItem != null && soldItem.getValue() < heroObj.getHP() ) {
-						heroObj.collectGold( soldItem.getValue() );
-					} else {
-						JOptionPane.showMessageDialog( this, "You can't sell this item, it would kill you to do so", "Failed Selling Item", JOptionPane.PLAIN_MESSAGE );
-					}
-					
-					sideDisplay.updateHeroInfo();
+	}
+	
+	/**
+	 * Draws a snapshot of the game: the map and Hero information, and whatever the command it was taken after changed
+	 * about the room. Called on the event thread for every snapshot, in order.
+	 * 
+	 * @param s					The snapshot.
+	 */
+	private void render( GameSnapshot s ) {
+		shown = s;
+		switch ( s.getCommand() ) {
+			case NORTH:
+			case SOUTH:
+			case EAST:
+			case WEST:
+			case RUN:
+				if ( s.isApplied() ) {
+					roomCheck( s );						// The Hero is in a new room, or back in the fight they failed to run from
 				}
-			}
-		}
-		
-		if ( e.getKeyCode() == KeyEvent.VK_4 ) {
-			if ( shopState && sellingState ) {
-				if ( heroObj.getNumItems() >= 4 ) {
-					Item soldItem = heroObj.removeItem( 3 );
-					if ( soldItem != null && soldItem.getValue() < heroObj.getHP() ) {
-						heroObj.collectGold( soldItem.getValue() );
-					} else {
-						JOptionPane.showMessageDialog( this, "You can't sell this item, it would kill you to do so", "Failed Selling Item", JOptionPane.PLAIN_MESSAGE );
-					}
-					
-					sideDisplay.updateHeroInfo();
+				break;
+			case SELL:
+				if ( !s.isApplied() ) {
+					JOptionPane.showMessageDialog( this, "You can't sell this item, it would kill you to do so", "Failed Selling Item", JOptionPane.PLAIN_MESSAGE );
 				}
-			}
+				break;
+			default:
+				if ( roomView != null ) {
+					roomView.show( s );					// The shop or fight shows the result of its own command
+				}
+				break;
 		}
 		
-		if ( e.getKeyCode() == KeyEvent.VK_5 ) {
-			if ( shopState && sellingState ) {
-				if ( heroObj.getNumItems() == 5 ) {
-					Item soldItem = heroObj.removeItem( 4 );
-					if ( soldItem != null && soldItem.getValue() < heroObj.getHP() ) {
-							heroObj.collectGold( soldItem.getValue() );
-					} else {
-						JOptionPane.showMessageDialog( this, "You can't sell this item, it would kill you to do so", "Failed Selling Item", JOptionPane.PLAIN_MESSAGE );
-					}
-					
-				sideDisplay.updateHeroInfo();
-				}
-			}
+		guiMap.updateMap();					// Update the map display
+		sideDisplay.updateHeroInfo();		// Update the Hero information display
+	}
+	
+	/**
+	 * Shows the room that the Hero is currently in.
+	 * 
+	 * @param s					The snapshot taken after the Hero entered the room.
+	 */
+	private void roomCheck( GameSnapshot s ) {
+		long start = System.nanoTime();
+		switch ( s.getRoom() ) {
+			case NEXT_FLOOR:
+				nextFloor();
+				break;
+			case ITEM:
+				itemRoom( s );
+				break;
+			case SHOP:
+				store();
+				break;
+			case MONSTER:
+				monsterRoom( s );
+				break;
+			default:
+				sideDisplay.updateRoomInfo( "", new BlankPanel() );
+				break;
 		}
+		ROOM_CHECK.recordSince( start );
 	}
 	
 	/**
-	 * Checks the room that the Hero is currently in and does appropriate actions.
+	 * Tells the player that the Hero reached the next floor.
 	 */
-	private void roomCheck() {
+	private void nextFloor() {
 		JPanel nextFloor = new JPanel();
 		JLabel roomStatus = new JLabel( "<html><center>You stumble upon the next floor and have leveled up. Your foes also become stronger.</center></html>", SwingConstants.CENTER );
 		
@@ -249,63 +246,24 @@ public class GUI extends JFrame implements KeyListener {
 		roomStatus.setBounds( 10, 10, 230, 100 );
 		roomStatus.setForeground( Color.WHITE );
 		nextFloor.add( roomStatus );
-		
-		//If the Hero is standing on an 'f' tile, load the next map
-		if ( curMap.getCharAtLoc( heroObj.getLocation() ) == 'f' ) {
-			sideDisplay.updateRoomInfo( "", nextFloor );
-			
-			heroObj.increaseLevel();						//Increase Hero level.
-			heroObj.increaseMaxHP( 10 );					//Add 10 to Hero maxHP.
-			heroObj.heal( 10 );								//Add 10 to Hero HP.
-			fightState = false;								// Set Hero as not fighting anything
-			floorEntered = true;
-			if ( mapNum == 3 ) {							//If the current Map is Map3, load Map1.
-				mapNum = 1;
-				curMap.loadMap( 1 );
-			} else {										//Load the next Map in order.
-				mapNum++;
-				curMap.loadMap( mapNum );
-			}
-			curMap.reveal( heroObj.getLocation() );			//Set the Hero's location on the Map to revealed.
-		}
-		
-		//If the Hero is standing on an 'i' tile, call itemRoom method.
-		if ( curMap.getCharAtLoc( heroObj.getLocation() ) == 'i' ) {
-			fightState = false;								// Set Hero as not fighting anything
-			itemRoom();
-		}
-		
-		//If the Hero is standing on an 's' tile, call store method.
-		if ( curMap.getCharAtLoc( heroObj.getLocation() ) == 's' && !floorEntered ) {
-			fightState = false;								// Set Hero as not fighting anything		
-			store();
-		}
-		
-		//If the Hero is standing on an 'm' tile, call monsterRoom method.
-		if ( curMap.getCharAtLoc( heroObj.getLocation() ) == 'm' ) {
-			fightState = true;								// Set Hero as fighting something
-			monsterRoom();
-		}
-		
-		guiMap.updateMap();					// Update the map display
-		sideDisplay.updateHeroInfo();		// Update the Hero information display
+		sideDisplay.updateRoomInfo( "", nextFloor );
 	}
 	
 	/**
-	 * Performs shop actions requested by the player when the Hero is on a Map tile notated by the character 's'.
+	 * Shows the shop when the Hero is on a Map tile notated by the character 's'.
 	 */
 	private void store() {
-		shopState = true;					// Set Hero as in the shop
-		
 		JPanel shopPanelMain = new ShopPanelMain();		// Creates a new JPanel for the initial shopping display
 		
 		sideDisplay.updateRoomInfo( "Shop", shopPanelMain );
 	}
 	
 	/**
-	 * Adds an Item to the Hero's inventory when they enter a tile notated by the character 'i', provided the Hero is able to pick up the Item.
+	 * Tells the player about the Item in a tile notated by the character 'i', and whether the Hero was able to pick it up.
+	 * 
+	 * @param s					The snapshot taken after the Hero entered the room.
 	 */
-	private void itemRoom() {
+	private void itemRoom( GameSnapshot s ) {
 		JPanel itemPicked = new JPanel();
 		JLabel roomStatus;
 		
@@ -313,11 +271,9 @@ public class GUI extends JFrame implements KeyListener {
 		itemPicked.setBackground( Color.BLACK );
 		itemPicked.setBounds( 0, 20, 250, 70 );
 		
-		if ( heroObj.getNumItems() != 5 ) {							//If Hero has inventory space:
-			Item i = ItemGenerator.getInstance().generateItem();	//	Generate a random Item.
-			heroObj.pickUpItem( i );								//	Hero picks up Item.
+		Item i = s.getFoundItem();
+		if ( i != null ) {											//If the Hero had inventory space and picked the Item up:
 			roomStatus = new JLabel( "<html><center>You picked up a " + i.getName() + "</center></html>", SwingConstants.CENTER );	// Tell the user about the item they picked up
-			curMap.removeCharAtLoc( heroObj.getLocation() );		//	Sets tile at Hero location to 'n'.
 		// If the user has 5 items, they do not pick anything up and map tile stays the same.
 		} else {
 			roomStatus = new JLabel( "<html><center>There's an item here, but your inventory is full.</center></html>", SwingConstants.CENTER );	// Tell the user they don't have inventory space
@@ -331,47 +287,84 @@ public class GUI extends JFrame implements KeyListener {
 	}
 	
 	/**
-	 * Begins a fight with some monster when the Hero enters a tile notated by the character 'm'.
+	 * Shows the fight with the monster the Hero met in a tile notated by the character 'm'.
+	 * 
+	 * @param s					The snapshot taken after the Hero entered the room.
 	 */
-	private void monsterRoom() {
-		Enemy e = EnemyGenerator.getInstance().generateEnemy( heroObj.getLevel() );	// Generate a random Enemy with the Hero's level
-		MonsterRoomPanel entry = new MonsterRoomPanel( e );							// Create a new fight display to show on the side
-		sideDisplay.updateRoomInfo( e.getName(), entry );
+	private void monsterRoom( GameSnapshot s ) {
+		MonsterRoomPanel entry = new MonsterRoomPanel( s );			// The game already generated the Enemy and let it attack
+		sideDisplay.updateRoomInfo( s.getEnemyName(), entry );
+	}
+	
+	/**
+	 * A room display that shows the results of the commands it sends, such as the shop or a fight.
+	 * 
+	 * @author agent 2026
+	 */
+	private interface SnapshotView {
+		/**
+		 * Shows the result of a command that isn't a move.
+		 * 
+		 * @param s				The snapshot taken after the command.
+		 */
+		void show( GameSnapshot s );
 	}
 	
 	/**
-	 * Used as graphical display of the map
+	 * Used as graphical display of the map.
+	 * Shows the window of rooms around the Hero that each snapshot holds, which follows the Hero around larger maps.
+	 * The MapTiles are created once and kept; after a move only the tiles whose character changed are repainted.
 	 * 
 	 * @author Jonathan Sohrabi 2018
 	 */
 	private class MapPanel extends JPanel {
+		/** The displayed tiles, indexed by row then column within the window */
+		private MapTile[][] tiles;
+		
 		/**
-		 * Creates 25 MapTiles for displaying the map
+		 * Creates the MapTiles for displaying the map
 		 */
 		private MapPanel() {
-			setLayout( new GridLayout( 5, 5, 2, 2 ) );
 			setPreferredSize( new Dimension( 700, 700 ) );
-			String map = curMap.toString( heroObj.getLocation() );	// Gets the current map data as a String
-			
-			for ( int i = 0; i < 25; i++ ) {			// Adds 25 MapTile JPanels, initialized with a character from the map String
-				add( new MapTile( map.charAt( i ) ) );
-			}
+			tiles = new MapTile[ 0 ][ 0 ];
+			updateMap();
 		}
 		
 		/**
-		 * Updates the displayed map.
+		 * Updates the displayed map from the latest snapshot, repainting only the tiles that changed.
 		 */
 		private void updateMap() {
-			String map = curMap.toString( heroObj.getLocation() );	// Gets the current map data as a String
-			
+			long start = System.nanoTime();
+			int viewRows = shown.getViewRows();
+			int viewCols = shown.getViewCols();
+			if ( viewRows != tiles.length || ( viewRows > 0 && viewCols != tiles[ 0 ].length ) ) {	// The new floor needs a different number of tiles
+				rebuildTiles( viewRows, viewCols );
+			}
+			for ( int i = 0; i < viewRows; i++ ) {
+				for ( int j = 0; j < viewCols; j++ ) {
+					tiles[ i ][ j ].setTile( shown.getViewTile( i, j ) );
+				}
+			}
+			MAP_UPDATE.recordSince( start );
+		}
+		
+		/**
+		 * Replaces the MapTiles with a new grid of the given size. Only needed when a floor of a different size is loaded.
+		 * 
+		 * @param viewRows		The number of rows of tiles.
+		 * @param viewCols		The number of columns of tiles.
+		 */
+		private void rebuildTiles( int viewRows, int viewCols ) {
 			removeAll();
-			
-			for ( int i = 0; i < 25; i++ ) {			// Adds 25 MapTile JPanels, initialized with a character from the map String
-				add( new MapTile( map.charAt( i ) ) );
+			setLayout( new GridLayout( viewRows, viewCols, 2, 2 ) );
+			tiles = new MapTile[ viewRows ][ viewCols ];
+			for ( int i = 0; i < viewRows; i++ ) {			// Adds a MapTile JPanel for each room in the window
+				for ( int j = 0; j < viewCols; j++ ) {
+					tiles[ i ][ j ] = new MapTile( '\0' );
+					add( tiles[ i ][ j ] );
+				}
 			}
-			
 			revalidate();
-			repaint();
 		}
 	}
 	
@@ -393,52 +386,45 @@ public class GUI extends JFrame implements KeyListener {
 			this.tile = tile;
 		}
 		
+		/**
+		 * Changes the character of this tile, repainting it only if it is different.
+		 * 
+		 * @param tile			What character to set the tile to.
+		 */
+		private void setTile( char tile ) {
+			if ( this.tile != tile ) {
+				this.tile = tile;
+				repaint();
+			}
+		}
+		
 		/**
 		 * Draws things to the JPanel.
 		 */
 		protected void paintComponent( Graphics g ) {
+			long start = System.nanoTime();
 			super.paintComponent( g );
 			g.setColor( Color.BLACK );
 			g.fillRect( 0, 0, getWidth(), getHeight() );
 			
 			// If tile is an asterisk, display the Hero's image if it can be found.
 			if ( tile == '*' ) {
-				try {
-					BufferedImage img = ImageIO.read( new File( "./images/map/Redmage.png" ) );
-					g.drawImage( img, 37, 30, this );
-				} catch ( IOException e ) {
-					System.out.println( "Hero image not found." );
-				}
+				drawSprite( g, "./images/map/Redmage.png", "Hero image not found." );
 			}
 
 			// If tile is an 's', display the Shop's image if it can be found.
 			if ( tile == 's' ) {
-				try {
-					BufferedImage img = ImageIO.read( new File( "./images/map/shop.png" ) );
-					g.drawImage( img, 37, 30, this );
-				} catch ( IOException e ) {
-					System.out.println( "Shop room image not found." );
-				}
+				drawSprite( g, "./images/map/shop.png", "Shop room image not found." );
 			}
 
 			// If tile is an 'i', display the ItemRoom's image if it can be found.
 			if ( tile == 'i' ) {
-				try {
-					BufferedImage img = ImageIO.read( new File( "./images/map/itemtile.png" ) );
-					g.drawImage( img, 37, 30, this );
-				} catch ( IOException e ) {
-					System.out.println( "Item room image not found." );
-				}
+				drawSprite( g, "./images/map/itemtile.png", "Item room image not found." );
 			}
 
 			// If tile is an 'm', display the MonsterRoom's image if it can be found.
 			if ( tile == 'm' ) {
-				try {
-					BufferedImage img = ImageIO.read( new File( "./images/map/monstertile.png" ) );
-					g.drawImage( img, 37, 30, this );
-				} catch ( IOException e ) {
-					System.out.println( "Monster room image not found." );
-				}
+				drawSprite( g, "./images/map/monstertile.png", "Monster room image not found." );
 			}
 
 			// If tile is a space, display the a blank tile
@@ -454,6 +440,23 @@ public class GUI extends JFrame implements KeyListener {
 				g.setFont( new Font( "Helvetica", Font.PLAIN, 30 ) );
 				g.drawString( "?", ( getWidth() / 2 ) - 5, ( getHeight() / 2 ) + 5 );
 			}
+			PAINT_MAP_TILE.recordSince( start );
+		}
+		
+		/**
+		 * Draws the cached sprite at the given path onto the tile, or prints the error message if it can't be found.
+		 * 
+		 * @param g				The Graphics object to draw with.
+		 * @param path			The filepath of the sprite.
+		 * @param error			The message to print if the sprite can't be found.
+		 */
+		private void drawSprite( Graphics g, String path, String error ) {
+			BufferedImage img = SpriteCache.getInstance().getSprite( path );
+			if ( img != null ) {
+				g.drawImage( img, 37, 30, this );
+			} else {
+				System.out.println( error );
+			}
 		}
 	}
 	
@@ -533,25 +536,25 @@ public class GUI extends JFrame implements KeyListener {
 			panelTitle.setForeground( Color.WHITE );
 			add( panelTitle );
 			
-			heroLevel = new JLabel( heroObj.getName() + ", Level " + heroObj.getLevel() );
+			heroLevel = new JLabel( shown.getHeroName() + ", Level " + shown.getLevel() );
 			heroLevel.setBounds( 25, 55, 180, 25 );
 			heroLevel.setFont( new Font( "Helvetica", Font.PLAIN, 21 ) );
 			heroLevel.setForeground( Color.WHITE );
 			add( heroLevel );
 			
-			heroQuip = new JLabel( "\"" + heroObj.getQuip() + "\"" );
+			heroQuip = new JLabel( "\"" + shown.getHeroQuip() + "\"" );
 			heroQuip.setBounds( 25, 80, 180, 25 );
 			heroQuip.setFont( new Font( "Helvetica", Font.PLAIN, 21 ) );
 			heroQuip.setForeground( Color.WHITE );
 			add( heroQuip );
 			
-			heroHealth = new JLabel( "HP: " + heroObj.getHP() + "/" + heroObj.getMaxHP() );
+			heroHealth = new JLabel( "HP: " + shown.getHP() + "/" + shown.getMaxHP() );
 			heroHealth.setBounds( 25, 105, 180, 25 );
 			heroHealth.setFont( new Font( "Helvetica", Font.PLAIN, 21 ) );
 			heroHealth.setForeground( Color.WHITE );
 			add( heroHealth );
 			
-			heroGold = new JLabel( "Gold: " + heroObj.getGold() );
+			heroGold = new JLabel( "Gold: " + shown.getGold() );
 			heroGold.setBounds( 25, 130, 180, 25 );
 			heroGold.setFont( new Font( "Helvetica", Font.PLAIN, 21 ) );
 			heroGold.setForeground( Color.WHITE );
@@ -574,10 +577,12 @@ public class GUI extends JFrame implements KeyListener {
 		 * Draws rectangles to the panel for aesthetic purposes.
 		 */
 		protected void paintComponent( Graphics g ) {
+			long start = System.nanoTime();
 			super.paintComponent( g );
 			g.setColor( Color.WHITE );
 			g.drawRect( 20, 20, 245, 320 );
 			g.drawRect( 20, 20, 245, 30 );
+			PAINT_HERO_INFO.recordSince( start );
 		}
 		
 		/**
@@ -588,13 +593,13 @@ public class GUI extends JFrame implements KeyListener {
 			
 			add( panelTitle );
 			
-			heroLevel.setText( heroObj.getName() + ", Level " + heroObj.getLevel() );
+			heroLevel.setText( shown.getHeroName() + ", Level " + shown.getLevel() );
 			add( heroLevel );
 			
-			heroHealth.setText( "HP: " + heroObj.getHP() + "/" + heroObj.getMaxHP() );
+			heroHealth.setText( "HP: " + shown.getHP() + "/" + shown.getMaxHP() );
 			add( heroHealth );
 			
-			heroGold.setText( "Gold: " + heroObj.getGold() );
+			heroGold.setText( "Gold: " + shown.getGold() );
 			add( heroGold );
 			
 			add( heroInvTitle );
@@ -649,6 +654,8 @@ public class GUI extends JFrame implements KeyListener {
 	private class ItemPanel extends JPanel implements MouseListener {
 		/** The Item that the panel references. */
 		private Item panelItem;
+		/** The inventory slot the panel shows. */
+		private int index;
 		
 		/**
 		 * Sets up this JPanel and sets the class field Item to the parameter.
@@ -656,8 +663,9 @@ public class GUI extends JFrame implements KeyListener {
 		 * @param i				The tested index of the player's inventory.
 		 */
 		private ItemPanel( int i ) {
-			if ( i < heroObj.getNumItems() ) {
-				panelItem = heroObj.getItems().get( i );
+			index = i;
+			if ( i < shown.getNumItems() ) {
+				panelItem = shown.getItems().get( i );
 			} else {
 				panelItem = null;
 			}
@@ -672,19 +680,21 @@ public class GUI extends JFrame implements KeyListener {
 		 * Draws a tile with the Item's image inscribed in it.
 		 */
 		protected void paintComponent( Graphics g ) {
+			long start = System.nanoTime();
 			super.paintComponent( g );
 			g.setColor( Color.WHITE );
 			g.drawRect( 0, 0, getWidth() - 1, getHeight() - 1 );
 			
 			// If this inventory slot has an Item, draw it.
 			if ( panelItem != null ) {
-				try {
-					BufferedImage img = ImageIO.read( new File( panelItem.getImgPath() ) );
+				BufferedImage img = SpriteCache.getInstance().getSprite( panelItem.getImgPath() );
+				if ( img != null ) {
 					g.drawImage( img, 1, 1, this );
-				} catch ( IOException e ) {
+				} else {
 					System.out.println( "Item image not found." );
 				}
 			}
+			PAINT_ITEM.recordSince( start );
 		}
 
 		/**
@@ -693,14 +703,8 @@ public class GUI extends JFrame implements KeyListener {
 		@Override
 		public void mouseClicked(  MouseEvent e ) {
 			// If in selling state and there is an item in this panel, sell it 
-			if ( sellingState && panelItem != null ) {
-				Item soldItem = heroObj.removeItem( panelItem.getName() );
-				if ( soldItem.getValue() < heroObj.getHP() ) {
-					heroObj.collectGold( soldItem.getValue() );
-				} else {
-					JOptionPane.showMessageDialog( this, "You can't sell this item, it would kill you to do so", "Failed Selling Item", JOptionPane.PLAIN_MESSAGE );
-				}
-				sideDisplay.updateHeroInfo();
+			if ( panelItem != null ) {
+				sell( index );
 			}
 			
 		}
@@ -763,10 +767,12 @@ public class GUI extends JFrame implements KeyListener {
 		 * Draws a couple of rectangles to this panel
 		 */
 		protected void paintComponent( Graphics g ) {
+			long start = System.nanoTime();
 			super.paintComponent( g );
 			g.setColor( Color.WHITE );
 			g.drawRect( 20, 20, 245, 320 );
 			g.drawRect( 20, 20, 245, 30 );
+			PAINT_ROOM_INFO.recordSince( start );
 		}
 		
 		/**
@@ -785,6 +791,7 @@ public class GUI extends JFrame implements KeyListener {
 			infoPanel = info;
 			infoPanel.setBounds( 21, 53, 240, 280 );
 			add( infoPanel );
+			roomView = info instanceof SnapshotView ? ( SnapshotView )info : null;
 			
 			revalidate();
 			repaint();
@@ -811,7 +818,7 @@ public class GUI extends JFrame implements KeyListener {
 	 * 
 	 * @author Jonathan Sohrabi 2018
 	 */
-	private class ShopPanelMain extends JPanel implements ActionListener {
+	private class ShopPanelMain extends JPanel implements ActionListener, SnapshotView {
 		/** A welcome message. */
 		private JLabel welcomeLabel = new JLabel( "<html><center>Welcome, adventurer!<br/>Please, browse my wares.</center></html>" );
 		/** A button for buying potions */
@@ -851,23 +858,38 @@ public class GUI extends JFrame implements KeyListener {
 		 */
 		@Override
 		public void actionPerformed( ActionEvent e ) {
-			// If the button for buying potions triggered an event
+			// If the button for buying potions triggered an event, try to buy one. The result is shown once the game has sold it.
 			if ( e.getSource() == buyButton ) {
+				engine.submit( GameCommand.BUY_POTION );
+			}
+			// If the button for selling items triggered the event, try to open the selling menu
+			if ( e.getSource() == sellButton ) {
+				engine.submit( GameCommand.OPEN_SELL );
+			}
+			// If the exit button triggered an avent, exit the shop.
+			if ( e.getSource() == exitButton ) {
+				engine.submit( GameCommand.LEAVE_SHOP );
+			}
+		}
+		
+		/**
+		 * Shows the result of buying, opening the selling menu or leaving the shop.
+		 */
+		@Override
+		public void show( GameSnapshot s ) {
+			// If the Hero tried to buy a potion, say whether they got it.
+			if ( s.getCommand() == GameCommand.BUY_POTION ) {
 				JLabel boughtItem = new JLabel();
 				
 				removeAll();
 				
-				// If the hero has over 25 or more gold, let them buy a potion.
-				if ( heroObj.getGold() >= 25 ) {
-					if ( heroObj.pickUpItem( ItemGenerator.getInstance().getPotion() ) ) {
-						boughtItem.setText( "<html><center>Here's your potion, " + heroObj.getName() + "</center></html>" );
-						boughtItem.setBounds( 40, 65, 250, 60 );
-						heroObj.spendGold( 25 );
-						sideDisplay.updateHeroInfo();
-					} else {
-						boughtItem.setText( "<html><center>You don't have enough inventory space for a potion.</center></html>" );
-						boughtItem.setBounds( 0, 65, 250, 60 );
-					}
+				if ( s.isApplied() ) {
+					boughtItem.setText( "<html><center>Here's your potion, " + s.getHeroName() + "</center></html>" );
+					boughtItem.setBounds( 40, 65, 250, 60 );
+				// If the hero has 25 or more gold, only their inventory can have been in the way.
+				} else if ( s.getGold() >= GameSession.POTION_PRICE ) {
+					boughtItem.setText( "<html><center>You don't have enough inventory space for a potion.</center></html>" );
+					boughtItem.setBounds( 0, 65, 250, 60 );
 				} else {
 					boughtItem.setText( "<html><center>You don't have enough money for a potion.</center></html>" );
 					boughtItem.setBounds( 0, 65, 250, 60 );
@@ -884,10 +906,9 @@ public class GUI extends JFrame implements KeyListener {
 				revalidate();
 				repaint();
 			}
-			// If the button for selling items triggered the event
-			if ( e.getSource() == sellButton ) {
+			if ( s.getCommand() == GameCommand.OPEN_SELL ) {
 				// If the Hero has items, show the selling menu.
-				if ( heroObj.getNumItems() > 0 ) {	
+				if ( s.isApplied() ) {	
 					JPanel shopPanelSell = new ShopPanelSell();
 					
 					sideDisplay.updateRoomInfo( "Shop", shopPanelSell );
@@ -909,9 +930,7 @@ public class GUI extends JFrame implements KeyListener {
 					repaint();
 				}
 			}
-			// If the exit button triggered an avent, exit the shop.
-			if ( e.getSource() == exitButton ) {
-				shopState = false;
+			if ( s.getCommand() == GameCommand.LEAVE_SHOP && s.isApplied() ) {
 				sideDisplay.updateRoomInfo( "",  new BlankPanel() );
 			}
 		}
@@ -921,7 +940,7 @@ public class GUI extends JFrame implements KeyListener {
 	 * 
 	 * @author Jonathan Sohrabi 2018
 	 */
-	private class ShopPanelSell extends JPanel implements ActionListener {
+	private class ShopPanelSell extends JPanel implements ActionListener, SnapshotView {
 		/** Button for exiting out of the sell menu. */
 		private JButton exitButton;
 		
@@ -931,7 +950,6 @@ public class GUI extends JFrame implements KeyListener {
 		private ShopPanelSell() {
 			setLayout( null );
 			setBackground( Color.BLACK );
-			sellingState = true;			// Set state to say Hero is selling.
 			
 			JLabel prompt = new JLabel( "<html><center>Whaddya wanna sell?<br/>(Use 1-5 keys or click the item to sell it.)</center></html>" );
 			prompt.setFont( new Font( "Helvetica", Font.PLAIN, 17 ) );
@@ -953,7 +971,16 @@ public class GUI extends JFrame implements KeyListener {
 		public void actionPerformed( ActionEvent e ) {
 			// If the exit button triggered the event, set Hero is not selling anymore. Return to the main shop msnu.
 			if ( e.getSource() == exitButton ) {
-				sellingState = false;
+				engine.submit( GameCommand.CLOSE_SELL );
+			}
+		}
+		
+		/**
+		 * Returns to the main shop menu once the game has closed the selling menu.
+		 */
+		@Override
+		public void show( GameSnapshot s ) {
+			if ( s.getCommand() == GameCommand.CLOSE_SELL && s.isApplied() ) {
 				sideDisplay.updateRoomInfo( "Shop", new ShopPanelMain() );
 			}
 		}
@@ -964,9 +991,9 @@ public class GUI extends JFrame implements KeyListener {
 	 * 
 	 * @author Jonathan Sohrabi 2018
 	 */
-	private class MonsterRoomPanel extends JPanel implements ActionListener {
-		/** Enemy that the hero is fighting */
-		private Enemy enemy;
+	private class MonsterRoomPanel extends JPanel implements ActionListener, SnapshotView {
+		/** The image filepath of the Enemy that the hero is fighting */
+		private String enemyImg;
 		/** Shows the health of the Enemy */
 		private JLabel eHealth;
 		/** Shows the quip of the Enemy */
@@ -995,31 +1022,47 @@ public class GUI extends JFrame implements KeyListener {
 		private JButton fireball = new JButton( "Fireball" );
 		/** Button to use a thunderclap */
 		private JButton thunderclap = new JButton( "Thunderclap" );
-		/** The damage that the hero dealt */
-		private int heroDamage;
 		/** Label to show what the Hero did in combat */
 		private JLabel heroCombatLabel = new JLabel( "" );
 		/** Label to show what the enemy did in combat */
 		private JLabel enemyDamage = new JLabel();
+		/** Shows the best chance of winning by fighting, next to the fight button. */
+		private JLabel fightChance = new JLabel();
+		/** Shows the chance of winning with a physical attack. */
+		private JLabel physicalChance = new JLabel();
+		/** Shows the best chance of winning with a spell, next to the magic button. */
+		private JLabel magicalChance = new JLabel();
+		/** Shows the chance of winning by drinking a potion. */
+		private JLabel potionChance = new JLabel();
+		/** Shows the chance of winning with a magic missile. */
+		private JLabel magicMissileChance = new JLabel();
+		/** Shows the chance of winning with a fireball. */
+		private JLabel fireballChance = new JLabel();
+		/** Shows the chance of winning with a thunderclap. */
+		private JLabel thunderclapChance = new JLabel();
+		/** Works out the chances in the background while the fight goes on, or null. */
+		private WinEstimator estimator;
+		/** Counts the estimates asked for, so fight copies and estimates of a cancelled one that were already on their way are ignored. */
+		private int estimates;
 		
 		/**
 		 * Sets up the JPanel by adding components to it.
-		 * Enemy also attacks Hero when called.
+		 * Shows the attack the Enemy made when the Hero walked in.
 		 * 
-		 * @param e				The enemy that the hero is fighting.
+		 * @param s				The snapshot taken when the hero walked in, holding the fight between the hero and the enemy.
 		 */
-		private MonsterRoomPanel( Enemy e ) {
-			enemy = e;
-			eHealth = new JLabel( "HP: " + e.getHP() + "/" + e.getMaxHP() );	// Set text for enemy health label
-			eQuip = new JLabel( "\"" + e.getQuip() + "\"" );					// Set text for enemy quip label
+		private MonsterRoomPanel( GameSnapshot s ) {
+			enemyImg = s.getEnemyImgPath();
+			eHealth = new JLabel( "HP: " + s.getEnemyHP() + "/" + s.getEnemyMaxHP() );	// Set text for enemy health label
+			eQuip = new JLabel( "\"" + s.getEnemyQuip() + "\"" );					// Set text for enemy quip label
 			
 			setLayout( null );
 			setBackground( Color.BLACK );
 			
-			// Enemy deals damage to the hero
-			enemyDamage = enemy.combatTurn( heroObj );
+			// Show the damage the enemy dealt to the hero
+			enemyDamage = enemyAttackLabel( s );
 			add( enemyDamage );
-			fightEnd();
+			fightEnd( s );
 
 			// Label properties for enemy quip
 			eQuip.setBounds( 70, 10, 150, 30 );
@@ -1039,8 +1082,8 @@ public class GUI extends JFrame implements KeyListener {
 			add( eHealth );
 			
 			// If the hero has 0 hp, write that they died.
-			if ( heroObj.getHP() == 0 ) {
-				fightEnd();
+			if ( s.getHP() == 0 ) {
+				fightEnd( s );
 			} else {
 				/******** Setup for fightMain panel ********/
 				fightMain.setLayout( null );
@@ -1050,10 +1093,11 @@ public class GUI extends JFrame implements KeyListener {
 				fightButton.setBounds( 50, 20, 150, 30 );
 				fightButton.addActionListener( this );
 				fightMain.add( fightButton );
+				chanceLabel( fightMain, fightChance, fightButton );
 				
 				runButton.setBounds( 50, 60, 150, 30 );
 				runButton.addActionListener( this );
-				fightMain.add( runButton );
+				fightMain.add( runButton );					// Running away always works, so it has no chance to show
 				/*******************************************/
 				
 				/******** Setup for fightOptions panel ********/
@@ -1064,10 +1108,12 @@ public class GUI extends JFrame implements KeyListener {
 				physical.setBounds( 50, 20, 150, 30 );
 				physical.addActionListener( this );
 				fightOptions.add( physical );
+				chanceLabel( fightOptions, physicalChance, physical );
 				
 				magical.setBounds( 50, 60, 150, 30 );
 				magical.addActionListener( this );
 				fightOptions.add( magical );
+				chanceLabel( fightOptions, magicalChance, magical );
 				/*******************************************/
 
 				/******** Setup for magicOptions panel ********/
@@ -1078,36 +1124,129 @@ public class GUI extends JFrame implements KeyListener {
 				magicMissile.setBounds( 50, 20, 150, 30 );
 				magicMissile.addActionListener( this );
 				magicOptions.add( magicMissile );
+				chanceLabel( magicOptions, magicMissileChance, magicMissile );
 				
 				fireball.setBounds( 50, 60, 150, 30 );
 				fireball.addActionListener( this );
 				magicOptions.add( fireball );
+				chanceLabel( magicOptions, fireballChance, fireball );
 				
 				thunderclap.setBounds( 50, 100, 150, 30 );
 				thunderclap.addActionListener( this );
 				magicOptions.add( thunderclap );
+				chanceLabel( magicOptions, thunderclapChance, thunderclap );
 				/*******************************************/
 				
+				potion.setBounds( 50, 100, 150, 30 );
+				potion.addActionListener( this );
+				potionChance.setBounds( 205, 100, 45, 30 );
+				potionChance.setForeground( Color.WHITE );
+				
 				add( fightMain );
+				estimate( s );
+			}
+		}
+		
+		/**
+		 * Sets up the label that shows the chance of winning with a button's action, to the right of the button.
+		 * 
+		 * @param menu			The menu the button is on.
+		 * @param label			The label.
+		 * @param button		The button.
+		 */
+		private void chanceLabel( JPanel menu, JLabel label, JButton button ) {
+			label.setBounds( button.getX() + button.getWidth() + 5, button.getY(), 45, button.getHeight() );
+			label.setForeground( Color.WHITE );
+			menu.add( label );
+		}
+		
+		/**
+		 * Starts estimating the chances of every action in the background, cancelling the estimate of the previous turn.
+		 * The chances are left blank until the first estimate arrives.
+		 * 
+		 * @param s				The snapshot holding the fight as it is now.
+		 */
+		private void estimate( GameSnapshot s ) {
+			stopEstimate();
+			for ( JLabel l : new JLabel[] { fightChance, physicalChance, magicalChance, potionChance, magicMissileChance, fireballChance, thunderclapChance } ) {
+				l.setText( "" );
+			}
+			if ( !s.isFighting() ) {
+				return;
+			}
+			int id = ++estimates;
+			engine.copyCombat( s.getSequence() ).thenAccept( fight -> SwingUtilities.invokeLater( () -> {
+				if ( fight != null && id == estimates ) {		// Not if the panel moved on while the fight was copied
+					estimator = WinEstimator.start( fight, e -> SwingUtilities.invokeLater( () -> {
+						if ( id == estimates ) {				// Only the estimate of the turn being shown
+							showChances( e );
+						}
+					} ) );
+				}
+			} ) );
+		}
+		
+		/**
+		 * Cancels the estimate being worked out, if any, and any fight copy still on its way to start one.
+		 */
+		private void stopEstimate() {
+			if ( estimator != null ) {
+				estimator.cancel();
+				estimator = null;
 			}
+			estimates++;
+		}
+		
+		/**
+		 * Shows an estimate next to the buttons. The chances have a ~ in front until the estimate is final.
+		 * 
+		 * @param e				The estimate.
+		 */
+		private void showChances( WinEstimator.Estimate e ) {
+			String format = e.isFinal() ? "%.0f%%" : "~%.0f%%";
+			CombatAction bestSpell = null;
+			for ( CombatAction a : CombatAction.values() ) {
+				if ( a.isSpell() && e.hasAction( a ) && ( bestSpell == null || e.getWinChance( a ) > e.getWinChance( bestSpell ) ) ) {
+					bestSpell = a;
+				}
+			}
+			fightChance.setText( String.format( format, e.getWinChance( e.getBest() ) * 100 ) );
+			physicalChance.setText( String.format( format, e.getWinChance( CombatAction.PHYSICAL ) * 100 ) );
+			magicalChance.setText( String.format( format, e.getWinChance( bestSpell ) * 100 ) );
+			potionChance.setText( e.hasAction( CombatAction.POTION ) ? String.format( format, e.getWinChance( CombatAction.POTION ) * 100 ) : "" );
+			magicMissileChance.setText( String.format( format, e.getWinChance( CombatAction.MAGIC_MISSILE ) * 100 ) );
+			fireballChance.setText( String.format( format, e.getWinChance( CombatAction.FIREBALL ) * 100 ) );
+			thunderclapChance.setText( String.format( format, e.getWinChance( CombatAction.THUNDERCLAP ) * 100 ) );
+		}
+		
+		/**
+		 * Cancels the estimate once the panel is taken off the screen, such as when the Hero ran away or the game ended.
+		 */
+		@Override
+		public void removeNotify() {
+			stopEstimate();
+			super.removeNotify();
 		}
 		
 		/**
 		 * Draws the enemy's image.
 		 */
 		protected void paintComponent( Graphics g ) {
+			long start = System.nanoTime();
 			super.paintComponent( g );
 			
-			try {
-				BufferedImage img = ImageIO.read( new File( enemy.getImgPath() ) );
+			BufferedImage img = SpriteCache.getInstance().getSprite( enemyImg );
+			if ( img != null ) {
 				g.drawImage( img, 0, 0, this );
-			} catch ( IOException e ) {
+			} else {
 				System.out.println( "Could not find image file for enemy." );
 			}
+			PAINT_MONSTER_ROOM.recordSince( start );
 		}
 
 		/**
 		 * Performs actions depending on what triggered the event.
+		 * Actions that take a turn are sent to the game, and their result is shown once the game has carried them out.
 		 */
 		@Override
 		public void actionPerformed( ActionEvent e ) {
@@ -1116,12 +1255,12 @@ public class GUI extends JFrame implements KeyListener {
 				remove( fightMain );
 				
 				// If the hero has a potion, let them use it.
-				if ( heroObj.hasPotion() ) {
-					potion.setBounds( 50, 100, 150, 30 );
-					potion.addActionListener( this );
+				if ( shown.hasPotion() ) {
 					fightOptions.add( potion );
+					fightOptions.add( potionChance );
 				} else {
 					fightOptions.remove( potion );
+					fightOptions.remove( potionChance );
 				}
 				
 				add( fightOptions );
@@ -1136,84 +1275,13 @@ public class GUI extends JFrame implements KeyListener {
 			}
 			// If the run button triggered the event, move in a random direction.
 			if ( e.getSource() == runButton ) {
-				boolean moved = false;
-				Random rng = new Random();
-				sideDisplay.updateRoomInfo( "", new BlankPanel() );
-				
-				do {
-					switch( rng.nextInt( 4 ) + 1 ) {
-						case 1:
-							if ( heroObj.getLocation().getX() != 0 ) {	//If the Hero is not at top of Map, move the Hero north.
-								heroObj.goNorth();
-								moved = true;						//Set moved to true to break out of loop.
-							} else {								//Else, set moved to false to try moving again.
-								moved = false;
-							}
-							break;	 								//Break out of this switch statement.
-							
-						//If random int was 2:
-						case 2:
-							if ( heroObj.getLocation().getX() != 4 ) {	//If Hero is not at bottom of Map, move Hero south.
-								heroObj.goSouth();
-								moved = true;						//Set moved to true to break out of loop.
-							} else {								//Else, set moved to false to try moving again.
-								moved = false;
-							}
-							break;									//Break out of this switch statement.
-							
-						//If random int was 3:
-						case 3:
-							if ( heroObj.getLocation().getY() != 0 ) {	//If Hero is not at left-most part of Map, move Hero west.
-								heroObj.goWest();
-								moved = true;						//Set moved to true to break out of loop.
-							} else {								//Else, set moved to false and try moving again.
-								moved = false;
-							}
-							break;									//Break out of this switch statement.
-							
-						//If random int was 4:
-						case 4:
-							if ( heroObj.getLocation().getY() != 4 ) {	//If Hero is not at right-most part of Map, move Hero east.
-								heroObj.goEast();
-								moved = true;						//Set moved to true to break out of loop.
-							} else {								//Else, set moved to false and try moving again.
-								moved = false;
-							}
-							break;									//Break out of this switch statement.
-						}
-				} while ( !moved );
-				fightState = false;
-				roomCheck();
-				guiMap.updateMap();
+				engine.submit( GameCommand.RUN );
 			}
 			// If the physical button triggered the event, enemy and hero attack each other.
 			if ( e.getSource() == physical ) {
-				heroDamage = heroObj.attack( enemy );		// Get damage dealt to the enemy
-				heroCombatLabel.setText( "You attack the enemy for " + heroDamage + " damage." );
-				enemyDamage = enemy.combatTurn( heroObj );
-				
-				remove( fightOptions );
-				
-				eHealth.setText( "HP: " + enemy.getHP() + "/" + enemy.getMaxHP() );
-				add( eHealth );
-				add( enemyDamage );
-				
-				sideDisplay.updateHeroInfo();
-				
-				// If the fight is not over, show the hero's damage and return to the main fight menu.
-				// If the fight is over and the hero is still alive, just show their damage.
-				if ( !fightEnd() ) {
-					add( heroCombatLabel );
-					add( fightMain );
-				} else {
-					if ( heroObj.getHP() > 0 )
-						add( heroCombatLabel );
-				}
-				
-				revalidate();
-				repaint();
-			// If the magical button triggered the event, display the magic menu
+				takeTurn( GameCommand.PHYSICAL, fightOptions );
 			}
+			// If the magical button triggered the event, display the magic menu
 			if ( e.getSource() == magical ) {
 				remove( fightOptions );
 				add( magicOptions );
@@ -1224,97 +1292,126 @@ public class GUI extends JFrame implements KeyListener {
 				revalidate();
 				repaint();
 			}
-			// If one of the spell buttons triggered the event, deal damage with that spell and return to the main fight screen.
-			if ( e.getSource() == magicMissile || e.getSource() == fireball || e.getSource() == thunderclap ) {
-				int damage;
-				
-				if ( e.getSource() == magicMissile ) {
-					damage = heroObj.magicMissile();
-					enemy.takeDamage( damage );
-					heroCombatLabel.setText( "<html><center>You attack the enemy with a Magic Missile for " + damage + " damage</center></html>");
-				}
-				if ( e.getSource() == fireball ) {
-					damage = heroObj.fireball();
-					enemy.takeDamage( damage );
-					heroCombatLabel.setText( "<html><center>You attack the enemy with a Fireball for " + damage + " damage</center></html>");
-				}
-				if ( e.getSource() == thunderclap ) {
-					damage = heroObj.thunderclap();
-					enemy.takeDamage( damage );
-					heroCombatLabel.setText( "<html><center>You attack the enemy with a Thunderclap for " + damage + " damage</center></html>");
-				}
-				
-				// Enemy deals damage to the hero
-				enemyDamage = enemy.combatTurn( heroObj );
-				enemyDamage.setForeground( Color.WHITE );
-				
-				remove( magicOptions );
-				
-				eHealth.setText( "HP: " + enemy.getHP() + "/" + enemy.getMaxHP() );
-				add( eHealth );
-				add( enemyDamage );
-				
-				sideDisplay.updateHeroInfo();
-
-				// If the fight is not over, show the hero's damage and return to the main fight menu.
-				// If the fight is over and the hero is still alive, just show their damage.
-				if ( !fightEnd() ) {
-					add( heroCombatLabel );
-					add( fightMain );
-				} else {
-					if ( heroObj.getHP() > 0 )
-						add( heroCombatLabel );
-				}
-				
-				revalidate();
-				repaint();
+			// If one of the spell buttons triggered the event, deal damage with that spell.
+			if ( e.getSource() == magicMissile ) {
+				takeTurn( GameCommand.MAGIC_MISSILE, magicOptions );
+			}
+			if ( e.getSource() == fireball ) {
+				takeTurn( GameCommand.FIREBALL, magicOptions );
+			}
+			if ( e.getSource() == thunderclap ) {
+				takeTurn( GameCommand.THUNDERCLAP, magicOptions );
 			}
 			// If the potion button triggered the event, consume the potion
 			if ( e.getSource() == potion ) {
-				heroObj.heal( 25 );
-				heroObj.removeItem( "Health Potion" );
-				sideDisplay.updateHeroInfo();
-				
-				usedPotion.setBounds( 40, 110, 220, 30 );
-				usedPotion.setForeground( Color.WHITE );
-				
-				// Enemy attacks the hero
-				enemyDamage = enemy.combatTurn( heroObj );
-				enemyDamage.setForeground( Color.WHITE );
-				
-				remove( fightOptions );
-				
-				eHealth.setText( "HP: " + enemy.getHP() + "/" + enemy.getMaxHP() );
-				add( eHealth );
-				add( enemyDamage );
-				
-				sideDisplay.updateHeroInfo();
-				
-
-				// If the fight is not over, write the enemy's damage and hero's potion drink.
-				if ( !fightEnd() ) {
-					add( usedPotion );
+				takeTurn( GameCommand.POTION, fightOptions );
+			}
+		}
+		
+		/**
+		 * Sends a turn of the fight to the game, hiding the menu it was chosen from so it can't be chosen twice before
+		 * the result is shown.
+		 * 
+		 * @param command		The action of the hero.
+		 * @param menu			The menu the action was chosen from.
+		 */
+		private void takeTurn( GameCommand command, JPanel menu ) {
+			remove( menu );
+			engine.submit( command );
+			
+			revalidate();
+			repaint();
+		}
+		
+		/**
+		 * Shows the result of a turn of the fight and returns to the main fight screen, unless the fight is over.
+		 */
+		@Override
+		public void show( GameSnapshot s ) {
+			if ( !s.hasCombat() || s.getCommand().toCombatAction() == null || s.getCommand() == GameCommand.RUN ) {
+				return;
+			}
+			if ( !s.isApplied() ) {			// The turn wasn't taken, so the hero can choose again
+				if ( s.isFighting() ) {
 					add( fightMain );
+					revalidate();
+					repaint();
 				}
-				
-				revalidate();
-				repaint();
+				return;
+			}
+			
+			JLabel heroLabel = heroCombatLabel;
+			switch ( s.getCommand() ) {
+				case MAGIC_MISSILE:
+					heroCombatLabel.setText( "<html><center>You attack the enemy with a Magic Missile for " + s.getLastHeroDamage() + " damage</center></html>");
+					break;
+				case FIREBALL:
+					heroCombatLabel.setText( "<html><center>You attack the enemy with a Fireball for " + s.getLastHeroDamage() + " damage</center></html>");
+					break;
+				case THUNDERCLAP:
+					heroCombatLabel.setText( "<html><center>You attack the enemy with a Thunderclap for " + s.getLastHeroDamage() + " damage</center></html>");
+					break;
+				case POTION:
+					usedPotion.setBounds( 40, 110, 220, 30 );
+					usedPotion.setForeground( Color.WHITE );
+					heroLabel = usedPotion;
+					break;
+				default:
+					heroCombatLabel.setText( "You attack the enemy for " + s.getLastHeroDamage() + " damage." );
+					break;
 			}
+			
+			// Show the damage the enemy dealt to the hero
+			remove( enemyDamage );
+			enemyDamage = enemyAttackLabel( s );
+			
+			eHealth.setText( "HP: " + s.getEnemyHP() + "/" + s.getEnemyMaxHP() );
+			add( eHealth );
+			add( enemyDamage );
+			
+			// If the fight is not over, show what the hero did and return to the main fight menu.
+			// If the fight is over and the hero is still alive, just show their damage.
+			if ( !fightEnd( s ) ) {
+				add( heroLabel );
+				add( fightMain );
+				estimate( s );
+			} else {
+				stopEstimate();
+				if ( s.getHP() > 0 && heroLabel == heroCombatLabel )
+					add( heroCombatLabel );
+			}
+			
+			revalidate();
+			repaint();
+		}
+		
+		/**
+		 * Creates a label showing the enemy's last attack on the hero.
+		 * 
+		 * @param s				The snapshot holding the attack.
+		 * @return				The label.
+		 */
+		private JLabel enemyAttackLabel( GameSnapshot s ) {
+			JLabel label = new JLabel( "<html><center>" + s.getEnemyAttack() + "</center></html>" );
+			label.setBounds( 20, 70, 220, 30 );
+			label.setForeground( Color.WHITE );
+			return label;
 		}
 		
 		/**
 		 * Checks whether a fight between the hero and an enemy is finished.
 		 * 
+		 * @param s				The snapshot holding the fight.
 		 * @return				Whether the fight is finished.
 		 */
-		private boolean fightEnd() {
+		private boolean fightEnd( GameSnapshot s ) {
 			BlankPanel bp = new BlankPanel();
 			JLabel fightEndLabel = new JLabel();
 			bp.setBounds( 0, 160, 250, 100 );
 			fightEndLabel.setBounds( 0, 0, 250, 100 );
 			
 			// If the hero has 0 hp, write that they died and return true.
-			if ( heroObj.getHP() == 0 ) {
+			if ( s.getOutcome() == Combat.Outcome.LOST ) {
 				fightEndLabel.setText( "<html><center>Oh dear,<br>you have died.</center></html>" );
 				fightEndLabel.setFont( new Font( "Helvetica", Font.PLAIN, 30 ) );
 				fightEndLabel.setForeground( Color.RED );
@@ -1324,8 +1421,8 @@ public class GUI extends JFrame implements KeyListener {
 				
 				return true;
 			// If the enemy has 0 hp, the fight is finished and the hero loots the enemy if possible.
-			} else if ( enemy.getHP() == 0 ) {
-				Item reward = ItemGenerator.getInstance().generateItem();
+			} else if ( s.getOutcome() == Combat.Outcome.WON ) {
+				Item reward = s.getFoundItem();					// The game already looted the enemy
 				JLabel itemGet = new JLabel();
 				
 				fightEndLabel.setText( "<html><center>You defeated the enemy!</center></html>" );
@@ -1333,24 +1430,20 @@ public class GUI extends JFrame implements KeyListener {
 				fightEndLabel.setForeground( Color.WHITE );
 				bp.add( fightEndLabel );
 				
-				if ( heroObj.pickUpItem( reward ) ) {
+				if ( reward != null ) {
 					itemGet.setText( "<html><center>You receive a " + reward.getName() + "<br>from its corpse.</center></html>" );
 					itemGet.setBounds( 0, 50, 250, 100 );
 					itemGet.setFont( new Font( "Helvetica", Font.PLAIN, 17 ) );
 					itemGet.setForeground( Color.WHITE );
 					bp.add( itemGet );
-					sideDisplay.updateHeroInfo();
-					curMap.removeCharAtLoc( heroObj.getLocation() );
 				} else {
 					itemGet.setText( "<html><center>The enemy had an item,<br>but your inventory is full.</center></html>" );
 					itemGet.setBounds( 0, 50, 250, 100 );
 					itemGet.setFont( new Font( "Helvetica", Font.PLAIN, 17 ) );
 					itemGet.setForeground( Color.WHITE );
 					bp.add( itemGet );
-					curMap.setItemRoom( heroObj.getLocation() );
 				}
 				add( bp );
-				fightState = false;
 				
 				return true;
 			} else {
@@ -0,0 +1,64 @@
+/**
+ * The commands a player can send to a GameSession.
+ * A command that doesn't make sense in the session's current state, like moving in the middle of a fight, is ignored.
+ * 
+ * @author agent 2026
+ */
+public enum GameCommand {
+	/** Move the Hero up by one room. */
+	NORTH,
+	/** Move the Hero down by one room. */
+	SOUTH,
+	/** Move the Hero right by one room. */
+	EAST,
+	/** Move the Hero left by one room. */
+	WEST,
+	/** Buy a Health Potion in the shop. */
+	BUY_POTION,
+	/** Open the shop's selling menu. */
+	OPEN_SELL,
+	/** Sell the Item at the given inventory index. Only works in the selling menu. */
+	SELL,
+	/** Go back from the selling menu to the shop's main menu. */
+	CLOSE_SELL,
+	/** Leave the shop. */
+	LEAVE_SHOP,
+	/** Attack the Enemy physically. */
+	PHYSICAL,
+	/** Cast a Magic Missile at the Enemy. */
+	MAGIC_MISSILE,
+	/** Cast a Fireball at the Enemy. */
+	FIREBALL,
+	/** Cast a Thunderclap at the Enemy. */
+	THUNDERCLAP,
+	/** Drink a Health Potion in the middle of a fight. */
+	POTION,
+	/** Run away from the fight, into a random neighbouring room. */
+	RUN,
+	/** End the session. */
+	QUIT;
+	
+	/**
+	 * Gets the fight action this command stands for.
+	 * 
+	 * @return					The CombatAction, or null if this is not a fight command.
+	 */
+	public CombatAction toCombatAction() {
+		switch ( this ) {
+			case PHYSICAL:
+				return CombatAction.PHYSICAL;
+			case MAGIC_MISSILE:
+				return CombatAction.MAGIC_MISSILE;
+			case FIREBALL:
+				return CombatAction.FIREBALL;
+			case THUNDERCLAP:
+				return CombatAction.THUNDERCLAP;
+			case POTION:
+				return CombatAction.POTION;
+			case RUN:
+				return CombatAction.RUN;
+			default:
+				return null;
+		}
+	}
+}
@@ -0,0 +1,366 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
+
+/**
+ * Runs one GameSession on a game-logic thread of its own.
+ * Clients queue commands with submit, which never waits for the game. The engine thread takes the commands in order,
+ * carries each one out and publishes an immutable GameSnapshot of the result to every listener. A display such as the
+ * GUI draws the snapshots on its own thread; without one, the engine runs headless.
+ * 
+ * Only the engine thread touches the session once the engine has started.
+ * 
+ * An engine can record every command it carries out into an InputLog, so the game can be replayed later.
+ * 
+ * Snapshots don't hold the fight itself. A client that wants to play on a copy of it, such as the WinEstimator, asks
+ * for one with copyCombat, so only the turns somebody looks at are copied.
+ * 
+ * Usage: java GameEngine [seed] [commands]
+ * Plays a headless game of random commands and prints the last snapshot.
+ * 
+ * @author agent 2026
+ */
+public class GameEngine implements Closeable {
+	/**
+	 * The number of rows and columns of the Map window that snapshots hold unless told otherwise.
+	 */
+	public static final int VIEW_SIZE = 5;
+	
+	/** The session the engine runs. */
+	private final GameSession session;
+	/** The largest number of rows and columns of the Map window in a snapshot. */
+	private final int viewSize;
+	/** The commands waiting to be carried out. */
+	private final LinkedBlockingQueue<Request> commands;
+	/** Told about every snapshot, on the engine thread. */
+	private final CopyOnWriteArrayList<Consumer<GameSnapshot>> listeners;
+	/** The thread that carries out the commands. */
+	private final Thread thread;
+	/** Records the commands carried out, or null. Only used by the engine thread once the engine has started. */
+	private InputLog.Recorder recorder;
+	/** The latest snapshot. */
+	private volatile GameSnapshot snapshot;
+	/** The number of commands submitted so far, which is the sequence number of the last one's snapshot. Guarded by this engine. */
+	private long submitted;
+	/** Whether the engine takes no more commands. Guarded by this engine. */
+	private boolean closed;
+	
+	/**
+	 * Creates an engine for a session, with the default Map window.
+	 * 
+	 * @param session			The session to run. Nothing else may use it once the engine has started.
+	 */
+	public GameEngine( GameSession session ) {
+		this( session, VIEW_SIZE );
+	}
+	
+	/**
+	 * Creates an engine for a session and takes the first snapshot, on the calling thread.
+	 * 
+	 * @param session			The session to run. Nothing else may use it once the engine has started.
+	 * @param viewSize			The largest number of rows and columns of the Map window in a snapshot.
+	 */
+	public GameEngine( GameSession session, int viewSize ) {
+		if ( viewSize < 0 ) {
+			throw new IllegalArgumentException( "The view size can't be negative: " + viewSize );
+		}
+		this.session = session;
+		this.viewSize = viewSize;
+		this.commands = new LinkedBlockingQueue<Request>();
+		this.listeners = new CopyOnWriteArrayList<Consumer<GameSnapshot>>();
+		this.snapshot = new GameSnapshot( 0, null, 0, false, session, viewSize );
+		this.thread = new Thread( this::run, "game-engine" );
+		thread.setDaemon( true );		// The client decides when the program ends
+	}
+	
+	/**
+	 * Records every command carried out from now on. Must be called before start, on a session that hasn't carried out
+	 * any command yet. The engine closes the recorder when it stops.
+	 * 
+	 * @param r					The recorder of the session.
+	 */
+	public void record( InputLog.Recorder r ) {
+		if ( thread.isAlive() ) {
+			throw new IllegalStateException( "The engine has already started" );
+		}
+		this.recorder = r;
+	}
+	
+	/**
+	 * Starts carrying out commands. Commands submitted before are carried out first.
+	 */
+	public void start() {
+		thread.start();
+	}
+	
+	/**
+	 * Adds a listener that is given every snapshot published after it was added. Listeners are called on the engine
+	 * thread and must return quickly, so a display should hand the snapshot over to its own thread.
+	 * 
+	 * @param listener			The listener.
+	 */
+	public void addListener( Consumer<GameSnapshot> listener ) {
+		listeners.add( listener );
+	}
+	
+	/**
+	 * Removes a listener.
+	 * 
+	 * @param listener			The listener.
+	 */
+	public void removeListener( Consumer<GameSnapshot> listener ) {
+		listeners.remove( listener );
+	}
+	
+	/**
+	 * Queues a command without waiting for it to be carried out.
+	 * 
+	 * @param command			The command to carry out.
+	 * @param arg				The inventory index for SELL, ignored otherwise.
+	 * @return					The sequence number the command's snapshot will have, or -1 if the engine was closed.
+	 */
+	public synchronized long submit( GameCommand command, int arg ) {
+		if ( closed ) {
+			return -1;
+		}
+		commands.add( new Request( command, arg ) );
+		return ++submitted;
+	}
+	
+	/**
+	 * Queues a command that takes no argument.
+	 * 
+	 * @param command			The command to carry out.
+	 * @return					The sequence number the command's snapshot will have, or -1 if the engine was closed.
+	 */
+	public long submit( GameCommand command ) {
+		return submit( command, 0 );
+	}
+	
+	/**
+	 * Copies the fight as it was in a snapshot, on the engine thread once the commands submitted before have been
+	 * carried out. Nothing waits for the copy, and the copy can be played on from any thread without changing the game.
+	 * 
+	 * @param sequence			The sequence number of the snapshot the fight is wanted for.
+	 * @return					Completes with a copy of the fight, or with null if the Hero wasn't in a fight that is going on,
+	 * 							a later command was carried out before the copy could be taken, or the engine stopped.
+	 */
+	public CompletableFuture<Combat> copyCombat( long sequence ) {
+		CompletableFuture<Combat> copy = new CompletableFuture<Combat>();
+		synchronized ( this ) {
+			if ( closed ) {
+				copy.complete( null );
+			} else {
+				commands.add( new Request( sequence, copy ) );
+			}
+		}
+		return copy;
+	}
+	
+	/**
+	 * Gets the latest snapshot.
+	 * 
+	 * @return					The snapshot taken after the last command carried out, or the first snapshot.
+	 */
+	public GameSnapshot getSnapshot() {
+		return snapshot;
+	}
+	
+	/**
+	 * Waits until the snapshot with the given sequence number is published, for headless clients that take turns with
+	 * the game. A display must not call this on its own thread.
+	 * 
+	 * @param sequence			The sequence number returned by submit.
+	 * @return					The latest snapshot, which is that one or a later one, or the last one if the engine stopped first.
+	 * @throws InterruptedException	If the thread was interrupted while waiting.
+	 */
+	public synchronized GameSnapshot awaitSnapshot( long sequence ) throws InterruptedException {
+		while ( snapshot.getSequence() < sequence && !closed ) {
+			wait();						// Woken by publish, and when the engine stops
+		}
+		return snapshot;
+	}
+	
+	/**
+	 * Checks whether the engine still takes commands.
+	 * 
+	 * @return					False once the engine was closed or a command failed.
+	 */
+	public synchronized boolean isRunning() {
+		return !closed;
+	}
+	
+	/**
+	 * Stops the engine. Commands that are still queued are dropped.
+	 */
+	@Override
+	public void close() {
+		synchronized ( this ) {
+			closed = true;
+			notifyAll();
+		}
+		thread.interrupt();
+	}
+	
+	/**
+	 * The body of the engine thread. Carries out the commands in order and publishes a snapshot after each one.
+	 */
+	private void run() {
+		long sequence = 0;
+		try {
+			while ( isRunning() ) {
+				Request r = commands.take();
+				if ( r.copy != null ) {				// Null once a later command has changed the fight, whose snapshot asks again
+					r.copy.complete( r.sequence == sequence && session.isFighting() ? new Combat( session.getCombat() ) : null );
+					continue;
+				}
+				if ( recorder != null ) {
+					try {
+						recorder.record( r.command, r.arg );	// Before carrying it out, so a command that fails is in the log
+					} catch ( IOException e ) {
+						stopRecording( e );
+					}
+				}
+				boolean applied;
+				try {
+					applied = session.execute( r.command, r.arg );
+				} catch ( RuntimeException e ) {
+					System.out.println( "The game failed while carrying out " + r.command + ": " + e );
+					break;							// A session that failed halfway through a command can't be trusted
+				}
+				if ( recorder != null ) {
+					try {
+						recorder.executed();
+					} catch ( IOException e ) {
+						stopRecording( e );
+					}
+				}
+				publish( new GameSnapshot( ++sequence, r.command, r.arg, applied, session, viewSize ) );
+			}
+		} catch ( InterruptedException e ) {
+			// The engine was closed
+		} finally {
+			if ( recorder != null ) {
+				recorder.close();
+			}
+			ArrayList<Request> dropped = new ArrayList<Request>();
+			synchronized ( this ) {
+				closed = true;
+				commands.drainTo( dropped );
+				notifyAll();
+			}
+			for ( Request r : dropped ) {
+				if ( r.copy != null ) {
+					r.copy.complete( null );			// Nobody is left to copy the fight
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Stops recording the game after the log could not be written. The game goes on without a log.
+	 * 
+	 * @param e					Why the log could not be written.
+	 */
+	private void stopRecording( IOException e ) {
+		System.out.println( "Stopped recording the game: " + e.getMessage() );
+		recorder.close();
+		recorder = null;
+	}
+	
+	/**
+	 * Makes a snapshot the latest one and gives it to every listener.
+	 * 
+	 * @param s					The snapshot.
+	 */
+	private void publish( GameSnapshot s ) {
+		synchronized ( this ) {
+			snapshot = s;
+			notifyAll();
+		}
+		for ( Consumer<GameSnapshot> listener : listeners ) {
+			listener.accept( s );
+		}
+	}
+	
+	/**
+	 * A command waiting to be carried out, or a request for a copy of the fight.
+	 * 
+	 * @author agent 2026
+	 */
+	private static class Request {
+		/** The command. */
+		private final GameCommand command;
+		/** The argument of the command. */
+		private final int arg;
+		/** The sequence number of the snapshot to copy the fight for. */
+		private final long sequence;
+		/** Completes with a copy of the fight instead of a command being carried out, or null for a command. */
+		private final CompletableFuture<Combat> copy;
+		
+		/**
+		 * Creates a Request to carry out a command.
+		 * 
+		 * @param command		The command.
+		 * @param arg			The argument of the command.
+		 */
+		private Request( GameCommand command, int arg ) {
+			this.command = command;
+			this.arg = arg;
+			this.sequence = 0;
+			this.copy = null;
+		}
+		
+		/**
+		 * Creates a Request to copy the fight.
+		 * 
+		 * @param sequence		The sequence number of the snapshot to copy the fight for.
+		 * @param copy			Completes with the copy of the fight.
+		 */
+		private Request( long sequence, CompletableFuture<Combat> copy ) {
+			this.command = null;
+			this.arg = 0;
+			this.sequence = sequence;
+			this.copy = copy;
+		}
+	}
+	
+	/**
+	 * Plays a headless game of random commands, taking turns with the engine, and prints the last snapshot.
+	 * 
+	 * @param args				The seed and number of commands, both optional.
+	 */
+	public static void main( String[] args ) {
+		GameRandom random = new GameRandom( args.length > 0 ? Long.parseLong( args[ 0 ] ) : System.nanoTime() );
+		int count = args.length > 1 ? Integer.parseInt( args[ 1 ] ) : 10000;
+		GameCommand[] choices = { GameCommand.NORTH, GameCommand.SOUTH, GameCommand.EAST, GameCommand.WEST, GameCommand.PHYSICAL,
+				GameCommand.THUNDERCLAP, GameCommand.POTION, GameCommand.RUN, GameCommand.BUY_POTION, GameCommand.LEAVE_SHOP };
+		
+		GameEngine engine = new GameEngine( new GameSession( 0, "Player", "", random.stream( 0 ) ) );
+		SplittableRandom player = random.stream( -1 );
+		engine.start();
+		
+		long start = System.nanoTime();
+		GameSnapshot last = engine.getSnapshot();
+		int played = 0;
+		try {
+			while ( played < count && !last.isOver() && engine.isRunning() ) {
+				last = engine.awaitSnapshot( engine.submit( choices[ player.nextInt( choices.length ) ] ) );
+				played++;
+			}
+		} catch ( InterruptedException e ) {
+			Thread.currentThread().interrupt();
+		}
+		double seconds = ( System.nanoTime() - start ) / 1e9;
+		engine.close();
+		
+		System.out.println( "Seed: " + random.getSeed() );
+		System.out.printf( "%d commands in %.2f s (%.0f commands/s)%n", played, seconds, played / seconds );
+		System.out.println( last );
+	}
+}
@@ -0,0 +1,130 @@
+import java.util.SplittableRandom;
+
+/**
+ * The source of all randomness in the game.
+ * A GameRandom is created from a seed, usually one per game session, and hands out independent SplittableRandom
+ * streams. Each thread rolls with the stream bound to it, so a whole run can be replayed from its seed, and
+ * parallel workers never share or contend on a generator.
+ * 
+ * Game code rolls with GameRandom.current(). A thread that never had a stream bound gets one split from the
+ * process-wide default instance, whose seed can be set with the "dungeon.seed" system property.
+ * 
+ * @author agent 2026
+ */
+public final class GameRandom {
+	/**
+	 * Used to spread stream indexes across the seed space, as SplittableRandom does for its own seeds.
+	 */
+	private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+	
+	/**
+	 * The stream bound to each thread.
+	 */
+	private static final ThreadLocal<SplittableRandom> CURRENT = new ThreadLocal<SplittableRandom>();
+	
+	/** The seed the instance was created from. */
+	private final long seed;
+	/** The generator new streams are split from. */
+	private final SplittableRandom root;
+	
+	/**
+	 * Creates a GameRandom from the given seed.
+	 * 
+	 * @param seed				The seed of the session.
+	 */
+	public GameRandom( long seed ) {
+		this.seed = seed;
+		this.root = new SplittableRandom( seed );
+	}
+	
+	/**
+	 * Gets the seed this GameRandom was created from.
+	 * 
+	 * @return					The seed.
+	 */
+	public long getSeed() {
+		return seed;
+	}
+	
+	/**
+	 * Splits off the next independent stream. Streams come out in the same order for the same seed.
+	 * 
+	 * @return					A new stream.
+	 */
+	public synchronized SplittableRandom split() {
+		return root.split();
+	}
+	
+	/**
+	 * Gets the stream with the given index, which is the same for the same seed and index no matter which thread
+	 * asks or in what order. Used to give each task of a parallel job its own reproducible stream.
+	 * 
+	 * @param index				The index of the stream.
+	 * @return					A new stream.
+	 */
+	public SplittableRandom stream( long index ) {
+		return new SplittableRandom( mix( seed + ( index + 1 ) * GOLDEN_GAMMA ) );
+	}
+	
+	/**
+	 * Gets the stream bound to the current thread, binding one from the default instance if there is none.
+	 * 
+	 * @return					The current thread's stream.
+	 */
+	public static SplittableRandom current() {
+		SplittableRandom rng = CURRENT.get();
+		if ( rng == null ) {
+			rng = getInstance().split();
+			CURRENT.set( rng );
+		}
+		return rng;
+	}
+	
+	/**
+	 * Binds the given stream to the current thread, so everything the thread rolls comes from it.
+	 * 
+	 * @param rng				The stream to bind.
+	 * @return					The stream that was bound before, or null if there was none.
+	 */
+	public static SplittableRandom bind( SplittableRandom rng ) {
+		SplittableRandom previous = CURRENT.get();
+		CURRENT.set( rng );
+		return previous;
+	}
+	
+	/**
+	 * Removes the stream bound to the current thread.
+	 */
+	public static void unbind() {
+		CURRENT.remove();
+	}
+	
+	/**
+	 * Scrambles the bits of a seed, the same way SplittableRandom does.
+	 * 
+	 * @param z					The value to scramble.
+	 * @return					The scrambled value.
+	 */
+	private static long mix( long z ) {
+		z = ( z ^ ( z >>> 30 ) ) * 0xBF58476D1CE4E5B9L;
+		z = ( z ^ ( z >>> 27 ) ) * 0x94D049BB133111EBL;
+		return z ^ ( z >>> 31 );
+	}
+	
+	/**
+	 * Returns the process-wide instance of GameRandom, seeded from the "dungeon.seed" system property if it is set.
+	 * 
+	 * @return The instance of the GameRandom object.
+	 */
+	public static GameRandom getInstance() {
+		return Holder.INSTANCE;
+	}
+	
+	/**
+	 * Holds the process-wide instance of GameRandom.
+	 */
+	private static class Holder {
+		/** The process-wide instance of GameRandom. */
+		private static final GameRandom INSTANCE = new GameRandom( Long.getLong( "dungeon.seed", System.nanoTime() ^ GOLDEN_GAMMA ) );
+	}
+}
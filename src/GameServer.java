@@ -0,0 +1,466 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Hosts many GameSessions in one JVM. Every session runs on its own thread and is driven by the commands its
+ * Connection sends, one at a time, in the order they were sent. Sessions never share mutable state, so they need no locks.
+ * 
+ * Sessions run on virtual threads when the JVM has them, so thousands of idle players cost only their heap. On older
+ * JVMs each session gets a platform thread from a cached pool instead, which works but limits how many fit on a node.
+ * The number of open sessions is capped, and every session reports an estimate of the memory it holds.
+ * 
+ * A session can be saved between two of its commands and restored on this or another server, so sessions survive
+ * restarts and can be moved between nodes.
+ * 
+ * Usage: java GameServer [sessions] [commands] [max sessions] [seed]
+ * Runs a load test of random players and prints the throughput and memory per session.
+ * 
+ * @author agent 2026
+ */
+public class GameServer implements Closeable {
+	/**
+	 * The default cap on the number of open sessions.
+	 */
+	public static final int DEFAULT_MAX_SESSIONS = 10000;
+	
+	/** The cap on the number of open sessions. */
+	private final int maxSessions;
+	/** One permit for every session that may still be opened. */
+	private final Semaphore slots;
+	/** Runs the thread of every session. */
+	private final ExecutorService threads;
+	/** Whether the sessions run on virtual threads. */
+	private final boolean virtualThreads;
+	/** The source of every session's random stream. */
+	private final GameRandom random;
+	/** The open sessions by id. */
+	private final ConcurrentHashMap<Long, Connection> connections;
+	/** The id of the next session. */
+	private final AtomicLong nextId;
+	
+	/**
+	 * Creates a GameServer with the default session cap and a random seed.
+	 */
+	public GameServer() {
+		this( DEFAULT_MAX_SESSIONS, new GameRandom( GameRandom.getInstance().split().nextLong() ) );
+	}
+	
+	/**
+	 * Creates a GameServer.
+	 * 
+	 * @param maxSessions		The largest number of sessions that may be open at once.
+	 * @param random			Gives session n the stream with index n, so a session replays the same for the same seed.
+	 */
+	public GameServer( int maxSessions, GameRandom random ) {
+		if ( maxSessions <= 0 ) {
+			throw new IllegalArgumentException( "The session cap must be positive: " + maxSessions );
+		}
+		this.maxSessions = maxSessions;
+		this.slots = new Semaphore( maxSessions );
+		this.random = random;
+		this.connections = new ConcurrentHashMap<Long, Connection>();
+		this.nextId = new AtomicLong();
+		
+		ExecutorService virtual = newVirtualThreadExecutor();
+		this.virtualThreads = virtual != null;
+		this.threads = virtual != null ? virtual : Executors.newCachedThreadPool( r -> {
+			Thread t = new Thread( r, "game-session" );
+			t.setDaemon( true );		// Open sessions don't keep the JVM alive
+			return t;
+		} );
+	}
+	
+	/**
+	 * Opens a new session with a new Hero on map 1, unless the server is full.
+	 * 
+	 * @param name				The name of the Hero.
+	 * @param quip				The quip of the Hero.
+	 * @return					The Connection to send the session's commands to, or null if the session cap was reached.
+	 */
+	public Connection open( String name, String quip ) {
+		if ( !slots.tryAcquire() ) {
+			return null;
+		}
+		Connection c = new Connection( nextId.getAndIncrement() );
+		connections.put( c.getId(), c );
+		threads.execute( () -> c.run( () -> new GameSession( c.getId(), name, quip, random.stream( c.getId() ) ) ) );
+		return c;
+	}
+	
+	/**
+	 * Opens a session saved by Connection.save, on this or another server, unless the server is full.
+	 * The save is read on the calling thread, so a damaged save is refused here. The session keeps the id it was saved
+	 * with, while its Connection gets an id of this server.
+	 * 
+	 * @param save				The saved game.
+	 * @return					The Connection to send the session's commands to, or null if the session cap was reached.
+	 * @throws IOException		If the save is damaged, of another version or its floor's map file is gone.
+	 */
+	public Connection restore( byte[] save ) throws IOException {
+		if ( !slots.tryAcquire() ) {
+			return null;
+		}
+		GameSession session;
+		try {
+			session = SaveGame.fromBytes( save );
+		} catch ( IOException | RuntimeException e ) {
+			slots.release();
+			throw e;
+		}
+		Connection c = new Connection( nextId.getAndIncrement() );
+		connections.put( c.getId(), c );
+		threads.execute( () -> c.run( () -> session ) );
+		return c;
+	}
+	
+	/**
+	 * Gets the number of open sessions.
+	 * 
+	 * @return					The number of sessions.
+	 */
+	public int getSessionCount() {
+		return connections.size();
+	}
+	
+	/**
+	 * Gets the largest number of sessions that may be open at once.
+	 * 
+	 * @return					The session cap.
+	 */
+	public int getMaxSessions() {
+		return maxSessions;
+	}
+	
+	/**
+	 * Checks whether sessions run on virtual threads.
+	 * 
+	 * @return					True on virtual threads, false on platform threads.
+	 */
+	public boolean usesVirtualThreads() {
+		return virtualThreads;
+	}
+	
+	/**
+	 * Adds up the memory estimates of all open sessions, as of their last command.
+	 * 
+	 * @return					The estimated number of bytes.
+	 */
+	public long estimateMemory() {
+		long total = 0;
+		for ( Connection c : connections.values() ) {
+			total += c.getMemory();
+		}
+		return total;
+	}
+	
+	/**
+	 * Quits every open session and stops the session threads once they have finished.
+	 */
+	@Override
+	public void close() {
+		for ( Connection c : connections.values() ) {
+			c.close();
+		}
+		threads.shutdown();
+	}
+	
+	/**
+	 * Creates an executor that starts a virtual thread for every task, if the JVM has virtual threads.
+	 * Looked up by reflection so the game still runs on JVMs without them.
+	 * 
+	 * @return					The executor, or null if virtual threads aren't available.
+	 */
+	private static ExecutorService newVirtualThreadExecutor() {
+		try {
+			Method factory = Executors.class.getMethod( "newVirtualThreadPerTaskExecutor" );
+			return ( ExecutorService )factory.invoke( null );
+		} catch ( ReflectiveOperationException | UnsupportedOperationException e ) {
+			return null;
+		}
+	}
+	
+	/**
+	 * A client's link to one session. Commands can be sent from any thread; they are carried out on the session's thread.
+	 * 
+	 * @author agent 2026
+	 */
+	public class Connection {
+		/** The id of the session. */
+		private final long id;
+		/** The commands waiting to be carried out. */
+		private final LinkedBlockingQueue<Request> commands;
+		/** The memory estimate of the session after its last command. */
+		private volatile long memory;
+		/** Whether the session has ended. Guarded by this Connection. */
+		private boolean closed;
+		
+		/**
+		 * Creates the Connection of a new session.
+		 * 
+		 * @param id			The id of the session.
+		 */
+		private Connection( long id ) {
+			this.id = id;
+			this.commands = new LinkedBlockingQueue<Request>();
+		}
+		
+		/**
+		 * Queues a command for the session.
+		 * 
+		 * @param command		The command to carry out.
+		 * @param arg			The inventory index for SELL, ignored otherwise.
+		 * @return				Completes with whether the command was carried out. Completes with false if the session has ended.
+		 */
+		public CompletableFuture<Boolean> send( GameCommand command, int arg ) {
+			Request r = new Request( command, arg );
+			synchronized ( this ) {
+				if ( closed ) {
+					r.result.complete( false );
+				} else {
+					commands.add( r );
+				}
+			}
+			return r.result;
+		}
+		
+		/**
+		 * Queues a command that takes no argument.
+		 * 
+		 * @param command		The command to carry out.
+		 * @return				Completes with whether the command was carried out.
+		 */
+		public CompletableFuture<Boolean> send( GameCommand command ) {
+			return send( command, 0 );
+		}
+		
+		/**
+		 * Saves the session once the commands already sent have been carried out, for restore to open later.
+		 * 
+		 * @return				Completes with the saved game. Completes exceptionally if the session has ended or could not be saved.
+		 */
+		public CompletableFuture<byte[]> save() {
+			Request r = new Request( null, 0 );
+			synchronized ( this ) {
+				if ( closed ) {
+					r.saved.completeExceptionally( new IllegalStateException( "Session " + id + " has ended" ) );
+				} else {
+					commands.add( r );
+				}
+			}
+			return r.saved;
+		}
+		
+		/**
+		 * Ends the session once the commands already sent have been carried out.
+		 * 
+		 * @return				Completes when the session has quit.
+		 */
+		public CompletableFuture<Boolean> close() {
+			return send( GameCommand.QUIT );
+		}
+		
+		/**
+		 * Gets the id of the session.
+		 * 
+		 * @return				The id.
+		 */
+		public long getId() {
+			return id;
+		}
+		
+		/**
+		 * Gets the memory estimate of the session after its last command.
+		 * 
+		 * @return				The estimated number of bytes.
+		 */
+		public long getMemory() {
+			return memory;
+		}
+		
+		/**
+		 * Checks whether the session has ended.
+		 * 
+		 * @return				True if the session takes no more commands.
+		 */
+		public synchronized boolean isClosed() {
+			return closed;
+		}
+		
+		/**
+		 * The body of the session's thread. Creates the session and carries out its commands until it is over.
+		 * 
+		 * @param start			Creates or hands over the session, on the session's thread.
+		 */
+		private void run( Supplier<GameSession> start ) {
+			RuntimeException failure = null;
+			try {
+				GameSession session;
+				try {
+					session = start.get();
+				} catch ( RuntimeException e ) {
+					System.out.println( "Session " + id + " could not start: " + e.getMessage() );
+					failure = e;				// Such as an UncheckedIOException from its first floor; the other sessions go on
+					return;
+				}
+				memory = session.estimateMemory();
+				while ( !session.isOver() ) {
+					Request r = commands.take();
+					if ( r.command == null ) {
+						try {
+							r.saved.complete( SaveGame.toBytes( session ) );
+						} catch ( IOException | RuntimeException e ) {
+							r.saved.completeExceptionally( e );
+						}
+						continue;
+					}
+					try {
+						r.result.complete( session.execute( r.command, r.arg ) );
+					} catch ( RuntimeException e ) {
+						r.result.completeExceptionally( e );
+						break;							// A session that failed halfway through a command can't be trusted
+					}
+					memory = session.estimateMemory();
+				}
+			} catch ( InterruptedException e ) {
+				Thread.currentThread().interrupt();
+			} finally {
+				end( failure );
+			}
+		}
+		
+		/**
+		 * Marks the session as ended, answers the commands nobody will carry out and frees the session's slot.
+		 * 
+		 * @param failure		Why the session could not start, or null if it ran.
+		 */
+		private void end( RuntimeException failure ) {
+			ArrayList<Request> unanswered = new ArrayList<Request>();
+			synchronized ( this ) {
+				closed = true;
+				commands.drainTo( unanswered );
+			}
+			for ( Request r : unanswered ) {
+				if ( failure != null ) {
+					r.result.completeExceptionally( failure );
+				} else {
+					r.result.complete( false );
+				}
+				if ( r.saved != null ) {
+					r.saved.completeExceptionally( new IllegalStateException( "Session " + id + " has ended" ) );
+				}
+			}
+			memory = 0;
+			connections.remove( id );
+			slots.release();
+		}
+	}
+	
+	/**
+	 * A command waiting to be carried out, with the future its result is reported to, or a request to save the session.
+	 * 
+	 * @author agent 2026
+	 */
+	private static class Request {
+		/** The command, or null to save the session. */
+		private final GameCommand command;
+		/** The argument of the command. */
+		private final int arg;
+		/** Completes with whether the command was carried out. */
+		private final CompletableFuture<Boolean> result;
+		/** Completes with the saved game, or null if this is a command. */
+		private final CompletableFuture<byte[]> saved;
+		
+		/**
+		 * Creates a Request.
+		 * 
+		 * @param command		The command, or null to save the session.
+		 * @param arg			The argument of the command.
+		 */
+		private Request( GameCommand command, int arg ) {
+			this.command = command;
+			this.arg = arg;
+			this.result = new CompletableFuture<Boolean>();
+			this.saved = command == null ? new CompletableFuture<byte[]>() : null;
+		}
+	}
+	
+	/**
+	 * Opens a number of sessions, sends each of them random commands, and prints the throughput and memory use.
+	 * 
+	 * @param args				The number of sessions, commands per session, session cap and seed, all optional.
+	 */
+	public static void main( String[] args ) {
+		int sessions = args.length > 0 ? Integer.parseInt( args[ 0 ] ) : 1000;
+		int commandsPerSession = args.length > 1 ? Integer.parseInt( args[ 1 ] ) : 1000;
+		int maxSessions = args.length > 2 ? Integer.parseInt( args[ 2 ] ) : DEFAULT_MAX_SESSIONS;
+		GameRandom random = new GameRandom( args.length > 3 ? Long.parseLong( args[ 3 ] ) : System.nanoTime() );
+		GameCommand[] choices = { GameCommand.NORTH, GameCommand.SOUTH, GameCommand.EAST, GameCommand.WEST, GameCommand.PHYSICAL,
+				GameCommand.THUNDERCLAP, GameCommand.POTION, GameCommand.RUN, GameCommand.BUY_POTION, GameCommand.LEAVE_SHOP };
+		
+		Metrics.getInstance().startFromProperties();
+		GameServer server = new GameServer( maxSessions, random );
+		ContentReloader reloader = null;		// Items and floors can be edited while the server runs
+		try {
+			reloader = new ContentReloader();
+		} catch ( IOException e ) {
+			System.out.println( "Not watching textfiles for changes: " + e.getMessage() );
+		}
+		SplittableRandom players = random.stream( -1 );
+		ArrayList<Connection> open = new ArrayList<Connection>();
+		ArrayList<CompletableFuture<Boolean>> last = new ArrayList<CompletableFuture<Boolean>>();
+		int rejected = 0;
+		
+		long start = System.nanoTime();
+		for ( int i = 0; i < sessions; i++ ) {
+			Connection c = server.open( "Player " + i, "" );
+			if ( c == null ) {
+				rejected++;
+			} else {
+				open.add( c );
+			}
+		}
+		for ( Connection c : open ) {			// Wait until every session has loaded its floor, to measure them all alive
+			c.send( GameCommand.NORTH ).join();
+		}
+		long memory = server.estimateMemory();
+		int alive = server.getSessionCount();
+		
+		for ( Connection c : open ) {			// Players can't see their game, so they just press buttons at random
+			CompletableFuture<Boolean> f = null;
+			for ( int i = 1; i < commandsPerSession; i++ ) {
+				f = c.send( choices[ players.nextInt( choices.length ) ] );
+			}
+			if ( f != null ) {
+				last.add( f );
+			}
+		}
+		CompletableFuture.allOf( last.toArray( new CompletableFuture<?>[ 0 ] ) ).join();
+		double seconds = ( System.nanoTime() - start ) / 1e9;
+		
+		System.out.println( "Seed: " + random.getSeed() );
+		System.out.println( "Threads: " + ( server.usesVirtualThreads() ? "virtual" : "platform" ) );
+		System.out.println( "Sessions: " + open.size() + " opened, " + rejected + " rejected (cap " + maxSessions + "), " + server.getSessionCount() + " still alive at the end" );
+		System.out.printf( "%d commands in %.2f s (%.0f commands/s)%n", ( long )open.size() * commandsPerSession, seconds, open.size() * ( double )commandsPerSession / seconds );
+		System.out.printf( "Estimated memory: %d KB for %d sessions, %d bytes per session%n", memory / 1024, alive, alive > 0 ? memory / alive : 0 );
+		if ( reloader != null ) {
+			System.out.println( "Reloads: " + reloader );
+			try {
+				reloader.close();
+			} catch ( IOException e ) {
+				// Nothing left to watch
+			}
+		}
+		server.close();
+	}
+}
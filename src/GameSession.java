@@ -0,0 +1,806 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * One player's game: their Hero, their own Map, the current floor and what the Hero is doing in the room they are in.
+ * A session has no display. It is driven by GameCommands, and a client such as the GUI reads its state back to draw it.
+ * 
+ * A session is not thread-safe: it must only be used by one thread at a time, like the GUI's event thread or the
+ * session's thread in a GameServer. Everything it rolls comes from the session's own random stream.
+ * 
+ * While a floor is played, the next one is prepared in the background by the FloorPrefetcher, so reaching the stairs
+ * only swaps in the prepared Map and the Enemies rolled for it.
+ * 
+ * A session can be written to a stream between commands and restored from it later, on any node; SaveGame wraps
+ * that in a versioned format.
+ * 
+ * @author agent 2026
+ */
+public class GameSession {
+	/**
+	 * The price of a Health Potion in the shop.
+	 */
+	public static final int POTION_PRICE = 25;
+	
+	/**
+	 * The rough number of bytes a session uses apart from its Map chunks and Items, for memory accounting.
+	 */
+	public static final long BASE_BYTES = 2048;
+	
+	/**
+	 * The rough number of bytes a single Item in the inventory uses, for memory accounting.
+	 */
+	public static final long ITEM_BYTES = 64;
+	
+	/** Counts the commands carried out by every session. */
+	private static final LongAdder COMMANDS = Metrics.getInstance().counter( "dungeon_commands", "Commands carried out by game sessions" );
+	/** Times checking the room the Hero entered. */
+	private static final LatencyHistogram ROOM_CHECK = Metrics.getInstance().timer( "dungeon_room_check_seconds", "Time to check the room the Hero entered, including loading the next floor" );
+	/** Counts the fights started by every session, not counting restored ones. */
+	private static final LongAdder FIGHTS = Metrics.getInstance().counter( "dungeon_fights", "Fights started" );
+	/** Times a turn of a session's fight: the Hero's action and the Enemy's answer. */
+	private static final LatencyHistogram TURN = Metrics.getInstance().timer( "dungeon_combat_turn_seconds", "Time to play one turn of a fight" );
+	
+	/**
+	 * The kinds of room the Hero can be in.
+	 */
+	public enum Room {
+		/** An empty room, or the Hero hasn't moved yet. */
+		EMPTY,
+		/** The Hero just reached the next floor. */
+		NEXT_FLOOR,
+		/** A room with an Item in it. */
+		ITEM,
+		/** The shop. */
+		SHOP,
+		/** A room with a monster in it. */
+		MONSTER
+	}
+	
+	/** The id of the session. */
+	private final long id;
+	/** Gives every command the stream it rolls with, by the command's number, so the rolls never depend on saves. */
+	private final GameRandom commandSeeds;
+	/** The number of commands carried out, which picks the next command's stream. */
+	private long step;
+	/** Gives every floor without a map file the seed it is generated from. */
+	private final GameRandom floorSeeds;
+	/** Gives every floor the stream its Enemies are rolled with. */
+	private final GameRandom encounterSeeds;
+	/** The Map of the current floor. Every floor gets a Map of its own. */
+	private Map map;
+	/** The Enemies of the current floor. */
+	private EncounterDeck encounters;
+	/** The next floor, being prepared in the background, or null once the game is over. */
+	private CompletableFuture<FloorPrefetcher.PreparedFloor> nextFloor;
+	/** Finds routes on the session's Map, or null until they are first asked for. */
+	private PathFinder paths;
+	/** The number of the currently loaded map. */
+	private int mapNum;
+	/** The player's Hero. */
+	private final Hero hero;
+	/** The room the Hero is in. */
+	private Room room;
+	/** The fight the Hero is in, or null if they aren't fighting. */
+	private Combat combat;
+	/** The Item the Hero picked up in an item room or looted from an Enemy, or null if there was none. */
+	private Item foundItem;
+	/** Whether the player is in the shop. */
+	private boolean shopState;
+	/** Whether the player is selling something. */
+	private boolean sellingState;
+	/** Whether the player just entered a new floor. */
+	private boolean floorEntered;
+	/** Whether the player has quit. */
+	private boolean quit;
+	
+	/**
+	 * Starts a new game on map 1.
+	 * 
+	 * @param id				The id of the session.
+	 * @param name				The name of the Hero.
+	 * @param quip				The quip of the Hero.
+	 * @param rng				The random stream the session's seeds are drawn from.
+	 */
+	public GameSession( long id, String name, String quip, SplittableRandom rng ) {
+		this.id = id;
+		this.floorSeeds = new GameRandom( rng.nextLong() );
+		this.encounterSeeds = new GameRandom( rng.nextLong() );
+		this.commandSeeds = new GameRandom( rng.nextLong() );
+		this.mapNum = 1;
+		FloorPrefetcher.PreparedFloor first = FloorPrefetcher.prepare( mapNum, getFloorSeed( mapNum ), 1, encounterSeeds.stream( mapNum ) );
+		this.map = first.getMap();
+		this.encounters = first.getEncounters();
+		this.hero = new Hero( name, quip, map );
+		this.room = Room.EMPTY;
+		this.floorEntered = true;
+		prefetchNextFloor();
+	}
+	
+	/**
+	 * Restores a session written by write. The floor is opened again from its file, or generated again from its seed,
+	 * and only the chunks the Hero changed are read from the stream. Use SaveGame, which checks the format first.
+	 * 
+	 * @param in				The stream to read from.
+	 * @throws IOException		If the stream could not be read, holds an impossible session, or the floor's map file is gone
+	 * 							or no longer holds the floor the session was saved on.
+	 */
+	public GameSession( DataInput in ) throws IOException {
+		this.id = in.readLong();
+		this.commandSeeds = new GameRandom( in.readLong() );
+		this.step = in.readLong();
+		if ( step < 0 ) {
+			throw new IOException( "Impossible number of commands: " + step );
+		}
+		this.floorSeeds = new GameRandom( in.readLong() );
+		this.encounterSeeds = new GameRandom( in.readLong() );
+		this.mapNum = in.readInt();
+		int r = in.readUnsignedByte();
+		if ( r >= Room.values().length ) {
+			throw new IOException( "Unknown kind of room: " + r );
+		}
+		this.room = Room.values()[ r ];
+		this.shopState = in.readBoolean();
+		this.sellingState = in.readBoolean();
+		this.floorEntered = in.readBoolean();
+		this.quit = in.readBoolean();
+		
+		this.map = new Map();
+		if ( !in.readBoolean() ) {
+			map.loadMap( FloorGenerator.forLevel( getFloorSeed( mapNum ), mapNum ) );
+		} else {
+			String name = in.readUTF();
+			byte[] digest = new byte[ Map.DIGEST_BYTES ];
+			in.readFully( digest );
+			openFloor( name, digest );
+		}
+		map.readModified( in );
+		this.hero = new Hero( in, map );
+		map.preload( hero.getLocation() );
+		
+		this.encounters = new EncounterDeck( in.readInt(), encounterSeeds.stream( mapNum ) );
+		encounters.skip( in.readInt() );
+		this.foundItem = in.readBoolean() ? Item.read( in ) : null;
+		this.combat = in.readBoolean() ? new Combat( hero, in ) : null;
+		if ( !isOver() ) {
+			prefetchNextFloor();
+		}
+	}
+	
+	/**
+	 * Opens the file of floor mapNum, as it is found now, for a session being restored, and checks that it still holds
+	 * the floor the session was saved on. The file need not be the one the floor was saved from: a hot-reloaded copy
+	 * from another run, or the textfile it was made from, holds the same floor.
+	 * 
+	 * @param name				The name of the file the floor was saved from, for error messages.
+	 * @param digest			The digest of the floor the session was saved on, from Map.getDigest.
+	 * @throws IOException		If the floor has no file any more, it could not be read, or it holds another floor.
+	 */
+	private void openFloor( String name, byte[] digest ) throws IOException {
+		if ( !Map.hasFloorFile( mapNum ) ) {
+			throw new IOException( "Floor " + mapNum + " was saved from " + name + ", but it has no map file any more" );
+		}
+		try {
+			map.loadMap( mapNum );
+			if ( !Arrays.equals( digest, map.getDigest() ) ) {
+				String file = map.getFile();
+				map.close();
+				throw new IOException( file + ": floor " + mapNum + " has changed since it was saved from " + name );
+			}
+		} catch ( UncheckedIOException e ) {
+			map.close();
+			throw e.getCause();
+		}
+	}
+	
+	/**
+	 * Writes the whole session between two commands: its seeds, the room the Hero is in, the floor, the Hero and their
+	 * fight. Only the chunks of the floor the Hero changed are written; the rest is read again from the floor's file or
+	 * generated again from its seed when the session is restored.
+	 * 
+	 * Every command rolls with a stream picked by its number, so the seeds and the number of commands carried out are
+	 * all there is to the session's randomness. Writing leaves the session as it was: it goes on rolling exactly as it
+	 * would have unsaved, and as the restored session does.
+	 * 
+	 * @param out				The stream to write to.
+	 * @throws IOException		If the stream could not be written, or the map file could not be read.
+	 */
+	public void write( DataOutput out ) throws IOException {
+		out.writeLong( id );
+		out.writeLong( commandSeeds.getSeed() );
+		out.writeLong( step );
+		out.writeLong( floorSeeds.getSeed() );
+		out.writeLong( encounterSeeds.getSeed() );
+		out.writeInt( mapNum );
+		out.writeByte( room.ordinal() );
+		out.writeBoolean( shopState );
+		out.writeBoolean( sellingState );
+		out.writeBoolean( floorEntered );
+		out.writeBoolean( quit );
+		
+		String file = map.getFile();
+		out.writeBoolean( file != null );
+		if ( file != null ) {
+			out.writeUTF( new File( file ).getName() );
+			out.write( map.getDigest() );
+		}
+		map.writeModified( out );
+		hero.write( out );
+		
+		out.writeInt( encounters.getLevel() );
+		out.writeInt( encounters.getDrawn() );
+		out.writeBoolean( foundItem != null );
+		if ( foundItem != null ) {
+			foundItem.write( out );
+		}
+		out.writeBoolean( combat != null );
+		if ( combat != null ) {
+			combat.write( out );
+		}
+	}
+	
+	/**
+	 * Carries out one command of the player, rolling with the stream of the command's number.
+	 * 
+	 * @param command			The command to carry out.
+	 * @param arg				The inventory index for SELL, ignored otherwise.
+	 * @return					True if the command was carried out, false if it doesn't apply in the current state or failed.
+	 */
+	public boolean execute( GameCommand command, int arg ) {
+		SplittableRandom previous = GameRandom.bind( commandSeeds.stream( step++ ) );	// Whatever thread runs the session rolls with the command's stream
+		COMMANDS.increment();
+		try {
+			return apply( command, arg );
+		} finally {
+			GameRandom.bind( previous );
+			if ( isOver() ) {
+				discardNextFloor();							// The next floor will never be reached
+			}
+		}
+	}
+	
+	/**
+	 * Carries out a command with the command's random stream already bound.
+	 * 
+	 * @param command			The command to carry out.
+	 * @param arg				The inventory index for SELL, ignored otherwise.
+	 * @return					True if the command was carried out.
+	 */
+	private boolean apply( GameCommand command, int arg ) {
+		if ( isOver() ) {
+			return false;
+		}
+		switch ( command ) {
+			case NORTH:
+			case SOUTH:
+			case EAST:
+			case WEST:
+				return move( command );
+			case BUY_POTION:
+				return buyPotion();
+			case OPEN_SELL:
+				if ( !shopState || hero.getNumItems() == 0 ) {		// Can't sell items if the Hero doesn't have any
+					return false;
+				}
+				sellingState = true;
+				return true;
+			case SELL:
+				return sell( arg );
+			case CLOSE_SELL:
+				if ( !sellingState ) {
+					return false;
+				}
+				sellingState = false;
+				return true;
+			case LEAVE_SHOP:
+				if ( !shopState ) {
+					return false;
+				}
+				shopState = false;
+				sellingState = false;
+				room = Room.EMPTY;
+				return true;
+			case QUIT:
+				quit = true;
+				return true;
+			default:
+				return fight( command.toCombatAction() );
+		}
+	}
+	
+	/**
+	 * Moves the Hero one room in the given direction if they aren't in a fight or shop, then checks the new room.
+	 * 
+	 * @param direction			NORTH, SOUTH, EAST or WEST.
+	 * @return					True if the Hero was free to move.
+	 */
+	private boolean move( GameCommand direction ) {
+		if ( shopState || isFighting() ) {
+			return false;
+		}
+		room = Room.EMPTY;
+		combat = null;										// Leave the result of the last fight behind
+		switch ( direction ) {
+			case NORTH:
+				hero.goNorth();
+				break;
+			case SOUTH:
+				hero.goSouth();
+				break;
+			case EAST:
+				hero.goEast();
+				break;
+			default:
+				hero.goWest();
+				break;
+		}
+		roomCheck();
+		floorEntered = false;
+		return true;
+	}
+	
+	/**
+	 * Checks the room that the Hero is currently in and does appropriate actions.
+	 */
+	private void roomCheck() {
+		long start = System.nanoTime();
+		try {
+			checkRoom();
+		} finally {
+			ROOM_CHECK.recordSince( start );
+		}
+	}
+	
+	/**
+	 * Does the work of roomCheck.
+	 */
+	private void checkRoom() {
+		foundItem = null;
+		
+		//If the Hero is standing on an 'f' tile, load the next map
+		if ( map.getCharAtLoc( hero.getLocation() ) == 'f' ) {
+			room = Room.NEXT_FLOOR;
+			hero.increaseLevel();							//Increase Hero level.
+			hero.increaseMaxHP( 10 );						//Add 10 to Hero maxHP.
+			hero.heal( 10 );								//Add 10 to Hero HP.
+			combat = null;									// Set Hero as not fighting anything
+			floorEntered = true;
+			mapNum++;										//Floors past the hand-written ones are generated.
+			enterFloor( takeNextFloor() );					//Start the new floor at its start, which may be anywhere on a generated floor.
+			hero.revealSurroundings();						//Reveal the Hero's location on the Map, and the rooms in their light.
+		}
+		
+		//If the Hero is standing on an 'i' tile, pick up the item.
+		if ( map.getCharAtLoc( hero.getLocation() ) == 'i' ) {
+			combat = null;
+			itemRoom();
+		}
+		
+		//If the Hero is standing on an 's' tile, enter the shop.
+		if ( map.getCharAtLoc( hero.getLocation() ) == 's' && !floorEntered ) {
+			combat = null;
+			room = Room.SHOP;
+			shopState = true;
+		}
+		
+		//If the Hero is standing on an 'm' tile, start a fight.
+		if ( map.getCharAtLoc( hero.getLocation() ) == 'm' ) {
+			room = Room.MONSTER;
+			EncounterEvent event = new EncounterEvent();
+			event.begin();
+			boolean generated = encounters.getLevel() != hero.getLevel();
+			combat = new Combat( hero, nextEnemy() );		// The Enemy attacks as soon as the Hero walks in
+			FIGHTS.increment();
+			event.end();
+			if ( event.shouldCommit() ) {
+				event.session = id;
+				event.floor = mapNum;
+				event.enemy = combat.getEnemy().getName();
+				event.enemyLevel = combat.getEnemy().getLevel();
+				event.generated = generated;
+				event.openingDamage = combat.getLastEnemyDamage();
+				event.heroHp = hero.getHP();
+				event.commit();
+			}
+		}
+	}
+	
+	/**
+	 * Takes the Enemy of the monster room the Hero just entered from the current floor's EncounterDeck.
+	 * 
+	 * @return					The Enemy.
+	 */
+	private Enemy nextEnemy() {
+		if ( encounters.getLevel() != hero.getLevel() ) {			// Only if the Hero's level changed on the floor
+			return EnemyGenerator.getInstance().generateEnemy( hero.getLevel() );
+		}
+		return encounters.next();
+	}
+	
+	/**
+	 * Starts preparing the floor after the current one in the background, for the level the Hero will have on it.
+	 */
+	private void prefetchNextFloor() {
+		int next = mapNum + 1;
+		nextFloor = FloorPrefetcher.getInstance().prefetch( next, getFloorSeed( next ), hero.getLevel() + 1, encounterSeeds.stream( next ) );
+	}
+	
+	/**
+	 * Takes the prepared floor mapNum, waiting for it if it isn't ready yet. The floor is prepared again on this
+	 * thread if preparing it failed or a new file was published for it since.
+	 * 
+	 * @return					The floor.
+	 */
+	private FloorPrefetcher.PreparedFloor takeNextFloor() {
+		FloorPrefetcher.PreparedFloor next = null;
+		try {
+			next = nextFloor.join();
+		} catch ( CompletionException e ) {
+			// Prepared again below
+		}
+		nextFloor = null;
+		if ( next != null && ( next.getMapNum() != mapNum || !next.isCurrent() ) ) {
+			next.discard();
+			next = null;
+		}
+		if ( next == null ) {
+			next = FloorPrefetcher.prepare( mapNum, getFloorSeed( mapNum ), hero.getLevel(), encounterSeeds.stream( mapNum ) );
+		}
+		return next;
+	}
+	
+	/**
+	 * Makes a prepared floor the current one, puts the Hero at its start and starts preparing the floor after it.
+	 * 
+	 * @param next				The floor to enter.
+	 */
+	private void enterFloor( FloorPrefetcher.PreparedFloor next ) {
+		map.close();										//Close the previous floor's file.
+		map = next.getMap();
+		encounters = next.getEncounters();
+		paths = null;										// A PathFinder follows a single Map
+		hero.setMap( map );
+		prefetchNextFloor();
+	}
+	
+	/**
+	 * Drops the floor being prepared in the background, closing it once it is ready.
+	 */
+	private void discardNextFloor() {
+		if ( nextFloor != null ) {
+			nextFloor.thenAccept( FloorPrefetcher.PreparedFloor::discard );
+			nextFloor = null;
+		}
+	}
+	
+	/**
+	 * Adds an Item to the Hero's inventory when they enter a tile notated by the character 'i', provided the Hero is able to pick up the Item.
+	 */
+	private void itemRoom() {
+		room = Room.ITEM;
+		if ( !hero.getInventory().isFull() ) {						//If Hero has inventory space:
+			foundItem = ItemGenerator.getInstance().generateItem();	//	Generate a random Item.
+			hero.pickUpItem( foundItem );							//	Hero picks up Item.
+			map.removeCharAtLoc( hero.getLocation() );				//	Sets tile at Hero location to 'n'.
+		}
+	}
+	
+	/**
+	 * Buys a Health Potion in the shop.
+	 * 
+	 * @return					True if the Hero had the gold and inventory space for the potion.
+	 */
+	private boolean buyPotion() {
+		if ( !shopState || hero.getGold() < POTION_PRICE ) {
+			return false;
+		}
+		if ( !hero.pickUpItem( ItemGenerator.getInstance().getPotion() ) ) {
+			return false;
+		}
+		hero.spendGold( POTION_PRICE );
+		return true;
+	}
+	
+	/**
+	 * Sells the Item at the given inventory index, unless selling it would kill the Hero.
+	 * 
+	 * @param index				The inventory index of the Item.
+	 * @return					True if the Item was sold.
+	 */
+	private boolean sell( int index ) {
+		if ( !sellingState || index < 0 || index >= hero.getNumItems() ) {
+			return false;
+		}
+		Item soldItem = hero.removeItem( index );
+		if ( soldItem != null && soldItem.getValue() < hero.getHP() ) {
+			hero.collectGold( soldItem.getValue() );
+			return true;
+		}
+		return false;
+	}
+	
+	/**
+	 * Takes the Hero's turn in the current fight.
+	 * 
+	 * @param action			What the Hero does.
+	 * @return					True if the Hero is in a fight and could take the action.
+	 */
+	private boolean fight( CombatAction action ) {
+		if ( !isFighting() || action == null ) {
+			return false;
+		}
+		if ( action == CombatAction.POTION && !hero.hasPotion() ) {
+			return false;
+		}
+		CombatTurnEvent event = new CombatTurnEvent();
+		event.begin();
+		long start = System.nanoTime();
+		Combat.Outcome outcome = combat.act( action );
+		TURN.recordSince( start );
+		event.end();
+		if ( event.shouldCommit() ) {
+			event.session = id;
+			event.action = action.name();
+			event.turn = combat.getTurns();
+			event.enemy = combat.getEnemy().getName();
+			event.damageDealt = combat.getLastHeroDamage();
+			event.damageTaken = combat.getLastEnemyDamage();
+			event.heroHp = hero.getHP();
+			event.enemyHp = combat.getEnemy().getHP();
+			event.outcome = outcome.name();
+			event.commit();
+		}
+		if ( outcome == Combat.Outcome.WON ) {
+			loot();
+		} else if ( outcome == Combat.Outcome.FLED ) {
+			runAway();
+		}
+		return true;
+	}
+	
+	/**
+	 * Ends a won fight, giving the Hero the Enemy's Item if they have room for it.
+	 * If they don't, the room becomes an item room so it can be picked up later.
+	 */
+	private void loot() {
+		Item reward = ItemGenerator.getInstance().generateItem();
+		if ( hero.pickUpItem( reward ) ) {
+			foundItem = reward;
+			map.removeCharAtLoc( hero.getLocation() );
+		} else {
+			foundItem = null;
+			map.setItemRoom( hero.getLocation() );
+		}
+	}
+	
+	/**
+	 * Moves the Hero into a random neighbouring room after running away from a fight, then checks that room.
+	 */
+	private void runAway() {
+		combat = null;
+		room = Room.EMPTY;
+		boolean moved = false;
+		do {
+			switch( GameRandom.current().nextInt( 4 ) + 1 ) {
+				case 1:
+					if ( hero.getLocation().getX() != 0 ) {					//If the Hero is not at top of Map, move the Hero north.
+						hero.goNorth();
+						moved = true;
+					}
+					break;
+				case 2:
+					if ( hero.getLocation().getX() < map.getRows() - 1 ) {	//If Hero is not at bottom of Map, move Hero south.
+						hero.goSouth();
+						moved = true;
+					}
+					break;
+				case 3:
+					if ( hero.getLocation().getY() != 0 ) {					//If Hero is not at left-most part of Map, move Hero west.
+						hero.goWest();
+						moved = true;
+					}
+					break;
+				case 4:
+					if ( hero.getLocation().getY() < map.getCols() - 1 ) {	//If Hero is not at right-most part of Map, move Hero east.
+						hero.goEast();
+						moved = true;
+					}
+					break;
+			}
+		} while ( !moved && ( map.getRows() > 1 || map.getCols() > 1 ) );	// A single room floor has nowhere to run to
+		roomCheck();
+	}
+	
+	/**
+	 * Gets the id of the session.
+	 * 
+	 * @return					The id.
+	 */
+	public long getId() {
+		return id;
+	}
+	
+	/**
+	 * Gets the player's Hero.
+	 * 
+	 * @return					The Hero.
+	 */
+	public Hero getHero() {
+		return hero;
+	}
+	
+	/**
+	 * Gets the Map of the current floor. Every floor has a Map of its own, so a client that keeps the Map must get
+	 * it again when the Hero reaches the next floor.
+	 * 
+	 * @return					The Map.
+	 */
+	public Map getMap() {
+		return map;
+	}
+	
+	/**
+	 * Gets the PathFinder of the current floor's Map, for auto-travel and bots. It is created on first use on every floor.
+	 * 
+	 * @return					The PathFinder.
+	 */
+	public PathFinder getPathFinder() {
+		if ( paths == null ) {
+			paths = new PathFinder( map );
+		}
+		return paths;
+	}
+	
+	/**
+	 * Gets the seed floor number mapNum of this session is generated from, if it has no map file.
+	 * 
+	 * @param mapNum			The number of the floor.
+	 * @return					The seed of the floor.
+	 */
+	public long getFloorSeed( int mapNum ) {
+		return floorSeeds.stream( mapNum ).nextLong();
+	}
+	
+	/**
+	 * Gets the number of the currently loaded map.
+	 * 
+	 * @return					The map number.
+	 */
+	public int getMapNum() {
+		return mapNum;
+	}
+	
+	/**
+	 * Gets the kind of room the Hero is in.
+	 * 
+	 * @return					The Room.
+	 */
+	public Room getRoom() {
+		return room;
+	}
+	
+	/**
+	 * Gets the fight the Hero is in, or was in until their last action. Stays set after the fight is won or lost so
+	 * its result can be shown, and is cleared when the Hero moves on.
+	 * 
+	 * @return					The Combat, or null if the Hero is not in a monster room.
+	 */
+	public Combat getCombat() {
+		return combat;
+	}
+	
+	/**
+	 * Gets the Item the Hero picked up in the current room, either from an item room or from a defeated Enemy.
+	 * 
+	 * @return					The Item, or null if the Hero didn't pick anything up.
+	 */
+	public Item getFoundItem() {
+		return foundItem;
+	}
+	
+	/**
+	 * Checks whether the Hero is in a fight that hasn't ended yet.
+	 * 
+	 * @return					True if the Hero is fighting.
+	 */
+	public boolean isFighting() {
+		return combat != null && combat.getOutcome() == Combat.Outcome.ONGOING;
+	}
+	
+	/**
+	 * Checks whether the player is in the shop.
+	 * 
+	 * @return					True if the player is in the shop.
+	 */
+	public boolean isInShop() {
+		return shopState;
+	}
+	
+	/**
+	 * Checks whether the player is in the shop's selling menu.
+	 * 
+	 * @return					True if the player is selling.
+	 */
+	public boolean isSelling() {
+		return sellingState;
+	}
+	
+	/**
+	 * Checks whether the game is over, because the Hero died or the player quit.
+	 * 
+	 * @return					True if the session takes no more commands.
+	 */
+	public boolean isOver() {
+		return quit || hero.getHP() == 0;
+	}
+	
+	/**
+	 * Works out a checksum of the session's state: the floor, the room, the Hero, their Items and fight, and how much
+	 * of the floor was revealed. Two sessions that played the same commands from the same seed have the same checksum,
+	 * so a replay can tell where it went another way than the game it replays.
+	 * 
+	 * @return					The checksum.
+	 */
+	public long checksum() {
+		long h = mix( id, mapNum );
+		h = mix( h, room.ordinal() );
+		h = mix( h, ( shopState ? 1 : 0 ) | ( sellingState ? 2 : 0 ) | ( floorEntered ? 4 : 0 ) | ( quit ? 8 : 0 ) );
+		h = mix( h, hero.getName().hashCode() );
+		h = mix( h, hero.getLevel() );
+		h = mix( h, hero.getHP() );
+		h = mix( h, hero.getMaxHP() );
+		h = mix( h, hero.getGold() );
+		h = mix( h, hero.getLightRadius() );
+		h = mix( h, hero.getLocation().x );
+		h = mix( h, hero.getLocation().y );
+		for ( Item i : hero.getItems() ) {
+			h = mix( h, i.getName().hashCode() );
+			h = mix( h, i.getValue() );
+		}
+		h = mix( h, foundItem == null ? 0 : foundItem.getName().hashCode() );
+		if ( combat != null ) {
+			h = mix( h, combat.getEnemy().getName().hashCode() );
+			h = mix( h, combat.getEnemy().getHP() );
+			h = mix( h, combat.getTurns() );
+			h = mix( h, combat.getDamageDealt() );
+			h = mix( h, combat.getDamageTaken() );
+		}
+		h = mix( h, encounters.getDrawn() );
+		return mix( h, map.countRevealed() );
+	}
+	
+	/**
+	 * Mixes one value into a checksum, so every bit of the value changes about half of the checksum's bits.
+	 * 
+	 * @param h					The checksum so far.
+	 * @param value				The value to add.
+	 * @return					The new checksum.
+	 */
+	private static long mix( long h, long value ) {
+		h = ( h ^ value ) * 0x9E3779B97F4A7C15L;
+		return h ^ ( h >>> 29 );
+	}
+	
+	/**
+	 * Estimates how much memory the session holds: the loaded chunks of its Map and of the prepared next floor, its
+	 * PathFinder, the Hero's Items and a fixed overhead.
+	 * Used to size how many sessions a server can host.
+	 * 
+	 * @return					The estimated number of bytes.
+	 */
+	public long estimateMemory() {
+		long prepared = 0;
+		if ( nextFloor != null && nextFloor.isDone() && !nextFloor.isCompletedExceptionally() ) {
+			prepared = nextFloor.join().getMap().estimateMemory();
+		}
+		return BASE_BYTES + map.estimateMemory() + prepared + hero.getNumItems() * ITEM_BYTES + ( paths == null ? 0 : paths.estimateMemory() );
+	}
+}
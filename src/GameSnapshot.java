@@ -0,0 +1,507 @@
+import java.awt.Point;						//Allows for usage of Point objects.
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An immutable copy of what a client shows of a GameSession, taken by the GameEngine after every command.
+ * Holds the Hero's stats and Items, the room and fight they are in, and the window of the Map around them, so a
+ * snapshot can be drawn on any thread while the session carries on with the next command.
+ * 
+ * @author agent 2026
+ */
+public final class GameSnapshot {
+	/** The number of the snapshot: 0 for the state before any command, then one more for every command. */
+	private final long sequence;
+	/** The command this snapshot was taken after, or null for the first snapshot. */
+	private final GameCommand command;
+	/** The argument of the command. */
+	private final int arg;
+	/** Whether the command was carried out. */
+	private final boolean applied;
+	
+	/** The name of the Hero. */
+	private final String heroName;
+	/** The quip of the Hero. */
+	private final String heroQuip;
+	/** The level of the Hero. */
+	private final int level;
+	/** The HP of the Hero. */
+	private final int hp;
+	/** The max HP of the Hero. */
+	private final int maxHP;
+	/** The gold of the Hero. */
+	private final int gold;
+	/** The Items the Hero carries, in inventory order. Items are immutable, so they are shared. */
+	private final List<Item> items;
+	/** Whether the Hero carries a Health Potion. */
+	private final boolean hasPotion;
+	/** The location of the Hero. */
+	private final Point location;
+	
+	/** The number of the floor. */
+	private final int mapNum;
+	/** The number of rows of the floor. */
+	private final int mapRows;
+	/** The number of columns of the floor. */
+	private final int mapCols;
+	/** The first row of the window of the Map. */
+	private final int viewTop;
+	/** The first column of the window of the Map. */
+	private final int viewLeft;
+	/** The number of rows of the window. */
+	private final int viewRows;
+	/** The number of columns of the window. */
+	private final int viewCols;
+	/** The display characters of the window, row by row, as Map.getDisplayChar gives them. */
+	private final char[] view;
+	
+	/** The room the Hero is in. */
+	private final GameSession.Room room;
+	/** The Item the Hero picked up in the room, or null. */
+	private final Item foundItem;
+	/** Whether the Hero is in a fight that hasn't ended. */
+	private final boolean fighting;
+	/** Whether the player is in the shop. */
+	private final boolean inShop;
+	/** Whether the player is in the shop's selling menu. */
+	private final boolean selling;
+	/** Whether the game is over. */
+	private final boolean over;
+	
+	/** Whether there is a fight to show, ongoing or just ended. */
+	private final boolean hasCombat;
+	/** The name of the Enemy, or null without a fight. */
+	private final String enemyName;
+	/** The quip of the Enemy, or null without a fight. */
+	private final String enemyQuip;
+	/** The image filepath of the Enemy, or null without a fight. */
+	private final String enemyImgPath;
+	/** The HP of the Enemy. */
+	private final int enemyHP;
+	/** The max HP of the Enemy. */
+	private final int enemyMaxHP;
+	/** The state of the fight, or null without a fight. */
+	private final Combat.Outcome outcome;
+	/** The damage the Hero dealt with their last action. */
+	private final int lastHeroDamage;
+	/** The damage the Enemy dealt with its last attack. */
+	private final int lastEnemyDamage;
+	/** The Enemy's description of its last attack, or null without a fight. */
+	private final String enemyAttack;
+	
+	/**
+	 * Takes a snapshot of a session. Must be called on the thread that runs the session.
+	 * 
+	 * @param sequence			The number of the snapshot.
+	 * @param command			The command the snapshot is taken after, or null for the first snapshot.
+	 * @param arg				The argument of the command.
+	 * @param applied			Whether the command was carried out.
+	 * @param session			The session to copy.
+	 * @param viewSize			The largest number of rows and columns of the Map window around the Hero.
+	 */
+	public GameSnapshot( long sequence, GameCommand command, int arg, boolean applied, GameSession session, int viewSize ) {
+		this.sequence = sequence;
+		this.command = command;
+		this.arg = arg;
+		this.applied = applied;
+		
+		Hero hero = session.getHero();
+		this.heroName = hero.getName();
+		this.heroQuip = hero.getQuip();
+		this.level = hero.getLevel();
+		this.hp = hero.getHP();
+		this.maxHP = hero.getMaxHP();
+		this.gold = hero.getGold();
+		this.items = Collections.unmodifiableList( new ArrayList<Item>( hero.getItems() ) );
+		this.hasPotion = hero.hasPotion();
+		this.location = new Point( hero.getLocation() );
+		
+		Map map = session.getMap();
+		this.mapNum = session.getMapNum();
+		this.mapRows = map.getRows();
+		this.mapCols = map.getCols();
+		this.viewRows = Math.min( viewSize, mapRows );
+		this.viewCols = Math.min( viewSize, mapCols );
+		// Center the window on the Hero, without going past the edges of the map
+		this.viewTop = Math.max( 0, Math.min( location.x - viewRows / 2, mapRows - viewRows ) );
+		this.viewLeft = Math.max( 0, Math.min( location.y - viewCols / 2, mapCols - viewCols ) );
+		this.view = new char[ viewRows * viewCols ];
+		map.fillView( viewTop, viewLeft, viewRows, viewCols, location, view );
+		
+		this.room = session.getRoom();
+		this.foundItem = session.getFoundItem();
+		this.fighting = session.isFighting();
+		this.inShop = session.isInShop();
+		this.selling = session.isSelling();
+		this.over = session.isOver();
+		
+		Combat c = session.getCombat();
+		this.hasCombat = c != null;
+		Enemy enemy = c == null ? null : c.getEnemy();
+		this.enemyName = c == null ? null : enemy.getName();
+		this.enemyQuip = c == null ? null : enemy.getQuip();
+		this.enemyImgPath = c == null ? null : enemy.getImgPath();
+		this.enemyHP = c == null ? 0 : enemy.getHP();
+		this.enemyMaxHP = c == null ? 0 : enemy.getMaxHP();
+		this.outcome = c == null ? null : c.getOutcome();
+		this.lastHeroDamage = c == null ? 0 : c.getLastHeroDamage();
+		this.lastEnemyDamage = c == null ? 0 : c.getLastEnemyDamage();
+		this.enemyAttack = c == null ? null : enemy.describeAttack( hero, c.getLastEnemyDamage() );
+	}
+	
+	/**
+	 * Gets the number of the snapshot. Snapshots of one engine are numbered in the order of their commands.
+	 * 
+	 * @return					0 for the state before any command, otherwise the number of commands taken so far.
+	 */
+	public long getSequence() {
+		return sequence;
+	}
+	
+	/**
+	 * Gets the command this snapshot was taken after.
+	 * 
+	 * @return					The command, or null for the first snapshot.
+	 */
+	public GameCommand getCommand() {
+		return command;
+	}
+	
+	/**
+	 * Gets the argument of the command, such as the inventory index of a SELL.
+	 * 
+	 * @return					The argument.
+	 */
+	public int getArg() {
+		return arg;
+	}
+	
+	/**
+	 * Checks whether the command was carried out.
+	 * 
+	 * @return					False if the command didn't apply in the session's state or failed.
+	 */
+	public boolean isApplied() {
+		return applied;
+	}
+	
+	/**
+	 * Gets the name of the Hero.
+	 * 
+	 * @return					The name.
+	 */
+	public String getHeroName() {
+		return heroName;
+	}
+	
+	/**
+	 * Gets the quip of the Hero.
+	 * 
+	 * @return					The quip.
+	 */
+	public String getHeroQuip() {
+		return heroQuip;
+	}
+	
+	/**
+	 * Gets the level of the Hero.
+	 * 
+	 * @return					The level.
+	 */
+	public int getLevel() {
+		return level;
+	}
+	
+	/**
+	 * Gets the HP of the Hero.
+	 * 
+	 * @return					The HP.
+	 */
+	public int getHP() {
+		return hp;
+	}
+	
+	/**
+	 * Gets the max HP of the Hero.
+	 * 
+	 * @return					The max HP.
+	 */
+	public int getMaxHP() {
+		return maxHP;
+	}
+	
+	/**
+	 * Gets the gold of the Hero.
+	 * 
+	 * @return					The gold.
+	 */
+	public int getGold() {
+		return gold;
+	}
+	
+	/**
+	 * Gets the Items the Hero carries.
+	 * 
+	 * @return					A read-only list of the Items, in inventory order.
+	 */
+	public List<Item> getItems() {
+		return items;
+	}
+	
+	/**
+	 * Gets the number of Items the Hero carries.
+	 * 
+	 * @return					The number of Items.
+	 */
+	public int getNumItems() {
+		return items.size();
+	}
+	
+	/**
+	 * Checks whether the Hero carries a Health Potion.
+	 * 
+	 * @return					True if the Hero has a potion.
+	 */
+	public boolean hasPotion() {
+		return hasPotion;
+	}
+	
+	/**
+	 * Gets the location of the Hero.
+	 * 
+	 * @return					A copy of the location.
+	 */
+	public Point getLocation() {
+		return new Point( location );
+	}
+	
+	/**
+	 * Gets the number of the floor.
+	 * 
+	 * @return					The map number.
+	 */
+	public int getMapNum() {
+		return mapNum;
+	}
+	
+	/**
+	 * Gets the number of rows of the floor.
+	 * 
+	 * @return					The number of rows.
+	 */
+	public int getMapRows() {
+		return mapRows;
+	}
+	
+	/**
+	 * Gets the number of columns of the floor.
+	 * 
+	 * @return					The number of columns.
+	 */
+	public int getMapCols() {
+		return mapCols;
+	}
+	
+	/**
+	 * Gets the first row of the Map window around the Hero.
+	 * 
+	 * @return					The row of the window's top-left tile.
+	 */
+	public int getViewTop() {
+		return viewTop;
+	}
+	
+	/**
+	 * Gets the first column of the Map window around the Hero.
+	 * 
+	 * @return					The column of the window's top-left tile.
+	 */
+	public int getViewLeft() {
+		return viewLeft;
+	}
+	
+	/**
+	 * Gets the number of rows of the Map window.
+	 * 
+	 * @return					The number of rows.
+	 */
+	public int getViewRows() {
+		return viewRows;
+	}
+	
+	/**
+	 * Gets the number of columns of the Map window.
+	 * 
+	 * @return					The number of columns.
+	 */
+	public int getViewCols() {
+		return viewCols;
+	}
+	
+	/**
+	 * Gets the display character of a tile of the Map window, as Map.getDisplayChar gives it.
+	 * 
+	 * @param i					The row of the tile within the window.
+	 * @param j					The column of the tile within the window.
+	 * @return					The display character.
+	 */
+	public char getViewTile( int i, int j ) {
+		return view[ i * viewCols + j ];
+	}
+	
+	/**
+	 * Gets the room the Hero is in.
+	 * 
+	 * @return					The Room.
+	 */
+	public GameSession.Room getRoom() {
+		return room;
+	}
+	
+	/**
+	 * Gets the Item the Hero picked up in the room, from an item room or a defeated Enemy.
+	 * 
+	 * @return					The Item, or null if the Hero didn't pick anything up.
+	 */
+	public Item getFoundItem() {
+		return foundItem;
+	}
+	
+	/**
+	 * Checks whether the Hero is in a fight that hasn't ended.
+	 * 
+	 * @return					True if the Hero is fighting.
+	 */
+	public boolean isFighting() {
+		return fighting;
+	}
+	
+	/**
+	 * Checks whether the player is in the shop.
+	 * 
+	 * @return					True if the player is in the shop.
+	 */
+	public boolean isInShop() {
+		return inShop;
+	}
+	
+	/**
+	 * Checks whether the player is in the shop's selling menu.
+	 * 
+	 * @return					True if the player is selling.
+	 */
+	public boolean isSelling() {
+		return selling;
+	}
+	
+	/**
+	 * Checks whether the game is over.
+	 * 
+	 * @return					True if the Hero died or the player quit.
+	 */
+	public boolean isOver() {
+		return over;
+	}
+	
+	/**
+	 * Checks whether there is a fight to show: one that is going on, or one that ended with the last command.
+	 * 
+	 * @return					True if the Enemy and fight getters hold values.
+	 */
+	public boolean hasCombat() {
+		return hasCombat;
+	}
+	
+	/**
+	 * Gets the name of the Enemy.
+	 * 
+	 * @return					The name, or null without a fight.
+	 */
+	public String getEnemyName() {
+		return enemyName;
+	}
+	
+	/**
+	 * Gets the quip of the Enemy.
+	 * 
+	 * @return					The quip, or null without a fight.
+	 */
+	public String getEnemyQuip() {
+		return enemyQuip;
+	}
+	
+	/**
+	 * Gets the image filepath of the Enemy.
+	 * 
+	 * @return					The filepath, or null without a fight.
+	 */
+	public String getEnemyImgPath() {
+		return enemyImgPath;
+	}
+	
+	/**
+	 * Gets the HP of the Enemy.
+	 * 
+	 * @return					The HP, or 0 without a fight.
+	 */
+	public int getEnemyHP() {
+		return enemyHP;
+	}
+	
+	/**
+	 * Gets the max HP of the Enemy.
+	 * 
+	 * @return					The max HP, or 0 without a fight.
+	 */
+	public int getEnemyMaxHP() {
+		return enemyMaxHP;
+	}
+	
+	/**
+	 * Gets the state of the fight.
+	 * 
+	 * @return					The Outcome, or null without a fight.
+	 */
+	public Combat.Outcome getOutcome() {
+		return outcome;
+	}
+	
+	/**
+	 * Gets the damage the Hero dealt with their last action.
+	 * 
+	 * @return					The damage.
+	 */
+	public int getLastHeroDamage() {
+		return lastHeroDamage;
+	}
+	
+	/**
+	 * Gets the damage the Enemy dealt with its last attack.
+	 * 
+	 * @return					The damage.
+	 */
+	public int getLastEnemyDamage() {
+		return lastEnemyDamage;
+	}
+	
+	/**
+	 * Gets the Enemy's description of its last attack on the Hero.
+	 * 
+	 * @return					The description, or null without a fight.
+	 */
+	public String getEnemyAttack() {
+		return enemyAttack;
+	}
+	
+	/**
+	 * Returns the snapshot as a String.
+	 * 
+	 * @return					The command, the Hero's stats and where they are.
+	 */
+	@Override
+	public String toString() {
+		return "GameSnapshot[#" + sequence + " " + command + ( applied ? "" : " (ignored)" ) + ", " + heroName + " level " + level
+				+ ", HP " + hp + "/" + maxHP + ", gold " + gold + ", floor " + mapNum + " at (" + location.x + ", " + location.y + "), " + room + "]";
+	}
+}
@@ -1,6 +1,8 @@
 import java.awt.Point;
-import java.util.ArrayList;
-import java.util.Random;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.List;
 
 /**
  * Represents the player-controlled character.
@@ -8,10 +10,14 @@ import java.util.Random;
  * @author Jonathan Sohrabi 2018
  */
 public class Hero extends Entity implements Magical {
+	/**
+	 * The gold in a Bag o' Gold.
+	 */
+	public static final int GOLD_BAG = 25;
 	/**
 	 * Represents the Hero's current inventory.
 	 */
-	private ArrayList<Item> items;
+	private Inventory items;
 	/**
 	 * Represents the current game Map.
 	 */
@@ -24,6 +30,10 @@ public class Hero extends Entity implements Magical {
 	 * Represents the Hero's current gold.
 	 */
 	private int gold;
+	/**
+	 * How many rooms around the Hero are revealed along with the room they stand in. 0 reveals only their own room.
+	 */
+	private int lightRadius;
 	
 	/**
 	 * Parameterized constructor of the Hero class.
@@ -34,19 +44,104 @@ public class Hero extends Entity implements Magical {
 	 */
 	public Hero( String n, String q, Map m ) {
 		super( n, q, 1, 15 );						//Call the Entity superclass constructor with the given parameters.
-		this.items = new ArrayList<Item>();			//Create a new ArrayList object for Item objects.
+		this.items = new Inventory();				//Create a new, empty Inventory.
 		this.map = m;								//Sets the Map field to the parameter 'm'.
 		this.location = this.map.findStart();		//Sets the Hero's starting location on the Map to the Map's starting Point.
-		map.reveal( location );
+		revealSurroundings();
 		this.gold = 10;								//Sets the gold field to 10.
 	}
 	
+	/**
+	 * Constructor for a Hero that is not placed on any Map, such as one used in combat simulations.
+	 * The Hero can fight and use items, but can't move.
+	 * 
+	 * @param n					The name of the hero.
+	 * @param q					The quip of the hero.
+	 */
+	public Hero( String n, String q ) {
+		super( n, q, 1, 15 );
+		this.items = new Inventory();
+		this.location = new Point();
+		this.gold = 10;
+	}
+	
+	/**
+	 * Copy constructor of the Hero class. The copy shares the original's Map, but has its own inventory and location.
+	 * 
+	 * @param h					The Hero to copy from.
+	 */
+	public Hero( Hero h ) {
+		super( h );
+		this.items = new Inventory( h.items );
+		this.map = h.map;
+		this.location = new Point( h.getLocation() );
+		this.gold = h.getGold();
+		this.lightRadius = h.lightRadius;
+	}
+	
+	/**
+	 * Restores a Hero written by write onto the Map of the floor they were saved on. Nothing is revealed, since the
+	 * Map's reveal state is restored with the Map.
+	 * 
+	 * @param in				The stream to read from.
+	 * @param m					The Map of the floor the Hero was saved on.
+	 * @throws IOException		If the stream could not be read, or the Hero was not on the Map.
+	 */
+	public Hero( DataInput in, Map m ) throws IOException {
+		super( in );
+		this.map = m;
+		this.location = new Point( in.readInt(), in.readInt() );
+		if ( location.x < 0 || location.x >= m.getRows() || location.y < 0 || location.y >= m.getCols() ) {
+			throw new IOException( getName() + " is outside of the " + m.getRows() + "x" + m.getCols() + " map at " + location );
+		}
+		this.gold = in.readInt();
+		this.lightRadius = in.readInt();
+		int capacity = in.readInt();
+		int count = in.readInt();
+		if ( capacity < 0 || count < 0 ) {
+			throw new IOException( getName() + " carries " + count + " Items with room for " + capacity );
+		}
+		this.items = new Inventory( Math.max( capacity, count ) );		// A Hero may carry more than their capacity after it shrank
+		for ( int i = 0; i < count; i++ ) {
+			this.items.add( Item.read( in ) );
+		}
+		this.items.setCapacity( capacity );
+	}
+	
+	/**
+	 * Writes the Hero's stats, location, gold, light radius and inventory. The Map is saved on its own.
+	 * 
+	 * @param out				The stream to write to.
+	 * @throws IOException		If the stream could not be written.
+	 */
+	public void write( DataOutput out ) throws IOException {
+		writeStats( out );
+		out.writeInt( location.x );
+		out.writeInt( location.y );
+		out.writeInt( gold );
+		out.writeInt( lightRadius );
+		out.writeInt( items.getCapacity() );
+		out.writeInt( items.size() );
+		for ( Item i : items.asList() ) {
+			i.write( out );
+		}
+	}
+	
 	/**
 	 * Getter for the Hero's inventory
 	 * 
-	 * @return	The Hero's inventory.
+	 * @return	A read-only list of the Hero's items.
+	 */
+	public List<Item> getItems() {
+		return items.asList();
+	}
+	
+	/**
+	 * Gets the Hero's Inventory, with its counts and capacity.
+	 * 
+	 * @return	The Hero's Inventory.
 	 */
-	public ArrayList<Item> getItems() {
+	public Inventory getInventory() {
 		return items;
 	}
 	
@@ -56,86 +151,76 @@ public class Hero extends Entity implements Magical {
 	 * @return The number of items currently held in the hero's inventory.
 	 */
 	public int getNumItems() {
-		return this.items.size();				//Return the number of indices in the items ArrayList.
+		return this.items.size();				//Return the number of Items in the Inventory.
 	}
 	
 	/**
 	 * If the hero's inventory is not full, adds the parameterized item to their inventory.
-	 * If the item is not a Health Potion, the item's value is added to the hero's current HP and maximum HP.
+	 * If the item is equipment, the item's value is added to the hero's current HP and maximum HP.
+	 * Gold is added to the hero's purse instead, whether or not the inventory is full.
 	 * 
 	 * @param i					The item to add to the hero's inventory.
 	 * @return					True if the hero had free inventory space to pick up the item, false otherwise.
 	 */
 	public boolean pickUpItem( Item i ) {
-		if ( i.getName().equals( "Bag o' Gold" ) ) {			// If the Item picked up is a Bag o' Gold, add 25 gold to Hero and return true
-				this.collectGold( 25 );
-				return true;
-		} else {
-			if ( this.getNumItems() != 5 ) {					//If the Hero has less than 5 Items in their inventory:
-				this.items.add( i );							//Add the parameter i to the items ArrayList.
-				if ( !i.getName().equals( "Health Potion" ) ) {	//If i is not a Health Potion,
-					this.increaseMaxHP( i.getValue() );			//Increase the Hero's max HP by the Item's value.
-					this.heal( i.getValue() );					//Increase the Hero's HP by the Item's value.
-				}
-				return true;									//If the Hero was able to pick up the Item, return true.
-			} else {
-				return false;									//If the Hero was not able to pick up the Item, return false.
-			}
+		if ( i.getType() == ItemType.GOLD ) {				// If the Item picked up is a Bag o' Gold, add its gold to Hero and return true
+			this.collectGold( GOLD_BAG );
+			return true;
 		}
+		if ( !this.items.add( i ) ) {						//If the Hero's Inventory is full, they can't pick up the Item.
+			return false;
+		}
+		if ( i.getType() == ItemType.EQUIPMENT ) {			//If i is equipment,
+			this.increaseMaxHP( i.getValue() );				//Increase the Hero's max HP by the Item's value.
+			this.heal( i.getValue() );						//Increase the Hero's HP by the Item's value.
+		}
+		return true;
 	}
 	
 	/**
 	 * Removes an item from the hero's inventory, given by the parameterized name.
-	 * If the item is not a Health Potion, the hero's maximum HP is reduced by the item's cost value, and the current HP is reduced by the same amount to a minimum of 1 HP.
+	 * If the item is equipment, the hero's maximum HP is reduced by the item's cost value, and the current HP is reduced by the same amount.
+	 * Equipment is not removed if that would leave the hero with 0 HP.
 	 * 
 	 * @param n					The name of the item to remove.
-	 * @return					The removed item object, null if the item could not be found in the hero's inventory.
+	 * @return					The item with that name, even if it could not be removed; null if the item could not be found in the hero's inventory.
 	 */
 	public Item removeItem( String n ) {
-		for( Item i : this.items ) {								// Loop through each Item in the items ArrayList.
-			if ( i.getName().equals( n ) ) {						// If the Item's name matches the String parameter n:
-				if ( !i.getName().equals( "Health Potion" ) ) {		//	If the Item is not a Health Potion:
-					if ( ( this.getHP() - i.getValue() ) > 0 ) {	//		If removing the Item would set the Hero's HP to less than or equal to 0, warn the player that they cannot remove the Item.
-						this.decreaseMaxHP( i.getValue() );			//		Decrease the Hero's maxHP by the Item's value.
-						this.takeDamage( i.getValue() );			//		Decrease the Hero's HP by the Item's value.
-						this.items.remove( i );						//		Remove the Item from the items ArrayList.
-					}
-				} else {
-					this.items.remove( i );							// If the Item is a Health Potion, then remove it.
-				}
-				return i;											// Return the removed Item.
-			}
+		Item i = this.items.find( n );								// Looked up by name, without comparing it to every Item.
+		if ( i == null ) {
+			return null;											// If the Item was not found, return null.
+		}
+		if ( i.getType() != ItemType.EQUIPMENT || ( this.getHP() - i.getValue() ) > 0 ) {	// Only remove equipment if it wouldn't kill the Hero.
+			this.dropped( this.items.remove( n ) );
 		}
-		return null;												// If the Item was not found, return null.
+		return i;													// Return the removed Item.
 	}
 	
 	/**
 	 * Removes the item from the hero's inventory at the parameterized index.
-	 * If the item is not a Health Potion, the hero's maximum HP is reduced by the item's cost value, and the current HP is reduced by the same amount to a minimum of 1 HP.
+	 * If the item is equipment, the hero's maximum HP is reduced by the item's cost value, and the current HP is reduced by the same amount.
 	 * 
 	 * @param index					The index of the item to be removed.
-	 * @return						The removed item object, null if the index is out of range.
+	 * @return						The removed item object, null if the index is out of range or removing the item would leave the hero with 0 HP.
 	 */
 	public Item removeItem( int index ) {
-		if ( ( this.getNumItems() != 0 ) && ( index <= ( this.getNumItems() - 1 ) ) ) {	//If items has at least 1 Item in it and the parameter index is not out of items range.
-			Item i = this.items.get( index );											//Get the Item at the parameter index of items.
-			if ( !i.getName().equals( "Health Potion" ) ) {								//If the Item is not a Health Potion:
-				
-				//If removing the Item would set the Hero's HP to less than or equal to 0, return null.
-				if ( ( this.getHP() - i.getValue() ) <= 0 ) {
-					return null;
-				} else {										//If the Item is safe to remove:
-					this.decreaseMaxHP( i.getValue() );			//Decrease the Hero's maxHP by the Item's value.
-					this.takeDamage( i.getValue() );			//Decrease the Hero's HP by the Item's value.
-					this.items.remove( index );					//Remove the Item from the items ArrayList.
-				}
-			} else {
-				this.items.remove( index );						//If the Item is a Health Potion, then remove it.
-			}
-			return i;				//Return the Item.
-		} else {
-			return null;			//In all other cases, return null.
+		if ( index < 0 || index >= this.getNumItems() ) {						//If the index is out of the Inventory's range, return null.
+			return null;
 		}
+		Item i = this.items.get( index );										//Get the Item at the parameter index of items.
+		if ( i.getType() == ItemType.EQUIPMENT && ( this.getHP() - i.getValue() ) <= 0 ) {	//If removing the Item would set the Hero's HP to less than or equal to 0, return null.
+			return null;
+		}
+		return this.dropped( this.items.remove( index ) );
+	}
+	
+	/**
+	 * Removes one Health Potion from the hero's inventory, such as after drinking it.
+	 * 
+	 * @return					The removed potion, or null if the hero has no potion.
+	 */
+	public Item removePotion() {
+		return this.items.remove( ItemType.POTION );
 	}
 	
 	/**
@@ -144,12 +229,21 @@ public class Hero extends Entity implements Magical {
 	 * @return					True if the hero has a Health Potion in their inventory, false otherwise.
 	 */
 	public boolean hasPotion() {
-		for( Item i: this.items ) {							//Loop through all Items in the items ArrayList.
-			if ( i.getName().equals( "Health Potion" ) ) {	//If the Item is a Health Potion, return true.
-				return true;
-			}
+		return this.items.contains( ItemType.POTION );		//Looks up the count of potions instead of searching for one.
+	}
+	
+	/**
+	 * Takes away the HP a removed Item gave if it is equipment.
+	 * 
+	 * @param i					The Item that was removed.
+	 * @return					The Item.
+	 */
+	private Item dropped( Item i ) {
+		if ( i.getType() == ItemType.EQUIPMENT ) {
+			this.decreaseMaxHP( i.getValue() );			//Decrease the Hero's maxHP by the Item's value.
+			this.takeDamage( i.getValue() );			//Decrease the Hero's HP by the Item's value.
 		}
-		return false;										//If a Health Potion was not found, return false.
+		return i;
 	}
 	
 	/**
@@ -169,7 +263,7 @@ public class Hero extends Entity implements Magical {
 	public char goNorth() {
 		if ( this.getLocation().getX() != 0 ) {																		//If the Hero is not at the top-most part of the Map.
 			this.getLocation().move( ( int )( this.getLocation().getX() - 1 ), ( int )this.getLocation().getY() );	//Move the Hero's location up by 1.
-			this.map.reveal( this.getLocation() );																	//Reveal the Map room at the Hero's new location.
+			this.revealSurroundings();																				//Reveal the Map rooms around the Hero's new location.
 		}
 		return this.map.getCharAtLoc( this.getLocation() );															//Return the Map character at the Hero's location.
 	}
@@ -180,9 +274,9 @@ public class Hero extends Entity implements Magical {
 	 * @return					The character of the tile that the hero was moved to.
 	 */
 	public char goSouth() {
-		if ( this.getLocation().getX() != 4 ) {																		//If the Hero is not at the bottom-most part of the Map.
+		if ( this.getLocation().getX() < this.map.getRows() - 1 ) {																	//If the Hero is not at the bottom-most part of the Map.
 			this.getLocation().move( ( int )( this.getLocation().getX() + 1 ), ( int )this.getLocation().getY() );	//Move the Hero's location down by 1.
-			this.map.reveal( this.getLocation() );																	//Reveal the Map room at the Hero's new location.
+			this.revealSurroundings();																				//Reveal the Map rooms around the Hero's new location.
 		}
 		return this.map.getCharAtLoc( this.getLocation() );															//Return the Map character at the Hero's location.
 	}
@@ -193,9 +287,9 @@ public class Hero extends Entity implements Magical {
 	 * @return					The character of the tile that the hero was moved to.
 	 */
 	public char goEast() {
-		if ( this.getLocation().getY() != 4 ) {																		//If the Hero is not at the right-most part of the Map.
+		if ( this.getLocation().getY() < this.map.getCols() - 1 ) {																	//If the Hero is not at the right-most part of the Map.
 			this.getLocation().move( ( int )this.getLocation().getX(), ( int )( this.getLocation().getY() + 1 ) );	//Move the Hero's location right by 1.
-			this.map.reveal( this.getLocation() );																	//Reveal the Map room at the Hero's new location.
+			this.revealSurroundings();																				//Reveal the Map rooms around the Hero's new location.
 		}
 		return this.map.getCharAtLoc( this.getLocation() );															//Return the Map character at the Hero's location.
 	}
@@ -208,11 +302,49 @@ public class Hero extends Entity implements Magical {
 	public char goWest() {
 		if ( this.getLocation().getY() != 0 ) {																		//If the Hero is not at the left-most part of the Map.
 			this.getLocation().move( ( int )this.getLocation().getX(), ( int )( this.getLocation().getY() - 1) );	//Move the Hero's location left by 1.
-			this.map.reveal( this.getLocation() );																	//Reveal the Map room at the Hero's new location.
+			this.revealSurroundings();																				//Reveal the Map rooms around the Hero's new location.
 		}
 		return this.map.getCharAtLoc( this.getLocation() );															//Return the Map character at the Hero's location.
 	}
 	
+	/**
+	 * Reveals the room the hero stands in, and every room within their light radius.
+	 */
+	public void revealSurroundings() {
+		this.map.revealRadius( this.getLocation(), this.lightRadius );
+	}
+	
+	/**
+	 * Moves the hero onto another Map, such as a floor that was prepared ahead of time, at that Map's start.
+	 * 
+	 * @param m					The Map of the new floor.
+	 */
+	public void setMap( Map m ) {
+		this.map = m;
+		this.location.setLocation( m.findStart() );	//Keep the same Point, which callers may hold on to.
+	}
+	
+	/**
+	 * Gets how many rooms around the hero are revealed as they move.
+	 * 
+	 * @return					The light radius, in rooms.
+	 */
+	public int getLightRadius() {
+		return this.lightRadius;
+	}
+	
+	/**
+	 * Sets how many rooms around the hero are revealed as they move, such as when they pick up a torch.
+	 * 
+	 * @param radius			The light radius, in rooms. 0 reveals only the room the hero stands in.
+	 */
+	public void setLightRadius( int radius ) {
+		if ( radius < 0 ) {
+			throw new IllegalArgumentException( "Light radius can't be negative: " + radius );
+		}
+		this.lightRadius = radius;
+	}
+	
 	/**
 	 * Gets the currently held currency of the hero.
 	 * 
@@ -251,8 +383,7 @@ public class Hero extends Entity implements Magical {
 	 */
 	@Override
 	public int attack( Entity e ) {
-		Random random = new Random();											//Create new Random object to allow for random number generation.
-		int damage = ( random.nextInt( 4 ) + 1 ) * this.getLevel();
+		int damage = ( GameRandom.current().nextInt( 4 ) + 1 ) * this.getLevel();
 		e.takeDamage( damage );
 
 		return damage;
@@ -264,8 +395,7 @@ public class Hero extends Entity implements Magical {
 	 * @return					The damage of the Magic Missile spell.
 	 */
 	public int magicMissile() {
-		Random random = new Random();								//Create a new Random object.
-		return ( random.nextInt( 5 ) + 1 ) * this.getLevel();		//Generates a random number in the range of [1,5] and multiplies it by the Hero's level to get the Magic Missile damage and returns it.
+		return ( GameRandom.current().nextInt( 5 ) + 1 ) * this.getLevel();		//Generates a random number in the range of [1,5] and multiplies it by the Hero's level to get the Magic Missile damage and returns it.
 	}
 
 	/**
@@ -275,8 +405,7 @@ public class Hero extends Entity implements Magical {
 	 */
 	@Override
 	public int fireball() {
-		Random random = new Random();								//Create a new Random object.
-		return ( random.nextInt( 6 ) + 1 ) * this.getLevel();		//Generates a random number in the range of [1,6] and multiplies it by the Hero's level to get the Fireball damage and returns it.
+		return ( GameRandom.current().nextInt( 6 ) + 1 ) * this.getLevel();		//Generates a random number in the range of [1,6] and multiplies it by the Hero's level to get the Fireball damage and returns it.
 	}
 	
 
@@ -287,7 +416,6 @@ public class Hero extends Entity implements Magical {
 	 */
 	@Override
 	public int thunderclap() {
-		Random random = new Random();								//Create a new Random object.
-		return ( random.nextInt( 7 ) + 1 ) * this.getLevel();		//Generates a random number in the range of [1,7] and multiplies it by the Hero's level to get the Thunderclap damage and returns it.
+		return ( GameRandom.current().nextInt( 7 ) + 1 ) * this.getLevel();		//Generates a random number in the range of [1,7] and multiplies it by the Hero's level to get the Thunderclap damage and returns it.
 	}
 }
\ No newline at end of file
@@ -0,0 +1,147 @@
+/**
+ * Counts how often values fall into fixed-width buckets, along with their count, sum, minimum and maximum.
+ * Values past the last bucket are counted in the last bucket. Not thread-safe; combine per-thread histograms with add.
+ * 
+ * @author agent 2026
+ */
+public class Histogram {
+	/** The range of values each bucket covers. */
+	private final int bucketWidth;
+	/** The number of values in each bucket. */
+	private final long[] buckets;
+	/** The number of values recorded. */
+	private long count;
+	/** The sum of all values recorded. */
+	private long sum;
+	/** The smallest value recorded. */
+	private long min = Long.MAX_VALUE;
+	/** The largest value recorded. */
+	private long max = Long.MIN_VALUE;
+	
+	/**
+	 * Creates an empty Histogram.
+	 * 
+	 * @param bucketWidth		The range of values each bucket covers.
+	 * @param bucketCount		The number of buckets.
+	 */
+	public Histogram( int bucketWidth, int bucketCount ) {
+		if ( bucketWidth <= 0 || bucketCount <= 0 ) {
+			throw new IllegalArgumentException( "Bucket width and count must be positive" );
+		}
+		this.bucketWidth = bucketWidth;
+		this.buckets = new long[ bucketCount ];
+	}
+	
+	/**
+	 * Records a value.
+	 * 
+	 * @param value				The value to record, at least 0.
+	 */
+	public void record( long value ) {
+		buckets[ ( int )Math.min( value / bucketWidth, buckets.length - 1 ) ]++;
+		count++;
+		sum += value;
+		min = Math.min( min, value );
+		max = Math.max( max, value );
+	}
+	
+	/**
+	 * Adds every value recorded in another Histogram with the same buckets to this one.
+	 * 
+	 * @param other				The Histogram to add.
+	 */
+	public void add( Histogram other ) {
+		if ( other.bucketWidth != bucketWidth || other.buckets.length != buckets.length ) {
+			throw new IllegalArgumentException( "Histograms have different buckets" );
+		}
+		for ( int i = 0; i < buckets.length; i++ ) {
+			buckets[ i ] += other.buckets[ i ];
+		}
+		count += other.count;
+		sum += other.sum;
+		min = Math.min( min, other.min );
+		max = Math.max( max, other.max );
+	}
+	
+	/**
+	 * Gets the number of values recorded.
+	 * 
+	 * @return					The number of values.
+	 */
+	public long getCount() {
+		return count;
+	}
+	
+	/**
+	 * Gets the mean of the values recorded.
+	 * 
+	 * @return					The mean, or 0 if nothing was recorded.
+	 */
+	public double getMean() {
+		return count == 0 ? 0 : ( double )sum / count;
+	}
+	
+	/**
+	 * Gets the smallest value recorded.
+	 * 
+	 * @return					The minimum, or 0 if nothing was recorded.
+	 */
+	public long getMin() {
+		return count == 0 ? 0 : min;
+	}
+	
+	/**
+	 * Gets the largest value recorded.
+	 * 
+	 * @return					The maximum, or 0 if nothing was recorded.
+	 */
+	public long getMax() {
+		return count == 0 ? 0 : max;
+	}
+	
+	/**
+	 * Gets the number of values in a bucket.
+	 * 
+	 * @param bucket			The index of the bucket.
+	 * @return					The number of values in the bucket.
+	 */
+	public long getBucket( int bucket ) {
+		return buckets[ bucket ];
+	}
+	
+	/**
+	 * Gets the value below which the given fraction of recorded values fall, to the resolution of a bucket.
+	 * 
+	 * @param fraction			The fraction of values, from 0 to 1.
+	 * @return					The upper bound of the bucket holding that percentile.
+	 */
+	public long getPercentile( double fraction ) {
+		long target = ( long )Math.ceil( fraction * count );
+		long seen = 0;
+		for ( int i = 0; i < buckets.length; i++ ) {
+			seen += buckets[ i ];
+			if ( seen >= target && seen > 0 ) {
+				return Math.min( ( long )( i + 1 ) * bucketWidth - 1, getMax() );
+			}
+		}
+		return getMax();
+	}
+	
+	/**
+	 * Returns a summary of the Histogram followed by one line per non-empty bucket.
+	 * 
+	 * @return					The Histogram as a String.
+	 */
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append( String.format( "n=%d mean=%.2f min=%d p50=%d p99=%d max=%d%n", count, getMean(), getMin(), getPercentile( 0.5 ), getPercentile( 0.99 ), getMax() ) );
+		for ( int i = 0; i < buckets.length; i++ ) {
+			if ( buckets[ i ] != 0 ) {
+				String upper = ( i == buckets.length - 1 ) ? "+" : "-" + ( ( long )( i + 1 ) * bucketWidth - 1 );
+				sb.append( String.format( "  %8s %10d %6.2f%%%n", ( ( long )i * bucketWidth ) + upper, buckets[ i ], 100.0 * buckets[ i ] / count ) );
+			}
+		}
+		return sb.toString();
+	}
+}
@@ -0,0 +1,345 @@
+import java.io.*;							//Allows for usage of files.
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.SplittableRandom;
+
+/**
+ * Everything needed to play a session again: the seed of its random stream, the Hero's name and quip, every command
+ * the player sent in order, and checksums of the session's state taken along the way.
+ * A session rolls every command with a stream picked from its seed by the command's number, so the same seed and
+ * commands always play out the same way, whether or not the session was saved and restored along the way, and a
+ * Replayer can repeat it without a display and check the checksums as it goes.
+ * 
+ * Logs are text files, one entry per line:
+ * 		DLOG 2				the format and its version
+ * 		seed N				the seed of the session's random stream
+ * 		id N				the id of the session
+ * 		name TEXT			the name of the Hero, to the end of the line
+ * 		quip TEXT			the quip of the Hero, to the end of the line
+ * 		COMMAND [arg]		one GameCommand, with the inventory index for SELL
+ * 		check STEP HEX		the checksum of the session after that many commands
+ * 
+ * @author agent 2026
+ */
+public class InputLog {
+	/**
+	 * The file extension of input logs.
+	 */
+	public static final String EXTENSION = ".dlog";
+	/**
+	 * The first word of every input log.
+	 */
+	public static final String MAGIC = "DLOG";
+	/**
+	 * The version of the format written by Recorder.
+	 */
+	public static final int VERSION = 2;
+	/**
+	 * The number of commands between two checksums.
+	 */
+	public static final int CHECKSUM_INTERVAL = 100;
+	
+	/** The seed of the session's random stream. */
+	private final long seed;
+	/** The id of the session. */
+	private final long id;
+	/** The name of the Hero. */
+	private final String name;
+	/** The quip of the Hero. */
+	private final String quip;
+	/** The commands, in the order they were sent. */
+	private final ArrayList<GameCommand> commands;
+	/** The argument of every command. */
+	private final ArrayList<Integer> args;
+	/** The recorded checksums, by the number of commands carried out before they were taken. */
+	private final HashMap<Integer, Long> checksums;
+	
+	/**
+	 * Creates a log with no commands yet.
+	 * 
+	 * @param seed				The seed of the session's random stream.
+	 * @param id				The id of the session.
+	 * @param name				The name of the Hero.
+	 * @param quip				The quip of the Hero.
+	 */
+	public InputLog( long seed, long id, String name, String quip ) {
+		this.seed = seed;
+		this.id = id;
+		this.name = name;
+		this.quip = quip;
+		this.commands = new ArrayList<GameCommand>();
+		this.args = new ArrayList<Integer>();
+		this.checksums = new HashMap<Integer, Long>();
+	}
+	
+	/**
+	 * Starts the session the log was recorded from, before any command.
+	 * 
+	 * @return					A new session.
+	 */
+	public GameSession newSession() {
+		return new GameSession( id, name, quip, new SplittableRandom( seed ) );
+	}
+	
+	/**
+	 * Adds a command at the end of the log.
+	 * 
+	 * @param command			The command.
+	 * @param arg				The inventory index for SELL, ignored otherwise.
+	 */
+	public void add( GameCommand command, int arg ) {
+		commands.add( command );
+		args.add( arg );
+	}
+	
+	/**
+	 * Records the checksum of the session after a number of commands.
+	 * 
+	 * @param step				The number of commands carried out before the checksum was taken.
+	 * @param checksum			The checksum of the session.
+	 */
+	public void addChecksum( int step, long checksum ) {
+		checksums.put( step, checksum );
+	}
+	
+	/**
+	 * Gets the seed of the session's random stream.
+	 * 
+	 * @return					The seed.
+	 */
+	public long getSeed() {
+		return seed;
+	}
+	
+	/**
+	 * Gets the number of commands in the log.
+	 * 
+	 * @return					The number of commands.
+	 */
+	public int size() {
+		return commands.size();
+	}
+	
+	/**
+	 * Gets a command of the log.
+	 * 
+	 * @param step				The number of commands before it.
+	 * @return					The command.
+	 */
+	public GameCommand getCommand( int step ) {
+		return commands.get( step );
+	}
+	
+	/**
+	 * Gets the argument of a command of the log.
+	 * 
+	 * @param step				The number of commands before it.
+	 * @return					The inventory index for SELL, 0 otherwise.
+	 */
+	public int getArg( int step ) {
+		return args.get( step );
+	}
+	
+	/**
+	 * Gets the checksum recorded after a number of commands.
+	 * 
+	 * @param step				The number of commands carried out.
+	 * @return					The checksum, or null if none was recorded after that many commands.
+	 */
+	public Long getChecksum( int step ) {
+		return checksums.get( step );
+	}
+	
+	/**
+	 * Gets the number of checksums in the log.
+	 * 
+	 * @return					The number of checksums.
+	 */
+	public int getChecksumCount() {
+		return checksums.size();
+	}
+	
+	/**
+	 * Reads a log written by a Recorder.
+	 * 
+	 * @param path				The filepath of the log.
+	 * @return					The log.
+	 * @throws IOException		If the file could not be read, or is not an input log of this version.
+	 */
+	public static InputLog read( String path ) throws IOException {
+		try ( BufferedReader read = new BufferedReader( new FileReader( path ) ) ) {
+			String header = read.readLine();
+			if ( header == null || !header.startsWith( MAGIC + " " ) ) {
+				throw new IOException( path + ": not an input log" );
+			}
+			if ( !header.equals( MAGIC + " " + VERSION ) ) {
+				throw new IOException( path + ": unsupported input log version " + header.substring( MAGIC.length() + 1 ) );
+			}
+			InputLog log;
+			try {
+				long seed = Long.parseLong( field( read.readLine(), "seed", path ) );
+				long id = Long.parseLong( field( read.readLine(), "id", path ) );
+				log = new InputLog( seed, id, field( read.readLine(), "name", path ), field( read.readLine(), "quip", path ) );
+			} catch ( NumberFormatException e ) {
+				throw new IOException( path + ": the header is not valid: " + e.getMessage() );
+			}
+			
+			String line;
+			int lineNum = 5;
+			while ( ( line = read.readLine() ) != null ) {
+				lineNum++;
+				if ( line.isEmpty() ) {
+					continue;
+				}
+				String[] words = line.split( " " );
+				try {
+					if ( words[ 0 ].equals( "check" ) && words.length == 3 ) {
+						log.addChecksum( Integer.parseInt( words[ 1 ] ), Long.parseUnsignedLong( words[ 2 ], 16 ) );
+					} else if ( words.length <= 2 ) {
+						log.add( GameCommand.valueOf( words[ 0 ] ), words.length == 2 ? Integer.parseInt( words[ 1 ] ) : 0 );
+					} else {
+						throw new IllegalArgumentException( "too many words" );
+					}
+				} catch ( IllegalArgumentException e ) {		// Also catches NumberFormatException
+					throw new IOException( path + ": line " + lineNum + " is not a valid entry: " + e.getMessage() );
+				}
+			}
+			return log;
+		}
+	}
+	
+	/**
+	 * Gets the value of a header line.
+	 * 
+	 * @param line				The line.
+	 * @param key				The key the line must start with.
+	 * @param path				The filepath of the log, for the error message.
+	 * @return					The rest of the line after the key and a space.
+	 * @throws IOException		If the line is missing or has another key.
+	 */
+	private static String field( String line, String key, String path ) throws IOException {
+		if ( line == null || !line.startsWith( key + " " ) ) {
+			throw new IOException( path + ": the header has no " + key );
+		}
+		return line.substring( key.length() + 1 );
+	}
+	
+	/**
+	 * Writes the log of a session to a file as the session is played, one line per command, with a checksum every
+	 * CHECKSUM_INTERVAL commands. Every line is flushed as it is written, so a crash loses nothing that was played.
+	 * 
+	 * A Recorder must be used by the thread that runs the session, right after each command.
+	 * 
+	 * @author agent 2026
+	 */
+	public static class Recorder implements Closeable {
+		/** The file the log is written to. */
+		private final PrintWriter out;
+		/** The session being recorded. */
+		private final GameSession session;
+		/** The number of commands carried out. */
+		private int step;
+		/** Whether the last command recorded hasn't been carried out yet. */
+		private boolean pending;
+		
+		/**
+		 * Starts recording a session that hasn't carried out any command yet, writing the header and the checksum of
+		 * the new session.
+		 * 
+		 * @param path			The filepath to write the log to. An existing file is replaced.
+		 * @param seed			The seed the session's random stream was created from.
+		 * @param session		The session, created with new SplittableRandom( seed ).
+		 * @throws IOException	If the file could not be created.
+		 */
+		public Recorder( String path, long seed, GameSession session ) throws IOException {
+			this.out = new PrintWriter( new BufferedWriter( new FileWriter( path ) ) );
+			this.session = session;
+			Hero h = session.getHero();
+			out.println( MAGIC + " " + VERSION );
+			out.println( "seed " + seed );
+			out.println( "id " + session.getId() );
+			out.println( "name " + h.getName().replace( '\n', ' ' ) );
+			out.println( "quip " + h.getQuip().replace( '\n', ' ' ) );
+			check();
+		}
+		
+		/**
+		 * Records a command the session is about to carry out. The line is written out before the command runs, so a
+		 * command that crashes the session is still in the log and replaying it crashes the same way. Call executed
+		 * once the session has carried the command out, or ignored it.
+		 * 
+		 * @param command		The command.
+		 * @param arg			The inventory index for SELL, ignored otherwise.
+		 * @throws IOException	If the line could not be written.
+		 * @throws IllegalStateException	If the command recorded before wasn't carried out.
+		 */
+		public void record( GameCommand command, int arg ) throws IOException {
+			if ( pending ) {
+				throw new IllegalStateException( "The last command recorded was never carried out" );
+			}
+			out.println( command == GameCommand.SELL ? command + " " + arg : command.toString() );
+			pending = true;
+			flush();
+		}
+		
+		/**
+		 * Notes that the session carried out the command recorded last, and writes the session's checksum if one is due.
+		 * 
+		 * @throws IOException	If the checksum could not be written.
+		 */
+		public void executed() throws IOException {
+			pending = false;
+			step++;
+			if ( step % CHECKSUM_INTERVAL == 0 || session.isOver() ) {
+				check();
+			}
+		}
+		
+		/**
+		 * Writes the checksum of the session after the commands recorded so far.
+		 * 
+		 * @throws IOException	If the line could not be written.
+		 */
+		private void check() throws IOException {
+			out.println( "check " + step + " " + Long.toHexString( session.checksum() ) );
+			flush();
+		}
+		
+		/**
+		 * Flushes the written lines to the file.
+		 * 
+		 * @throws IOException	If the file could not be written.
+		 */
+		private void flush() throws IOException {
+			out.flush();
+			if ( out.checkError() ) {			// A PrintWriter keeps write errors to itself until asked
+				throw new IOException( "The input log could not be written" );
+			}
+		}
+		
+		/**
+		 * Gets the number of commands recorded and carried out.
+		 * 
+		 * @return				The number of commands.
+		 */
+		public int getStep() {
+			return step;
+		}
+		
+		/**
+		 * Writes the checksum of the session as it ends, unless one was just written or the last command recorded never
+		 * finished, and closes the file.
+		 */
+		@Override
+		public void close() {
+			if ( !pending && step % CHECKSUM_INTERVAL != 0 && !session.isOver() ) {
+				try {
+					check();
+				} catch ( IOException e ) {
+					// Closing anyway; the log is still good up to its last line
+				}
+			}
+			out.close();
+		}
+	}
+}
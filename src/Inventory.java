@@ -0,0 +1,369 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * The Items a Hero carries, in the order they were picked up.
+ * Every carried Item sits in a slot that is linked into the pickup order, into the Items of its ItemType and into the
+ * Items of its name. Counting or removing a potion, or finding and removing an Item by name, therefore never looks
+ * through the other Items, however many there are. Only slots given by their position in the pickup order are found by
+ * walking it.
+ * 
+ * @author agent 2026
+ */
+public class Inventory {
+	/**
+	 * The number of Items a Hero can carry unless told otherwise.
+	 */
+	public static final int DEFAULT_CAPACITY = 5;
+	
+	/** The first slot in pickup order, or null if nothing is carried. */
+	private Slot first;
+	/** The last slot in pickup order, or null if nothing is carried. */
+	private Slot last;
+	/** The slots of each ItemType, by ordinal. */
+	private final Group[] types;
+	/** The slots of each Item name. Names that no carried Item has are left out. */
+	private final HashMap<String, Group> names;
+	/** The number of carried Items of each ItemType, by ordinal. */
+	private final int[] counts;
+	/** The number of carried Items. */
+	private int size;
+	/** The carried Items in pickup order, or null until they are asked for after a change. */
+	private List<Item> list;
+	/** The largest number of Items that can be carried. */
+	private int capacity;
+	
+	/**
+	 * Creates an empty inventory with the default capacity.
+	 */
+	public Inventory() {
+		this( DEFAULT_CAPACITY );
+	}
+	
+	/**
+	 * Creates an empty inventory.
+	 * 
+	 * @param capacity			The largest number of Items that can be carried.
+	 */
+	public Inventory( int capacity ) {
+		if ( capacity < 0 ) {
+			throw new IllegalArgumentException( "Inventory capacity can't be negative: " + capacity );
+		}
+		this.types = new Group[ ItemType.values().length ];
+		for ( int t = 0; t < types.length; t++ ) {
+			types[ t ] = new Group();
+		}
+		this.names = new HashMap<String, Group>();
+		this.counts = new int[ ItemType.values().length ];
+		this.capacity = capacity;
+	}
+	
+	/**
+	 * Copy constructor. The copy holds the same Items, which are immutable and so can be shared.
+	 * 
+	 * @param other				The inventory to copy.
+	 */
+	public Inventory( Inventory other ) {
+		this( other.capacity );
+		for ( Slot s = other.first; s != null; s = s.next ) {
+			link( s.item );
+		}
+	}
+	
+	/**
+	 * Adds an Item, if there is room for it.
+	 * 
+	 * @param i					The Item to add.
+	 * @return					True if the Item was added, false if the inventory is full.
+	 */
+	public boolean add( Item i ) {
+		if ( isFull() ) {
+			return false;
+		}
+		link( i );
+		return true;
+	}
+	
+	/**
+	 * Removes the Item at the given slot.
+	 * 
+	 * @param index				The slot of the Item, in pickup order.
+	 * @return					The removed Item.
+	 * @throws IndexOutOfBoundsException	If there is no such slot.
+	 */
+	public Item remove( int index ) {
+		return unlink( slot( index ) );
+	}
+	
+	/**
+	 * Removes the most recently picked up Item of the given type.
+	 * 
+	 * @param type				The type of Item to remove.
+	 * @return					The removed Item, or null if there is no Item of that type.
+	 */
+	public Item remove( ItemType type ) {
+		Slot s = types[ type.ordinal() ].last;
+		return s == null ? null : unlink( s );
+	}
+	
+	/**
+	 * Removes the first picked up Item with the given name.
+	 * 
+	 * @param name				The name of the Item.
+	 * @return					The removed Item, or null if no Item has that name.
+	 */
+	public Item remove( String name ) {
+		Group g = names.get( name );
+		return g == null ? null : unlink( g.first );
+	}
+	
+	/**
+	 * Finds the first picked up Item with the given name.
+	 * 
+	 * @param name				The name of the Item.
+	 * @return					The Item, or null if no Item has that name.
+	 */
+	public Item find( String name ) {
+		Group g = names.get( name );
+		return g == null ? null : g.first.item;
+	}
+	
+	/**
+	 * Gets the Item at the given slot.
+	 * 
+	 * @param index				The slot of the Item, in pickup order.
+	 * @return					The Item.
+	 * @throws IndexOutOfBoundsException	If there is no such slot.
+	 */
+	public Item get( int index ) {
+		return asList().get( index );
+	}
+	
+	/**
+	 * Gets the number of carried Items.
+	 * 
+	 * @return					The number of Items.
+	 */
+	public int size() {
+		return size;
+	}
+	
+	/**
+	 * Gets the number of carried Items of the given type.
+	 * 
+	 * @param type				The type of Item.
+	 * @return					The number of Items of that type.
+	 */
+	public int count( ItemType type ) {
+		return counts[ type.ordinal() ];
+	}
+	
+	/**
+	 * Checks whether any carried Item is of the given type.
+	 * 
+	 * @param type				The type of Item.
+	 * @return					True if there is at least one.
+	 */
+	public boolean contains( ItemType type ) {
+		return counts[ type.ordinal() ] > 0;
+	}
+	
+	/**
+	 * Checks whether there is no room for another Item.
+	 * 
+	 * @return					True if the inventory is full.
+	 */
+	public boolean isFull() {
+		return size >= capacity;
+	}
+	
+	/**
+	 * Gets the largest number of Items that can be carried.
+	 * 
+	 * @return					The capacity.
+	 */
+	public int getCapacity() {
+		return capacity;
+	}
+	
+	/**
+	 * Changes the largest number of Items that can be carried. Items already carried are kept even if there are more of them.
+	 * 
+	 * @param capacity			The new capacity.
+	 */
+	public void setCapacity( int capacity ) {
+		if ( capacity < 0 ) {
+			throw new IllegalArgumentException( "Inventory capacity can't be negative: " + capacity );
+		}
+		this.capacity = capacity;
+	}
+	
+	/**
+	 * Gets a read-only list of the carried Items, in the order they were picked up. The list is made again only after
+	 * the Items changed, and doesn't follow later changes.
+	 * 
+	 * @return					The Items.
+	 */
+	public List<Item> asList() {
+		if ( list == null ) {
+			ArrayList<Item> items = new ArrayList<Item>( size );
+			for ( Slot s = first; s != null; s = s.next ) {
+				items.add( s.item );
+			}
+			list = Collections.unmodifiableList( items );
+		}
+		return list;
+	}
+	
+	/**
+	 * Finds the slot at the given position in pickup order.
+	 * 
+	 * @param index				The position.
+	 * @return					The slot.
+	 * @throws IndexOutOfBoundsException	If there is no such slot.
+	 */
+	private Slot slot( int index ) {
+		if ( index < 0 || index >= size ) {
+			throw new IndexOutOfBoundsException( "Slot " + index + " of an inventory of " + size );
+		}
+		Slot s = first;
+		for ( int i = 0; i < index; i++ ) {
+			s = s.next;
+		}
+		return s;
+	}
+	
+	/**
+	 * Puts an Item in a new slot at the end of the pickup order and of its type's and name's slots.
+	 * 
+	 * @param i					The Item.
+	 */
+	private void link( Item i ) {
+		Slot s = new Slot( i );
+		s.prev = last;
+		if ( last == null ) {
+			first = s;
+		} else {
+			last.next = s;
+		}
+		last = s;
+		
+		Group type = types[ i.getType().ordinal() ];
+		s.prevOfType = type.last;
+		if ( type.last == null ) {
+			type.first = s;
+		} else {
+			type.last.nextOfType = s;
+		}
+		type.last = s;
+		
+		Group name = names.computeIfAbsent( i.getName(), n -> new Group() );
+		s.prevOfName = name.last;
+		if ( name.last == null ) {
+			name.first = s;
+		} else {
+			name.last.nextOfName = s;
+		}
+		name.last = s;
+		
+		counts[ i.getType().ordinal() ]++;
+		size++;
+		list = null;
+	}
+	
+	/**
+	 * Takes a slot out of the pickup order and out of its type's and name's slots.
+	 * 
+	 * @param s					The slot.
+	 * @return					The Item of the slot.
+	 */
+	private Item unlink( Slot s ) {
+		if ( s.prev == null ) {
+			first = s.next;
+		} else {
+			s.prev.next = s.next;
+		}
+		if ( s.next == null ) {
+			last = s.prev;
+		} else {
+			s.next.prev = s.prev;
+		}
+		
+		Group type = types[ s.item.getType().ordinal() ];
+		if ( s.prevOfType == null ) {
+			type.first = s.nextOfType;
+		} else {
+			s.prevOfType.nextOfType = s.nextOfType;
+		}
+		if ( s.nextOfType == null ) {
+			type.last = s.prevOfType;
+		} else {
+			s.nextOfType.prevOfType = s.prevOfType;
+		}
+		
+		Group name = names.get( s.item.getName() );
+		if ( s.prevOfName == null ) {
+			name.first = s.nextOfName;
+		} else {
+			s.prevOfName.nextOfName = s.nextOfName;
+		}
+		if ( s.nextOfName == null ) {
+			name.last = s.prevOfName;
+		} else {
+			s.nextOfName.prevOfName = s.prevOfName;
+		}
+		if ( name.first == null ) {
+			names.remove( s.item.getName() );
+		}
+		
+		counts[ s.item.getType().ordinal() ]--;
+		size--;
+		list = null;
+		return s.item;
+	}
+	
+	/**
+	 * One carried Item, linked into the pickup order, the slots of its ItemType and the slots of its name.
+	 * 
+	 * @author agent 2026
+	 */
+	private static class Slot {
+		/** The Item in the slot. */
+		private final Item item;
+		/** The slot before this one in pickup order, or null. */
+		private Slot prev;
+		/** The slot after this one in pickup order, or null. */
+		private Slot next;
+		/** The slot before this one of the same ItemType, or null. */
+		private Slot prevOfType;
+		/** The slot after this one of the same ItemType, or null. */
+		private Slot nextOfType;
+		/** The slot before this one of the same name, or null. */
+		private Slot prevOfName;
+		/** The slot after this one of the same name, or null. */
+		private Slot nextOfName;
+		
+		/**
+		 * Creates an unlinked slot.
+		 * 
+		 * @param item		The Item in the slot.
+		 */
+		private Slot( Item item ) {
+			this.item = item;
+		}
+	}
+	
+	/**
+	 * The first and last slots of the Items that share an ItemType or a name, in pickup order.
+	 * 
+	 * @author agent 2026
+	 */
+	private static class Group {
+		/** The first slot, or null if there is none. */
+		private Slot first;
+		/** The last slot, or null if there is none. */
+		private Slot last;
+	}
+}
@@ -1,5 +1,11 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
 /**
  * Used in the Item system of the game.
+ * Items are immutable flyweights: every drop of the same kind of Item is the one template object from the ItemCatalog,
+ * so drops and inventories don't allocate.
  * 
  * @author Jonathan Sohrabi 2018
  */
@@ -7,27 +13,45 @@ public class Item extends ItemPrototype {
 	/**
 	 * The name of the Item.
 	 */
-	private String name;
+	private final String name;
 	/**
 	 * The price and health value of the item.
 	 */
-	private int value;
+	private final int value;
 	
 	/**
 	 * Path for the item's image.
 	 */
-	private String imgPath;
+	private final String imgPath;
 	
 	/**
-	 * Constructor for the Item class. Creates a new Item object with the given parameters.
+	 * What kind of Item this is.
+	 */
+	private final ItemType type;
+	
+	/**
+	 * Constructor for the Item class. Creates a new Item object with the given parameters, working out its type from its name.
 	 * 
 	 * @param n						Name of the Item.
 	 * @param v						Value of the Item.
 	 */
 	public Item( String n, int v, String p ) {
+		this( n, v, p, ItemType.forName( n ) );
+	}
+	
+	/**
+	 * Constructor for the Item class. Creates a new Item object with the given parameters.
+	 * 
+	 * @param n						Name of the Item.
+	 * @param v						Value of the Item.
+	 * @param p						Path for the Item's image.
+	 * @param t						Type of the Item.
+	 */
+	public Item( String n, int v, String p, ItemType t ) {
 		this.name = n;				//Set Item name to parameter 'n'.
 		this.value = v;				//Set Item value to parameter 'v'.
 		this.imgPath = p;
+		this.type = t;
 	}
 	
 	/**
@@ -37,11 +61,10 @@ public class Item extends ItemPrototype {
 	 * @param i				The Item to copy information from.
 	 */
 	public Item( Item i ) {
-		if ( i != null ) {
-			name = i.getName();
-			value = i.getValue();
-			imgPath = i.getImgPath();
-		}
+		name = i != null ? i.getName() : null;
+		value = i != null ? i.getValue() : 0;
+		imgPath = i != null ? i.getImgPath() : null;
+		type = i != null ? i.getType() : ItemType.EQUIPMENT;
 	}
 	
 	/**
@@ -72,10 +95,55 @@ public class Item extends ItemPrototype {
 	}
 	
 	/**
-	 * Returns a new Item that is a copy of this Item.
+	 * Gets the type of the Item.
+	 * 
+	 * @return						The type of the Item.
+	 */
+	public ItemType getType() {
+		return this.type;
+	}
+	
+	/**
+	 * Writes the Item in full, so it can be read back even if the item list changes in the meantime.
+	 * 
+	 * @param out					The stream to write to.
+	 * @throws IOException			If the stream could not be written.
+	 */
+	public void write( DataOutput out ) throws IOException {
+		out.writeUTF( name );
+		out.writeInt( value );
+		out.writeUTF( imgPath );
+		out.writeByte( type.ordinal() );
+	}
+	
+	/**
+	 * Reads an Item written by write. The current item list's template is used if it is still the same Item, so
+	 * restored Items stay shared like dropped ones.
+	 * 
+	 * @param in					The stream to read from.
+	 * @return						The Item.
+	 * @throws IOException			If the stream could not be read or holds an unknown ItemType.
+	 */
+	public static Item read( DataInput in ) throws IOException {
+		String n = in.readUTF();
+		int v = in.readInt();
+		String p = in.readUTF();
+		int t = in.readUnsignedByte();
+		if ( t >= ItemType.values().length ) {
+			throw new IOException( n + " has an unknown item type: " + t );
+		}
+		Item template = ItemGenerator.getInstance().getItem( n );
+		if ( template != null && template.getValue() == v && template.getImgPath().equals( p ) && template.getType().ordinal() == t ) {
+			return template;
+		}
+		return new Item( n, v, p, ItemType.values()[ t ] );
+	}
+	
+	/**
+	 * Returns this Item. An Item has no state that could change, so it is shared instead of copied.
 	 */
 	@Override
 	public Item clone() {
-		return new Item( this );
+		return this;
 	}
 }
\ No newline at end of file
@@ -0,0 +1,184 @@
+import java.io.*;											//Allows for usage of files.
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.SplittableRandom;
+
+/**
+ * An immutable set of Item templates, as read from an "ItemList.txt" style textfile.
+ * Every line holds the name, value and image filepath of an Item, and optionally its drop weight and its type:
+ * 
+ * 		Shield,15,./images/items/shield.png,3,equipment
+ * 
+ * The type is one of potion, gold or equipment. Without it, the type is worked out from the name (see ItemType.forName).
+ * Templates are numbered in the order they appear in the file, starting at 0, and can be looked up by that id or by name.
+ * An Item without a weight has a weight of 1, so a file without weights drops every Item equally often.
+ * Random drops use an AliasTable, so they take the same time however many templates there are.
+ * 
+ * @author agent 2026
+ */
+public class ItemCatalog {
+	/**
+	 * The weight of an Item whose line has no weight column.
+	 */
+	public static final double DEFAULT_WEIGHT = 1;
+	
+	/** The templates by id. */
+	private final Item[] templates;
+	/** The drop weight of every template, by id. */
+	private final double[] weights;
+	/** The id of every template by name. */
+	private final HashMap<String, Integer> ids;
+	/** Draws template ids in proportion to their weights. */
+	private final AliasTable drops;
+	/** The first Health Potion template, or null if there is none. */
+	private final Item potion;
+	
+	/**
+	 * Creates a catalog of the given templates.
+	 * 
+	 * @param templates			The templates, in id order.
+	 * @param weights			The drop weight of every template.
+	 */
+	public ItemCatalog( Item[] templates, double[] weights ) {
+		if ( templates.length == 0 || templates.length != weights.length ) {
+			throw new IllegalArgumentException( "Need a weight for each of at least one template" );
+		}
+		this.templates = templates.clone();
+		this.weights = weights.clone();
+		this.ids = new HashMap<String, Integer>();
+		Item firstPotion = null;
+		for ( int i = 0; i < templates.length; i++ ) {
+			if ( ids.putIfAbsent( templates[ i ].getName(), i ) != null ) {
+				throw new IllegalArgumentException( "Two templates are named " + templates[ i ].getName() );
+			}
+			if ( firstPotion == null && templates[ i ].getType() == ItemType.POTION ) {
+				firstPotion = templates[ i ];
+			}
+		}
+		this.potion = firstPotion;
+		this.drops = new AliasTable( this.weights );
+	}
+	
+	/**
+	 * Reads a catalog from an item textfile.
+	 * 
+	 * @param path				The filepath of the item list.
+	 * @return					The catalog.
+	 * @throws IOException		If the file could not be read, or a line is not a valid Item.
+	 */
+	public static ItemCatalog load( String path ) throws IOException {
+		ArrayList<Item> templates = new ArrayList<Item>();
+		ArrayList<Double> weights = new ArrayList<Double>();
+		try ( BufferedReader read = new BufferedReader( new FileReader( path ) ) ) {
+			String line;
+			int lineNum = 0;
+			while ( ( line = read.readLine() ) != null ) {
+				lineNum++;
+				if ( line.trim().isEmpty() ) {				// Skip blank lines, including a trailing newline
+					continue;
+				}
+				String itemParams[] = line.split( "," );	// Index 0 = name, index 1 = value, index 2 = image filepath, index 3 = weight, index 4 = type
+				if ( itemParams.length < 3 || itemParams.length > 5 ) {
+					throw new IOException( path + ": line " + lineNum + " should have 3 to 5 columns" );
+				}
+				try {
+					ItemType type = itemParams.length == 5 ? ItemType.parse( itemParams[ 4 ] ) : ItemType.forName( itemParams[ 0 ] );
+					templates.add( new Item( itemParams[ 0 ], Integer.parseInt( itemParams[ 1 ].trim() ), itemParams[ 2 ], type ) );
+					weights.add( itemParams.length >= 4 ? Double.parseDouble( itemParams[ 3 ].trim() ) : DEFAULT_WEIGHT );
+				} catch ( IllegalArgumentException e ) {		// Also catches NumberFormatException
+					throw new IOException( path + ": line " + lineNum + " is not a valid Item: " + e.getMessage() );
+				}
+			}
+		}
+		
+		double[] w = new double[ weights.size() ];
+		for ( int i = 0; i < w.length; i++ ) {
+			w[ i ] = weights.get( i );
+		}
+		try {
+			return new ItemCatalog( templates.toArray( new Item[ 0 ] ), w );
+		} catch ( IllegalArgumentException e ) {
+			throw new IOException( path + ": " + e.getMessage() );
+		}
+	}
+	
+	/**
+	 * Gets the number of templates.
+	 * 
+	 * @return					The number of templates.
+	 */
+	public int size() {
+		return templates.length;
+	}
+	
+	/**
+	 * Gets the template with the given id.
+	 * 
+	 * @param id				The id of the template.
+	 * @return					The template.
+	 */
+	public Item get( int id ) {
+		return templates[ id ];
+	}
+	
+	/**
+	 * Gets the template with the given name.
+	 * 
+	 * @param name				The name of the Item.
+	 * @return					The template, or null if there is none by that name.
+	 */
+	public Item get( String name ) {
+		Integer id = ids.get( name );
+		return id == null ? null : templates[ id ];
+	}
+	
+	/**
+	 * Gets the id of the template with the given name.
+	 * 
+	 * @param name				The name of the Item.
+	 * @return					The id, or -1 if there is no template by that name.
+	 */
+	public int getId( String name ) {
+		Integer id = ids.get( name );
+		return id == null ? -1 : id;
+	}
+	
+	/**
+	 * Gets the Health Potion template, which the shop sells.
+	 * 
+	 * @return					The first template of type POTION, or null if there is none.
+	 */
+	public Item getPotion() {
+		return potion;
+	}
+	
+	/**
+	 * Gets the drop weight of the template with the given id.
+	 * 
+	 * @param id				The id of the template.
+	 * @return					The weight.
+	 */
+	public double getWeight( int id ) {
+		return weights[ id ];
+	}
+	
+	/**
+	 * Draws the id of a template at random, in proportion to the templates' weights.
+	 * 
+	 * @param rng				The stream to roll with.
+	 * @return					The id of the drawn template.
+	 */
+	public int sampleId( SplittableRandom rng ) {
+		return drops.sample( rng );
+	}
+	
+	/**
+	 * Draws a template at random, in proportion to the templates' weights.
+	 * 
+	 * @param rng				The stream to roll with.
+	 * @return					The drawn template.
+	 */
+	public Item sample( SplittableRandom rng ) {
+		return templates[ drops.sample( rng ) ];
+	}
+}
@@ -1,7 +1,4 @@
 import java.io.*;											//Allows for usage of files.
-import java.util.Scanner;									//Allows for reading of textfiles.
-import java.util.ArrayList;									//Allows for usage of ArrayList objects.
-import java.util.Random;									//Allows for generation of random numbers.
 
 /**
  * Used for generating Items.
@@ -10,68 +7,89 @@ import java.util.Random;									//Allows for generation of random numbers.
  */
 public class ItemGenerator {
 	/**
-	 * Used to store templates of different Items.
+	 * The filepath of the item list.
 	 */
-	private ArrayList<Item> itemList;
+	public static final String ITEM_FILE = "./textfiles/ItemList.txt";
 	
 	/**
-	 * Holds a single instance of an ItemGenerator to fit a Singleton design pattern.
+	 * The Item templates, indexed by id and name. A catalog never changes, so it is shared by every game session;
+	 * reloading the item list publishes a whole new catalog in one write, and each draw uses whichever catalog was current when it started.
 	 */
-	private static ItemGenerator instance = null;
+	private volatile ItemCatalog catalog;
 	
 	/**
-	 * Default constructor of the ItemGenerator class. Reads in Item information from ItemList.txt and adds them to an ArrayList of Item templates.
+	 * Default constructor of the ItemGenerator class. Reads in Item information from ItemList.txt into a catalog of Item templates.
 	 */
 	private ItemGenerator() {
-		itemList = new ArrayList<Item>();					//Creates a new ArrayList object for Item objects.
-		final String file = "./textfiles/ItemList.txt";		//Filepath of the ItemList.txt file.
-		Scanner read = null;								//Creates a null Scanner object.
+		ItemCatalog c = null;
 		try {
-			read = new Scanner( new File( file ) );			//Allows for reading of ItemList.txt file.
-			String line;
-			
-			//Loop at least once while there are unread lines in the textfile.
-			do {
-				line = read.nextLine();						//Read in the next line of the file.
-				String itemParams[] = line.split( "," );	//Split the line at each comma and set each value to an index of itemParams String array.
-				
-				//Adds new indices to the itemList ArrayList for each different Item object.
-				// Index 0 = name, index 1 = value, index 2 = image filepath
-				itemList.add( new Item( itemParams[ 0 ], Integer.parseInt( itemParams[ 1 ] ), itemParams[ 2 ] ) );
-			} while ( read.hasNext() );
-			
-			read.close();																				//Close the Scanner object.
+			c = ItemCatalog.load( ITEM_FILE );
 		//If there was an error with file reading, print an error to the console and end the program.
 		} catch ( IOException e ) {
 			System.out.println( "An error occured while loading the item list. The program will now exit." );
+			System.out.println( e.getMessage() );
 			System.exit( 0 );
 		}
+		catalog = c;
 	}
 	
 	/**
-	 * Generates a random Item from the ArrayList of Item templates.
+	 * Generates a random Item from the catalog of Item templates, in proportion to their drop weights.
 	 * 
-	 * @return					A new instance of the generated Item.
+	 * @return					The generated Item, which is the shared template itself.
 	 */
 	public Item generateItem() {
-		Random random = new Random();					//Creates a new Random object.
-		int rng = random.nextInt( itemList.size() );	//Gets a random index of the itemList ArrayList.
-		return itemList.get( rng ).clone();				//Clone the randomly chosen Item and return it
+		return catalog.sample( GameRandom.current() );		// Items are immutable, so the template is handed out without copying it
 	}
 	
 	/**
-	 * Generates a Health Potion from the ArrayList of Item templates.
+	 * Generates a Health Potion from the catalog of Item templates.
 	 * 
-	 * @return					A new instance of a Health Potion Item.
+	 * @return					The Health Potion Item, or null if the item list has no Health Potion.
 	 */
 	public Item getPotion() {
-		// Loop through the items ArrayList, find the Health Potion template, and return a clone of it
-		for ( Item i : itemList ) {
-			if ( i.getName().equals( "Health Potion" ) ) {
-				return i.clone();
-			}
+		return catalog.getPotion();
+	}
+	
+	/**
+	 * Generates the Item with the given name.
+	 * 
+	 * @param name				The name of the Item.
+	 * @return					The Item, or null if there is no template by that name.
+	 */
+	public Item getItem( String name ) {
+		return catalog.get( name );
+	}
+	
+	/**
+	 * Generates the Item with the given id.
+	 * 
+	 * @param id				The id of the Item, which is its position in the item list, starting at 0.
+	 * @return					The Item.
+	 */
+	public Item getItem( int id ) {
+		return catalog.get( id );
+	}
+	
+	/**
+	 * Gets the catalog of Item templates.
+	 * 
+	 * @return					The ItemCatalog.
+	 */
+	public ItemCatalog getCatalog() {
+		return catalog;
+	}
+	
+	/**
+	 * Replaces the catalog of Item templates. Items already handed out keep their old templates.
+	 * 
+	 * @param c					The new ItemCatalog.
+	 */
+	public void setCatalog( ItemCatalog c ) {
+		if ( c == null ) {
+			throw new IllegalArgumentException( "The item catalog can't be null" );
 		}
-		return null;
+		catalog = c;
 	}
 	
 	/**
@@ -80,9 +98,14 @@ public class ItemGenerator {
 	 * @return The instance of the ItemGenerator object.
 	 */
 	public static ItemGenerator getInstance() {
-		if ( instance == null ) {			// If there is no ItemGenerator instance, create one
-			instance = new ItemGenerator();
-		}
-		return instance;
+		return Holder.INSTANCE;
+	}
+	
+	/**
+	 * Holds the single instance of ItemGenerator.
+	 */
+	private static class Holder {
+		/** The single instance of ItemGenerator. */
+		private static final ItemGenerator INSTANCE = new ItemGenerator();
 	}
 }
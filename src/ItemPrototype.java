@@ -4,5 +4,10 @@
  * @author Jonathan Sohrabi 2018
  */
 public abstract class ItemPrototype implements Cloneable {
+	/**
+	 * Returns an Item like this one. Immutable prototypes may return themselves.
+	 * 
+	 * @return						An equivalent ItemPrototype.
+	 */
 	public abstract ItemPrototype clone();
 }
\ No newline at end of file
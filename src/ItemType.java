@@ -0,0 +1,40 @@
+/**
+ * The kinds of Item, which decide what happens when the Hero picks one up.
+ * 
+ * @author agent 2026
+ */
+public enum ItemType {
+	/** A Health Potion, which is kept to be drunk later and gives no bonus while carried. */
+	POTION,
+	/** Gold, which goes straight to the Hero's purse instead of their inventory. */
+	GOLD,
+	/** Equipment, which raises the Hero's max HP by its value while carried. */
+	EQUIPMENT;
+	
+	/**
+	 * Works out the type of an Item from its name, for item lists that don't give types.
+	 * 
+	 * @param name				The name of the Item.
+	 * @return					POTION for a Health Potion, GOLD for a Bag o' Gold, otherwise EQUIPMENT.
+	 */
+	public static ItemType forName( String name ) {
+		if ( "Health Potion".equals( name ) ) {
+			return POTION;
+		} else if ( "Bag o' Gold".equals( name ) ) {
+			return GOLD;
+		} else {
+			return EQUIPMENT;
+		}
+	}
+	
+	/**
+	 * Reads a type from an item list column.
+	 * 
+	 * @param column			The column, such as "potion", "gold" or "equipment", in any case.
+	 * @return					The ItemType.
+	 * @throws IllegalArgumentException	If the column doesn't name a type.
+	 */
+	public static ItemType parse( String column ) {
+		return valueOf( column.trim().toUpperCase() );
+	}
+}
@@ -0,0 +1,185 @@
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts durations in nanoseconds into log-linear buckets, like an HDR histogram: every power of two is split into
+ * SUB_BUCKETS equal buckets, so any duration is known to within 1 / SUB_BUCKETS of its value, from a nanosecond up to
+ * MAX_NANOS, in a fixed, small number of buckets.
+ * Recording is lock-free and can be done from any number of threads at once: it finds the bucket with a few bit
+ * operations and adds one to it, so timers can be left on in production. Readers see counts that are at most a few
+ * recordings behind.
+ * 
+ * @author agent 2026
+ */
+public class LatencyHistogram {
+	/**
+	 * The number of bits of a duration kept below its highest bit, which sets the precision.
+	 */
+	public static final int SUB_BITS = 4;
+	/**
+	 * The number of buckets every power of two is split into.
+	 */
+	public static final int SUB_BUCKETS = 1 << SUB_BITS;
+	/**
+	 * The highest bit a duration can have. Longer durations, over 18 minutes, are counted in the last bucket.
+	 */
+	public static final int MAX_BIT = 40;
+	/**
+	 * The longest duration with a bucket of its own, in nanoseconds.
+	 */
+	public static final long MAX_NANOS = ( 1L << ( MAX_BIT + 1 ) ) - 1;
+	/**
+	 * The number of buckets.
+	 */
+	public static final int BUCKETS = ( MAX_BIT - SUB_BITS + 2 ) * SUB_BUCKETS;
+	
+	/** The number of durations in each bucket. */
+	private final AtomicLongArray buckets;
+	/** The sum of all durations recorded, in nanoseconds. */
+	private final LongAdder sum;
+	/** The longest duration recorded, in nanoseconds. */
+	private final AtomicLong max;
+	
+	/**
+	 * Creates an empty LatencyHistogram.
+	 */
+	public LatencyHistogram() {
+		this.buckets = new AtomicLongArray( BUCKETS );
+		this.sum = new LongAdder();
+		this.max = new AtomicLong();
+	}
+	
+	/**
+	 * Records a duration.
+	 * 
+	 * @param nanos				The duration in nanoseconds. Negative durations, from a clock that went back, count as 0.
+	 */
+	public void record( long nanos ) {
+		if ( nanos < 0 ) {
+			nanos = 0;
+		}
+		buckets.incrementAndGet( bucketOf( nanos ) );
+		sum.add( nanos );
+		long m = max.get();
+		while ( nanos > m && !max.compareAndSet( m, nanos ) ) {	// Rarely loops: only while the maximum keeps rising
+			m = max.get();
+		}
+	}
+	
+	/**
+	 * Records the time since the given start, as a timer around a piece of code.
+	 * 
+	 * @param start				The value of System.nanoTime when the timed code started.
+	 */
+	public void recordSince( long start ) {
+		record( System.nanoTime() - start );
+	}
+	
+	/**
+	 * Finds the bucket a duration is counted in.
+	 * 
+	 * @param nanos				The duration in nanoseconds, at least 0.
+	 * @return					The index of the bucket.
+	 */
+	public static int bucketOf( long nanos ) {
+		if ( nanos < SUB_BUCKETS ) {
+			return ( int )nanos;								// Small durations are counted exactly
+		}
+		if ( nanos > MAX_NANOS ) {
+			return BUCKETS - 1;
+		}
+		int bit = 63 - Long.numberOfLeadingZeros( nanos );
+		int sub = ( int )( nanos >>> ( bit - SUB_BITS ) ) & ( SUB_BUCKETS - 1 );
+		return ( bit - SUB_BITS + 1 ) * SUB_BUCKETS + sub;
+	}
+	
+	/**
+	 * Gets the shortest duration counted in a bucket.
+	 * 
+	 * @param bucket			The index of the bucket.
+	 * @return					The lower bound of the bucket, in nanoseconds.
+	 */
+	public static long lowerBound( int bucket ) {
+		if ( bucket < SUB_BUCKETS ) {
+			return bucket;
+		}
+		int bit = bucket / SUB_BUCKETS + SUB_BITS - 1;
+		return ( long )( SUB_BUCKETS + bucket % SUB_BUCKETS ) << ( bit - SUB_BITS );
+	}
+	
+	/**
+	 * Gets the number of durations in a bucket.
+	 * 
+	 * @param bucket			The index of the bucket.
+	 * @return					The number of durations.
+	 */
+	public long getBucket( int bucket ) {
+		return buckets.get( bucket );
+	}
+	
+	/**
+	 * Gets the number of durations recorded.
+	 * 
+	 * @return					The number of durations.
+	 */
+	public long getCount() {
+		long count = 0;
+		for ( int i = 0; i < BUCKETS; i++ ) {
+			count += buckets.get( i );
+		}
+		return count;
+	}
+	
+	/**
+	 * Gets the sum of all durations recorded.
+	 * 
+	 * @return					The sum in nanoseconds.
+	 */
+	public long getSum() {
+		return sum.sum();
+	}
+	
+	/**
+	 * Gets the longest duration recorded.
+	 * 
+	 * @return					The maximum in nanoseconds, or 0 if nothing was recorded.
+	 */
+	public long getMax() {
+		return max.get();
+	}
+	
+	/**
+	 * Gets the duration below which the given fraction of recorded durations fall, to the precision of a bucket.
+	 * 
+	 * @param fraction			The fraction of durations, from 0 to 1.
+	 * @return					The upper bound of the bucket holding that percentile in nanoseconds, or 0 if nothing was recorded.
+	 */
+	public long getPercentile( double fraction ) {
+		long[] counts = new long[ BUCKETS ];
+		long count = 0;
+		for ( int i = 0; i < BUCKETS; i++ ) {
+			counts[ i ] = buckets.get( i );
+			count += counts[ i ];
+		}
+		long target = Math.max( 1, ( long )Math.ceil( fraction * count ) );
+		long seen = 0;
+		for ( int i = 0; i < BUCKETS; i++ ) {
+			seen += counts[ i ];
+			if ( seen >= target ) {
+				return i == BUCKETS - 1 ? getMax() : Math.min( lowerBound( i + 1 ) - 1, getMax() );
+			}
+		}
+		return 0;
+	}
+	
+	/**
+	 * Returns a one line summary of the durations.
+	 * 
+	 * @return					The count and the 50th, 99th and 100th percentiles, in microseconds.
+	 */
+	@Override
+	public String toString() {
+		return String.format( "n=%d p50=%.1fus p99=%.1fus max=%.1fus", getCount(), getPercentile( 0.5 ) / 1e3, getPercentile( 0.99 ) / 1e3, getMax() / 1e3 );
+	}
+}
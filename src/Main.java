@@ -1,21 +1,23 @@
+import javax.swing.SwingUtilities;
+
 /**
  * The main class of the dungeonmaster game.
- * Implements Runnable interface to allow for Threads to be run.
+ * Implements Runnable interface so the GUI can be created on the Swing event thread.
  * 
  * @author Jonathan Sohrabi 2018
  */
 public class Main implements Runnable {
 	/**
-	 * The main method of the dungeonmaster program. Takes in non-combat commands from the player and performs the requested actions.
+	 * The main method of the dungeonmaster program. Starts the GUI, which sends the player's commands to a GameEngine.
 	 * @param args					The command-line arguments of the dungeonmaster game.
 	 */
 	public static void main( String[] args ) {
-		Thread game = new Thread( new Main() );	// New Thread for the Main class
-		game.start();							// Calls the Main class run method
+		Metrics.getInstance().startFromProperties();	// Exports the game's metrics if dungeon.metrics.* properties are set
+		SwingUtilities.invokeLater( new Main() );	// Swing components must be created and used on the event thread
 	}
 	
 	/** 
-	 * Creates a new GUI when a Main class Thread is started
+	 * Creates a new GUI on the event thread.
 	 */
 	@Override
 	public void run() {
@@ -1,66 +1,495 @@
 import java.awt.Point;						//Allows for usage of Point objects.
+import java.awt.Rectangle;
 import java.io.*;							//Allows for usage of files.
-import java.util.Scanner;					//Allows for reading of text files.
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashMap;					//Allows for looking up loaded chunks.
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Used as the mapping system of the dungeon floors.
+ * The dimensions of a floor come from its map file. Tiles are kept in MapChunks that are read from the file
+ * when first needed and released again once they are far from the Hero, so memory grows with the explored
+ * area instead of with the size of the floor.
+ * 
+ * A map file that can't be opened or read fails with an UncheckedIOException from whichever method needed it, so only
+ * the session using the Map fails.
  * 
  * @author Jonathan Sohrabi 2018
  */
 public class Map {
 	/**
-	 * Holds information for each tile on the map.
+	 * The number of chunks that may stay loaded without any being released.
 	 */
-	private char[][] map;
+	private static final int MAX_LOADED_CHUNKS = 64;
 	/**
-	 * Holds information on whether each tile has been revealed.
+	 * How many chunks away from the Hero a chunk must be before it can be released.
 	 */
-	private boolean[][] revealed;
-
+	private static final int RELEASE_DISTANCE = 2;
+	/**
+	 * The files published for each floor number by publishFloor, such as reloaded copies of edited floors.
+	 */
+	private static final ConcurrentHashMap<Integer, String> PUBLISHED_FLOORS = new ConcurrentHashMap<Integer, String>();
+	/**
+	 * The number of Maps reading each map file, so files that are no longer published can be deleted once unused.
+	 */
+	private static final ConcurrentHashMap<String, Integer> OPEN_FILES = new ConcurrentHashMap<String, Integer>();
 	/**
-	 * Holds a single instance of an Map to fit a Singleton design pattern.
+	 * The number of bytes of a digest returned by getDigest.
 	 */
-	private static Map instance = null;
+	public static final int DIGEST_BYTES = 32;
+	/**
+	 * The number of recent tile changes and reveals that changesSince can report individually.
+	 */
+	private static final int CHANGE_LOG = 1024;
+	/**
+	 * Times loading a floor, including opening its file.
+	 */
+	private static final LatencyHistogram FLOOR_LOAD = Metrics.getInstance().timer( "dungeon_floor_load_seconds", "Time to load a floor, including opening its map file" );
 	
 	/**
-	 * Default constructor for the Map class. Creates new arrays for map tiles and discovered rooms.
+	 * The file that the tiles of the current floor are read from.
+	 */
+	private MapSource source;
+	/**
+	 * The filepath the current floor was loaded from, or null if it came from a MapSource such as a FloorGenerator.
+	 */
+	private String file;
+	/**
+	 * The number of rows of tiles on the current floor.
+	 */
+	private int rows;
+	/**
+	 * The number of columns of tiles on the current floor.
+	 */
+	private int cols;
+	/**
+	 * Holds the loaded chunks of the current floor, keyed by chunkKey.
+	 */
+	private HashMap<Long, MapChunk> chunks;
+	/**
+	 * The location that was last revealed, used to decide which chunks are far enough away to release.
+	 */
+	private Point focus;
+	/**
+	 * Counts the loads, tile changes and reveals of this Map, so cached results about its tiles can tell when they are out of date.
 	 */
-	private Map() {
-		map = new char[ 5 ][ 5 ];				//Instantiate map to a 5x5 character array.
-		revealed = new boolean[ 5 ][ 5 ];		//Instantiate revealed to a 5x5 boolean array.
+	private int version;
+	/**
+	 * The first version whose changes changesSince can list: the version at which the current floor was loaded, or at
+	 * which more tiles were revealed at once than the change log holds.
+	 */
+	private int resetAt;
+	/**
+	 * The number of tiles of the current floor that were revealed when it was loaded, or -1 until it is first counted.
+	 */
+	private long revealedAtLoad;
+	/**
+	 * The number of tiles of the current floor revealed since it was loaded.
+	 */
+	private long revealedSinceLoad;
+	/**
+	 * The locations of the last CHANGE_LOG tile changes and reveals, as chunkKey style keys indexed by version.
+	 */
+	private final long[] changeLog;
+	/**
+	 * The SHA-256 digest of the current floor as its source holds it, or null until it is first asked for.
+	 */
+	private byte[] digest;
+	
+	/**
+	 * Default constructor for the Map class. Creates an empty floor until a map is loaded.
+	 * Each game session owns its own Map; a Map is not safe to use from more than one thread at a time.
+	 */
+	public Map() {
+		chunks = new HashMap<Long, MapChunk>();	//Instantiate chunks to an empty table.
+		focus = new Point();
+		changeLog = new long[ CHANGE_LOG ];
 	}
 	
 	/**
-	 * Reads in Map tiles from "MapX.txt" textfiles (where X is the map number) and parses them into an array.
+	 * Loads map number X as the current floor, from the file given by floorFile.
 	 * 
 	 * @param mapNum				The number of the map to load.
+	 * @throws UncheckedIOException	If the map file could not be read.
 	 */
 	public void loadMap( int mapNum ) {
-		Scanner read = null;										//Create null Scanner object.
-		final String file = "./textfiles/Map" + mapNum + ".txt";	//Filepath of each map.
+		loadFile( floorFile( mapNum ), mapNum );
+	}
+	
+	/**
+	 * Loads floor number mapNum: from its file if one was published or written for it, otherwise generated from the seed
+	 * by a FloorGenerator, so the dungeon goes on after the hand-written floors run out.
+	 * 
+	 * @param mapNum				The number of the floor, which is also the level it is generated for.
+	 * @param seed					The seed to generate the floor from if it has no file.
+	 * @throws UncheckedIOException	If the map file could not be read.
+	 */
+	public void loadMap( int mapNum, long seed ) {
+		if ( hasFloorFile( mapNum ) ) {
+			loadMap( mapNum );
+		} else {
+			loadSource( FloorGenerator.forLevel( seed, mapNum ), mapNum );
+		}
+	}
+	
+	/**
+	 * Checks whether floor number mapNum has a file, either published by publishFloor or in the textfiles directory.
+	 * 
+	 * @param mapNum				The number of the floor.
+	 * @return						True if loadMap( mapNum ) would find a file.
+	 */
+	public static boolean hasFloorFile( int mapNum ) {
+		return new File( floorFile( mapNum ) ).isFile();
+	}
+	
+	/**
+	 * Gets the file that floor number mapNum is loaded from: the last snapshot published for it by publishFloor,
+	 * otherwise "./textfiles/MapX.dmap" if it exists, otherwise "./textfiles/MapX.txt".
+	 * 
+	 * @param mapNum				The number of the floor.
+	 * @return						The filepath of the floor.
+	 */
+	public static String floorFile( int mapNum ) {
+		String published = PUBLISHED_FLOORS.get( mapNum );
+		if ( published != null ) {
+			return published;
+		}
+		String binary = "./textfiles/Map" + mapNum + BinaryMapSource.EXTENSION;
+		if ( new File( binary ).isFile() ) {
+			return binary;
+		} else {
+			return "./textfiles/Map" + mapNum + ".txt";
+		}
+	}
+	
+	/**
+	 * Makes every later load of floor number mapNum read the given file. Floors that are already loaded keep reading
+	 * their own file, so the published file must never change afterwards.
+	 * 
+	 * @param mapNum				The number of the floor.
+	 * @param file					The filepath of a validated, unchanging copy of the floor.
+	 * @return						The file published for the floor before, which Maps may still be reading, or null.
+	 */
+	public static String publishFloor( int mapNum, String file ) {
+		return PUBLISHED_FLOORS.put( mapNum, file );
+	}
+	
+	/**
+	 * Makes later loads of floor number mapNum read the game's own file again, unless a file other than the given one
+	 * was published for it since.
+	 * 
+	 * @param mapNum				The number of the floor.
+	 * @param file					The filepath that was published for the floor.
+	 * @return						True if the file was still published and no longer is.
+	 */
+	public static boolean unpublishFloor( int mapNum, String file ) {
+		return PUBLISHED_FLOORS.remove( mapNum, file );
+	}
+	
+	/**
+	 * Loads the given map file as the current floor. Only the dimensions and starting location are read up front;
+	 * tiles are read as they are needed.
+	 * 
+	 * @param file					The filepath of the map to load.
+	 * @throws UncheckedIOException	If the map file could not be read.
+	 */
+	public void loadMap( String file ) {
+		loadFile( file, 0 );
+	}
+	
+	/**
+	 * Makes the given source the current floor, such as a FloorGenerator. The Map closes the source when the next floor is loaded.
+	 * 
+	 * @param next					The source of the floor's tiles.
+	 */
+	public void loadMap( MapSource next ) {
+		loadSource( next, 0 );
+	}
+	
+	/**
+	 * Loads a map file as the current floor, timing it and reporting it to Java Flight Recorder.
+	 * 
+	 * @param file					The filepath of the map to load.
+	 * @param mapNum				The number of the floor, or 0 if it isn't known.
+	 */
+	private void loadFile( String file, int mapNum ) {
+		FloorLoadEvent event = new FloorLoadEvent();
+		event.begin();
+		long start = System.nanoTime();
+		try {
+			load( openSource( file ) );
+			this.file = file;
+			OPEN_FILES.merge( file, 1, Integer::sum );
+			FLOOR_LOAD.recordSince( start );
+		//If an error occured during file reading, fail the session that wanted the floor, not the whole program.
+		} catch ( IOException e ) {
+			throw new UncheckedIOException( "An error occured while loading the map " + file, e );
+		}
+		commit( event, mapNum );
+	}
+	
+	/**
+	 * Makes a source the current floor, timing it and reporting it to Java Flight Recorder.
+	 * 
+	 * @param next					The source of the floor's tiles.
+	 * @param mapNum				The number of the floor, or 0 if it isn't known.
+	 */
+	private void loadSource( MapSource next, int mapNum ) {
+		FloorLoadEvent event = new FloorLoadEvent();
+		event.begin();
+		long start = System.nanoTime();
+		load( next );
+		FLOOR_LOAD.recordSince( start );
+		commit( event, mapNum );
+	}
+	
+	/**
+	 * Ends a FloorLoadEvent for the floor that was just loaded, and commits it if a recording wants it.
+	 * 
+	 * @param event					The event, begun before the floor was loaded.
+	 * @param mapNum				The number of the floor, or 0 if it isn't known.
+	 */
+	private void commit( FloorLoadEvent event, int mapNum ) {
+		event.end();
+		if ( event.shouldCommit() ) {								//Only looks at the file while a recording is running.
+			event.floor = mapNum;
+			event.file = file;
+			event.bytes = file == null ? 0 : new File( file ).length();
+			event.rows = rows;
+			event.cols = cols;
+			event.commit();
+		}
+	}
+	
+	/**
+	 * Does the work of loadMap, without timing it.
+	 * 
+	 * @param next					The source of the floor's tiles.
+	 */
+	private void load( MapSource next ) {
 		try {
-			read = new Scanner( new File( file ) );					//Allows for reading of the map textfile.
-			String line;
-			int i = 0;												//Keeps track of each "row" in the map.
-			
-			//Do while file has unread lines.
-			do {
-				line = read.nextLine();								//Read in the next line of the file.
-				if ( line != null ) {								//If the line is not null:
-					char[] mapVals = line.toCharArray();			//Create a new 1D character array to hold each character that was read.
-					for ( int j = 0; j < map.length; j++ ) {		//Loop for each index of the map array.
-						map[ i ][ j ] = mapVals[ j ];				//Sets map index value to the respective character in mapVals array.
-						revealed[ i ][ j ] = false;					//Sets revealed index value to false.
+			if ( source != null ) {
+				source.close();										//Close the previous floor's file.
+			}
+		//If an error occured while closing the file, close the next one too and fail the session.
+		} catch ( IOException e ) {
+			try {
+				next.close();
+			} catch ( IOException suppressed ) {
+				e.addSuppressed( suppressed );
+			}
+			throw new UncheckedIOException( "An error occured while closing the previous map", e );
+		}
+		source = next;
+		release( file );
+		file = null;
+		rows = source.getRows();
+		cols = source.getCols();
+		chunks.clear();												//Drop every chunk of the previous floor.
+		resetAt = ++version;
+		revealedAtLoad = -1;										//Counted when first asked for, so loading never scans the floor.
+		revealedSinceLoad = 0;
+		digest = null;
+	}
+	
+	/**
+	 * Opens the given map file, choosing how to read it from its extension.
+	 * 
+	 * @param file					The filepath of the map.
+	 * @return						A MapSource that reads from the file.
+	 * @throws IOException			If the file could not be opened.
+	 */
+	public static MapSource openSource( String file ) throws IOException {
+		if ( file.endsWith( BinaryMapSource.EXTENSION ) ) {
+			return new BinaryMapSource( file );
+		} else {
+			return new TextMapSource( file );
+		}
+	}
+	
+	/**
+	 * Reads the chunks around a Point ahead of time, so the first moves near it never wait for the map file.
+	 * Used to get a floor ready before the Hero arrives on it; nothing is revealed.
+	 * 
+	 * @param p						The Point to read the surrounding chunks of, usually the start.
+	 */
+	public void preload( Point p ) {
+		chunkAt( p.x, p.y );										//Check that the Point is on the Map.
+		for ( int row = Math.max( 0, p.x - MapChunk.SIZE ); row <= Math.min( rows - 1, p.x + MapChunk.SIZE ); row += MapChunk.SIZE ) {
+			for ( int col = Math.max( 0, p.y - MapChunk.SIZE ); col <= Math.min( cols - 1, p.y + MapChunk.SIZE ); col += MapChunk.SIZE ) {
+				chunkAt( row, col );
+			}
+		}
+		focus.setLocation( p );
+	}
+	
+	/**
+	 * Closes the source of the current floor and drops its chunks, for a Map that will not be used again.
+	 * 
+	 * @throws UncheckedIOException	If the map file could not be closed.
+	 */
+	public void close() {
+		try {
+			if ( source != null ) {
+				source.close();
+			}
+		//If an error occured while closing the file, tell the caller.
+		} catch ( IOException e ) {
+			throw new UncheckedIOException( "An error occured while closing the map", e );
+		}
+		source = null;
+		release( file );
+		file = null;
+		chunks.clear();
+	}
+	
+	/**
+	 * Counts a Map as no longer reading a map file.
+	 * 
+	 * @param file					The filepath of the file, or null if the Map read none.
+	 */
+	private static void release( String file ) {
+		if ( file != null ) {
+			OPEN_FILES.computeIfPresent( file, ( f, count ) -> count == 1 ? null : count - 1 );
+		}
+	}
+	
+	/**
+	 * Checks whether any Map is reading the given map file, such as before deleting a floor that is no longer published.
+	 * 
+	 * @param file					The filepath, as the Map was given it.
+	 * @return						True if a Map has the file as its current floor.
+	 */
+	public static boolean isFileOpen( String file ) {
+		return OPEN_FILES.containsKey( file );
+	}
+	
+	/**
+	 * Gets the filepath the current floor was loaded from.
+	 * 
+	 * @return						The filepath, or null if the floor was generated or given as a MapSource.
+	 */
+	public String getFile() {
+		return file;
+	}
+	
+	/**
+	 * Gets the number of rows of tiles on the current floor.
+	 * 
+	 * @return						The number of rows.
+	 */
+	public int getRows() {
+		return rows;
+	}
+	
+	/**
+	 * Gets the number of columns of tiles on the current floor.
+	 * 
+	 * @return						The number of columns.
+	 */
+	public int getCols() {
+		return cols;
+	}
+	
+	/**
+	 * Gets a SHA-256 digest of the current floor as its source holds it, without the Hero's changes: its size, start,
+	 * every tile and the tiles the source holds as revealed. The digest doesn't depend on the format, so a
+	 * textfile and its binary copy have the same one. It reads the whole floor the first time, chunk by chunk without
+	 * keeping any, and is kept until the next floor is loaded.
+	 * 
+	 * @return						The DIGEST_BYTES bytes of the digest. The array is the Map's own and must not be changed.
+	 * @throws UncheckedIOException	If the map file could not be read.
+	 */
+	public byte[] getDigest() {
+		if ( digest == null ) {
+			MessageDigest sha;
+			try {
+				sha = MessageDigest.getInstance( "SHA-256" );
+			} catch ( NoSuchAlgorithmException e ) {
+				throw new IllegalStateException( "Every Java platform has SHA-256", e );
+			}
+			ByteBuffer header = ByteBuffer.allocate( 16 );
+			Point start = source.getStart();
+			sha.update( header.putInt( rows ).putInt( cols ).putInt( start.x ).putInt( start.y ).array() );
+			byte[] tiles = new byte[ MapChunk.SIZE * MapChunk.SIZE ];
+			long[] revealed = new long[ MapChunk.SIZE ];
+			ByteBuffer words = ByteBuffer.allocate( MapChunk.SIZE * Long.BYTES );
+			try {
+				for ( int chunkRow = 0; chunkRow * MapChunk.SIZE < rows; chunkRow++ ) {
+					for ( int chunkCol = 0; chunkCol * MapChunk.SIZE < cols; chunkCol++ ) {
+						source.readChunk( chunkRow, chunkCol, tiles );
+						int width = Math.min( MapChunk.SIZE, cols - chunkCol * MapChunk.SIZE );
+						for ( int r = 0; r < Math.min( MapChunk.SIZE, rows - chunkRow * MapChunk.SIZE ); r++ ) {
+							sha.update( tiles, r * MapChunk.SIZE, width );			//Only the tiles on the floor, not the padding
+						}
+						Arrays.fill( revealed, 0 );
+						if ( source.hasRevealed() ) {
+							source.readRevealed( chunkRow, chunkCol, revealed );
+						}
+						words.clear();
+						words.asLongBuffer().put( revealed );			//Nothing revealed reads the same from every format
+						sha.update( words.array() );
 					}
-					i++;											//Increment to the next map "row".
 				}
-			} while ( read.hasNext() );
-			read.close();											//Close the Scanner object.
-		//If an error occured during file reading, print an error to the console and exit the program.
-		} catch ( IOException e ) {
-			System.out.println( "An error occured while loading the next map. The program will now exit." );
-			System.exit( 0 );
+			//If an error occured during file reading, fail the session that asked.
+			} catch ( IOException e ) {
+				throw new UncheckedIOException( "An error occured while reading the map", e );
+			}
+			digest = sha.digest();
 		}
+		return digest;
+	}
+	
+	/**
+	 * Gets the number of times this Map was loaded, had a tile changed or had a tile revealed.
+	 * 
+	 * @return						The version of the Map.
+	 */
+	public int getVersion() {
+		return version;
+	}
+	
+	/**
+	 * Gets the locations of the tiles that changed or were revealed after the given version, oldest first, for code
+	 * that keeps its own copy of the tiles up to date.
+	 * 
+	 * @param since					A version returned by getVersion.
+	 * @param out					The list to add the locations to.
+	 * @return						True if a floor was loaded or too many tiles changed since then to list them, meaning the
+	 * 								copy must be rebuilt; false if only the tiles added to out changed.
+	 */
+	public boolean changesSince( int since, List<Point> out ) {
+		if ( since < resetAt || version - since > CHANGE_LOG ) {
+			return true;
+		}
+		for ( int v = since; v < version; v++ ) {
+			long key = changeLog[ v % CHANGE_LOG ];
+			out.add( new Point( ( int )( key >> 32 ), ( int )key ) );
+		}
+		return false;
+	}
+	
+	/**
+	 * Gets the number of chunks of the current floor that are held in memory.
+	 * 
+	 * @return						The number of loaded chunks.
+	 */
+	public int getLoadedChunks() {
+		return chunks.size();
+	}
+	
+	/**
+	 * Estimates how much memory the chunks of the current floor that are held in memory use.
+	 * 
+	 * @return						The estimated number of bytes.
+	 */
+	public long estimateMemory() {
+		return chunks.size() * MapChunk.BYTES;
 	}
 	
 	/**
@@ -70,7 +499,18 @@ public class Map {
 	 * @return						The character of the map at the parameterized Point.
 	 */
 	public char getCharAtLoc( Point p ) {
-		return map[ ( int )p.getX() ][ ( int )p.getY() ];			//Return the map character value at the index given by the Point parameter.
+		return getTile( p.x, p.y );
+	}
+	
+	/**
+	 * Gets the character value of the Map at the given row and column.
+	 * 
+	 * @param row					The row of the tile.
+	 * @param col					The column of the tile.
+	 * @return						The character of the tile.
+	 */
+	public char getTile( int row, int col ) {
+		return chunkAt( row, col ).getTile( row % MapChunk.SIZE, col % MapChunk.SIZE );
 	}
 	
 	/**
@@ -79,23 +519,267 @@ public class Map {
 	 * @return						The Point on the Map with an 's' index value.
 	 */
 	public Point findStart() {
-		Point start = new Point();
-		for ( int i = 0; i < map.length; i++ ) {
-			for ( int j = 0; j < map[i].length; j++ ) {
-				if ( map[ i ][ j ] == 's' )
-					start.setLocation( i, j );
-			}
-		}
-		return start;
+		return source.getStart();
+	}
+	
+	/**
+	 * Gets the location of the stairs to the next floor, if the floor's source knows it without reading its chunks.
+	 * 
+	 * @return						The location of the 'f' tile, or null if it isn't known.
+	 */
+	public Point getStairs() {
+		return source.getStairs();
 	}
 	
 	/**
 	 * Sets the Map index value to discovered at the location of the parameterized Point.
+	 * Chunks that are far from this Point and hold nothing that needs to be kept are released.
 	 * 
 	 * @param p						The Point on the Map that is to be marked as discovered.
 	 */
 	public void reveal( Point p ) {
-		revealed[ ( int )p.getX() ][( int )p.getY() ] = true;	//Set the revealed array value to true at the given parameter Point p.
+		revealRadius( p, 0 );
+	}
+	
+	/**
+	 * Reveals every tile within the given distance of a Point, as the light of the Hero would: a disc of tiles whose
+	 * centres are no further than radius tiles from the Point's. Each row of the disc is revealed a word at a time.
+	 * Chunks that are far from this Point and hold nothing that needs to be kept are released.
+	 * 
+	 * @param p						The centre of the disc.
+	 * @param radius				The radius of the disc, in tiles. 0 reveals only the tile at the Point.
+	 * @return						The number of tiles that were not revealed before.
+	 */
+	public int revealRadius( Point p, int radius ) {
+		chunkAt( p.x, p.y );										//Check that the centre is on the Map.
+		int added = 0;
+		boolean listed = true;
+		for ( int row = Math.max( 0, p.x - radius ); row <= Math.min( rows - 1, p.x + radius ); row++ ) {
+			int half = ( int )Math.sqrt( ( double )radius * radius - ( double )( row - p.x ) * ( row - p.x ) );	//Half the width of the disc on this row
+			added += revealSpan( row, Math.max( 0, p.y - half ), Math.min( cols - 1, p.y + half ), listed );
+			listed = added <= CHANGE_LOG;
+		}
+		if ( !listed ) {
+			forgetChanges();
+		}
+		focus.setLocation( p );
+		if ( chunks.size() > MAX_LOADED_CHUNKS ) {
+			releaseChunks();
+		}
+		return added;
+	}
+	
+	/**
+	 * Reveals every tile of a rectangle, a word at a time. The parts of the rectangle that lie outside of the Map are ignored.
+	 * 
+	 * @param top					The first row of the rectangle.
+	 * @param left					The first column of the rectangle.
+	 * @param height				The number of rows of the rectangle.
+	 * @param width					The number of columns of the rectangle.
+	 * @return						The number of tiles that were not revealed before.
+	 */
+	public int revealRect( int top, int left, int height, int width ) {
+		int added = 0;
+		boolean listed = true;
+		int right = Math.min( cols, left + width ) - 1;
+		for ( int row = Math.max( 0, top ); row < Math.min( rows, top + height ); row++ ) {
+			if ( right >= Math.max( 0, left ) ) {
+				added += revealSpan( row, Math.max( 0, left ), right, listed );
+				listed = added <= CHANGE_LOG;
+			}
+		}
+		if ( !listed ) {
+			forgetChanges();
+		}
+		return added;
+	}
+	
+	/**
+	 * Reveals the tiles of one row between two columns, one chunk at a time.
+	 * 
+	 * @param row					The row.
+	 * @param first					The first column to reveal.
+	 * @param last					The last column to reveal.
+	 * @param listed				Whether to record each newly revealed tile for changesSince.
+	 * @return						The number of tiles that were not revealed before.
+	 */
+	private int revealSpan( int row, int first, int last, boolean listed ) {
+		int added = 0;
+		for ( int col = first; col <= last; ) {
+			int end = Math.min( last, ( col / MapChunk.SIZE + 1 ) * MapChunk.SIZE - 1 );	//The rest of the span that lies in this chunk
+			long mask = ( -1L >>> ( MapChunk.SIZE - 1 - end % MapChunk.SIZE ) ) & ( -1L << ( col % MapChunk.SIZE ) );
+			long bits = chunkAt( row, col ).reveal( row % MapChunk.SIZE, mask );
+			added += Long.bitCount( bits );
+			int chunkLeft = col - col % MapChunk.SIZE;
+			while ( listed && bits != 0 ) {
+				Point p = new Point( row, chunkLeft + Long.numberOfTrailingZeros( bits ) );
+				logChange( p );
+				bits &= bits - 1;										//Clear the lowest bit
+			}
+			col = end + 1;
+		}
+		revealedSinceLoad += added;
+		return added;
+	}
+	
+	/**
+	 * Makes changesSince report every tile as changed, for when too many changed at once to list them one by one.
+	 */
+	private void forgetChanges() {
+		resetAt = ++version;
+	}
+	
+	/**
+	 * Counts the tiles of the current floor that have been revealed.
+	 * The count kept in the map file is read the first time, then kept up to date as tiles are revealed.
+	 * 
+	 * @return						The number of revealed tiles.
+	 * @throws UncheckedIOException	If the map file could not be read.
+	 */
+	public long countRevealed() {
+		if ( revealedAtLoad < 0 ) {
+			try {
+				revealedAtLoad = source.countRevealed();
+			//If an error occured during file reading, fail the session that asked.
+			} catch ( IOException e ) {
+				throw new UncheckedIOException( "An error occured while reading the map", e );
+			}
+		}
+		return revealedAtLoad + revealedSinceLoad;
+	}
+	
+	/**
+	 * Gets how much of the current floor has been explored.
+	 * 
+	 * @return						The percentage of tiles that have been revealed, from 0 to 100.
+	 */
+	public double getExploredPercent() {
+		long size = ( long )rows * cols;
+		return size == 0 ? 0 : 100.0 * countRevealed() / size;
+	}
+	
+	/**
+	 * Writes which tiles of the current floor have been revealed, as raw bits: for every chunk in row order, one long per
+	 * row of the chunk with column c in bit c. Chunks are written one at a time, without loading any of them.
+	 * 
+	 * @param out					The stream to write to.
+	 * @throws IOException			If the bits could not be written, or the map file could not be read.
+	 */
+	public void writeRevealed( DataOutput out ) throws IOException {
+		long[] words = new long[ MapChunk.SIZE ];
+		for ( int chunkRow = 0; chunkRow * MapChunk.SIZE < rows; chunkRow++ ) {
+			for ( int chunkCol = 0; chunkCol * MapChunk.SIZE < cols; chunkCol++ ) {
+				MapChunk chunk = chunks.get( chunkKey( chunkRow, chunkCol ) );
+				Arrays.fill( words, 0 );
+				if ( chunk != null ) {
+					for ( int r = 0; r < MapChunk.SIZE; r++ ) {
+						words[ r ] = chunk.getRevealed( r );
+					}
+				} else if ( source.hasRevealed() ) {
+					source.readRevealed( chunkRow, chunkCol, words );
+				}
+				for ( long w : words ) {
+					out.writeLong( w );
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Replaces which tiles of the current floor have been revealed with bits written by writeRevealed for the same floor.
+	 * Only chunks that hold revealed tiles, or whose map file says otherwise, are loaded.
+	 * 
+	 * @param in					The stream to read from.
+	 * @throws IOException			If the bits could not be read.
+	 */
+	public void readRevealed( DataInput in ) throws IOException {
+		long[] words = new long[ MapChunk.SIZE ];
+		long total = 0;
+		for ( int chunkRow = 0; chunkRow * MapChunk.SIZE < rows; chunkRow++ ) {
+			for ( int chunkCol = 0; chunkCol * MapChunk.SIZE < cols; chunkCol++ ) {
+				long any = 0;
+				for ( int r = 0; r < MapChunk.SIZE; r++ ) {
+					words[ r ] = in.readLong();
+					any |= words[ r ];
+					total += Long.bitCount( words[ r ] );
+				}
+				MapChunk chunk = chunks.get( chunkKey( chunkRow, chunkCol ) );
+				if ( chunk == null && ( any != 0 || source.hasRevealed() ) ) {
+					chunk = chunkAt( chunkRow * MapChunk.SIZE, chunkCol * MapChunk.SIZE );
+				}
+				if ( chunk != null ) {
+					for ( int r = 0; r < MapChunk.SIZE; r++ ) {
+						chunk.setRevealed( r, words[ r ] );
+					}
+				}
+			}
+		}
+		revealedAtLoad = total;
+		revealedSinceLoad = 0;
+		forgetChanges();
+	}
+	
+	/**
+	 * Writes the state of the current floor that can't be read back from its source: every modified chunk, with its
+	 * tiles and reveal state, followed by the number of revealed tiles on the floor. Unmodified chunks are left out,
+	 * so a save holds only what the Hero changed, and chunks are written one at a time straight from the Map.
+	 * 
+	 * @param out					The stream to write to.
+	 * @throws IOException			If the chunks could not be written, or the map file could not be read.
+	 */
+	public void writeModified( DataOutput out ) throws IOException {
+		int count = 0;
+		for ( MapChunk chunk : chunks.values() ) {
+			if ( chunk.isPinned() ) {
+				count++;
+			}
+		}
+		out.writeInt( count );
+		for ( java.util.Map.Entry<Long, MapChunk> entry : chunks.entrySet() ) {
+			if ( entry.getValue().isPinned() ) {
+				out.writeLong( entry.getKey() );
+				entry.getValue().write( out );
+			}
+		}
+		out.writeLong( countRevealed() );
+	}
+	
+	/**
+	 * Puts back the modified chunks written by writeModified, on the same floor freshly loaded from the same source.
+	 * 
+	 * @param in					The stream to read from.
+	 * @throws IOException			If the chunks could not be read, or don't fit on the current floor.
+	 */
+	public void readModified( DataInput in ) throws IOException {
+		int count = in.readInt();
+		if ( count < 0 ) {
+			throw new IOException( "A saved floor can't have " + count + " modified chunks" );
+		}
+		for ( int i = 0; i < count; i++ ) {
+			long key = in.readLong();
+			int chunkRow = ( int )( key >> 32 );
+			int chunkCol = ( int )key;
+			if ( chunkRow < 0 || chunkRow * MapChunk.SIZE >= rows || chunkCol < 0 || chunkCol * MapChunk.SIZE >= cols ) {
+				throw new IOException( "Chunk (" + chunkRow + ", " + chunkCol + ") is outside of the " + rows + "x" + cols + " map" );
+			}
+			chunks.put( key, MapChunk.read( in ) );
+		}
+		revealedAtLoad = in.readLong();
+		revealedSinceLoad = 0;
+		forgetChanges();
+	}
+	
+	/**
+	 * Checks whether the tile at the given row and column has been revealed.
+	 * The chunk is only loaded if the map file stores reveal state, since otherwise an unloaded chunk has nothing revealed.
+	 * 
+	 * @param row					The row of the tile.
+	 * @param col					The column of the tile.
+	 * @return						True if the tile has been revealed.
+	 */
+	public boolean isRevealed( int row, int col ) {
+		MapChunk chunk = source.hasRevealed() ? chunkAt( row, col ) : chunks.get( chunkKey( row / MapChunk.SIZE, col / MapChunk.SIZE ) );
+		return chunk != null && chunk.isRevealed( row % MapChunk.SIZE, col % MapChunk.SIZE );
 	}
 	
 	/**
@@ -104,7 +788,8 @@ public class Map {
 	 * @param p						The Point where the Map index value is to be changed to an 'n'.
 	 */
 	public void removeCharAtLoc( Point p ) {
-		map[ ( int )p.getX() ][ ( int )p.getY() ] = 'n';		//Replace the map array value at the given parameter Point p with the character 'n'.
+		chunkAt( p.x, p.y ).setTile( p.x % MapChunk.SIZE, p.y % MapChunk.SIZE, 'n' );	//Replace the tile at the given parameter Point p with the character 'n'.
+		logChange( p );
 	}
 	
 	/**
@@ -113,50 +798,214 @@ public class Map {
 	 * @param p		The location to turn into an Item room.
 	 */
 	public void setItemRoom( Point p ) {
-		map[ ( int )p.getX() ][ ( int )p.getY() ] = 'i';
+		chunkAt( p.x, p.y ).setTile( p.x % MapChunk.SIZE, p.y % MapChunk.SIZE, 'i' );
+		logChange( p );
 	}
-
+	
 	/**
-	 * Returns an instance of a Map object.
+	 * Records a tile change or reveal for changesSince, and moves the Map on to its next version.
 	 * 
-	 * @return The instance of the Map object.
+	 * @param p		The location of the changed tile.
 	 */
-	public static Map getInstance() {
-		if ( instance == null ) {		// If the Map instance does not exist, create it.
-			instance = new Map();
-		}
-		return instance;
+	private void logChange( Point p ) {
+		changeLog[ version % CHANGE_LOG ] = chunkKey( p.x, p.y );
+		version++;
 	}
 	
 	/**
-	 * Returns the currently loaded Map as a String
-	 * In the String:
+	 * Gets the character that represents the tile at the given row and column when displayed.
 	 * 		* = The Hero's current location
 	 * 		x = A room that has not been revealed yet
-	 * 		m = A monster room
-	 * 		i = An Item room
-	 * 		s = A shop
-	 * 		f = The next floor
+	 * 		  = An empty room that has been revealed
+	 * 		Otherwise the room's own character
+	 * 
+	 * @param row	The row of the tile.
+	 * @param col	The column of the tile.
+	 * @param hero	The Hero's current location.
+	 * @return		The display character of the tile.
+	 */
+	public char getDisplayChar( int row, int col, Point hero ) {
+		if ( ( hero.getX() == row ) && ( hero.getY() == col ) )	// If the Hero's location is at that index, show an asterisk
+			return '*';
+		else if ( !isRevealed( row, col ) )						// If the room has not yet been revealed, show an x
+			return 'x';
+		else if ( getTile( row, col ) == 'n' )					// If the room has been discovered and is empty, show a space
+			return ' ';
+		else													// In all other cases, show that room's character value
+			return getTile( row, col );
+	}
+	
+	/**
+	 * Fills the given array with the display characters of a rectangular region of the Map, row by row.
+	 * Uses the same rules as getDisplayChar, but looks each chunk up once per row instead of once per tile,
+	 * and never loads a chunk just to show that its tiles are hidden.
 	 * 
-	 * @param p		The Hero's current location
-	 * @return		The currently loaded Map as a String
+	 * @param top		The first row of the region.
+	 * @param left		The first column of the region.
+	 * @param height	The number of rows in the region.
+	 * @param width		The number of columns in the region.
+	 * @param hero		The Hero's current location.
+	 * @param dest		The array to fill, at least height * width long.
 	 */
-	public String toString( Point p ) {
-		String returnString = "";
+	public void fillView( int top, int left, int height, int width, Point hero, char[] dest ) {
+		if ( top < 0 || left < 0 || top + height > rows || left + width > cols ) {
+			throw new IndexOutOfBoundsException( height + "x" + width + " region at (" + top + ", " + left + ") is outside of the " + rows + "x" + cols + " map" );
+		}
 		
-		for ( int i = 0; i < map.length; i++ ) {				// Loop through each "row" of the map.
-			for ( int j = 0; j < map[i].length; j++ ) {			// Loop through each "column" of the map.
-				if ( ( p.getX() == i ) && ( p.getY() == j ) )	// If the Hero's location is at that index, append an asterisk to the String
-					returnString += "*";
-				else if ( !revealed[ i ][ j ] )					// If the room has not yet been revealed, append an x to the String
-						returnString += "x";
-				else if ( revealed[ i ][ j ] && map[ i ][ j ] == 'n' )		// If the room has been discovered and is empty, append a space to the String
-					returnString += " ";
-				else											// If all other cases, append that room's character value to the String
-					returnString += map[ i ][ j ];
+		int i = 0;
+		for ( int row = top; row < top + height; row++ ) {
+			int col = left;
+			while ( col < left + width ) {
+				int end = Math.min( left + width, ( col / MapChunk.SIZE + 1 ) * MapChunk.SIZE );	// The rest of the row that lies in this chunk
+				MapChunk chunk = source.hasRevealed() ? chunkAt( row, col ) : chunks.get( chunkKey( row / MapChunk.SIZE, col / MapChunk.SIZE ) );
+				for ( ; col < end; col++ ) {
+					if ( chunk == null || !chunk.isRevealed( row % MapChunk.SIZE, col % MapChunk.SIZE ) ) {	// Rooms that have not been revealed show an x
+						dest[ i++ ] = 'x';
+					} else {
+						char c = chunk.getTile( row % MapChunk.SIZE, col % MapChunk.SIZE );
+						dest[ i++ ] = ( c == 'n' ) ? ' ' : c;												// Empty revealed rooms show a space
+					}
+				}
 			}
 		}
 		
-		return returnString;
+		if ( hero.x >= top && hero.x < top + height && hero.y >= left && hero.y < left + width ) {	// The Hero's location shows an asterisk
+			dest[ ( hero.x - top ) * width + ( hero.y - left ) ] = '*';
+		}
+	}
+	
+	/**
+	 * Copies the tile characters and reveal state of a block of whole chunks into the given arrays, row by row. Chunks
+	 * that aren't loaded are read from the map file without being kept, so copying never makes the Map hold more chunks.
+	 * 
+	 * @param area		The block, in chunks: x and width are the first row and the number of rows, y and height the
+	 * 					first column and the number of columns. It must lie on the Map.
+	 * @param tiles		The array to copy the tiles into, one entry for every tile of the block that lies on the Map.
+	 * @param revealed	The array to copy the reveal state into, as long as tiles.
+	 */
+	public void readChunks( Rectangle area, byte[] tiles, boolean[] revealed ) {
+		int top = area.x * MapChunk.SIZE;
+		int left = area.y * MapChunk.SIZE;
+		int width = Math.min( cols, ( area.y + area.height ) * MapChunk.SIZE ) - left;
+		for ( int chunkRow = area.x; chunkRow < area.x + area.width; chunkRow++ ) {
+			for ( int chunkCol = area.y; chunkCol < area.y + area.height; chunkCol++ ) {
+				MapChunk chunk = chunks.get( chunkKey( chunkRow, chunkCol ) );
+				if ( chunk == null ) {
+					chunk = readChunk( chunkRow, chunkCol );
+				}
+				int firstCol = chunkCol * MapChunk.SIZE;
+				int span = Math.min( MapChunk.SIZE, cols - firstCol );
+				for ( int row = chunkRow * MapChunk.SIZE; row < Math.min( rows, ( chunkRow + 1 ) * MapChunk.SIZE ); row++ ) {
+					chunk.copyRow( row % MapChunk.SIZE, tiles, revealed, ( row - top ) * width + firstCol - left, span );
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Gets the smallest block of chunks that holds every chunk with revealed or changed tiles. Only loaded chunks are
+	 * looked at, which every such chunk is, unless the map file itself stores revealed tiles.
+	 * 
+	 * @return			The block, in chunks, in the same sense as readChunks, or null if no tile was revealed or changed.
+	 */
+	public Rectangle getModifiedChunks() {
+		Rectangle area = null;
+		for ( java.util.Map.Entry<Long, MapChunk> entry : chunks.entrySet() ) {
+			if ( entry.getValue().isPinned() ) {
+				Rectangle chunk = new Rectangle( ( int )( entry.getKey() >> 32 ), ( int )( long )entry.getKey(), 1, 1 );
+				area = area == null ? chunk : area.union( chunk );
+			}
+		}
+		return area;
+	}
+	
+	/**
+	 * Gets the chunk holding the tile at the given row and column, reading it from the map file if it isn't loaded.
+	 * 
+	 * @param row	The row of the tile.
+	 * @param col	The column of the tile.
+	 * @return		The chunk holding the tile.
+	 */
+	private MapChunk chunkAt( int row, int col ) {
+		if ( row < 0 || row >= rows || col < 0 || col >= cols ) {
+			throw new IndexOutOfBoundsException( "(" + row + ", " + col + ") is outside of the " + rows + "x" + cols + " map" );
+		}
+		Long key = chunkKey( row / MapChunk.SIZE, col / MapChunk.SIZE );
+		MapChunk chunk = chunks.get( key );
+		if ( chunk == null ) {
+			chunk = readChunk( row / MapChunk.SIZE, col / MapChunk.SIZE );
+			chunks.put( key, chunk );
+		}
+		return chunk;
+	}
+	
+	/**
+	 * Reads a chunk from the map file, without keeping it.
+	 * 
+	 * @param chunkRow	The row of the chunk, in chunks.
+	 * @param chunkCol	The column of the chunk, in chunks.
+	 * @return			The chunk as the map file holds it.
+	 */
+	private MapChunk readChunk( int chunkRow, int chunkCol ) {
+		byte[] tiles = new byte[ MapChunk.SIZE * MapChunk.SIZE ];
+		long[] revealed = new long[ MapChunk.SIZE ];
+		try {
+			source.readChunk( chunkRow, chunkCol, tiles );
+			if ( source.hasRevealed() ) {
+				source.readRevealed( chunkRow, chunkCol, revealed );
+			}
+		//If an error occured during file reading, fail the session that asked.
+		} catch ( IOException e ) {
+			throw new UncheckedIOException( "An error occured while reading the map", e );
+		}
+		return new MapChunk( tiles, revealed );
+	}
+	
+	/**
+	 * Releases loaded chunks that are far from the focus and can be read back from the map file unchanged.
+	 */
+	private void releaseChunks() {
+		int focusRow = focus.x / MapChunk.SIZE;
+		int focusCol = focus.y / MapChunk.SIZE;
+		Iterator<java.util.Map.Entry<Long, MapChunk>> it = chunks.entrySet().iterator();
+		while ( it.hasNext() ) {
+			java.util.Map.Entry<Long, MapChunk> entry = it.next();
+			int chunkRow = ( int )( entry.getKey() >> 32 );
+			int chunkCol = ( int )( long )entry.getKey();
+			boolean far = Math.abs( chunkRow - focusRow ) > RELEASE_DISTANCE || Math.abs( chunkCol - focusCol ) > RELEASE_DISTANCE;
+			if ( far && !entry.getValue().isPinned() ) {
+				it.remove();
+			}
+		}
+	}
+	
+	/**
+	 * Combines a chunk row and column into one key for the chunks table.
+	 * 
+	 * @param chunkRow	The row of the chunk, in chunks.
+	 * @param chunkCol	The column of the chunk, in chunks.
+	 * @return			The key of the chunk.
+	 */
+	private static long chunkKey( int chunkRow, int chunkCol ) {
+		return ( ( long )chunkRow << 32 ) | ( chunkCol & 0xFFFFFFFFL );
+	}
+
+	/**
+	 * Returns a shared default Map, for code that only ever needs one dungeon. Game sessions should create their own Map instead.
+	 * 
+	 * @return The shared default Map object.
+	 */
+	public static Map getInstance() {
+		return Holder.INSTANCE;
+	}
+	
+	/**
+	 * Holds the shared default Map. This is the holder-class idiom the game's shared instances all use: the JVM
+	 * initializes a nested class the first time it is used, so the instance is created once, when getInstance is first
+	 * called, and every later call reads it without any locking.
+	 */
+	private static class Holder {
+		/** The shared default Map. */
+		private static final Map INSTANCE = new Map();
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,205 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * A square block of Map tiles that is loaded and released as a unit.
+ * A chunk is exactly 64 tiles wide, so the reveal state of each of its rows fits in one long, with column c in bit c.
+ * 
+ * @author agent 2026
+ */
+public class MapChunk {
+	/**
+	 * The width and height of every chunk, in tiles.
+	 */
+	public static final int SIZE = 64;
+	
+	/**
+	 * The rough number of bytes a loaded chunk uses, for memory accounting: its tiles, its reveal state and the object headers.
+	 */
+	public static final long BYTES = ( long )SIZE * SIZE + 8L * SIZE + 64;
+	
+	/**
+	 * The tile characters of the chunk, row by row.
+	 */
+	private final byte[] tiles;
+	/**
+	 * Which tiles of each row of the chunk have been revealed, one bit per tile.
+	 */
+	private final long[] revealed;
+	/**
+	 * The number of revealed tiles in the chunk.
+	 */
+	private int revealedCount;
+	/**
+	 * Whether any tile or reveal state differs from the MapSource the chunk was read from.
+	 */
+	private boolean modified;
+	
+	/**
+	 * Creates a chunk holding the given tiles and reveal state.
+	 * 
+	 * @param tiles				The tiles of the chunk, SIZE * SIZE long.
+	 * @param revealed			Which tiles of each row have been revealed, SIZE words long.
+	 */
+	public MapChunk( byte[] tiles, long[] revealed ) {
+		this.tiles = tiles;
+		this.revealed = revealed;
+		for ( long bits : revealed ) {
+			revealedCount += Long.bitCount( bits );
+		}
+	}
+	
+	/**
+	 * Reads a chunk written by write. The chunk counts as modified, since only modified chunks are written.
+	 * 
+	 * @param in				The stream to read from.
+	 * @return					The chunk.
+	 * @throws IOException		If the stream could not be read.
+	 */
+	public static MapChunk read( DataInput in ) throws IOException {
+		byte[] tiles = new byte[ SIZE * SIZE ];
+		long[] revealed = new long[ SIZE ];
+		in.readFully( tiles );
+		for ( int r = 0; r < SIZE; r++ ) {
+			revealed[ r ] = in.readLong();
+		}
+		MapChunk chunk = new MapChunk( tiles, revealed );
+		chunk.modified = true;
+		return chunk;
+	}
+	
+	/**
+	 * Writes the tiles of the chunk, row by row, then the reveal state of every row.
+	 * 
+	 * @param out				The stream to write to.
+	 * @throws IOException		If the stream could not be written.
+	 */
+	public void write( DataOutput out ) throws IOException {
+		out.write( tiles );
+		for ( long bits : revealed ) {
+			out.writeLong( bits );
+		}
+	}
+	
+	/**
+	 * Gets the character of a tile in the chunk.
+	 * 
+	 * @param row				The row of the tile within the chunk.
+	 * @param col				The column of the tile within the chunk.
+	 * @return					The character of the tile.
+	 */
+	public char getTile( int row, int col ) {
+		return ( char )tiles[ row * SIZE + col ];
+	}
+	
+	/**
+	 * Sets the character of a tile in the chunk, marking the chunk as modified.
+	 * 
+	 * @param row				The row of the tile within the chunk.
+	 * @param col				The column of the tile within the chunk.
+	 * @param c					The new character of the tile.
+	 */
+	public void setTile( int row, int col, char c ) {
+		tiles[ row * SIZE + col ] = ( byte )c;
+		modified = true;
+	}
+	
+	/**
+	 * Checks whether a tile in the chunk has been revealed.
+	 * 
+	 * @param row				The row of the tile within the chunk.
+	 * @param col				The column of the tile within the chunk.
+	 * @return					True if the tile has been revealed.
+	 */
+	public boolean isRevealed( int row, int col ) {
+		return ( revealed[ row ] & ( 1L << col ) ) != 0;
+	}
+	
+	/**
+	 * Marks a tile in the chunk as revealed.
+	 * 
+	 * @param row				The row of the tile within the chunk.
+	 * @param col				The column of the tile within the chunk.
+	 * @return					True if the tile was not revealed before.
+	 */
+	public boolean reveal( int row, int col ) {
+		return reveal( row, 1L << col ) != 0;
+	}
+	
+	/**
+	 * Marks several tiles of one row of the chunk as revealed at once.
+	 * 
+	 * @param row				The row within the chunk.
+	 * @param bits				The tiles to reveal, with column c in bit c.
+	 * @return					The tiles that were not revealed before, in the same form.
+	 */
+	public long reveal( int row, long bits ) {
+		long added = bits & ~revealed[ row ];
+		if ( added != 0 ) {
+			revealed[ row ] |= added;
+			revealedCount += Long.bitCount( added );
+			modified = true;
+		}
+		return added;
+	}
+	
+	/**
+	 * Gets which tiles of one row of the chunk have been revealed.
+	 * 
+	 * @param row				The row within the chunk.
+	 * @return					The revealed tiles, with column c in bit c.
+	 */
+	public long getRevealed( int row ) {
+		return revealed[ row ];
+	}
+	
+	/**
+	 * Replaces which tiles of one row of the chunk have been revealed, marking the chunk as modified if they differ.
+	 * 
+	 * @param row				The row within the chunk.
+	 * @param bits				The revealed tiles, with column c in bit c.
+	 */
+	public void setRevealed( int row, long bits ) {
+		if ( revealed[ row ] != bits ) {
+			revealedCount += Long.bitCount( bits ) - Long.bitCount( revealed[ row ] );
+			revealed[ row ] = bits;
+			modified = true;
+		}
+	}
+	
+	/**
+	 * Gets the number of revealed tiles in the chunk.
+	 * 
+	 * @return					The number of revealed tiles.
+	 */
+	public int countRevealed() {
+		return revealedCount;
+	}
+	
+	/**
+	 * Copies the start of a row of the chunk into the given arrays.
+	 * 
+	 * @param row				The row within the chunk.
+	 * @param tiles				The array to copy the tile characters into.
+	 * @param revealed			The array to copy the reveal state into.
+	 * @param offset			The index in both arrays to copy the first tile to.
+	 * @param width				The number of tiles to copy.
+	 */
+	public void copyRow( int row, byte[] tiles, boolean[] revealed, int offset, int width ) {
+		System.arraycopy( this.tiles, row * SIZE, tiles, offset, width );
+		long bits = this.revealed[ row ];
+		for ( int col = 0; col < width; col++ ) {
+			revealed[ offset + col ] = ( bits & ( 1L << col ) ) != 0;
+		}
+	}
+	
+	/**
+	 * Checks whether the chunk holds state that can't be read back from its MapSource, meaning it must not be released.
+	 * 
+	 * @return					True if any tile was modified or revealed since the chunk was read.
+	 */
+	public boolean isPinned() {
+		return modified;
+	}
+}
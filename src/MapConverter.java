@@ -0,0 +1,156 @@
+import java.awt.Point;						//Allows for usage of Point objects.
+import java.io.*;							//Allows for usage of files.
+import java.util.stream.IntStream;
+
+/**
+ * Converts map files into the binary floor format read by BinaryMapSource.
+ * 
+ * Usage: java MapConverter input.txt [output.dmap]
+ * If no output is given, it is written next to the input with the ".dmap" extension.
+ * 
+ * @author agent 2026
+ */
+public class MapConverter {
+	/**
+	 * Converts the map file given on the command line.
+	 * 
+	 * @param args				The input map file, and optionally the output file.
+	 */
+	public static void main( String[] args ) {
+		if ( args.length < 1 || args.length > 2 ) {
+			System.out.println( "Usage: java MapConverter input.txt [output" + BinaryMapSource.EXTENSION + "]" );
+			return;
+		}
+		String output = args.length == 2 ? args[ 1 ] : args[ 0 ].replaceFirst( "\\.[^./\\\\]*$", "" ) + BinaryMapSource.EXTENSION;
+		try {
+			convert( args[ 0 ], output );
+			System.out.println( "Wrote " + output );
+		} catch ( IOException e ) {
+			System.out.println( "Could not convert " + args[ 0 ] + ": " + e.getMessage() );
+		}
+	}
+	
+	/**
+	 * Converts a map file of any supported format into a binary floor.
+	 * 
+	 * @param input				The filepath of the map to convert.
+	 * @param output			The filepath to write the binary floor to.
+	 * @throws IOException		If the map could not be read or written.
+	 */
+	public static void convert( String input, String output ) throws IOException {
+		try ( MapSource source = Map.openSource( input ) ) {
+			write( source, output );
+		}
+	}
+	
+	/**
+	 * Writes the tiles and reveal state of a MapSource as a binary floor.
+	 * The map is copied one band of chunks at a time, so it never has to fit in memory. Sources that can be read
+	 * concurrently have as many bands read at once as there are processors.
+	 * 
+	 * @param source			The map to write.
+	 * @param output			The filepath to write the binary floor to.
+	 * @throws IOException		If the map could not be read or written.
+	 */
+	public static void write( MapSource source, String output ) throws IOException {
+		int rows = source.getRows();
+		int cols = source.getCols();
+		Point start = source.getStart();
+		Point stairs = source.getStairs();
+		
+		try ( DataOutputStream out = new DataOutputStream( new BufferedOutputStream( new FileOutputStream( output ), 1 << 16 ) ) ) {
+			out.writeInt( BinaryMapSource.MAGIC );
+			out.writeInt( BinaryMapSource.VERSION );
+			out.writeInt( rows );
+			out.writeInt( cols );
+			out.writeInt( start.x );
+			out.writeInt( start.y );
+			out.writeInt( stairs == null ? -1 : stairs.x );
+			out.writeInt( stairs == null ? -1 : stairs.y );
+			
+			// Sources that can be read concurrently have a window of bands gathered in parallel, one band per processor
+			int bandCount = ( rows + MapChunk.SIZE - 1 ) / MapChunk.SIZE;
+			int window = source.isConcurrent() ? Math.min( bandCount, Runtime.getRuntime().availableProcessors() ) : 1;
+			byte[][] bands = new byte[ window ][ MapChunk.SIZE * cols ];
+			for ( int first = 0; first < bandCount; first += window ) {
+				int count = Math.min( window, bandCount - first );
+				int firstBand = first;
+				try {
+					IntStream.range( 0, count ).parallel().forEach( i -> {
+						try {
+							readBand( source, firstBand + i, bands[ i ] );
+						} catch ( IOException e ) {
+							throw new UncheckedIOException( e );
+						}
+					} );
+				} catch ( UncheckedIOException e ) {
+					throw e.getCause();
+				}
+				for ( int i = 0; i < count; i++ ) {				// Write the rows in order
+					out.write( bands[ i ], 0, Math.min( MapChunk.SIZE, rows - ( first + i ) * MapChunk.SIZE ) * cols );
+				}
+			}
+			
+			// A band holds MapChunk.SIZE rows, a multiple of 8, so each band's bits start on a byte boundary
+			long[] revealed = new long[ MapChunk.SIZE ];
+			byte[] bits = new byte[ MapChunk.SIZE * cols / 8 ];
+			for ( int chunkRow = 0; chunkRow * MapChunk.SIZE < rows; chunkRow++ ) {
+				int height = Math.min( MapChunk.SIZE, rows - chunkRow * MapChunk.SIZE );
+				int bandBytes = ( height * cols + 7 ) / 8;
+				java.util.Arrays.fill( bits, ( byte )0 );
+				
+				if ( source.hasRevealed() ) {
+					for ( int chunkCol = 0; chunkCol * MapChunk.SIZE < cols; chunkCol++ ) {
+						int width = Math.min( MapChunk.SIZE, cols - chunkCol * MapChunk.SIZE );
+						source.readRevealed( chunkRow, chunkCol, revealed );
+						for ( int r = 0; r < height; r++ ) {
+							writeBits( bits, r * cols + chunkCol * MapChunk.SIZE, revealed[ r ], width );
+						}
+					}
+				}
+				out.write( bits, 0, bandBytes );
+			}
+		}
+	}
+	
+	/**
+	 * Sets up to 64 consecutive bits of a bitmap, a whole byte at a time. Bits that are clear in the value are left as they were.
+	 * 
+	 * @param bitmap			The bitmap, lowest bit first within each byte.
+	 * @param bit				The index of the first bit to set.
+	 * @param value				The bits to set, with the first one in bit 0.
+	 * @param count				The number of bits, at most 64.
+	 */
+	private static void writeBits( byte[] bitmap, int bit, long value, int count ) {
+		int done = 0;
+		while ( done < count ) {
+			int at = bit + done;
+			int shift = at & 7;
+			int take = Math.min( 8 - shift, count - done );
+			bitmap[ at >>> 3 ] |= ( byte )( ( ( value >>> done ) & ( ( 1 << take ) - 1 ) ) << shift );
+			done += take;
+		}
+	}
+	
+	/**
+	 * Gathers the chunks of one band of MapChunk.SIZE rows into whole rows.
+	 * 
+	 * @param source			The map to read.
+	 * @param chunkRow			The band, in chunks.
+	 * @param band				The array to fill, MapChunk.SIZE * cols long.
+	 * @throws IOException		If the map could not be read.
+	 */
+	private static void readBand( MapSource source, int chunkRow, byte[] band ) throws IOException {
+		int rows = source.getRows();
+		int cols = source.getCols();
+		int height = Math.min( MapChunk.SIZE, rows - chunkRow * MapChunk.SIZE );
+		byte[] chunk = new byte[ MapChunk.SIZE * MapChunk.SIZE ];
+		for ( int chunkCol = 0; chunkCol * MapChunk.SIZE < cols; chunkCol++ ) {
+			int width = Math.min( MapChunk.SIZE, cols - chunkCol * MapChunk.SIZE );
+			source.readChunk( chunkRow, chunkCol, chunk );
+			for ( int r = 0; r < height; r++ ) {
+				System.arraycopy( chunk, r * MapChunk.SIZE, band, r * cols + chunkCol * MapChunk.SIZE, width );
+			}
+		}
+	}
+}
@@ -0,0 +1,86 @@
+import java.awt.Point;						//Allows for usage of Point objects.
+import java.io.*;							//Allows for usage of files.
+
+/**
+ * Interface for anything that a Map can read its tiles from, one chunk at a time.
+ * 
+ * @author agent 2026
+ */
+public interface MapSource extends Closeable {
+	/**
+	 * Gets the number of rows of tiles in the map.
+	 * 
+	 * @return					The number of rows.
+	 */
+	public int getRows();
+	
+	/**
+	 * Gets the number of columns of tiles in the map.
+	 * 
+	 * @return					The number of columns.
+	 */
+	public int getCols();
+	
+	/**
+	 * Gets the starting location of the map. For map files this is the last 's' tile in row order.
+	 * 
+	 * @return					The starting location, or (0,0) if the map has no 's' tile.
+	 */
+	public Point getStart();
+	
+	/**
+	 * Gets the location of the stairs to the next floor, if the source knows it without reading the floor's chunks.
+	 * For map files this is the last 'f' tile in row order.
+	 * 
+	 * @return					The location of the 'f' tile, or null if it isn't known or the map has none.
+	 */
+	public default Point getStairs() {
+		return null;
+	}
+	
+	/**
+	 * Reads the tiles of one chunk into the given array, row by row.
+	 * Tiles of the chunk that fall outside of the map are left untouched.
+	 * 
+	 * @param chunkRow			The row of the chunk, in chunks.
+	 * @param chunkCol			The column of the chunk, in chunks.
+	 * @param tiles				The array to fill, MapChunk.SIZE * MapChunk.SIZE tiles long.
+	 * @throws IOException		If the tiles could not be read.
+	 */
+	public void readChunk( int chunkRow, int chunkCol, byte[] tiles ) throws IOException;
+	
+	/**
+	 * Checks whether the source stores which tiles have been revealed. If not, every tile starts hidden.
+	 * 
+	 * @return					True if readRevealed should be called for each chunk.
+	 */
+	public boolean hasRevealed();
+	
+	/**
+	 * Reads which tiles of one chunk have been revealed into the given array, one word per row with column c in bit c.
+	 * Bits of tiles that fall outside of the map are left clear.
+	 * 
+	 * @param chunkRow			The row of the chunk, in chunks.
+	 * @param chunkCol			The column of the chunk, in chunks.
+	 * @param revealed			The array to fill, MapChunk.SIZE words long.
+	 * @throws IOException		If the reveal state could not be read.
+	 */
+	public void readRevealed( int chunkRow, int chunkCol, long[] revealed ) throws IOException;
+	
+	/**
+	 * Counts the tiles of the whole map that have been revealed.
+	 * 
+	 * @return					The number of revealed tiles.
+	 * @throws IOException		If the reveal state could not be read.
+	 */
+	public long countRevealed() throws IOException;
+	
+	/**
+	 * Checks whether readChunk may be called from several threads at once, so a whole map can be read in parallel.
+	 * 
+	 * @return					True if chunks can be read concurrently.
+	 */
+	public default boolean isConcurrent() {
+		return false;
+	}
+}
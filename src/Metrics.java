@@ -0,0 +1,359 @@
+import com.sun.net.httpserver.HttpServer;
+import java.io.*;							//Allows for usage of files.
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Holds the counters and latency timers of the game and exports them as OpenMetrics text.
+ * Code that is measured looks its metrics up once, usually into static final fields, and afterwards only adds to a
+ * LongAdder or records into a LatencyHistogram, neither of which takes a lock.
+ * 
+ * The metrics can be read from a localhost HTTP endpoint and dumped to a file every few seconds. Both are started by
+ * startFromProperties when the system properties are set:
+ * 		dungeon.metrics.port		Serves the metrics at http://127.0.0.1:PORT/metrics
+ * 		dungeon.metrics.file		Writes the metrics to this file
+ * 		dungeon.metrics.interval	The seconds between two writes of the file, 10 unless given
+ * 
+ * @author agent 2026
+ */
+public class Metrics {
+	/**
+	 * The seconds between two dumps of the metrics file unless told otherwise.
+	 */
+	public static final int DEFAULT_INTERVAL = 10;
+	/**
+	 * The content type of OpenMetrics text.
+	 */
+	public static final String CONTENT_TYPE = "application/openmetrics-text; version=1.0.0; charset=utf-8";
+	/** The lowest power of two nanoseconds exported as a bucket bound, about a microsecond. */
+	private static final int FIRST_BOUND_BIT = 10;
+	/** The highest power of two nanoseconds exported as a bucket bound, about a minute. */
+	private static final int LAST_BOUND_BIT = 36;
+	
+	/** The counters by name and labels. */
+	private final ConcurrentHashMap<String, Family<LongAdder>> counters;
+	/** The timers by name and labels. */
+	private final ConcurrentHashMap<String, Family<LatencyHistogram>> timers;
+	/** Serves the metrics over HTTP, or null. */
+	private HttpServer server;
+	/** Dumps the metrics to a file, or null. */
+	private ScheduledExecutorService dumper;
+	
+	/**
+	 * Creates an empty registry.
+	 */
+	private Metrics() {
+		this.counters = new ConcurrentHashMap<String, Family<LongAdder>>();
+		this.timers = new ConcurrentHashMap<String, Family<LatencyHistogram>>();
+	}
+	
+	/**
+	 * Gets a counter, creating it the first time it is asked for.
+	 * 
+	 * @param name				The name of the counter, without the _total suffix OpenMetrics adds.
+	 * @param help				What the counter counts.
+	 * @param labels			Label names and values, in pairs, which tell counters of the same name apart.
+	 * @return					The counter.
+	 */
+	public LongAdder counter( String name, String help, String... labels ) {
+		return family( counters, name, help ).get( labels, LongAdder::new );
+	}
+	
+	/**
+	 * Gets a timer, creating it the first time it is asked for.
+	 * 
+	 * @param name				The name of the timer, ending in _seconds.
+	 * @param help				What the timer measures.
+	 * @param labels			Label names and values, in pairs, which tell timers of the same name apart.
+	 * @return					The histogram the timer records into.
+	 */
+	public LatencyHistogram timer( String name, String help, String... labels ) {
+		return family( timers, name, help ).get( labels, LatencyHistogram::new );
+	}
+	
+	/**
+	 * Gets a family of metrics, creating it the first time it is asked for.
+	 * 
+	 * @param families			The families of the right kind.
+	 * @param name				The name of the family.
+	 * @param help				What the family measures.
+	 * @return					The family.
+	 */
+	private static <T> Family<T> family( ConcurrentHashMap<String, Family<T>> families, String name, String help ) {
+		if ( !name.matches( "[a-zA-Z_][a-zA-Z0-9_]*" ) ) {
+			throw new IllegalArgumentException( "Not a valid metric name: " + name );
+		}
+		return families.computeIfAbsent( name, n -> new Family<T>( help ) );
+	}
+	
+	/**
+	 * Writes every metric as OpenMetrics text, ending with the EOF marker. Metrics are listed by name.
+	 * 
+	 * @param out				Where to write the metrics.
+	 * @throws IOException		If the metrics could not be written.
+	 */
+	public void write( Writer out ) throws IOException {
+		for ( java.util.Map.Entry<String, Family<LongAdder>> e : new TreeMap<String, Family<LongAdder>>( counters ).entrySet() ) {
+			String name = e.getKey();
+			header( out, name, "counter", e.getValue().help );
+			for ( java.util.Map.Entry<String, LongAdder> m : new TreeMap<String, LongAdder>( e.getValue().metrics ).entrySet() ) {
+				out.write( name + "_total" + braces( m.getKey() ) + " " + m.getValue().sum() + "\n" );
+			}
+		}
+		for ( java.util.Map.Entry<String, Family<LatencyHistogram>> e : new TreeMap<String, Family<LatencyHistogram>>( timers ).entrySet() ) {
+			String name = e.getKey();
+			header( out, name, "histogram", e.getValue().help );
+			for ( java.util.Map.Entry<String, LatencyHistogram> m : new TreeMap<String, LatencyHistogram>( e.getValue().metrics ).entrySet() ) {
+				writeHistogram( out, name, m.getKey(), m.getValue() );
+			}
+		}
+		out.write( "# EOF\n" );
+	}
+	
+	/**
+	 * Writes the TYPE and HELP lines of a family.
+	 * 
+	 * @param out				Where to write.
+	 * @param name				The name of the family.
+	 * @param type				The OpenMetrics type of the family.
+	 * @param help				What the family measures.
+	 * @throws IOException		If the lines could not be written.
+	 */
+	private static void header( Writer out, String name, String type, String help ) throws IOException {
+		out.write( "# TYPE " + name + " " + type + "\n" );
+		out.write( "# HELP " + name + " " + help.replace( "\\", "\\\\" ).replace( "\n", "\\n" ) + "\n" );
+	}
+	
+	/**
+	 * Writes one histogram: its cumulative buckets at every power of two nanoseconds between the exported bounds, then
+	 * its count and sum in seconds. Powers of two are bucket boundaries of LatencyHistogram, so the exported counts are
+	 * exact, and the count is worked out from the same bucket counts, so it always equals the +Inf bucket.
+	 * 
+	 * @param out				Where to write.
+	 * @param name				The name of the family.
+	 * @param labels			The labels of the histogram, as written inside the braces.
+	 * @param h					The histogram.
+	 * @throws IOException		If the lines could not be written.
+	 */
+	private static void writeHistogram( Writer out, String name, String labels, LatencyHistogram h ) throws IOException {
+		String prefix = labels.isEmpty() ? "" : labels + ",";
+		long cumulative = 0;
+		int bucket = 0;
+		for ( int bit = FIRST_BOUND_BIT; bit <= LAST_BOUND_BIT; bit++ ) {
+			int end = LatencyHistogram.bucketOf( 1L << bit );		// Every bucket below this one is under the bound
+			for ( ; bucket < end; bucket++ ) {
+				cumulative += h.getBucket( bucket );
+			}
+			out.write( name + "_bucket{" + prefix + "le=\"" + ( ( 1L << bit ) / 1e9 ) + "\"} " + cumulative + "\n" );
+		}
+		for ( ; bucket < LatencyHistogram.BUCKETS; bucket++ ) {
+			cumulative += h.getBucket( bucket );
+		}
+		out.write( name + "_bucket{" + prefix + "le=\"+Inf\"} " + cumulative + "\n" );
+		out.write( name + "_count" + braces( labels ) + " " + cumulative + "\n" );
+		out.write( name + "_sum" + braces( labels ) + " " + ( h.getSum() / 1e9 ) + "\n" );
+	}
+	
+	/**
+	 * Puts labels in braces, or leaves them out if there are none.
+	 * 
+	 * @param labels			The labels as written inside the braces.
+	 * @return					The labels with braces, or an empty String.
+	 */
+	private static String braces( String labels ) {
+		return labels.isEmpty() ? "" : "{" + labels + "}";
+	}
+	
+	/**
+	 * Writes every metric as OpenMetrics text into a String.
+	 * 
+	 * @return					The metrics.
+	 */
+	public String scrape() {
+		StringWriter out = new StringWriter();
+		try {
+			write( out );
+		} catch ( IOException e ) {
+			throw new UncheckedIOException( e );				// A StringWriter never fails
+		}
+		return out.toString();
+	}
+	
+	/**
+	 * Serves the metrics at http://127.0.0.1:port/metrics, on a daemon thread. Only the local machine can connect.
+	 * 
+	 * @param port				The port to listen on, or 0 for any free port.
+	 * @return					The port the endpoint listens on.
+	 * @throws IOException		If the port could not be opened.
+	 */
+	public synchronized int serve( int port ) throws IOException {
+		if ( server != null ) {
+			throw new IllegalStateException( "The metrics are already served on port " + server.getAddress().getPort() );
+		}
+		HttpServer s = HttpServer.create( new InetSocketAddress( InetAddress.getLoopbackAddress(), port ), 0 );
+		s.createContext( "/metrics", exchange -> {
+			byte[] body = scrape().getBytes( StandardCharsets.UTF_8 );
+			exchange.getResponseHeaders().set( "Content-Type", CONTENT_TYPE );
+			exchange.sendResponseHeaders( 200, body.length );
+			try ( OutputStream out = exchange.getResponseBody() ) {
+				out.write( body );
+			}
+		} );
+		s.setExecutor( Executors.newSingleThreadExecutor( r -> {
+			Thread t = new Thread( r, "metrics-http" );
+			t.setDaemon( true );		// Serving metrics doesn't keep the JVM alive
+			return t;
+		} ) );
+		Thread starter = new Thread( s::start, "metrics-start" );
+		starter.setDaemon( true );		// The server's dispatcher thread takes its daemon flag from the thread that starts it
+		starter.start();
+		try {
+			starter.join();
+		} catch ( InterruptedException e ) {
+			Thread.currentThread().interrupt();
+		}
+		server = s;
+		return s.getAddress().getPort();
+	}
+	
+	/**
+	 * Writes the metrics to a file every interval seconds, on a daemon thread. Every dump is written next to the
+	 * file first, then moved over it, so readers never see half a dump.
+	 * 
+	 * @param file				The filepath to write the metrics to.
+	 * @param interval			The seconds between two dumps.
+	 */
+	public synchronized void dump( String file, int interval ) {
+		if ( interval <= 0 ) {
+			throw new IllegalArgumentException( "The dump interval must be positive: " + interval );
+		}
+		if ( dumper != null ) {
+			throw new IllegalStateException( "The metrics are already dumped" );
+		}
+		dumper = Executors.newSingleThreadScheduledExecutor( r -> {
+			Thread t = new Thread( r, "metrics-dump" );
+			t.setDaemon( true );
+			return t;
+		} );
+		dumper.scheduleWithFixedDelay( () -> {
+			File temp = new File( file + ".tmp" );
+			try ( Writer out = new OutputStreamWriter( new FileOutputStream( temp ), StandardCharsets.UTF_8 ) ) {
+				write( out );
+			} catch ( IOException e ) {
+				System.out.println( "Could not dump the metrics to " + file + ": " + e.getMessage() );
+				return;
+			}
+			File target = new File( file );
+			if ( !temp.renameTo( target ) ) {
+				target.delete();					// Some file systems won't rename over an existing file
+				temp.renameTo( target );
+			}
+		}, interval, interval, TimeUnit.SECONDS );
+	}
+	
+	/**
+	 * Starts the endpoint and the file dump asked for by the dungeon.metrics system properties, if any.
+	 * A problem is reported on the console and the game goes on without that export.
+	 */
+	public void startFromProperties() {
+		Integer port = Integer.getInteger( "dungeon.metrics.port" );
+		if ( port != null ) {
+			try {
+				System.out.println( "Metrics at http://127.0.0.1:" + serve( port ) + "/metrics" );
+			} catch ( IOException | RuntimeException e ) {
+				System.out.println( "Could not serve the metrics on port " + port + ": " + e.getMessage() );
+			}
+		}
+		String file = System.getProperty( "dungeon.metrics.file" );
+		if ( file != null ) {
+			try {
+				dump( file, Integer.getInteger( "dungeon.metrics.interval", DEFAULT_INTERVAL ) );
+			} catch ( RuntimeException e ) {
+				System.out.println( "Could not dump the metrics to " + file + ": " + e.getMessage() );
+			}
+		}
+	}
+	
+	/**
+	 * Stops the endpoint and the file dump, if they were started.
+	 */
+	public synchronized void stop() {
+		if ( server != null ) {
+			server.stop( 0 );
+			server = null;
+		}
+		if ( dumper != null ) {
+			dumper.shutdownNow();
+			dumper = null;
+		}
+	}
+	
+	/**
+	 * Returns the registry shared by the whole game.
+	 * 
+	 * @return The instance of the Metrics object.
+	 */
+	public static Metrics getInstance() {
+		return Holder.INSTANCE;
+	}
+	
+	/**
+	 * Holds the single instance of Metrics.
+	 */
+	private static class Holder {
+		/** The single instance of Metrics. */
+		private static final Metrics INSTANCE = new Metrics();
+	}
+	
+	/**
+	 * The metrics that share one name and differ only in their labels.
+	 * 
+	 * @author agent 2026
+	 */
+	private static class Family<T> {
+		/** What the metrics measure. */
+		private final String help;
+		/** The metrics, by their labels as written inside the braces. */
+		private final ConcurrentHashMap<String, T> metrics;
+		
+		/**
+		 * Creates an empty family.
+		 * 
+		 * @param help			What the metrics measure.
+		 */
+		private Family( String help ) {
+			this.help = help;
+			this.metrics = new ConcurrentHashMap<String, T>();
+		}
+		
+		/**
+		 * Gets the metric with the given labels, creating it the first time it is asked for.
+		 * 
+		 * @param labels		Label names and values, in pairs.
+		 * @param create		Creates a new metric.
+		 * @return				The metric.
+		 */
+		private T get( String[] labels, Supplier<T> create ) {
+			if ( labels.length % 2 != 0 ) {
+				throw new IllegalArgumentException( "Labels must come in name and value pairs" );
+			}
+			StringBuilder key = new StringBuilder();
+			for ( int i = 0; i < labels.length; i += 2 ) {
+				if ( i > 0 ) {
+					key.append( ',' );
+				}
+				key.append( labels[ i ] ).append( "=\"" );
+				key.append( labels[ i + 1 ].replace( "\\", "\\\\" ).replace( "\"", "\\\"" ).replace( "\n", "\\n" ) ).append( '"' );
+			}
+			return metrics.computeIfAbsent( key.toString(), k -> create.get() );
+		}
+	}
+}
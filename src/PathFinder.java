@@ -0,0 +1,753 @@
+import java.awt.Point;						//Allows for usage of Point objects.
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Finds routes across the rooms of a Map, for auto-travel and bots.
+ * Every room can be entered from the four rooms next to it. A route may either cross any room, or only rooms that
+ * have already been revealed. Routes between two rooms are found with A*, or a plain breadth-first search.
+ * 
+ * Questions like "how far is the nearest shop" are answered from a distance field: the number of steps from every room to
+ * the nearest room of a kind, built with one breadth-first search. Fields are kept between queries and follow the Map's
+ * changes as they happen: a revealed room or a new target only shortens distances, which is spread out from that room
+ * alone, while a removed target throws the field away to be rebuilt on its next use. Walking the Hero around therefore
+ * costs a field next to nothing, and answering from it costs one array lookup per step of the route.
+ * 
+ * A PathFinder only searches its search area: the block of chunks around every chunk the Hero revealed or changed and
+ * every room it was asked about, with MARGIN chunks of unexplored floor on each side. Routes never leave the area, so
+ * a route that may cross ANY room still can't go through unexplored floor further away, and target rooms there aren't
+ * found, except the stairs: when the Map knows where they are, a field to 'f' across ANY room takes them into the area,
+ * so the route to the next floor is always found. The area grows as the Hero explores, and its tiles are then copied again; chunks of it that the Map hasn't
+ * loaded are read from the map file without being kept, so the Map never holds more of the floor for a PathFinder.
+ * The copy and the search arrays take about 18 bytes per room of the area, and every distance field 4 more: a few
+ * hundred KB around the start of a floor, growing to the whole floor only once the Hero has explored across it.
+ * 
+ * A PathFinder must be used on the same thread as its Map.
+ * 
+ * @author agent 2026
+ */
+public class PathFinder {
+	/**
+	 * Which rooms a route may cross.
+	 */
+	public enum Passability {
+		/** Every room on the floor. */
+		ANY,
+		/** Only rooms the Hero has revealed, so routes never give away unexplored parts of the floor. */
+		EXPLORED
+	}
+	
+	/**
+	 * The number of chunks of floor the search area reaches beyond the explored chunks and the rooms asked about.
+	 */
+	public static final int MARGIN = 1;
+	
+	/** The Map routes are found on. */
+	private final Map map;
+	/** The version of the Map that the copied tiles are from, or -1 before the first copy. */
+	private int seenVersion = -1;
+	/** The search area, in chunks, in the same sense as Map.readChunks, or null before the first copy. */
+	private Rectangle area;
+	/** The first row of the search area. */
+	private int top;
+	/** The first column of the search area. */
+	private int left;
+	/** The number of rows of the search area. */
+	private int rows;
+	/** The number of columns of the search area. */
+	private int cols;
+	/** The copied tile characters of the search area, row by row. */
+	private byte[] tiles;
+	/** The copied reveal state of the search area, row by row. */
+	private boolean[] revealed;
+	/** The distance fields built so far, keyed by fieldKey. */
+	private final HashMap<Integer, DistanceField> fields;
+	/** Holds the Map's changes while they are applied. */
+	private final ArrayList<Point> changes;
+	
+	/** The search each entry of cost and parent belongs to, so they never need clearing between searches. */
+	private int[] searched;
+	/** The number of the current search. */
+	private int search;
+	/** The number of steps from the start of the current search to each room. */
+	private int[] cost;
+	/** The room each room of the current search was entered from. */
+	private int[] parent;
+	/** The queue of breadth-first searches, also used to spread shortened distances. */
+	private int[] queue;
+	/** The priorities of the A* open set, as a binary heap. */
+	private long[] heapKeys;
+	/** The rooms of the A* open set, in the same order as heapKeys. */
+	private int[] heapRooms;
+	/** The number of entries in the A* open set. */
+	private int heapSize;
+	
+	/**
+	 * Creates a PathFinder for the given Map. The tiles of the search area are copied when the first route is asked for.
+	 * 
+	 * @param map				The Map to find routes on.
+	 */
+	public PathFinder( Map map ) {
+		this.map = map;
+		this.fields = new HashMap<Integer, DistanceField>();
+		this.changes = new ArrayList<Point>();
+	}
+	
+	/**
+	 * Finds a shortest route between two rooms with A*, guided by the Manhattan distance to the destination.
+	 * 
+	 * @param from				The starting room.
+	 * @param to				The destination.
+	 * @param mode				Which rooms the route may cross.
+	 * @return					The rooms of the route after the start, ending with the destination, or null if there is no route.
+	 */
+	public List<Point> findPath( Point from, Point to, Passability mode ) {
+		refresh( from, to );
+		int start = index( from );
+		int goal = index( to );
+		if ( !isPassable( goal, mode ) ) {
+			return null;
+		}
+		
+		newSearch();
+		heapSize = 0;
+		searched[ start ] = search;
+		cost[ start ] = 0;
+		parent[ start ] = -1;
+		push( start, distance( start, goal ), 0 );
+		while ( heapSize > 0 ) {
+			long key = heapKeys[ 0 ];
+			int room = pop();
+			int g = Integer.MAX_VALUE - ( int )key;
+			if ( g != cost[ room ] ) {
+				continue;									// A shorter way to this room was found after this entry was added
+			}
+			if ( room == goal ) {
+				return route( goal );
+			}
+			int row = room / cols;
+			int col = room % cols;
+			if ( row > 0 ) {
+				relax( room - cols, g + 1, room, goal, mode );
+			}
+			if ( row < rows - 1 ) {
+				relax( room + cols, g + 1, room, goal, mode );
+			}
+			if ( col > 0 ) {
+				relax( room - 1, g + 1, room, goal, mode );
+			}
+			if ( col < cols - 1 ) {
+				relax( room + 1, g + 1, room, goal, mode );
+			}
+		}
+		return null;
+	}
+	
+	/**
+	 * Finds a shortest route between two rooms with a breadth-first search, which looks in every direction equally.
+	 * 
+	 * @param from				The starting room.
+	 * @param to				The destination.
+	 * @param mode				Which rooms the route may cross.
+	 * @return					The rooms of the route after the start, ending with the destination, or null if there is no route.
+	 */
+	public List<Point> findPathBreadthFirst( Point from, Point to, Passability mode ) {
+		refresh( from, to );
+		int start = index( from );
+		int goal = index( to );
+		if ( !isPassable( goal, mode ) ) {
+			return null;
+		}
+		
+		newSearch();
+		searched[ start ] = search;
+		cost[ start ] = 0;
+		parent[ start ] = -1;
+		queue[ 0 ] = start;
+		int head = 0;
+		int tail = 1;
+		while ( head < tail ) {
+			int room = queue[ head++ ];
+			if ( room == goal ) {
+				return route( goal );
+			}
+			int row = room / cols;
+			int col = room % cols;
+			if ( row > 0 && enter( room - cols, room, mode ) ) {
+				queue[ tail++ ] = room - cols;
+			}
+			if ( row < rows - 1 && enter( room + cols, room, mode ) ) {
+				queue[ tail++ ] = room + cols;
+			}
+			if ( col > 0 && enter( room - 1, room, mode ) ) {
+				queue[ tail++ ] = room - 1;
+			}
+			if ( col < cols - 1 && enter( room + 1, room, mode ) ) {
+				queue[ tail++ ] = room + 1;
+			}
+		}
+		return null;
+	}
+	
+	/**
+	 * Gets the number of steps from a room to the nearest room of a kind, such as 'f' for the next floor or 's' for a shop.
+	 * 
+	 * @param target			The tile character of the rooms to measure to.
+	 * @param from				The starting room.
+	 * @param mode				Which rooms the route may cross. With EXPLORED, only revealed target rooms count.
+	 * @return					The number of steps, or -1 if no room of that kind can be reached in the search area.
+	 */
+	public int distanceTo( char target, Point from, Passability mode ) {
+		return field( target, mode, from )[ index( from ) ];
+	}
+	
+	/**
+	 * Finds a shortest route from a room to the nearest room of a kind.
+	 * 
+	 * @param target			The tile character of the rooms to travel to.
+	 * @param from				The starting room.
+	 * @param mode				Which rooms the route may cross. With EXPLORED, only revealed target rooms count.
+	 * @return					The rooms of the route after the start, ending in a target room, or null if none can be reached.
+	 */
+	public List<Point> pathTo( char target, Point from, Passability mode ) {
+		int[] dist = field( target, mode, from );
+		int room = index( from );
+		if ( dist[ room ] < 0 ) {
+			return null;
+		}
+		ArrayList<Point> route = new ArrayList<Point>( dist[ room ] );
+		while ( dist[ room ] > 0 ) {
+			room = downhill( dist, room );
+			route.add( location( room ) );
+		}
+		return route;
+	}
+	
+	/**
+	 * Gets the move that takes the Hero one step closer to the nearest room of a kind, for auto-travel.
+	 * 
+	 * @param target			The tile character of the rooms to travel to.
+	 * @param from				The Hero's room.
+	 * @param mode				Which rooms the route may cross. With EXPLORED, only revealed target rooms count.
+	 * @return					NORTH, SOUTH, EAST or WEST, or null if the Hero is already there or none can be reached.
+	 */
+	public GameCommand stepTowards( char target, Point from, Passability mode ) {
+		int[] dist = field( target, mode, from );
+		int room = index( from );
+		if ( dist[ room ] <= 0 ) {
+			return null;
+		}
+		int next = downhill( dist, room );
+		if ( next == room - cols ) {
+			return GameCommand.NORTH;
+		} else if ( next == room + cols ) {
+			return GameCommand.SOUTH;
+		} else if ( next == room + 1 ) {
+			return GameCommand.EAST;
+		} else {
+			return GameCommand.WEST;
+		}
+	}
+	
+	/**
+	 * Estimates how much memory the copied tiles of the search area, the search arrays and the distance fields use.
+	 * 
+	 * @return					The estimated number of bytes.
+	 */
+	public long estimateMemory() {
+		if ( tiles == null ) {
+			return 0;
+		}
+		return tiles.length * ( 2 + 4 * 4 + 4L * fields.size() ) + heapKeys.length * 12L;
+	}
+	
+	/**
+	 * Gets the distance field for a kind of room, building it if it was never built or was thrown away.
+	 * 
+	 * @param target			The tile character of the rooms to measure to.
+	 * @param mode				Which rooms routes may cross.
+	 * @param from				The room the field is wanted for, which the search area must hold.
+	 * @return					The number of steps from every room to the nearest target, or -1 where none can be reached.
+	 */
+	private int[] field( char target, Passability mode, Point from ) {
+		Point stairs = target == 'f' && mode == Passability.ANY ? map.getStairs() : null;
+		if ( stairs != null ) {
+			refresh( from, stairs );
+		} else {
+			refresh( from );
+		}
+		Integer key = fieldKey( target, mode );
+		DistanceField f = fields.get( key );
+		if ( f == null ) {
+			f = new DistanceField( target, mode );
+			fields.put( key, f );
+		}
+		if ( f.dist == null || f.dist.length != tiles.length ) {
+			f.dist = new int[ tiles.length ];
+			f.stale = true;
+		}
+		if ( f.stale ) {
+			build( f );
+		}
+		return f.dist;
+	}
+	
+	/**
+	 * Fills a distance field with a breadth-first search that starts from every target room at once.
+	 * 
+	 * @param f					The field to fill.
+	 */
+	private void build( DistanceField f ) {
+		int[] dist = f.dist;
+		Arrays.fill( dist, -1 );
+		int tail = 0;
+		for ( int room = 0; room < tiles.length; room++ ) {
+			if ( isTarget( room, f ) ) {
+				dist[ room ] = 0;
+				queue[ tail++ ] = room;
+			}
+		}
+		spread( f, 0, tail );
+		f.stale = false;
+	}
+	
+	/**
+	 * Lowers the distance of a room in a field, and spreads the shorter distance to every room it makes closer.
+	 * 
+	 * @param f					The field.
+	 * @param room				The room.
+	 * @param d					The new distance of the room.
+	 */
+	private void lower( DistanceField f, int room, int d ) {
+		if ( f.dist[ room ] >= 0 && f.dist[ room ] <= d ) {
+			return;
+		}
+		f.dist[ room ] = d;
+		queue[ 0 ] = room;
+		spread( f, 0, 1 );
+	}
+	
+	/**
+	 * Runs a breadth-first search over a field from the rooms in the queue, giving every passable neighbour that can be
+	 * reached in fewer steps its new distance.
+	 * 
+	 * @param f					The field.
+	 * @param head				The index of the first queued room.
+	 * @param tail				The index after the last queued room.
+	 */
+	private void spread( DistanceField f, int head, int tail ) {
+		int[] dist = f.dist;
+		while ( head < tail ) {
+			int room = queue[ head++ ];
+			int d = dist[ room ] + 1;
+			int row = room / cols;
+			int col = room % cols;
+			if ( row > 0 && closer( f, room - cols, d ) ) {
+				queue[ tail++ ] = room - cols;
+			}
+			if ( row < rows - 1 && closer( f, room + cols, d ) ) {
+				queue[ tail++ ] = room + cols;
+			}
+			if ( col > 0 && closer( f, room - 1, d ) ) {
+				queue[ tail++ ] = room - 1;
+			}
+			if ( col < cols - 1 && closer( f, room + 1, d ) ) {
+				queue[ tail++ ] = room + 1;
+			}
+		}
+	}
+	
+	/**
+	 * Gives a room a distance in a field, if it is passable and the distance is shorter than the one it has.
+	 * 
+	 * @param f					The field.
+	 * @param room				The room.
+	 * @param d					The distance through the room's neighbour.
+	 * @return					True if the room's distance was lowered.
+	 */
+	private boolean closer( DistanceField f, int room, int d ) {
+		if ( ( f.dist[ room ] >= 0 && f.dist[ room ] <= d ) || !isPassable( room, f.mode ) ) {
+			return false;
+		}
+		f.dist[ room ] = d;
+		return true;
+	}
+	
+	/**
+	 * Gets the neighbour of a room that is one step closer to the field's targets.
+	 * 
+	 * @param dist				The distance field.
+	 * @param room				A room with a distance above 0.
+	 * @return					The neighbour.
+	 */
+	private int downhill( int[] dist, int room ) {
+		int d = dist[ room ] - 1;
+		int row = room / cols;
+		int col = room % cols;
+		if ( row > 0 && dist[ room - cols ] == d ) {
+			return room - cols;
+		} else if ( row < rows - 1 && dist[ room + cols ] == d ) {
+			return room + cols;
+		} else if ( col < cols - 1 && dist[ room + 1 ] == d ) {
+			return room + 1;
+		} else {
+			return room - 1;
+		}
+	}
+	
+	/**
+	 * Brings the copied tiles up to date with the Map, and every distance field with them.
+	 * Copies the search area again when a new floor was loaded or the area has to grow to hold the explored chunks or
+	 * the given rooms, and otherwise only the tiles the Map reports as changed.
+	 * 
+	 * @param rooms				The rooms about to be searched from or to, at least one.
+	 */
+	private void refresh( Point... rooms ) {
+		for ( Point p : rooms ) {
+			if ( p.x < 0 || p.x >= map.getRows() || p.y < 0 || p.y >= map.getCols() ) {
+				throw new IndexOutOfBoundsException( "(" + p.x + ", " + p.y + ") is outside of the " + map.getRows() + "x" + map.getCols() + " map" );
+			}
+		}
+		int version = map.getVersion();
+		if ( version == seenVersion && contains( rooms ) ) {
+			return;
+		}
+		changes.clear();
+		boolean reset = map.changesSince( seenVersion, changes );
+		Rectangle needed = new Rectangle( rooms[ 0 ].x / MapChunk.SIZE, rooms[ 0 ].y / MapChunk.SIZE, 1, 1 );
+		for ( Point p : rooms ) {
+			needed.add( new Rectangle( p.x / MapChunk.SIZE, p.y / MapChunk.SIZE, 1, 1 ) );
+		}
+		Rectangle explored = map.getModifiedChunks();
+		if ( explored != null ) {
+			needed.add( explored );
+		}
+		needed.grow( MARGIN, MARGIN );
+		needed = needed.intersection( new Rectangle( 0, 0, ( map.getRows() - 1 ) / MapChunk.SIZE + 1, ( map.getCols() - 1 ) / MapChunk.SIZE + 1 ) );
+		if ( reset || area == null || !area.contains( needed ) ) {
+			copyArea( needed );
+		} else {
+			for ( Point p : changes ) {
+				if ( contains( p ) ) {
+					update( index( p ), ( byte )map.getTile( p.x, p.y ), map.isRevealed( p.x, p.y ) );
+				}
+			}
+		}
+		seenVersion = version;
+	}
+	
+	/**
+	 * Checks whether the search area holds every given room.
+	 * 
+	 * @param rooms				The rooms.
+	 * @return					True if they are all inside the area.
+	 */
+	private boolean contains( Point... rooms ) {
+		for ( Point p : rooms ) {
+			if ( p.x < top || p.x >= top + rows || p.y < left || p.y >= left + cols ) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * Makes a block of chunks the search area and copies its tiles, and throws every distance field away.
+	 * 
+	 * @param next				The new search area, in chunks.
+	 */
+	private void copyArea( Rectangle next ) {
+		area = next;
+		top = next.x * MapChunk.SIZE;
+		left = next.y * MapChunk.SIZE;
+		rows = Math.min( map.getRows(), ( next.x + next.width ) * MapChunk.SIZE ) - top;
+		cols = Math.min( map.getCols(), ( next.y + next.height ) * MapChunk.SIZE ) - left;
+		int size = rows * cols;
+		if ( tiles == null || tiles.length != size ) {
+			tiles = new byte[ size ];
+			revealed = new boolean[ size ];
+			searched = new int[ size ];
+			cost = new int[ size ];
+			parent = new int[ size ];
+			queue = new int[ size ];
+			heapKeys = new long[ 64 ];
+			heapRooms = new int[ 64 ];
+			search = 0;
+		}
+		map.readChunks( next, tiles, revealed );
+		for ( DistanceField f : fields.values() ) {
+			f.stale = true;
+		}
+	}
+	
+	/**
+	 * Copies one changed tile, and updates every distance field for it.
+	 * 
+	 * @param room				The changed room.
+	 * @param tile				The room's new tile character.
+	 * @param isRevealed		Whether the room is now revealed.
+	 */
+	private void update( int room, byte tile, boolean isRevealed ) {
+		byte oldTile = tiles[ room ];
+		boolean wasRevealed = revealed[ room ];
+		tiles[ room ] = tile;
+		revealed[ room ] = isRevealed;
+		for ( DistanceField f : fields.values() ) {
+			boolean wasPassable = f.mode == Passability.ANY || wasRevealed;
+			if ( f.stale ) {
+				continue;
+			} else if ( ( wasPassable && oldTile == f.target && !isTarget( room, f ) ) || ( wasPassable && !isPassable( room, f.mode ) ) ) {
+				f.stale = true;								// A removed target or room can make rooms further away, so start over
+			} else if ( isTarget( room, f ) ) {
+				lower( f, room, 0 );						// A new target or a newly passable room can only bring rooms closer
+			} else if ( !wasPassable && isPassable( room, f.mode ) ) {
+				int best = nearestNeighbour( f.dist, room );
+				if ( best >= 0 ) {
+					lower( f, room, best + 1 );
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Gets the smallest distance of the neighbours of a room.
+	 * 
+	 * @param dist				The distance field.
+	 * @param room				The room.
+	 * @return					The smallest distance, or -1 if no neighbour can reach a target.
+	 */
+	private int nearestNeighbour( int[] dist, int room ) {
+		int row = room / cols;
+		int col = room % cols;
+		int best = -1;
+		best = nearer( best, row > 0 ? dist[ room - cols ] : -1 );
+		best = nearer( best, row < rows - 1 ? dist[ room + cols ] : -1 );
+		best = nearer( best, col > 0 ? dist[ room - 1 ] : -1 );
+		best = nearer( best, col < cols - 1 ? dist[ room + 1 ] : -1 );
+		return best;
+	}
+	
+	/**
+	 * Gets the smaller of two distances, where -1 means a target can't be reached.
+	 * 
+	 * @param a					The first distance.
+	 * @param b					The second distance.
+	 * @return					The smaller distance, or -1 if neither can reach a target.
+	 */
+	private static int nearer( int a, int b ) {
+		if ( a < 0 ) {
+			return b;
+		} else if ( b < 0 ) {
+			return a;
+		} else {
+			return Math.min( a, b );
+		}
+	}
+	
+	/**
+	 * Checks whether a route may cross a room.
+	 * 
+	 * @param room				The room.
+	 * @param mode				Which rooms routes may cross.
+	 * @return					True if the room is passable.
+	 */
+	private boolean isPassable( int room, Passability mode ) {
+		return mode == Passability.ANY || revealed[ room ];
+	}
+	
+	/**
+	 * Checks whether a room is one of a field's targets.
+	 * 
+	 * @param room				The room.
+	 * @param f					The field.
+	 * @return					True if the room has the target tile and is passable.
+	 */
+	private boolean isTarget( int room, DistanceField f ) {
+		return tiles[ room ] == f.target && isPassable( room, f.mode );
+	}
+	
+	/**
+	 * Gives a room of the A* search a shorter distance and adds it to the open set, if it is passable and the distance is shorter.
+	 * 
+	 * @param room				The room.
+	 * @param g					The number of steps to the room through its neighbour.
+	 * @param from				The neighbour.
+	 * @param goal				The destination of the search.
+	 * @param mode				Which rooms the route may cross.
+	 */
+	private void relax( int room, int g, int from, int goal, Passability mode ) {
+		if ( ( searched[ room ] == search && cost[ room ] <= g ) || !isPassable( room, mode ) ) {
+			return;
+		}
+		searched[ room ] = search;
+		cost[ room ] = g;
+		parent[ room ] = from;
+		push( room, g + distance( room, goal ), g );
+	}
+	
+	/**
+	 * Reaches a room in the breadth-first search, if it is passable and was not reached before.
+	 * 
+	 * @param room				The room.
+	 * @param from				The neighbour it is reached from.
+	 * @param mode				Which rooms the route may cross.
+	 * @return					True if the room was reached for the first time and should be queued.
+	 */
+	private boolean enter( int room, int from, Passability mode ) {
+		if ( searched[ room ] == search || !isPassable( room, mode ) ) {
+			return false;
+		}
+		searched[ room ] = search;
+		cost[ room ] = cost[ from ] + 1;
+		parent[ room ] = from;
+		return true;
+	}
+	
+	/**
+	 * Adds a room to the A* open set. Rooms come out in order of their estimated route length, and among equal estimates
+	 * the one furthest from the start comes first, so the search runs straight at the destination on open floors.
+	 * 
+	 * @param room				The room.
+	 * @param f					The estimated length of a route through the room.
+	 * @param g					The number of steps to the room.
+	 */
+	private void push( int room, int f, int g ) {
+		if ( heapSize == heapKeys.length ) {
+			heapKeys = Arrays.copyOf( heapKeys, heapSize * 2 );
+			heapRooms = Arrays.copyOf( heapRooms, heapSize * 2 );
+		}
+		long key = ( ( long )f << 32 ) | ( Integer.MAX_VALUE - g );
+		int i = heapSize++;
+		while ( i > 0 && heapKeys[ ( i - 1 ) / 2 ] > key ) {	// Move parents down until the new entry fits
+			heapKeys[ i ] = heapKeys[ ( i - 1 ) / 2 ];
+			heapRooms[ i ] = heapRooms[ ( i - 1 ) / 2 ];
+			i = ( i - 1 ) / 2;
+		}
+		heapKeys[ i ] = key;
+		heapRooms[ i ] = room;
+	}
+	
+	/**
+	 * Removes the first room from the A* open set.
+	 * 
+	 * @return					The room.
+	 */
+	private int pop() {
+		int room = heapRooms[ 0 ];
+		long key = heapKeys[ --heapSize ];
+		int last = heapRooms[ heapSize ];
+		int i = 0;
+		while ( 2 * i + 1 < heapSize ) {						// Move children up until the last entry fits
+			int child = 2 * i + 1;
+			if ( child + 1 < heapSize && heapKeys[ child + 1 ] < heapKeys[ child ] ) {
+				child++;
+			}
+			if ( heapKeys[ child ] >= key ) {
+				break;
+			}
+			heapKeys[ i ] = heapKeys[ child ];
+			heapRooms[ i ] = heapRooms[ child ];
+			i = child;
+		}
+		heapKeys[ i ] = key;
+		heapRooms[ i ] = last;
+		return room;
+	}
+	
+	/**
+	 * Starts a new search, so that every room counts as not yet reached.
+	 */
+	private void newSearch() {
+		if ( ++search == 0 ) {								// After 4 billion searches, clear the marks once instead of mistaking old ones for new
+			Arrays.fill( searched, 0 );
+			search = 1;
+		}
+	}
+	
+	/**
+	 * Follows the parents of the current search back from a room to the start.
+	 * 
+	 * @param goal				The last room of the route.
+	 * @return					The rooms of the route after the start, ending with the given room.
+	 */
+	private List<Point> route( int goal ) {
+		ArrayList<Point> route = new ArrayList<Point>( cost[ goal ] );
+		for ( int room = goal; parent[ room ] >= 0; room = parent[ room ] ) {
+			route.add( location( room ) );
+		}
+		Collections.reverse( route );
+		return route;
+	}
+	
+	/**
+	 * Gets the Manhattan distance between two rooms, which is the fewest steps a route between them can take.
+	 * 
+	 * @param a					The first room.
+	 * @param b					The second room.
+	 * @return					The distance.
+	 */
+	private int distance( int a, int b ) {
+		return Math.abs( a / cols - b / cols ) + Math.abs( a % cols - b % cols );
+	}
+	
+	/**
+	 * Gets the index of a room in the copied tiles.
+	 * 
+	 * @param p					The location of a room in the search area.
+	 * @return					The index of the room.
+	 */
+	private int index( Point p ) {
+		return ( p.x - top ) * cols + p.y - left;
+	}
+	
+	/**
+	 * Gets the location on the Map of a room in the copied tiles.
+	 * 
+	 * @param room				The index of the room.
+	 * @return					The location of the room.
+	 */
+	private Point location( int room ) {
+		return new Point( top + room / cols, left + room % cols );
+	}
+	
+	/**
+	 * Combines a target and a passability into one key for the fields table.
+	 * 
+	 * @param target			The tile character of the field's targets.
+	 * @param mode				Which rooms the field's routes may cross.
+	 * @return					The key of the field.
+	 */
+	private static int fieldKey( char target, Passability mode ) {
+		return target * Passability.values().length + mode.ordinal();
+	}
+	
+	/**
+	 * The number of steps from every room to the nearest room of one kind.
+	 */
+	private static class DistanceField {
+		/** The tile character of the rooms measured to. */
+		private final char target;
+		/** Which rooms routes may cross. */
+		private final Passability mode;
+		/** The distance of every room, or -1 where no target can be reached. */
+		private int[] dist;
+		/** Whether the distances are out of date and must be rebuilt before they are used. */
+		private boolean stale;
+		
+		/**
+		 * Creates an empty field that is built on its first use.
+		 * 
+		 * @param target		The tile character of the rooms to measure to.
+		 * @param mode			Which rooms routes may cross.
+		 */
+		private DistanceField( char target, Passability mode ) {
+			this.target = target;
+			this.mode = mode;
+			this.stale = true;
+		}
+	}
+}
@@ -0,0 +1,68 @@
+/**
+ * An Enemy whose decorators have been compiled into an AttackProfile.
+ * Behaves like the equivalent chain of Warrior and Warlock decorators, but is a single object however high its level.
+ * 
+ * @author agent 2026
+ */
+public class ProfiledEnemy extends Enemy {
+	/** How the Enemy attacks. */
+	private final AttackProfile profile;
+	
+	/**
+	 * Creates an Enemy from a base Enemy and the profile of its decorators.
+	 * 
+	 * @param base				The undecorated Enemy, which provides the quip, image and held Item.
+	 * @param profile			The profile of the decorators.
+	 */
+	public ProfiledEnemy( Enemy base, AttackProfile profile ) {
+		super( profile.getName(), base.getQuip(), base.getImgPath(), base.getLevel(), profile.getMaxHP(), base.getItem() );
+		this.profile = profile;
+	}
+	
+	/**
+	 * Copy constructor of the ProfiledEnemy class. The copy has the same HP and shares the original's AttackProfile.
+	 * 
+	 * @param e					The ProfiledEnemy to copy from.
+	 */
+	public ProfiledEnemy( ProfiledEnemy e ) {
+		super( e );
+		this.profile = e.profile;
+	}
+	
+	/**
+	 * Gets the profile of the Enemy's decorators.
+	 * 
+	 * @return					The AttackProfile.
+	 */
+	public AttackProfile getProfile() {
+		return profile;
+	}
+	
+	/**
+	 * Rolls the Enemy's whole attack and deals the damage to the target.
+	 * 
+	 * @param e					The target of the attack.
+	 * @return					The total damage dealt.
+	 */
+	@Override
+	public int attack( Entity e ) {
+		int damage = profile.rollDamage( GameRandom.current() );
+		e.takeDamage( damage );
+		return damage;
+	}
+	
+	/**
+	 * Describes the attack, worded the same way as the decorators word it.
+	 * 
+	 * @param e					The target of the attack.
+	 * @param damage			The damage that was dealt.
+	 * @return					The text describing the attack.
+	 */
+	@Override
+	public String describeAttack( Entity e, int damage ) {
+		if ( profile.getDepth() == 0 ) {
+			return super.describeAttack( e, damage );
+		}
+		return "The enemy hits you " + e.getLevel() + " times for " + damage + " damage.";
+	}
+}
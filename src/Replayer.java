@@ -0,0 +1,207 @@
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Plays an InputLog again without any display, as fast as the session can carry out the commands, and checks every
+ * checksum in the log along the way. A replay can be stopped at any step to look at the session there, which is how
+ * a player's bug report is reproduced.
+ * 
+ * Usage: java Replayer [--to step] log|directory...
+ * Replays every log given, and every log in the directories given, and prints whether each one played out as recorded.
+ * With --to, stops each replay after that many commands and prints the session there. Exits with status 1 if any
+ * replay failed, so a directory of logs can be run as a regression corpus on every build.
+ * 
+ * Usage: java Replayer --record log [seed] [commands]
+ * Records a headless game of random commands into a new log, for adding to the corpus.
+ * 
+ * @author agent 2026
+ */
+public class Replayer {
+	/** The log being replayed. */
+	private final InputLog log;
+	/** The session the log is played on. */
+	private final GameSession session;
+	/** The number of commands carried out. */
+	private int step;
+	/** The number of checksums that matched. */
+	private int verified;
+	
+	/**
+	 * Starts a replay before the first command, checking the checksum of the new session.
+	 * 
+	 * @param log				The log to replay.
+	 * @throws IllegalStateException	If the new session doesn't match the log, such as because a map file changed.
+	 */
+	public Replayer( InputLog log ) {
+		this.log = log;
+		this.session = log.newSession();
+		verify();
+	}
+	
+	/**
+	 * Carries out the next command of the log and checks the checksum after it, if the log has one.
+	 * 
+	 * @return					False if the log had no more commands.
+	 * @throws IllegalStateException	If the session went another way than the recorded one.
+	 */
+	public boolean step() {
+		if ( isFinished() ) {
+			return false;
+		}
+		session.execute( log.getCommand( step ), log.getArg( step ) );
+		step++;
+		verify();
+		return true;
+	}
+	
+	/**
+	 * Carries out commands until the given number were carried out or the log ends.
+	 * 
+	 * @param target			The number of commands to have carried out.
+	 * @return					The number of commands carried out, which is less than target if the log ended first.
+	 * @throws IllegalStateException	If the session went another way than the recorded one.
+	 */
+	public int fastForward( int target ) {
+		while ( step < target && step() ) {
+			// Each step checks its own checksum
+		}
+		return step;
+	}
+	
+	/**
+	 * Checks the session against the checksum recorded after the current step, if there is one.
+	 * 
+	 * @throws IllegalStateException	If the checksums differ.
+	 */
+	private void verify() {
+		Long expected = log.getChecksum( step );
+		if ( expected == null ) {
+			return;
+		}
+		long actual = session.checksum();
+		if ( actual != expected ) {
+			throw new IllegalStateException( "The replay went another way by step " + step + ": expected checksum "
+					+ Long.toHexString( expected ) + ", got " + Long.toHexString( actual ) );
+		}
+		verified++;
+	}
+	
+	/**
+	 * Gets the number of commands carried out.
+	 * 
+	 * @return					The step the replay is at.
+	 */
+	public int getStep() {
+		return step;
+	}
+	
+	/**
+	 * Gets the number of checksums that matched so far.
+	 * 
+	 * @return					The number of checksums.
+	 */
+	public int getVerified() {
+		return verified;
+	}
+	
+	/**
+	 * Checks whether every command of the log was carried out.
+	 * 
+	 * @return					True at the end of the log.
+	 */
+	public boolean isFinished() {
+		return step >= log.size();
+	}
+	
+	/**
+	 * Gets the session being replayed, to look at its state at the current step.
+	 * 
+	 * @return					The session.
+	 */
+	public GameSession getSession() {
+		return session;
+	}
+	
+	/**
+	 * Replays the logs given on the command line, or records a new one.
+	 * 
+	 * @param args				The options and logs, as described in the class comment.
+	 */
+	public static void main( String[] args ) {
+		if ( args.length >= 2 && args[ 0 ].equals( "--record" ) ) {
+			record( args[ 1 ], args.length > 2 ? Long.parseLong( args[ 2 ] ) : System.nanoTime(), args.length > 3 ? Integer.parseInt( args[ 3 ] ) : 2000 );
+			return;
+		}
+		int to = Integer.MAX_VALUE;
+		ArrayList<String> files = new ArrayList<String>();
+		for ( int i = 0; i < args.length; i++ ) {
+			if ( args[ i ].equals( "--to" ) && i + 1 < args.length ) {
+				to = Integer.parseInt( args[ ++i ] );
+			} else if ( new File( args[ i ] ).isDirectory() ) {
+				File[] logs = new File( args[ i ] ).listFiles( ( dir, name ) -> name.endsWith( InputLog.EXTENSION ) );
+				Arrays.sort( logs );
+				for ( File f : logs ) {
+					files.add( f.getPath() );
+				}
+			} else {
+				files.add( args[ i ] );
+			}
+		}
+		if ( files.isEmpty() ) {
+			System.out.println( "Usage: java Replayer [--to step] log|directory...  or  java Replayer --record log [seed] [commands]" );
+			return;
+		}
+		
+		int failed = 0;
+		for ( String file : files ) {
+			try {
+				InputLog log = InputLog.read( file );
+				long start = System.nanoTime();
+				Replayer replay = new Replayer( log );
+				replay.fastForward( to );
+				double seconds = ( System.nanoTime() - start ) / 1e9;
+				System.out.printf( "OK %s: %d commands, %d checksums matched, %.0f commands/s%n", file, replay.getStep(),
+						replay.getVerified(), replay.getStep() / seconds );
+				if ( to != Integer.MAX_VALUE ) {
+					System.out.println( new GameSnapshot( replay.getStep(), null, 0, false, replay.getSession(), 0 ) );
+				}
+			} catch ( IOException | IllegalStateException e ) {
+				System.out.println( "FAILED " + file + ": " + e.getMessage() );
+				failed++;
+			}
+		}
+		if ( failed > 0 ) {
+			System.exit( 1 );			// Lets a build fail on a broken replay
+		}
+	}
+	
+	/**
+	 * Records a headless game of random commands, including the shop's, until it is over or the commands run out.
+	 * 
+	 * @param file				The filepath to write the log to.
+	 * @param seed				The seed of the game.
+	 * @param count				The largest number of commands.
+	 */
+	private static void record( String file, long seed, int count ) {
+		GameRandom random = new GameRandom( seed );
+		long sessionSeed = random.stream( 0 ).nextLong();
+		SplittableRandom player = random.stream( -1 );
+		GameCommand[] choices = GameCommand.values();
+		GameSession session = new GameSession( 0, "Player", "", new SplittableRandom( sessionSeed ) );
+		try ( InputLog.Recorder recorder = new InputLog.Recorder( file, sessionSeed, session ) ) {
+			while ( recorder.getStep() < count && !session.isOver() ) {
+				GameCommand c = choices[ player.nextInt( choices.length - 1 ) ];	// Any command but QUIT
+				int arg = c == GameCommand.SELL ? player.nextInt( Inventory.DEFAULT_CAPACITY ) : 0;
+				recorder.record( c, arg );
+				session.execute( c, arg );
+				recorder.executed();
+			}
+			System.out.println( "Recorded " + recorder.getStep() + " commands of seed " + seed + " into " + file );
+		} catch ( IOException e ) {
+			System.out.println( "Could not record " + file + ": " + e.getMessage() );
+		}
+	}
+}
@@ -0,0 +1,204 @@
+import java.io.*;							//Allows for usage of files.
+import java.util.SplittableRandom;
+
+/**
+ * Saves whole GameSessions in a compact, versioned binary format and restores them, so a session can survive a
+ * restart or move to another node.
+ * A save holds the seeds of the session rather than anything that can be rolled or read again: a floor is opened again
+ * from its map file or generated again from its seed, and only the chunks the Hero changed are written, one at a time
+ * straight from the Map. Saving a huge floor therefore never copies it, and restoring it reads only the changed chunks.
+ * A floor with a map file is opened again from whichever file that floor number has when the game is restored, such as a
+ * hot-reloaded copy, and the save is refused unless that file holds the same tiles as when the game was saved. Checking
+ * this reads the floor once, on the first save and on restore.
+ * 
+ * The format is, with all numbers big-endian:
+ * 		int		MAGIC
+ * 		int		VERSION
+ * 		long	session id, then the seed of its commands' streams and the number of commands carried out, then the
+ * 				seeds of its floors and its encounters
+ * 		int		map number, then the room and the shop, selling, floor entered and quit flags
+ * 		boolean	whether the floor has a map file; if so the UTF name of the file, then the Map.getDigest of the floor
+ * 		chunks	every modified chunk: its key, its tiles and its reveal bits, then the number of revealed tiles
+ * 		Hero	stats, location, gold, light radius, inventory capacity and Items
+ * 		int		the level of the floor's Enemies and how many were met
+ * 		Item	the Item found in the current room, if any
+ * 		Combat	the current fight, if any: the Enemy's kind, level, decorators and HP, then the fight's counters
+ * 
+ * Usage: java SaveGame [seed] [commands]
+ * Plays a headless game of random commands, saves and restores it, checks that both go on alike and prints the timings.
+ * 
+ * @author agent 2026
+ */
+public class SaveGame {
+	/**
+	 * The file extension of saved games.
+	 */
+	public static final String EXTENSION = ".dsav";
+	/**
+	 * The first four bytes of every saved game ("DSAV").
+	 */
+	public static final int MAGIC = 0x44534156;
+	/**
+	 * The version of the format written by write. Saves of any other version are refused.
+	 */
+	public static final int VERSION = 3;
+	
+	/**
+	 * SaveGame only has static methods.
+	 */
+	private SaveGame() {
+	
+	}
+	
+	/**
+	 * Writes a session in the saved game format. Must be called between commands, on the thread that runs the session.
+	 * 
+	 * @param session			The session to save.
+	 * @param out				The stream to write to.
+	 * @throws IOException		If the stream could not be written, or the map file could not be read.
+	 */
+	public static void write( GameSession session, DataOutput out ) throws IOException {
+		out.writeInt( MAGIC );
+		out.writeInt( VERSION );
+		session.write( out );
+	}
+	
+	/**
+	 * Restores a session from a stream in the saved game format.
+	 * 
+	 * @param in				The stream to read from.
+	 * @return					The restored session, which goes on as the saved one does.
+	 * @throws IOException		If the stream could not be read, is not a saved game of this version, or holds an impossible session.
+	 */
+	public static GameSession read( DataInput in ) throws IOException {
+		int magic = in.readInt();
+		if ( magic != MAGIC ) {
+			throw new IOException( "Not a saved game" );
+		}
+		int version = in.readInt();
+		if ( version != VERSION ) {
+			throw new IOException( "Unsupported saved game version " + version );
+		}
+		return new GameSession( in );
+	}
+	
+	/**
+	 * Saves a session into memory, such as for moving it to another node.
+	 * 
+	 * @param session			The session to save.
+	 * @return					The saved game.
+	 * @throws IOException		If the map file could not be read.
+	 */
+	public static byte[] toBytes( GameSession session ) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream( 1024 );
+		write( session, new DataOutputStream( bytes ) );
+		return bytes.toByteArray();
+	}
+	
+	/**
+	 * Restores a session saved into memory by toBytes.
+	 * 
+	 * @param save				The saved game.
+	 * @return					The restored session.
+	 * @throws IOException		If the saved game is damaged or of another version.
+	 */
+	public static GameSession fromBytes( byte[] save ) throws IOException {
+		return read( new DataInputStream( new ByteArrayInputStream( save ) ) );
+	}
+	
+	/**
+	 * Saves a session to a file. The file is written next to its final name first, then moved over it, so a crash
+	 * while saving never leaves a half written save behind.
+	 * 
+	 * @param session			The session to save.
+	 * @param file				The filepath of the save.
+	 * @throws IOException		If the file could not be written, or the map file could not be read.
+	 */
+	public static void save( GameSession session, String file ) throws IOException {
+		File target = new File( file );
+		File temp = new File( file + ".tmp" );
+		try ( DataOutputStream out = new DataOutputStream( new BufferedOutputStream( new FileOutputStream( temp ), 1 << 16 ) ) ) {
+			write( session, out );
+		}
+		if ( !temp.renameTo( target ) ) {
+			target.delete();					// Some file systems won't rename over an existing file
+			if ( !temp.renameTo( target ) ) {
+				throw new IOException( file + ": could not replace the save" );
+			}
+		}
+	}
+	
+	/**
+	 * Restores a session from a file written by save.
+	 * 
+	 * @param file				The filepath of the save.
+	 * @return					The restored session.
+	 * @throws IOException		If the file could not be read, or is not a saved game of this version.
+	 */
+	public static GameSession load( String file ) throws IOException {
+		try ( DataInputStream in = new DataInputStream( new BufferedInputStream( new FileInputStream( file ), 1 << 16 ) ) ) {
+			return read( in );
+		} catch ( IOException e ) {
+			throw new IOException( file + ": " + e.getMessage(), e );
+		}
+	}
+	
+	/**
+	 * Plays a headless game of random commands, saves it halfway and restores the save, then plays the same commands
+	 * on both sessions and checks they end alike. Prints the size of the save and how long saving and restoring took.
+	 * 
+	 * @param args				The seed and number of commands, both optional.
+	 */
+	public static void main( String[] args ) {
+		GameRandom random = new GameRandom( args.length > 0 ? Long.parseLong( args[ 0 ] ) : System.nanoTime() );
+		int count = args.length > 1 ? Integer.parseInt( args[ 1 ] ) : 2000;
+		GameCommand[] choices = { GameCommand.NORTH, GameCommand.SOUTH, GameCommand.EAST, GameCommand.WEST, GameCommand.PHYSICAL,
+				GameCommand.THUNDERCLAP, GameCommand.POTION, GameCommand.BUY_POTION, GameCommand.LEAVE_SHOP };
+		
+		GameSession live = new GameSession( 0, "Player", "", random.stream( 0 ) );
+		SplittableRandom player = random.stream( -1 );
+		for ( int i = 0; i < count / 2 && !live.isOver(); i++ ) {
+			live.execute( choices[ player.nextInt( choices.length ) ], 0 );
+		}
+		
+		try {
+			byte[] save = null;
+			GameSession restored = null;
+			long saving = Long.MAX_VALUE;
+			long restoring = Long.MAX_VALUE;
+			for ( int i = 0; i < 200; i++ ) {				// Best of many, so the timings leave out warming up
+				if ( restored != null ) {
+					restored.execute( GameCommand.QUIT, 0 );	// Drops the floor it was preparing
+				}
+				long start = System.nanoTime();
+				save = toBytes( live );
+				long saved = System.nanoTime();
+				restored = fromBytes( save );
+				long end = System.nanoTime();
+				saving = Math.min( saving, saved - start );
+				restoring = Math.min( restoring, end - saved );
+			}
+			
+			for ( int i = count / 2; i < count && !live.isOver(); i++ ) {
+				GameCommand c = choices[ player.nextInt( choices.length ) ];
+				boolean a = live.execute( c, 0 );
+				boolean b = restored.execute( c, 0 );
+				if ( a != b ) {
+					System.out.println( "The restored session went another way at command " + i + ": " + c );
+					return;
+				}
+			}
+			
+			Hero h = live.getHero();
+			Hero r = restored.getHero();
+			boolean same = h.getHP() == r.getHP() && h.getGold() == r.getGold() && h.getLevel() == r.getLevel()
+					&& h.getLocation().equals( r.getLocation() ) && live.getMapNum() == restored.getMapNum()
+					&& live.getMap().countRevealed() == restored.getMap().countRevealed();
+			System.out.println( "Seed: " + random.getSeed() );
+			System.out.printf( "Save: %d bytes, saved in %.1f us, restored in %.1f us%n", save.length, saving / 1e3, restoring / 1e3 );
+			System.out.println( same ? "The restored session went on alike" : "The restored session ended differently" );
+		} catch ( IOException e ) {
+			System.out.println( "Could not save the game: " + e.getMessage() );
+		}
+	}
+}
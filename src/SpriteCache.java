@@ -0,0 +1,200 @@
+import javax.imageio.ImageIO;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.Graphics2D;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.io.*;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Process-wide cache of decoded sprite images, keyed by image path.
+ * Each image is read from disk once and converted into an image compatible with the screen, so painting
+ * a component never has to decode a PNG. The cache holds a bounded number of images and evicts the least
+ * recently used one when it is full.
+ *
+ * @author agent 2026
+ */
+public class SpriteCache {
+	/**
+	 * The default number of images the cache holds before evicting.
+	 */
+	public static final int DEFAULT_CAPACITY = 64;
+
+	/**
+	 * The maximum number of images held by the cache.
+	 */
+	private final int capacity;
+
+	/**
+	 * Decoded images by path, kept in access order so the eldest entry is the least recently used one.
+	 * Paths that could not be read are stored with a null image so a missing file is only looked up once.
+	 */
+	private final LinkedHashMap<String, BufferedImage> sprites;
+
+	/** Number of lookups that were served from the cache. */
+	private final AtomicLong hits = new AtomicLong();
+
+	/** Number of lookups that had to read the image from disk. */
+	private final AtomicLong misses = new AtomicLong();
+
+	/** Number of images that were evicted to stay within capacity. */
+	private final AtomicLong evictions = new AtomicLong();
+
+	/**
+	 * Creates a new SpriteCache that holds up to the given number of images.
+	 *
+	 * @param capacity				The maximum number of images to keep.
+	 */
+	public SpriteCache( int capacity ) {
+		if ( capacity <= 0 ) {
+			throw new IllegalArgumentException( "Sprite cache capacity must be positive: " + capacity );
+		}
+		this.capacity = capacity;
+		this.sprites = new LinkedHashMap<String, BufferedImage>( 16, 0.75f, true ) {
+			@Override
+			protected boolean removeEldestEntry( java.util.Map.Entry<String, BufferedImage> eldest ) {
+				if ( size() > SpriteCache.this.capacity ) {		// Evict the least recently used image once over capacity
+					evictions.incrementAndGet();
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	/**
+	 * Gets the image at the given path, reading and converting it on the first request.
+	 *
+	 * @param path					The filepath of the image.
+	 * @return						The decoded image, or null if the image could not be read.
+	 */
+	public BufferedImage getSprite( String path ) {
+		synchronized ( sprites ) {
+			if ( sprites.containsKey( path ) ) {		// Served from the cache, including remembered missing files
+				hits.incrementAndGet();
+				return sprites.get( path );
+			}
+		}
+
+		misses.incrementAndGet();
+		BufferedImage img = load( path );				// Decode outside the lock so one slow read does not block other lookups
+
+		synchronized ( sprites ) {
+			sprites.put( path, img );
+		}
+		return img;
+	}
+
+	/**
+	 * Removes all images from the cache.
+	 */
+	public void clear() {
+		synchronized ( sprites ) {
+			sprites.clear();
+		}
+	}
+
+	/**
+	 * Gets the number of images currently held by the cache.
+	 *
+	 * @return						The number of cached images.
+	 */
+	public int size() {
+		synchronized ( sprites ) {
+			return sprites.size();
+		}
+	}
+
+	/**
+	 * Gets the maximum number of images held by the cache.
+	 *
+	 * @return						The capacity of the cache.
+	 */
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * Gets the number of lookups that were served from the cache.
+	 *
+	 * @return						The number of cache hits.
+	 */
+	public long getHits() {
+		return hits.get();
+	}
+
+	/**
+	 * Gets the number of lookups that had to read the image from disk.
+	 *
+	 * @return						The number of cache misses.
+	 */
+	public long getMisses() {
+		return misses.get();
+	}
+
+	/**
+	 * Gets the number of images evicted from the cache.
+	 *
+	 * @return						The number of evictions.
+	 */
+	public long getEvictions() {
+		return evictions.get();
+	}
+
+	/**
+	 * Returns the cache statistics as a String.
+	 *
+	 * @return						The size, hits, misses and evictions of the cache.
+	 */
+	@Override
+	public String toString() {
+		return "SpriteCache[size=" + size() + "/" + capacity + ", hits=" + getHits() + ", misses=" + getMisses() + ", evictions=" + getEvictions() + "]";
+	}
+
+	/**
+	 * Reads the image at the given path and converts it to the screen's compatible format.
+	 *
+	 * @param path					The filepath of the image.
+	 * @return						The converted image, or null if the image could not be read.
+	 */
+	private static BufferedImage load( String path ) {
+		BufferedImage img;
+		try {
+			img = ImageIO.read( new File( path ) );
+		} catch ( IOException e ) {
+			return null;
+		}
+		if ( img == null || GraphicsEnvironment.isHeadless() ) {	// Unreadable format, or no screen to be compatible with
+			return img;
+		}
+
+		GraphicsConfiguration gc = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration();
+		if ( img.getColorModel().equals( gc.getColorModel() ) ) {	// Already in the screen's format
+			return img;
+		}
+		BufferedImage compatible = gc.createCompatibleImage( img.getWidth(), img.getHeight(), Transparency.TRANSLUCENT );
+		Graphics2D g = compatible.createGraphics();
+		g.drawImage( img, 0, 0, null );
+		g.dispose();
+		return compatible;
+	}
+
+	/**
+	 * Returns an instance of a SpriteCache object.
+	 *
+	 * @return The instance of the SpriteCache object.
+	 */
+	public static SpriteCache getInstance() {
+		return Holder.INSTANCE;
+	}
+
+	/**
+	 * Holds the single instance of SpriteCache.
+	 */
+	private static class Holder {
+		/** The single instance of SpriteCache. */
+		private static final SpriteCache INSTANCE = new SpriteCache( DEFAULT_CAPACITY );
+	}
+}
@@ -0,0 +1,164 @@
+import java.awt.Point;						//Allows for usage of Point objects.
+import java.io.*;							//Allows for usage of files.
+
+/**
+ * Reads map tiles from a "MapX.txt" style textfile, with one line of tile characters per row. Lines may end in LF or
+ * CRLF; any other control character in the file is an error.
+ * The file is scanned once to find where each row starts, after which chunks are read directly from those offsets.
+ * 
+ * @author agent 2026
+ */
+public class TextMapSource implements MapSource {
+	/**
+	 * The file being read from.
+	 */
+	private final RandomAccessFile file;
+	/**
+	 * The byte offset of the start of each row in the file.
+	 */
+	private final long[] rowOffsets;
+	/**
+	 * The number of rows of tiles.
+	 */
+	private final int rows;
+	/**
+	 * The number of columns of tiles.
+	 */
+	private final int cols;
+	/**
+	 * The starting location of the map.
+	 */
+	private final Point start;
+	/**
+	 * The location of the stairs to the next floor, or null if the map has none.
+	 */
+	private final Point stairs;
+	/**
+	 * Reused buffer for reading one row of a chunk.
+	 */
+	private final byte[] rowBuffer = new byte[ MapChunk.SIZE ];
+	
+	/**
+	 * Opens a map textfile and indexes its rows.
+	 * 
+	 * @param path				The filepath of the map.
+	 * @throws IOException		If the file could not be read, or its rows are not all the same length.
+	 */
+	public TextMapSource( String path ) throws IOException {
+		file = new RandomAccessFile( path, "r" );
+		try {
+			long[] offsets = new long[ 16 ];
+			int rowCount = 0;
+			int width = -1;
+			Point s = new Point();
+			Point f = null;
+			
+			InputStream in = new BufferedInputStream( new FileInputStream( file.getFD() ) );
+			long pos = 0;				// Offset of the next byte to read
+			long lineStart = 0;			// Offset of the start of the current line
+			int col = 0;				// Column of the next tile on the current line
+			int b;
+			do {
+				b = in.read();
+				if ( b == '\r' ) {									// Only as part of a CRLF line ending
+					if ( in.read() != '\n' ) {
+						throw new IOException( path + ": row " + rowCount + " has a carriage return that doesn't end the line" );
+					}
+					pos++;
+					b = '\n';
+				}
+				if ( b == '\n' || b == -1 ) {
+					if ( col > 0 ) {								// Skip blank lines, including a trailing newline
+						if ( width == -1 ) {
+							width = col;
+						} else if ( col != width ) {
+							throw new IOException( path + ": row " + rowCount + " has " + col + " tiles, expected " + width );
+						}
+						if ( rowCount == offsets.length ) {
+							offsets = java.util.Arrays.copyOf( offsets, offsets.length * 2 );
+						}
+						offsets[ rowCount++ ] = lineStart;
+					}
+					lineStart = pos + 1;
+					col = 0;
+				} else if ( b < ' ' || b == 0x7F ) {
+					throw new IOException( path + ": row " + rowCount + ", column " + col + " holds the control character " + b );
+				} else {
+					if ( b == 's' ) {								// Later 's' tiles replace earlier ones, as in Map.findStart
+						s.setLocation( rowCount, col );
+					} else if ( b == 'f' ) {						// Likewise the last 'f' tile is the stairs
+						f = new Point( rowCount, col );
+					}
+					col++;
+				}
+				pos++;
+			} while ( b != -1 );
+			
+			if ( rowCount == 0 ) {
+				throw new IOException( path + ": map has no tiles" );
+			}
+			rowOffsets = java.util.Arrays.copyOf( offsets, rowCount );
+			rows = rowCount;
+			cols = width;
+			start = s;
+			stairs = f;
+		} catch ( IOException e ) {
+			file.close();
+			throw e;
+		}
+	}
+	
+	@Override
+	public int getRows() {
+		return rows;
+	}
+	
+	@Override
+	public int getCols() {
+		return cols;
+	}
+	
+	@Override
+	public Point getStart() {
+		return new Point( start );
+	}
+	
+	@Override
+	public Point getStairs() {
+		return stairs == null ? null : new Point( stairs );
+	}
+	
+	@Override
+	public void readChunk( int chunkRow, int chunkCol, byte[] tiles ) throws IOException {
+		int firstRow = chunkRow * MapChunk.SIZE;
+		int firstCol = chunkCol * MapChunk.SIZE;
+		int height = Math.min( MapChunk.SIZE, rows - firstRow );
+		int width = Math.min( MapChunk.SIZE, cols - firstCol );
+		
+		for ( int r = 0; r < height; r++ ) {			// Read the part of each row that lies in the chunk
+			file.seek( rowOffsets[ firstRow + r ] + firstCol );
+			file.readFully( rowBuffer, 0, width );
+			System.arraycopy( rowBuffer, 0, tiles, r * MapChunk.SIZE, width );
+		}
+	}
+	
+	@Override
+	public boolean hasRevealed() {
+		return false;				// Textfiles only hold tiles
+	}
+	
+	@Override
+	public void readRevealed( int chunkRow, int chunkCol, long[] revealed ) {
+		// Nothing is revealed in a freshly loaded textfile
+	}
+	
+	@Override
+	public long countRevealed() {
+		return 0;
+	}
+	
+	@Override
+	public void close() throws IOException {
+		file.close();
+	}
+}
@@ -1,7 +1,3 @@
-import java.awt.Color;
-import java.util.Random;
-import javax.swing.JLabel;
-
 /**
  * A Warlock decorator for an Enemy
  * 
@@ -9,8 +5,6 @@ import javax.swing.JLabel;
  *
  */
 public class Warlock extends Decorator implements Magical {
-	private Random rng;
-	
 	/**
 	 * Constructs a Warlock object with the given Enemy.
 	 * For every Warlock decorator on the Enemy, increases max HP by 1 and allows another attack.
@@ -19,7 +13,6 @@ public class Warlock extends Decorator implements Magical {
 	 */
 	public Warlock( Enemy e ) {
 			super( e, e.getName() + " Warlock", e.getMaxHP() + 1 );
-			rng = new Random();
 	}
 	
 	/**
@@ -28,7 +21,7 @@ public class Warlock extends Decorator implements Magical {
 	 */
 	@Override
 	public int magicMissile() {
-		return ( rng.nextInt( 5 ) + 1 ) * this.getLevel();
+		return ( GameRandom.current().nextInt( 5 ) + 1 ) * this.getLevel();
 	}
 
 	/**
@@ -37,7 +30,7 @@ public class Warlock extends Decorator implements Magical {
 	 */
 	@Override
 	public int fireball() {
-		return ( rng.nextInt( 6 ) + 1 ) * this.getLevel();
+		return ( GameRandom.current().nextInt( 6 ) + 1 ) * this.getLevel();
 	}
 
 	/**
@@ -46,7 +39,7 @@ public class Warlock extends Decorator implements Magical {
 	 */
 	@Override
 	public int thunderclap() {
-		return ( rng.nextInt( 7 ) + 1 ) * this.getLevel();
+		return ( GameRandom.current().nextInt( 7 ) + 1 ) * this.getLevel();
 	}
 
 	/**
@@ -65,11 +58,11 @@ public class Warlock extends Decorator implements Magical {
 	public int attack( Entity e ) {
 		int carriedDamage = super.attack( e );		// Call the superconstructor's attack method and set the output to a variable
 		int decoratorDamage = 0; 					// Damage of this current attack
-		int attackType = rng.nextInt( 100 ) + 1;	//Generates a random number in the range of [1,100] which we use to determine the type of attack.
+		int attackType = GameRandom.current().nextInt( 100 ) + 1;	//Generates a random number in the range of [1,100] which we use to determine the type of attack.
 		
 		//If 1 < attackType <= 40, then MagicalEnemy does a regular attack.
 		if ( ( attackType > 1 ) && ( attackType <= 40 ) ) {
-			decoratorDamage += ( rng.nextInt( 4 ) + 1 ) * this.getLevel();		//Generates a Random number in the range of [1,4] and multiplies it by MagicalEnemy level to get attack damage.
+			decoratorDamage += ( GameRandom.current().nextInt( 4 ) + 1 ) * this.getLevel();		//Generates a Random number in the range of [1,4] and multiplies it by MagicalEnemy level to get attack damage.
 			
 		//If 40 < attackType <= 70, then MagicalEnemy does a Magic Missile attack.
 		} else if (attackType > 40 && attackType <= 70) {
@@ -88,17 +81,14 @@ public class Warlock extends Decorator implements Magical {
 	}
 	
 	/**
-	 * Attacks the Hero and writes the damage to a JLabel.
+	 * Describes the attack, counting one hit for every level of the target.
 	 * 
 	 * @param e			The target of the attack.
-	 * @return			The constructed JLabel that displays the attack info.
+	 * @param damage		The damage that was dealt.
+	 * @return			The text describing the attack.
 	 */
 	@Override
-	public JLabel combatTurn( Entity e ) {
-		JLabel returnedLabel = new JLabel( "<html><center>The enemy hits you " + e.getLevel() + " times for " + attack( e ) + " damage.</center></html>" );
-		returnedLabel.setBounds( 20, 70, 220, 30 );
-		returnedLabel.setForeground( Color.WHITE );
-		
-		return returnedLabel;
+	public String describeAttack( Entity e, int damage ) {
+		return "The enemy hits you " + e.getLevel() + " times for " + damage + " damage.";
 	}
 }
\ No newline at end of file
@@ -1,7 +1,3 @@
-import java.awt.Color;
-import java.util.Random;
-import javax.swing.JLabel;
-
 /**
  * Concrete Decorator for an Enemy.
  * Increases max HP by 2 and allows for an extra attack.
@@ -27,26 +23,22 @@ public class Warrior extends Decorator {
 	@Override
 	public int attack( Entity e ) {
 		int carriedDamage = super.attack( e );
-		Random random = new Random();
 		
-		int decoratorDamage = ( random.nextInt( 4 ) + 1 ) * this.getLevel();	//Generates a Random number in the range of [1,4] and multiplies it by Enemy's level to get attack damage.
+		int decoratorDamage = ( GameRandom.current().nextInt( 4 ) + 1 ) * this.getLevel();	//Generates a Random number in the range of [1,4] and multiplies it by Enemy's level to get attack damage.
 		e.takeDamage( decoratorDamage );			// Deal random damage to the target.
 		
 		return decoratorDamage + carriedDamage;
 	}
 
 	/**
-	 * Attacks the Hero and writes the damage to a JLabel.
+	 * Describes the attack, counting one hit for every level of the target.
 	 * 
 	 * @param e			The target of the attack.
-	 * @return			The constructed JLabel that displays the attack info.
+	 * @param damage		The damage that was dealt.
+	 * @return			The text describing the attack.
 	 */
 	@Override
-	public JLabel combatTurn( Entity e ) {
-		JLabel returnedLabel = new JLabel( "<html><center>The enemy hits you " + e.getLevel() + " times for " + attack( e ) + " damage.</center></html>" );
-		returnedLabel.setBounds( 20, 70, 220, 30 );
-		returnedLabel.setForeground( Color.WHITE );
-		
-		return returnedLabel;
+	public String describeAttack( Entity e, int damage ) {
+		return "The enemy hits you " + e.getLevel() + " times for " + damage + " damage.";
 	}
 }
\ No newline at end of file
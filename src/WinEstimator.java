@@ -0,0 +1,385 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
+
+/**
+ * Estimates the Hero's chance of winning a fight with each action they could take next, by trying every action on
+ * thousands of copies of the fight on a fork-join pool and playing each copy to its end.
+ * Running away isn't estimated: it always succeeds and ends the fight with neither side dead, so it has no chance of
+ * winning or losing to show.
+ * The estimate is worked out in rounds of ROLLOUTS_PER_ROUND fights per action, and handed to a listener after every
+ * round, so it starts rough within milliseconds and sharpens until ROUNDS rounds were played or it is cancelled.
+ * Nothing ever waits for it: start returns at once, and a cancelled estimator stops within a fight.
+ * 
+ * After the action being tried, every copy is played on the way a careful player would: Thunderclap, the strongest
+ * attack, drinking a Health Potion whenever the Hero falls below a third of their max HP.
+ * Fight number i of an action always rolls with the same stream of the estimator's GameRandom, so an estimate is the
+ * same for the same seed however the fights are spread across threads.
+ * 
+ * Usage: java WinEstimator [level] [seed]
+ * Estimates the chances of a new Hero of the given level against a random Enemy of that level and prints every round.
+ * 
+ * @author agent 2026
+ */
+public class WinEstimator {
+	/**
+	 * The number of fights played for each action in every round.
+	 */
+	public static final int ROLLOUTS_PER_ROUND = 1000;
+	/**
+	 * The number of rounds before the estimate is final.
+	 */
+	public static final int ROUNDS = 20;
+	/**
+	 * The number of fights one task plays before it stops splitting the work.
+	 */
+	private static final int ROLLOUTS_PER_TASK = 250;
+	
+	/** The fight to estimate, which is only ever copied. */
+	private final Combat fight;
+	/** Chooses the Hero's actions after the one being tried. */
+	private final CombatPolicy followUp;
+	/** Provides the stream each fight rolls with. */
+	private final GameRandom random;
+	/** Receives every estimate as it is made. */
+	private final Consumer<Estimate> listener;
+	/** Whether the estimate was cancelled. */
+	private volatile boolean cancelled;
+	
+	/**
+	 * Creates an estimator that hasn't started yet.
+	 * 
+	 * @param fight				The fight to estimate, which is only ever copied.
+	 * @param random			Provides the stream each fight rolls with.
+	 * @param listener			Receives every estimate, on a thread of the pool.
+	 */
+	private WinEstimator( Combat fight, GameRandom random, Consumer<Estimate> listener ) {
+		this.fight = fight;
+		this.followUp = CombatPolicy.potionBelow( fight.getHero().getMaxHP() / 3, CombatPolicy.ALWAYS_THUNDERCLAP );
+		this.random = random;
+		this.listener = listener;
+	}
+	
+	/**
+	 * Starts estimating a fight on the common fork-join pool with a random seed.
+	 * 
+	 * @param fight				The fight to estimate, such as one from GameEngine.copyCombat. It is not changed.
+	 * @param listener			Receives every estimate, on a thread of the pool, until the estimator is cancelled.
+	 * @return					The estimator, for cancelling it.
+	 */
+	public static WinEstimator start( Combat fight, Consumer<Estimate> listener ) {
+		return start( fight, listener, ForkJoinPool.commonPool(), new GameRandom( GameRandom.getInstance().split().nextLong() ) );
+	}
+	
+	/**
+	 * Starts estimating a fight.
+	 * 
+	 * @param fight				The fight to estimate. It is not changed.
+	 * @param listener			Receives every estimate, on a thread of the pool, until the estimator is cancelled.
+	 * @param pool				The pool to play the fights on.
+	 * @param random			Provides the stream each fight rolls with.
+	 * @return					The estimator, for cancelling it.
+	 */
+	public static WinEstimator start( Combat fight, Consumer<Estimate> listener, ForkJoinPool pool, GameRandom random ) {
+		if ( fight.getOutcome() != Combat.Outcome.ONGOING ) {
+			throw new IllegalArgumentException( "The fight is already over: " + fight.getOutcome() );
+		}
+		ItemGenerator.getInstance();		// Load the item templates before the workers need them
+		WinEstimator estimator = new WinEstimator( fight, random, listener );
+		pool.execute( new Rounds( estimator ) );
+		return estimator;
+	}
+	
+	/**
+	 * Stops the estimate. No estimate is handed to the listener after this returns, except one it is already being given.
+	 */
+	public void cancel() {
+		cancelled = true;
+	}
+	
+	/**
+	 * Checks whether the estimate was cancelled.
+	 * 
+	 * @return					True once cancel was called.
+	 */
+	public boolean isCancelled() {
+		return cancelled;
+	}
+	
+	/**
+	 * Gets the actions to estimate: every action but running away and drinking a potion the Hero doesn't have.
+	 * 
+	 * @return					The actions.
+	 */
+	private List<CombatAction> actions() {
+		List<CombatAction> actions = new ArrayList<CombatAction>();
+		for ( CombatAction a : CombatAction.values() ) {
+			if ( a != CombatAction.RUN && ( a != CombatAction.POTION || fight.getHero().hasPotion() ) ) {
+				actions.add( a );
+			}
+		}
+		return actions;
+	}
+	
+	/**
+	 * Plays the rounds one after the other, handing the listener the combined estimate after each one.
+	 */
+	private static class Rounds extends RecursiveAction {
+		/** The version of the serialized form, which ForkJoinTask has; the task is never serialized. */
+		private static final long serialVersionUID = 1L;
+		
+		/** The estimator the rounds are played for. */
+		private final WinEstimator estimator;
+		
+		/**
+		 * Creates the task that plays every round.
+		 * 
+		 * @param estimator		The estimator the rounds are played for.
+		 */
+		private Rounds( WinEstimator estimator ) {
+			this.estimator = estimator;
+		}
+		
+		@Override
+		protected void compute() {
+			List<CombatAction> actions = estimator.actions();
+			long[] wins = new long[ CombatAction.values().length ];
+			long[] losses = new long[ wins.length ];
+			long played = 0;
+			for ( int round = 0; round < ROUNDS && !estimator.cancelled; round++ ) {
+				List<Rollouts> tasks = new ArrayList<Rollouts>();
+				for ( CombatAction a : actions ) {
+					long first = ( long )a.ordinal() * ROUNDS * ROLLOUTS_PER_ROUND + ( long )round * ROLLOUTS_PER_ROUND;
+					tasks.add( new Rollouts( estimator, a, first, first + ROLLOUTS_PER_ROUND ) );
+				}
+				ForkJoinTask.invokeAll( tasks );
+				if ( estimator.cancelled ) {
+					return;									// Some fights of the round were skipped, so it doesn't count
+				}
+				for ( Rollouts t : tasks ) {
+					long[] result = t.join();
+					wins[ t.action.ordinal() ] += result[ 0 ];
+					losses[ t.action.ordinal() ] += result[ 1 ];
+				}
+				played += ROLLOUTS_PER_ROUND;
+				estimator.listener.accept( new Estimate( actions, wins, losses, played, round == ROUNDS - 1 ) );
+			}
+		}
+	}
+	
+	/**
+	 * Splits a range of fights for one action in half until it is small enough to play, then plays it and counts the
+	 * fights won and lost.
+	 */
+	private static class Rollouts extends RecursiveTask<long[]> {
+		/** The version of the serialized form, which ForkJoinTask has; the task is never serialized. */
+		private static final long serialVersionUID = 1L;
+		
+		/** The estimator the fights are played for. */
+		private final WinEstimator estimator;
+		/** The action tried first in every fight. */
+		private final CombatAction action;
+		/** The number of the first fight this task plays. */
+		private final long first;
+		/** The number after the last fight this task plays. */
+		private final long end;
+		
+		/**
+		 * Creates a task for the given range of fights.
+		 * 
+		 * @param estimator		The estimator the fights are played for.
+		 * @param action		The action to try first in every fight.
+		 * @param first			The number of the first fight to play.
+		 * @param end			The number after the last fight to play.
+		 */
+		private Rollouts( WinEstimator estimator, CombatAction action, long first, long end ) {
+			this.estimator = estimator;
+			this.action = action;
+			this.first = first;
+			this.end = end;
+		}
+		
+		@Override
+		protected long[] compute() {
+			if ( end - first > ROLLOUTS_PER_TASK ) {
+				long middle = first + ( end - first ) / 2;
+				Rollouts left = new Rollouts( estimator, action, first, middle );
+				Rollouts right = new Rollouts( estimator, action, middle, end );
+				left.fork();
+				long[] r = right.compute();
+				long[] l = left.join();
+				return new long[] { r[ 0 ] + l[ 0 ], r[ 1 ] + l[ 1 ] };
+			}
+			
+			long[] result = new long[ 2 ];
+			SplittableRandom previous = GameRandom.bind( null );
+			try {
+				for ( long i = first; i < end && !estimator.cancelled; i++ ) {
+					GameRandom.bind( estimator.random.stream( i ) );	// Each fight rolls with its own stream, wherever it runs
+					Combat c = new Combat( estimator.fight );
+					if ( c.act( action ) == Combat.Outcome.ONGOING ) {
+						c.fight( estimator.followUp );
+					}
+					if ( c.getOutcome() == Combat.Outcome.WON ) {
+						result[ 0 ]++;
+					} else if ( c.getOutcome() == Combat.Outcome.LOST ) {
+						result[ 1 ]++;
+					}
+				}
+			} finally {
+				GameRandom.bind( previous );					// Give the worker thread back the stream it had
+			}
+			return result;
+		}
+	}
+	
+	/**
+	 * The chances of each action after some number of fights per action. Estimates are never changed once made.
+	 * 
+	 * @author agent 2026
+	 */
+	public static final class Estimate {
+		/** The actions that were tried. */
+		private final List<CombatAction> actions;
+		/** The fights won after each action, by its ordinal. */
+		private final long[] wins;
+		/** The fights lost after each action, by its ordinal. */
+		private final long[] losses;
+		/** The number of fights played for each action. */
+		private final long rollouts;
+		/** Whether this is the last estimate. */
+		private final boolean last;
+		
+		/**
+		 * Creates an estimate from the counts so far, copying them.
+		 * 
+		 * @param actions		The actions that were tried.
+		 * @param wins			The fights won after each action, by its ordinal.
+		 * @param losses		The fights lost after each action, by its ordinal.
+		 * @param rollouts		The number of fights played for each action.
+		 * @param last			Whether this is the last estimate.
+		 */
+		private Estimate( List<CombatAction> actions, long[] wins, long[] losses, long rollouts, boolean last ) {
+			this.actions = actions;
+			this.wins = wins.clone();
+			this.losses = losses.clone();
+			this.rollouts = rollouts;
+			this.last = last;
+		}
+		
+		/**
+		 * Checks whether an action was tried, which every action but running away and drinking a potion the Hero doesn't have is.
+		 * 
+		 * @param action		The action.
+		 * @return				True if the action has chances.
+		 */
+		public boolean hasAction( CombatAction action ) {
+			return actions.contains( action );
+		}
+		
+		/**
+		 * Gets the chance of winning the fight by taking an action now.
+		 * 
+		 * @param action		An action that was tried.
+		 * @return				The fraction of fights won, from 0 to 1.
+		 */
+		public double getWinChance( CombatAction action ) {
+			return ( double )wins[ action.ordinal() ] / rollouts;
+		}
+		
+		/**
+		 * Gets the chance of dying in the fight after taking an action now.
+		 * 
+		 * @param action		An action that was tried.
+		 * @return				The fraction of fights lost, from 0 to 1.
+		 */
+		public double getLossChance( CombatAction action ) {
+			return ( double )losses[ action.ordinal() ] / rollouts;
+		}
+		
+		/**
+		 * Gets the action with the best chance of winning.
+		 * 
+		 * @return				The action.
+		 */
+		public CombatAction getBest() {
+			CombatAction best = actions.get( 0 );
+			for ( CombatAction a : actions ) {
+				if ( wins[ a.ordinal() ] > wins[ best.ordinal() ] ) {
+					best = a;
+				}
+			}
+			return best;
+		}
+		
+		/**
+		 * Gets the number of fights each chance was worked out from.
+		 * 
+		 * @return				The number of fights per action.
+		 */
+		public long getRollouts() {
+			return rollouts;
+		}
+		
+		/**
+		 * Checks whether this is the last estimate, after which the estimator stops.
+		 * 
+		 * @return				True for the estimate of the last round.
+		 */
+		public boolean isFinal() {
+			return last;
+		}
+		
+		/**
+		 * Returns the estimate as a String.
+		 * 
+		 * @return				The win chance of every action tried, and the number of fights per action.
+		 */
+		@Override
+		public String toString() {
+			StringBuilder s = new StringBuilder();
+			for ( CombatAction a : actions ) {
+				s.append( String.format( "%s %.1f%%  ", a, getWinChance( a ) * 100 ) );
+			}
+			return s.append( "(" ).append( rollouts ).append( " fights each)" ).toString();
+		}
+	}
+	
+	/**
+	 * Estimates a fight between a new Hero of the given level and a random Enemy of that level, printing every round.
+	 * 
+	 * @param args				The level and the seed, both optional.
+	 * @throws InterruptedException		If interrupted while waiting for the estimate.
+	 */
+	public static void main( String[] args ) throws InterruptedException {
+		int level = args.length > 0 ? Integer.parseInt( args[ 0 ] ) : 1;
+		GameRandom random = new GameRandom( args.length > 1 ? Long.parseLong( args[ 1 ] ) : System.nanoTime() );
+		
+		Hero hero = new Hero( "Simulated Hero", "" );
+		for ( int i = 1; i < level; i++ ) {		// Level the Hero the same way reaching a new floor does
+			hero.increaseLevel();
+			hero.increaseMaxHP( 10 );
+			hero.heal( 10 );
+		}
+		GameRandom.bind( random.stream( -1 ) );
+		Combat fight = new Combat( hero, EnemyGenerator.getInstance().generateEnemy( level ) );
+		System.out.println( "Seed: " + random.getSeed() );
+		System.out.println( fight.getEnemy().getName() + " hits for " + fight.getLastEnemyDamage() + ", Hero at " + hero.getHP() + "/" + hero.getMaxHP() + " HP" );
+		
+		long start = System.nanoTime();
+		CountDownLatch done = new CountDownLatch( 1 );
+		start( fight, e -> {
+			System.out.printf( "%6.1f ms  %s%n", ( System.nanoTime() - start ) / 1e6, e );
+			if ( e.isFinal() ) {
+				done.countDown();
+			}
+		}, ForkJoinPool.commonPool(), random );
+		done.await();
+	}
+}
@@ -0,0 +1,56 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests that edited floors are checked before they are published, and that closing a reloader takes its copies back
+ * and deletes them.
+ * 
+ * @author agent 2026
+ */
+public class ContentReloaderTest {
+	/** A floor number the game doesn't ship with, so publishing it can't disturb other tests. */
+	private static final int FLOOR = 90;
+	
+	/** The watched directory, emptied after every test. */
+	@TempDir
+	Path dir;
+	
+	/**
+	 * Reloads an edited floor, opens the copy and closes the reloader while the copy is still being read.
+	 */
+	@Test
+	public void closeDeletesCopies() throws IOException {
+		Files.writeString( dir.resolve( "Map" + FLOOR + ".txt" ), "snnn\nnmin\nnnnf\n", StandardCharsets.US_ASCII );
+		ContentReloader reloader = new ContentReloader( dir.toString(), "ItemList.txt" );
+		String copy;
+		Map map = new Map();
+		try {
+			assertTrue( reloader.reload( "Map" + FLOOR + ".txt" ) );
+			copy = Map.floorFile( FLOOR );
+			assertNotEquals( dir.resolve( "Map" + FLOOR + ".txt" ).toString(), copy );
+			assertTrue( new File( copy ).isFile() );
+			
+			Files.writeString( dir.resolve( "Map" + FLOOR + ".txt" ), "snnn\nnmin\nnnnx\n", StandardCharsets.US_ASCII );
+			assertFalse( reloader.reload( "Map" + FLOOR + ".txt" ) );
+			assertEquals( copy, Map.floorFile( FLOOR ), "a floor that failed its checks was published" );
+			
+			map.loadMap( FLOOR );
+		} finally {
+			reloader.close();
+		}
+		
+		assertFalse( new File( copy ).exists(), "the copy was kept" );
+		assertFalse( new File( copy ).getParentFile().exists(), "the copies' directory was kept" );
+		assertFalse( Map.hasFloorFile( FLOOR ), "the copy is still published" );
+		assertEquals( 'f', map.getTile( 2, 3 ), "the open floor lost its tiles" );
+		map.close();
+	}
+}
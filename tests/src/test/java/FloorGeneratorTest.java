@@ -0,0 +1,158 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.awt.Point;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that FloorGenerator makes the same valid floor every time from the same seed, whichever order its chunks are
+ * read in.
+ * 
+ * @author agent 2026
+ */
+public class FloorGeneratorTest {
+	/**
+	 * Reads every tile of a generated floor, a chunk at a time.
+	 * 
+	 * @param floor				The generator.
+	 * @return					The tiles, row by row.
+	 */
+	private static char[][] tiles( FloorGenerator floor ) {
+		char[][] tiles = new char[ floor.getRows() ][ floor.getCols() ];
+		byte[] chunk = new byte[ MapChunk.SIZE * MapChunk.SIZE ];
+		for ( int chunkRow = 0; chunkRow * MapChunk.SIZE < floor.getRows(); chunkRow++ ) {
+			for ( int chunkCol = 0; chunkCol * MapChunk.SIZE < floor.getCols(); chunkCol++ ) {
+				floor.readChunk( chunkRow, chunkCol, chunk );
+				for ( int r = chunkRow * MapChunk.SIZE; r < Math.min( floor.getRows(), ( chunkRow + 1 ) * MapChunk.SIZE ); r++ ) {
+					for ( int c = chunkCol * MapChunk.SIZE; c < Math.min( floor.getCols(), ( chunkCol + 1 ) * MapChunk.SIZE ); c++ ) {
+						tiles[ r ][ c ] = ( char )chunk[ ( r % MapChunk.SIZE ) * MapChunk.SIZE + c % MapChunk.SIZE ];
+					}
+				}
+			}
+		}
+		return tiles;
+	}
+	
+	/**
+	 * Makes the same floor twice from the same seed and level, and another floor from another seed.
+	 */
+	@Test
+	public void sameSeedMakesSameFloor() {
+		for ( int level = 1; level <= 60; level += 7 ) {
+			assertArrayEquals( tiles( FloorGenerator.forLevel( 42, level ) ), tiles( FloorGenerator.forLevel( 42, level ) ), "level " + level );
+		}
+		assertFalse( java.util.Arrays.deepEquals( tiles( FloorGenerator.forLevel( 42, 40 ) ), tiles( FloorGenerator.forLevel( 43, 40 ) ) ) );
+	}
+	
+	/**
+	 * Reads the chunks of a floor spanning several of them in two orders and compares the tiles.
+	 */
+	@Test
+	public void chunksDontDependOnReadOrder() {
+		FloorGenerator floor = new FloorGenerator( 9, 150, 70, 0.4, 0.1, 0.02 );
+		int chunkRows = ( floor.getRows() - 1 ) / MapChunk.SIZE + 1;
+		int chunkCols = ( floor.getCols() - 1 ) / MapChunk.SIZE + 1;
+		byte[][] forward = new byte[ chunkRows * chunkCols ][ MapChunk.SIZE * MapChunk.SIZE ];
+		for ( int i = 0; i < forward.length; i++ ) {
+			floor.readChunk( i / chunkCols, i % chunkCols, forward[ i ] );
+		}
+		for ( int i = forward.length - 1; i >= 0; i-- ) {
+			byte[] backward = new byte[ MapChunk.SIZE * MapChunk.SIZE ];
+			floor.readChunk( i / chunkCols, i % chunkCols, backward );
+			assertArrayEquals( forward[ i ], backward, "chunk " + i );
+		}
+	}
+	
+	/**
+	 * Checks every floor has the start and its one stairs where the generator says, only rooms the game knows, and a
+	 * shortest route from the start to the stairs.
+	 */
+	@Test
+	public void floorsAreValid() {
+		for ( long seed = 0; seed < 20; seed++ ) {
+			int level = 1 + ( int )seed * 3;
+			FloorGenerator floor = FloorGenerator.forLevel( seed, level );
+			Point start = floor.getStart();
+			Point stairs = floor.getStairs();
+			assertNotEquals( start, stairs );
+			
+			char[][] tiles = tiles( floor );
+			int flights = 0;
+			for ( int r = 0; r < tiles.length; r++ ) {
+				for ( int c = 0; c < tiles[ r ].length; c++ ) {
+					assertTrue( "nmisf".indexOf( tiles[ r ][ c ] ) >= 0, "seed " + seed + " has " + tiles[ r ][ c ] + " at " + r + "," + c );
+					if ( tiles[ r ][ c ] == 'f' ) {
+						flights++;
+					}
+				}
+			}
+			assertEquals( 1, flights, "seed " + seed );
+			assertEquals( 's', tiles[ start.x ][ start.y ] );
+			assertEquals( 'f', tiles[ stairs.x ][ stairs.y ] );
+			
+			Map map = new Map();
+			map.loadMap( FloorGenerator.forLevel( seed, level ) );
+			List<Point> route = new PathFinder( map ).findPath( start, stairs, PathFinder.Passability.ANY );
+			assertNotNull( route, "seed " + seed + " has no route from the start to the stairs" );
+			assertEquals( Math.abs( stairs.x - start.x ) + Math.abs( stairs.y - start.y ), route.size() );
+			assertEquals( stairs, route.get( route.size() - 1 ) );
+			map.close();
+		}
+	}
+	
+	/**
+	 * Checks deeper floors are at least as big and as crowded as shallower ones.
+	 */
+	@Test
+	public void deeperFloorsGrow() {
+		int side = 0;
+		for ( int level = 1; level < 100; level++ ) {
+			FloorGenerator floor = FloorGenerator.forLevel( 1, level );
+			assertEquals( floor.getRows(), floor.getCols() );
+			assertTrue( floor.getRows() >= side );
+			side = floor.getRows();
+		}
+		assertEquals( 5, FloorGenerator.forLevel( 1, 1 ).getRows() );
+		
+		double crowded = 0;
+		for ( int level = 10; level <= 40; level += 10 ) {
+			double share = monsterShare( level );
+			assertEquals( Math.min( 0.5, 0.35 + 0.005 * level ), share, 0.02, "level " + level );
+			assertTrue( share >= crowded - 0.01, "level " + level + " holds fewer monsters than the one before" );
+			crowded = share;
+		}
+	}
+	
+	/**
+	 * Works out the share of monster rooms on the floors of a level, over several seeds.
+	 * 
+	 * @param level				The level.
+	 * @return					The share of rooms that hold a monster.
+	 */
+	private static double monsterShare( int level ) {
+		long monsters = 0;
+		long rooms = 0;
+		for ( long seed = 0; seed < 10; seed++ ) {
+			for ( char[] row : tiles( FloorGenerator.forLevel( seed, level ) ) ) {
+				for ( char tile : row ) {
+					monsters += tile == 'm' ? 1 : 0;
+					rooms++;
+				}
+			}
+		}
+		return ( double )monsters / rooms;
+	}
+	
+	/**
+	 * Refuses floors too small for a start and stairs, and densities that don't add up.
+	 */
+	@Test
+	public void refusesBadSettings() {
+		assertThrows( IllegalArgumentException.class, () -> new FloorGenerator( 1, 1, 1, 0.3, 0.1, 0.0 ) );
+		assertThrows( IllegalArgumentException.class, () -> new FloorGenerator( 1, 0, 5, 0.3, 0.1, 0.0 ) );
+		assertThrows( IllegalArgumentException.class, () -> new FloorGenerator( 1, 5, 5, 0.8, 0.3, 0.0 ) );
+		assertThrows( IllegalArgumentException.class, () -> new FloorGenerator( 1, 5, 5, -0.1, 0.1, 0.0 ) );
+		assertThrows( IllegalArgumentException.class, () -> new FloorGenerator( 1, 5, 5, Double.NaN, 0.1, 0.0 ) );
+	}
+}
@@ -0,0 +1,86 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests Inventory's linked slots against a plain list of the same Items.
+ * 
+ * @author agent 2026
+ */
+public class InventoryTest {
+	/** The Items the tests pick up, with repeated names and every ItemType but GOLD. */
+	private static final Item[] ITEMS = {
+			new Item( "Health Potion", 25, "", ItemType.POTION ),
+			new Item( "Sword", 10, "", ItemType.EQUIPMENT ),
+			new Item( "Shield", 6, "", ItemType.EQUIPMENT ),
+			new Item( "Elixir", 50, "", ItemType.POTION ) };
+	
+	/**
+	 * Adds and removes Items at random in every way Inventory allows, and compares it with a list after every change.
+	 */
+	@Test
+	public void matchesList() {
+		SplittableRandom random = new SplittableRandom( 14 );
+		Inventory inventory = new Inventory( 12 );
+		ArrayList<Item> model = new ArrayList<Item>();
+		for ( int step = 0; step < 20000; step++ ) {
+			int op = random.nextInt( 4 );
+			if ( op == 0 || model.isEmpty() ) {
+				Item i = ITEMS[ random.nextInt( ITEMS.length ) ];
+				assertEquals( model.size() < 12, inventory.add( i ) );
+				if ( model.size() < 12 ) {
+					model.add( i );
+				}
+			} else if ( op == 1 ) {
+				int index = random.nextInt( model.size() );
+				assertSame( model.remove( index ), inventory.remove( index ) );
+			} else if ( op == 2 ) {
+				ItemType type = random.nextBoolean() ? ItemType.POTION : ItemType.EQUIPMENT;
+				Item expected = null;
+				for ( int i = model.size() - 1; i >= 0 && expected == null; i-- ) {
+					if ( model.get( i ).getType() == type ) {
+						expected = model.remove( i );
+					}
+				}
+				assertSame( expected, inventory.remove( type ) );
+			} else {
+				String name = ITEMS[ random.nextInt( ITEMS.length ) ].getName();
+				Item expected = null;
+				for ( int i = 0; i < model.size() && expected == null; i++ ) {
+					if ( model.get( i ).getName().equals( name ) ) {
+						expected = model.remove( i );
+					}
+				}
+				assertSame( expected, inventory.find( name ) == null ? null : inventory.remove( name ) );
+			}
+			
+			assertEquals( model, inventory.asList(), "step " + step );
+			assertEquals( model.size(), inventory.size() );
+			for ( ItemType type : ItemType.values() ) {
+				assertEquals( model.stream().filter( i -> i.getType() == type ).count(), inventory.count( type ) );
+			}
+		}
+		assertEquals( model, new Inventory( inventory ).asList() );
+	}
+	
+	/**
+	 * Removes Items from the Hero by name, keeping equipment whose loss would kill them.
+	 */
+	@Test
+	public void heroRemovesByName() {
+		Hero hero = new Hero( "Player", "" );
+		assertTrue( hero.pickUpItem( ITEMS[ 1 ] ) );
+		assertTrue( hero.pickUpItem( ITEMS[ 0 ] ) );
+		int maxHP = hero.getMaxHP();
+		assertSame( ITEMS[ 1 ], hero.removeItem( "Sword" ) );
+		assertEquals( maxHP - 10, hero.getMaxHP() );
+		assertNull( hero.removeItem( "Sword" ) );
+		assertTrue( hero.hasPotion() );
+		assertSame( ITEMS[ 0 ], hero.removePotion() );
+		assertFalse( hero.hasPotion() );
+		assertEquals( 0, hero.getNumItems() );
+	}
+}
@@ -0,0 +1,145 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the OpenMetrics text that Metrics exports, and the buckets of LatencyHistogram behind its timers.
+ * 
+ * @author agent 2026
+ */
+public class MetricsTest {
+	/**
+	 * Gets the lines of a scrape that belong to one family.
+	 * 
+	 * @param scrape			The OpenMetrics text.
+	 * @param name				The name of the family.
+	 * @return					The lines, in order.
+	 */
+	private static String[] family( String scrape, String name ) {
+		return scrape.lines().filter( line -> line.startsWith( name ) || line.matches( "# [A-Z]+ " + name + " .*" ) ).toArray( String[]::new );
+	}
+	
+	/**
+	 * Gets the value at the end of a sample line.
+	 * 
+	 * @param line				The line.
+	 * @return					The value.
+	 */
+	private static double value( String line ) {
+		return Double.parseDouble( line.substring( line.lastIndexOf( ' ' ) + 1 ) );
+	}
+	
+	/**
+	 * Exports counters with their TYPE and HELP lines, the _total suffix and escaped labels.
+	 */
+	@Test
+	public void exportsCounters() {
+		Metrics metrics = Metrics.getInstance();
+		LongAdder plain = metrics.counter( "test_counter_things", "Things counted\nby the test" );
+		LongAdder labelled = metrics.counter( "test_counter_things", "Things counted\nby the test", "kind", "say \"hi\"" );
+		assertSame( plain, metrics.counter( "test_counter_things", "Things counted\nby the test" ) );
+		plain.add( 3 );
+		labelled.increment();
+		
+		String scrape = metrics.scrape();
+		assertTrue( scrape.endsWith( "# EOF\n" ) );
+		assertArrayEquals( new String[] {
+				"# TYPE test_counter_things counter",
+				"# HELP test_counter_things Things counted\\nby the test",
+				"test_counter_things_total 3",
+				"test_counter_things_total{kind=\"say \\\"hi\\\"\"} 1" }, family( scrape, "test_counter_things" ) );
+	}
+	
+	/**
+	 * Exports timers as histograms in seconds whose buckets only grow, end at +Inf with the count, and add up to the sum.
+	 */
+	@Test
+	public void exportsHistograms() {
+		LatencyHistogram timer = Metrics.getInstance().timer( "test_timer_seconds", "Time taken by the test", "step", "one" );
+		long[] durations = { 0, 500, 1024, 1025, 50_000, 2_000_000, 3_000_000_000L, 1L << 45 };
+		long sum = 0;
+		for ( long nanos : durations ) {
+			timer.record( nanos );
+			sum += nanos;
+		}
+		
+		String[] lines = family( Metrics.getInstance().scrape(), "test_timer_seconds" );
+		assertEquals( "# TYPE test_timer_seconds histogram", lines[ 0 ] );
+		assertEquals( "# HELP test_timer_seconds Time taken by the test", lines[ 1 ] );
+		double previous = 0;
+		double bound = 0;
+		int i = 2;
+		for ( ; lines[ i ].startsWith( "test_timer_seconds_bucket{step=\"one\",le=\"" ); i++ ) {
+			String le = lines[ i ].substring( lines[ i ].indexOf( "le=\"" ) + 4, lines[ i ].indexOf( "\"}" ) );
+			double count = value( lines[ i ] );
+			assertTrue( count >= previous, lines[ i ] );
+			previous = count;
+			if ( le.equals( "+Inf" ) ) {
+				i++;
+				break;
+			}
+			double seconds = Double.parseDouble( le );
+			assertTrue( seconds > bound, lines[ i ] );
+			bound = seconds;
+			long under = java.util.Arrays.stream( durations ).filter( d -> d < seconds * 1e9 ).count();
+			assertEquals( under, count, lines[ i ] );
+		}
+		assertEquals( durations.length, previous, "the +Inf bucket counts everything" );
+		assertEquals( "test_timer_seconds_count{step=\"one\"} " + durations.length, lines[ i ] );
+		assertEquals( sum / 1e9, value( lines[ i + 1 ] ), 1e-9 );
+		assertTrue( lines[ i + 1 ].startsWith( "test_timer_seconds_sum{step=\"one\"} " ) );
+		assertEquals( i + 2, lines.length );
+	}
+	
+	/**
+	 * Refuses names OpenMetrics doesn't allow and labels without values.
+	 */
+	@Test
+	public void refusesBadNames() {
+		assertThrows( IllegalArgumentException.class, () -> Metrics.getInstance().counter( "test-dash", "Bad" ) );
+		assertThrows( IllegalArgumentException.class, () -> Metrics.getInstance().timer( "9_seconds", "Bad" ) );
+		assertThrows( IllegalArgumentException.class, () -> Metrics.getInstance().counter( "test_odd_labels", "Bad", "kind" ) );
+	}
+	
+	/**
+	 * Puts every duration in the bucket whose bounds hold it, with buckets no wider than 1 / SUB_BUCKETS of their value.
+	 */
+	@Test
+	public void bucketsHoldTheirDurations() {
+		for ( int b = 0; b < LatencyHistogram.BUCKETS - 1; b++ ) {
+			long low = LatencyHistogram.lowerBound( b );
+			long high = LatencyHistogram.lowerBound( b + 1 );
+			assertTrue( high > low, "bucket " + b );
+			assertEquals( b, LatencyHistogram.bucketOf( low ) );
+			assertEquals( b, LatencyHistogram.bucketOf( high - 1 ) );
+			assertTrue( ( high - low ) * LatencyHistogram.SUB_BUCKETS <= Math.max( LatencyHistogram.SUB_BUCKETS, low ), "bucket " + b );
+		}
+		assertEquals( LatencyHistogram.BUCKETS - 1, LatencyHistogram.bucketOf( LatencyHistogram.MAX_NANOS + 1 ) );
+		assertEquals( LatencyHistogram.BUCKETS - 1, LatencyHistogram.bucketOf( Long.MAX_VALUE ) );
+		for ( int bit = 0; bit <= LatencyHistogram.MAX_BIT; bit++ ) {
+			assertEquals( 1L << bit, LatencyHistogram.lowerBound( LatencyHistogram.bucketOf( 1L << bit ) ), "powers of two start a bucket" );
+		}
+	}
+	
+	/**
+	 * Counts, sums and ranks recorded durations, treating negative ones as 0.
+	 */
+	@Test
+	public void recordsDurations() {
+		LatencyHistogram h = new LatencyHistogram();
+		assertEquals( 0, h.getPercentile( 0.5 ) );
+		for ( int i = 1; i <= 1000; i++ ) {
+			h.record( i * 1000L );
+		}
+		h.record( -5 );
+		assertEquals( 1001, h.getCount() );
+		assertEquals( 500_500_000L, h.getSum() );
+		assertEquals( 1_000_000L, h.getMax() );
+		assertEquals( 1, h.getBucket( 0 ) );
+		long median = h.getPercentile( 0.5 );
+		assertTrue( median >= 500_000 && median <= 500_000 * ( 1 + 1.0 / LatencyHistogram.SUB_BUCKETS ), "median " + median );
+		assertEquals( 1_000_000L, h.getPercentile( 1.0 ) );
+	}
+}
@@ -0,0 +1,282 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.awt.Point;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests PathFinder's routes and distance fields against a plain breadth-first search over the whole floor, and that it
+ * only searches its bounded area.
+ * 
+ * @author agent 2026
+ */
+public class PathFinderTest {
+	/** A directory for the test floors, emptied after every test. */
+	@TempDir
+	Path dir;
+	/** The Map of the current test. */
+	private Map map;
+	
+	/**
+	 * Closes the Map of the test.
+	 */
+	@AfterEach
+	public void close() {
+		if ( map != null ) {
+			map.close();
+		}
+	}
+	
+	/**
+	 * Writes a floor of empty rooms with the start in the top left corner and the given rooms set, and loads it.
+	 * 
+	 * @param rows				The number of rows.
+	 * @param cols				The number of columns.
+	 * @param rooms				Pairs of a location and its tile character.
+	 * @return					The loaded Map.
+	 */
+	private Map floor( int rows, int cols, Object... rooms ) throws IOException {
+		char[][] tiles = new char[ rows ][ cols ];
+		for ( char[] row : tiles ) {
+			java.util.Arrays.fill( row, 'n' );
+		}
+		tiles[ 0 ][ 0 ] = 's';
+		for ( int i = 0; i < rooms.length; i += 2 ) {
+			Point p = ( Point )rooms[ i ];
+			tiles[ p.x ][ p.y ] = ( Character )rooms[ i + 1 ];
+		}
+		StringBuilder text = new StringBuilder( rows * ( cols + 1 ) );
+		for ( char[] row : tiles ) {
+			text.append( row ).append( '\n' );
+		}
+		Path file = dir.resolve( "floor.txt" );
+		Files.writeString( file, text, StandardCharsets.US_ASCII );
+		map = new Map();
+		map.loadMap( file.toString() );
+		return map;
+	}
+	
+	/**
+	 * Finds the number of steps from a room to the nearest room of a kind over the whole floor, one room at a time.
+	 * 
+	 * @param from				The starting room.
+	 * @param target			The tile character of the rooms to measure to, or 0 to measure to goal.
+	 * @param goal				The room to measure to when target is 0.
+	 * @param explored			True to cross, and count as targets, only revealed rooms.
+	 * @return					The number of steps, or -1 if none can be reached.
+	 */
+	private int reference( Point from, char target, Point goal, boolean explored ) {
+		int rows = map.getRows();
+		int cols = map.getCols();
+		int[] dist = new int[ rows * cols ];
+		java.util.Arrays.fill( dist, -1 );
+		ArrayDeque<Point> queue = new ArrayDeque<Point>();
+		dist[ from.x * cols + from.y ] = 0;
+		queue.add( from );
+		while ( !queue.isEmpty() ) {
+			Point p = queue.poll();
+			int d = dist[ p.x * cols + p.y ];
+			if ( target == 0 ? p.equals( goal ) : map.getTile( p.x, p.y ) == target && ( !explored || map.isRevealed( p.x, p.y ) ) ) {
+				return d;
+			}
+			for ( Point n : new Point[] { new Point( p.x - 1, p.y ), new Point( p.x + 1, p.y ), new Point( p.x, p.y - 1 ), new Point( p.x, p.y + 1 ) } ) {
+				if ( n.x >= 0 && n.x < rows && n.y >= 0 && n.y < cols && dist[ n.x * cols + n.y ] < 0
+						&& ( !explored || map.isRevealed( n.x, n.y ) ) ) {
+					dist[ n.x * cols + n.y ] = d + 1;
+					queue.add( n );
+				}
+			}
+		}
+		return -1;
+	}
+	
+	/**
+	 * Checks a route is made of single steps from the start and ends at the destination.
+	 * 
+	 * @param from				The start.
+	 * @param to				The destination.
+	 * @param route				The route.
+	 */
+	private static void assertRoute( Point from, Point to, List<Point> route ) {
+		Point at = from;
+		for ( Point next : route ) {
+			assertEquals( 1, Math.abs( next.x - at.x ) + Math.abs( next.y - at.y ), "a step from " + at + " to " + next );
+			at = next;
+		}
+		assertEquals( to, at );
+	}
+	
+	/**
+	 * Finds routes across a floor where every room may be crossed, which are as long as the Manhattan distance.
+	 */
+	@Test
+	public void openFloorRoutesAreManhattan() throws IOException {
+		floor( 100, 90 );
+		PathFinder finder = new PathFinder( map );
+		SplittableRandom random = new SplittableRandom( 1 );
+		for ( int i = 0; i < 200; i++ ) {
+			Point from = new Point( random.nextInt( 100 ), random.nextInt( 90 ) );
+			Point to = new Point( random.nextInt( 100 ), random.nextInt( 90 ) );
+			int manhattan = Math.abs( from.x - to.x ) + Math.abs( from.y - to.y );
+			List<Point> astar = finder.findPath( from, to, PathFinder.Passability.ANY );
+			List<Point> bfs = finder.findPathBreadthFirst( from, to, PathFinder.Passability.ANY );
+			assertEquals( manhattan, astar.size() );
+			assertEquals( manhattan, bfs.size() );
+			assertRoute( from, to, astar );
+			assertRoute( from, to, bfs );
+		}
+	}
+	
+	/**
+	 * Reveals a maze of corridors a piece at a time and checks routes and distance fields through the revealed rooms
+	 * against a search of the whole floor after every piece, so fields that follow reveals stay right.
+	 */
+	@Test
+	public void exploredRoutesMatchFullSearch() throws IOException {
+		Point stairs = new Point( 150, 40 );
+		floor( 200, 180, stairs, 'f', new Point( 20, 170 ), 'i', new Point( 190, 5 ), 'i' );
+		PathFinder finder = new PathFinder( map );
+		SplittableRandom random = new SplittableRandom( 2 );
+		map.reveal( new Point( 0, 0 ) );
+		for ( int piece = 0; piece < 60; piece++ ) {
+			if ( random.nextBoolean() ) {
+				map.revealRect( random.nextInt( 200 ), random.nextInt( 180 ), 1, 1 + random.nextInt( 80 ) );
+			} else {
+				map.revealRect( random.nextInt( 200 ), random.nextInt( 180 ), 1 + random.nextInt( 80 ), 1 );
+			}
+			if ( piece == 30 ) {
+				map.reveal( stairs );
+			}
+			for ( int i = 0; i < 20; i++ ) {
+				Point from = new Point( random.nextInt( 200 ), random.nextInt( 180 ) );
+				Point to = new Point( random.nextInt( 200 ), random.nextInt( 180 ) );
+				if ( !map.isRevealed( from.x, from.y ) ) {
+					continue;
+				}
+				for ( char target : new char[] { 'f', 'i' } ) {
+					assertEquals( reference( from, target, null, true ), finder.distanceTo( target, from, PathFinder.Passability.EXPLORED ),
+							"piece " + piece + ", to " + target + " from " + from );
+				}
+				int expected = reference( from, ( char )0, to, true );
+				List<Point> route = finder.findPath( from, to, PathFinder.Passability.EXPLORED );
+				assertEquals( expected, route == null ? -1 : route.size(), "piece " + piece + ", " + from + " to " + to );
+				if ( route != null ) {
+					assertRoute( from, to, route );
+					assertEquals( expected, finder.findPathBreadthFirst( from, to, PathFinder.Passability.EXPLORED ).size() );
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Follows stepTowards and pathTo to the nearest room of a kind, and measures again after rooms change.
+	 */
+	@Test
+	public void followsFieldsAsRoomsChange() throws IOException {
+		Point near = new Point( 10, 10 );
+		Point far = new Point( 40, 60 );
+		floor( 70, 70, near, 'i', far, 'i' );
+		PathFinder finder = new PathFinder( map );
+		Point hero = new Point( 5, 3 );
+		
+		assertEquals( 12, finder.distanceTo( 'i', hero, PathFinder.Passability.ANY ) );
+		List<Point> route = finder.pathTo( 'i', hero, PathFinder.Passability.ANY );
+		assertRoute( hero, near, route );
+		
+		Point at = new Point( hero );
+		GameCommand step;
+		int steps = 0;
+		while ( ( step = finder.stepTowards( 'i', at, PathFinder.Passability.ANY ) ) != null ) {
+			switch ( step ) {
+				case NORTH: at.x--; break;
+				case SOUTH: at.x++; break;
+				case EAST: at.y++; break;
+				default: at.y--; break;
+			}
+			steps++;
+		}
+		assertEquals( near, at );
+		assertEquals( 12, steps );
+		
+		map.removeCharAtLoc( near );
+		assertEquals( 35 + 57, finder.distanceTo( 'i', hero, PathFinder.Passability.ANY ), "a removed target is forgotten" );
+		map.setItemRoom( new Point( 5, 4 ) );
+		assertEquals( 1, finder.distanceTo( 'i', hero, PathFinder.Passability.ANY ), "a new target is found" );
+		assertNull( finder.pathTo( 'f', hero, PathFinder.Passability.ANY ) );
+		assertEquals( -1, finder.distanceTo( 'i', hero, PathFinder.Passability.EXPLORED ) );
+	}
+	
+	/**
+	 * Searches only the chunks around the rooms asked about and the revealed ones, so the rest of a big floor is never
+	 * copied, and grows the area when a route leaves it.
+	 */
+	@Test
+	public void searchesBoundedArea() throws IOException {
+		int side = 20 * MapChunk.SIZE;
+		Point item = new Point( side - 3, side - 5 );
+		floor( side, side, item, 'i' );
+		PathFinder finder = new PathFinder( map );
+		Point start = map.findStart();
+		map.revealRadius( start, 2 );
+		
+		assertEquals( -1, finder.distanceTo( 'i', start, PathFinder.Passability.ANY ), "the item is outside of the area" );
+		assertTrue( finder.estimateMemory() < ( long )side * side, "the whole floor was copied: " + finder.estimateMemory() );
+		
+		List<Point> route = finder.findPath( start, item, PathFinder.Passability.ANY );
+		assertEquals( item.x + item.y, route.size() );
+		assertRoute( start, item, route );
+		assertEquals( item.x + item.y, finder.distanceTo( 'i', start, PathFinder.Passability.ANY ) );
+	}
+	
+	/**
+	 * Finds the stairs of a big floor from its start across ANY room, whether the floor is a text file, a binary copy of
+	 * it or generated, even though they lie far outside of the explored area.
+	 */
+	@Test
+	public void findsFarStairs() throws IOException {
+		int side = 16 * MapChunk.SIZE;
+		Point stairs = new Point( side - 7, side - 2 );
+		floor( side, side, stairs, 'f' );
+		String binary = dir.resolve( "floor" + BinaryMapSource.EXTENSION ).toString();
+		MapConverter.convert( map.getFile(), binary );
+		FloorGenerator generated = new FloorGenerator( 5, 1000, 1000, 0.4, 0.08, 0.02 );
+		
+		for ( int i = 0; i < 3; i++ ) {
+			Point at = stairs;
+			if ( i == 1 ) {
+				map.loadMap( binary );
+			} else if ( i == 2 ) {
+				at = generated.getStairs();
+				map.loadMap( generated );
+			}
+			Point start = map.findStart();
+			map.reveal( start );
+			assertEquals( at, map.getStairs() );
+			PathFinder finder = new PathFinder( map );
+			int steps = Math.abs( at.x - start.x ) + Math.abs( at.y - start.y );
+			assertEquals( steps, finder.distanceTo( 'f', start, PathFinder.Passability.ANY ), "floor " + i );
+			assertNotNull( finder.stepTowards( 'f', start, PathFinder.Passability.ANY ) );
+			assertEquals( -1, finder.distanceTo( 'f', start, PathFinder.Passability.EXPLORED ), "the stairs aren't revealed" );
+		}
+	}
+	
+	/**
+	 * Refuses rooms outside of the floor.
+	 */
+	@Test
+	public void refusesRoomsOffTheFloor() throws IOException {
+		floor( 10, 10 );
+		PathFinder finder = new PathFinder( map );
+		assertThrows( IndexOutOfBoundsException.class, () -> finder.findPath( new Point( 0, 0 ), new Point( 10, 0 ), PathFinder.Passability.ANY ) );
+		assertThrows( IndexOutOfBoundsException.class, () -> finder.distanceTo( 'f', new Point( -1, 3 ), PathFinder.Passability.ANY ) );
+	}
+}
@@ -0,0 +1,126 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Replays the logs of textfiles/replays and checks every checksum in them, and checks that a Recorder writes logs that
+ * replay.
+ * 
+ * @author agent 2026
+ */
+public class ReplayTest {
+	/** The directory of the replay corpus, relative to the root of the repository. */
+	private static final String CORPUS = "textfiles/replays";
+	
+	/** A directory for recorded logs, emptied after every test. */
+	@TempDir
+	Path dir;
+	
+	/**
+	 * Replays every log of the corpus to its end.
+	 * 
+	 * @return					One test per log.
+	 */
+	@TestFactory
+	public List<DynamicTest> corpusReplays() {
+		File[] logs = new File( CORPUS ).listFiles( ( d, name ) -> name.endsWith( ".dlog" ) );
+		assertNotNull( logs, CORPUS + " is missing" );
+		assertTrue( logs.length > 0, CORPUS + " holds no logs" );
+		List<DynamicTest> tests = new ArrayList<DynamicTest>();
+		for ( File f : logs ) {
+			tests.add( DynamicTest.dynamicTest( f.getName(), () -> {
+				InputLog log = InputLog.read( f.getPath() );
+				Replayer replay = new Replayer( log );
+				assertEquals( log.size(), replay.fastForward( Integer.MAX_VALUE ) );
+				assertTrue( replay.isFinished() );
+				assertEquals( log.getChecksumCount(), replay.getVerified() );
+			} ) );
+		}
+		return tests;
+	}
+	
+	/**
+	 * Records a game of random commands and replays the log.
+	 */
+	@Test
+	public void recordedLogReplays() throws IOException {
+		GameCommand[] choices = { GameCommand.NORTH, GameCommand.SOUTH, GameCommand.EAST, GameCommand.WEST,
+				GameCommand.PHYSICAL, GameCommand.FIREBALL, GameCommand.POTION, GameCommand.BUY_POTION, GameCommand.LEAVE_SHOP };
+		String path = dir.resolve( "game.dlog" ).toString();
+		long seed = 7;
+		GameSession session = new GameSession( 3, "Player", "Hi", new SplittableRandom( seed ) );
+		long end;
+		try ( InputLog.Recorder recorder = new InputLog.Recorder( path, seed, session ) ) {
+			SplittableRandom player = new SplittableRandom( 11 );
+			for ( int i = 0; i < 500 && !session.isOver(); i++ ) {
+				GameCommand command = choices[ player.nextInt( choices.length ) ];
+				recorder.record( command, 0 );
+				session.execute( command, 0 );
+				recorder.executed();
+			}
+			end = session.checksum();
+		}
+		
+		InputLog log = InputLog.read( path );
+		assertTrue( log.getChecksumCount() > 1 );
+		Replayer replay = new Replayer( log );
+		replay.fastForward( Integer.MAX_VALUE );
+		assertTrue( replay.isFinished() );
+		assertEquals( log.getChecksumCount(), replay.getVerified() );
+		assertEquals( end, replay.getSession().checksum() );
+	}
+	
+	/**
+	 * Keeps a command that never finished in the log, without a checksum after it, so replaying the log runs into the
+	 * same command.
+	 */
+	@Test
+	public void keepsUnfinishedCommand() throws IOException {
+		String path = dir.resolve( "crash.dlog" ).toString();
+		GameSession session = new GameSession( 3, "Player", "Hi", new SplittableRandom( 7 ) );
+		try ( InputLog.Recorder recorder = new InputLog.Recorder( path, 7, session ) ) {
+			recorder.record( GameCommand.EAST, 0 );
+			session.execute( GameCommand.EAST, 0 );
+			recorder.executed();
+			recorder.record( GameCommand.SOUTH, 0 );		// As if carrying it out had thrown
+			assertThrows( IllegalStateException.class, () -> recorder.record( GameCommand.WEST, 0 ) );
+		}
+		
+		InputLog log = InputLog.read( path );
+		assertEquals( 2, log.size() );
+		assertEquals( GameCommand.SOUTH, log.getCommand( 1 ) );
+		assertEquals( 1, log.getChecksumCount() );
+		Replayer replay = new Replayer( log );
+		assertEquals( 2, replay.fastForward( Integer.MAX_VALUE ) );
+	}
+	
+	/**
+	 * Stops a replay at the first step whose checksum doesn't match the log.
+	 */
+	@Test
+	public void detectsDivergence() {
+		InputLog log = new InputLog( 7, 3, "Player", "Hi" );
+		GameSession session = log.newSession();
+		log.addChecksum( 0, session.checksum() );
+		for ( GameCommand command : new GameCommand[] { GameCommand.EAST, GameCommand.SOUTH, GameCommand.WEST } ) {
+			log.add( command, 0 );
+		}
+		log.addChecksum( 2, 0x5EED );
+		
+		Replayer replay = new Replayer( log );
+		assertEquals( 1, replay.getVerified() );
+		assertTrue( replay.step() );
+		IllegalStateException e = assertThrows( IllegalStateException.class, replay::step );
+		assertTrue( e.getMessage().contains( "step 2" ), e.getMessage() );
+	}
+}
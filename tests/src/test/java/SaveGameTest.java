@@ -0,0 +1,123 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests that a saved session restores to one that goes on exactly like the original, and that a save is refused once
+ * the floor it was made on has changed.
+ * 
+ * @author agent 2026
+ */
+public class SaveGameTest {
+	/** The commands the random player picks from. */
+	private static final GameCommand[] CHOICES = { GameCommand.NORTH, GameCommand.SOUTH, GameCommand.EAST, GameCommand.WEST,
+			GameCommand.PHYSICAL, GameCommand.THUNDERCLAP, GameCommand.POTION, GameCommand.BUY_POTION, GameCommand.LEAVE_SHOP };
+	
+	/** A directory for floor copies, emptied after every test. */
+	@TempDir
+	Path dir;
+	
+	/**
+	 * Puts the first floor back to its shipped file, in case a test published a copy of it.
+	 */
+	@AfterEach
+	public void unpublish() {
+		Map.publishFloor( 1, "./textfiles/Map1.txt" );
+	}
+	
+	/**
+	 * Saves a session partway through a game, then plays the same commands on it and on the restored session.
+	 */
+	@Test
+	public void restoredSessionPlaysOnAlike() throws IOException {
+		for ( long seed = 1; seed <= 5; seed++ ) {
+			GameSession live = new GameSession( seed, "Player", "", new SplittableRandom( seed ) );
+			SplittableRandom player = new SplittableRandom( -seed );
+			for ( int i = 0; i < 300 && !live.isOver(); i++ ) {
+				live.execute( CHOICES[ player.nextInt( CHOICES.length ) ], 0 );
+			}
+			
+			byte[] save = SaveGame.toBytes( live );
+			GameSession restored = SaveGame.fromBytes( save );
+			assertEquals( live.checksum(), restored.checksum(), "seed " + seed + " right after restoring" );
+			assertArrayEquals( save, SaveGame.toBytes( restored ), "seed " + seed + " saved again" );
+			assertArrayEquals( save, SaveGame.toBytes( live ), "seed " + seed + " saving changed the session" );
+			
+			for ( int i = 0; i < 300 && !live.isOver(); i++ ) {
+				GameCommand command = CHOICES[ player.nextInt( CHOICES.length ) ];
+				assertEquals( live.execute( command, 0 ), restored.execute( command, 0 ) );
+				assertEquals( live.checksum(), restored.checksum(), "seed " + seed + " after " + i + " more commands" );
+			}
+			assertEquals( live.isOver(), restored.isOver() );
+		}
+	}
+	
+	/**
+	 * Plays the same commands on two sessions of the same seed, saving one of them after every command, and checks that
+	 * saving never changes what the session rolls.
+	 */
+	@Test
+	public void savingDoesNotChangeTheGame() throws IOException {
+		GameSession saved = new GameSession( 4, "Player", "", new SplittableRandom( 4 ) );
+		GameSession unsaved = new GameSession( 4, "Player", "", new SplittableRandom( 4 ) );
+		SplittableRandom player = new SplittableRandom( 40 );
+		for ( int i = 0; i < 400 && !unsaved.isOver(); i++ ) {
+			GameCommand command = CHOICES[ player.nextInt( CHOICES.length ) ];
+			SaveGame.toBytes( saved );
+			assertEquals( unsaved.execute( command, 0 ), saved.execute( command, 0 ) );
+			assertEquals( unsaved.checksum(), saved.checksum(), "after " + ( i + 1 ) + " commands" );
+		}
+	}
+	
+	/**
+	 * Restores a save after its floor was reloaded into a new file holding the same tiles.
+	 */
+	@Test
+	public void restoresOntoIdenticalCopy() throws IOException {
+		GameSession live = new GameSession( 1, "Player", "", new SplittableRandom( 1 ) );
+		byte[] save = SaveGame.toBytes( live );
+		
+		Path copy = dir.resolve( "Map1-copy.txt" );
+		Files.copy( Path.of( "textfiles/Map1.txt" ), copy );
+		Map.publishFloor( 1, copy.toString() );
+		assertEquals( live.checksum(), SaveGame.fromBytes( save ).checksum() );
+	}
+	
+	/**
+	 * Refuses a save once a tile of its floor has changed.
+	 */
+	@Test
+	public void refusesChangedFloor() throws IOException {
+		GameSession live = new GameSession( 1, "Player", "", new SplittableRandom( 1 ) );
+		byte[] save = SaveGame.toBytes( live );
+		
+		String floor = Files.readString( Path.of( "textfiles/Map1.txt" ), StandardCharsets.US_ASCII );
+		int i = floor.indexOf( 'm' );
+		Path changed = dir.resolve( "Map1-changed.txt" );
+		Files.writeString( changed, floor.substring( 0, i ) + 'n' + floor.substring( i + 1 ), StandardCharsets.US_ASCII );
+		Map.publishFloor( 1, changed.toString() );
+		
+		IOException e = assertThrows( IOException.class, () -> SaveGame.fromBytes( save ) );
+		assertTrue( e.getMessage().contains( "has changed" ), e.getMessage() );
+		assertFalse( Map.isFileOpen( changed.toString() ), "the refused floor was left open" );
+	}
+	
+	/**
+	 * Refuses data that isn't a save.
+	 */
+	@Test
+	public void refusesDamagedSave() throws IOException {
+		byte[] save = SaveGame.toBytes( new GameSession( 1, "Player", "", new SplittableRandom( 1 ) ) );
+		save[ 0 ] ^= 1;
+		assertThrows( IOException.class, () -> SaveGame.fromBytes( save ) );
+		assertThrows( IOException.class, () -> SaveGame.fromBytes( java.util.Arrays.copyOf( save, 10 ) ) );
+	}
+}